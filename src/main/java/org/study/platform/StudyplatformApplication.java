@@ -5,6 +5,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.study.platform.client.ClientLoginFrame;
 import org.study.platform.client.LoginFrame;
+import org.study.platform.service.PostReadStatusService;
+import org.study.platform.service.SearchService;
 import org.study.platform.service.UserService;
 import org.study.platform.service.RoomService;
 import org.study.platform.socket.SocketServer;
@@ -51,6 +53,11 @@ public class StudyplatformApplication {
     private static void startServerMode(String[] args) {
         ConfigurableApplicationContext context = SpringApplication.run(StudyplatformApplication.class, args);
 
+        // 읽음 색인은 첫 요청 전에 테이블에서 구성
+        context.getBean(PostReadStatusService.class).rebuildIndex();
+        // 검색 색인은 지난 종료 때 남긴 파일에서 (없거나 DB가 바뀌었으면 테이블에서)
+        context.getBean(SearchService.class).rebuildIndex();
+
         SocketServer socketServer = new SocketServer(context);
         socketServer.start();
 
@@ -3,6 +3,9 @@ package org.study.platform.client;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AssignmentManageDialog extends JDialog {
 
@@ -11,10 +14,16 @@ public class AssignmentManageDialog extends JDialog {
 
     private JTable submissionTable;
     private DefaultTableModel tableModel;
+    // 표의 각 행에 해당하는 제출물 필드 (상세 보기용, 페이지를 받을 때마다 덧붙임)
+    private final List<String[]> submissionRows = new ArrayList<>();
+    private ScrollPager submissionPager;
     private JTextArea contentArea;
     private JTextField scoreField;
     private JTextArea feedbackArea;
     private JButton gradeButton;
+    private JButton downloadButton;
+    // 선택한 제출물의 첨부파일 이름 (없으면 빈 문자열)
+    private String selectedFileName = "";
 
     public AssignmentManageDialog(JFrame parent, SocketClient socketClient, Long assignmentId, String assignmentTitle) {
         super(parent, "과제 관리 - " + assignmentTitle, true);
@@ -45,6 +54,9 @@ public class AssignmentManageDialog extends JDialog {
         submissionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane tableScroll = new JScrollPane(submissionTable);
         leftPanel.add(tableScroll, BorderLayout.CENTER);
+        submissionPager = new ScrollPager(tableScroll,
+                cursor -> socketClient.getSubmissionsPageAsync(assignmentId, ScrollPager.DEFAULT_PAGE_SIZE, cursor),
+                this::showSubmissions);
 
         JButton refreshButton = new JButton("새로고침");
         refreshButton.addActionListener(e -> loadSubmissions());
@@ -65,6 +77,12 @@ public class AssignmentManageDialog extends JDialog {
         contentArea.setLineWrap(true);
         JScrollPane contentScroll = new JScrollPane(contentArea);
         contentPanel.add(contentScroll, BorderLayout.CENTER);
+        downloadButton = new JButton("첨부파일 받기");
+        downloadButton.setEnabled(false);
+        downloadButton.addActionListener(e -> downloadSelectedFile());
+        JPanel downloadPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        downloadPanel.add(downloadButton);
+        contentPanel.add(downloadPanel, BorderLayout.SOUTH);
         rightPanel.add(contentPanel);
 
         rightPanel.add(Box.createVerticalStrut(15));
@@ -123,25 +141,27 @@ public class AssignmentManageDialog extends JDialog {
     }
 
     private void loadSubmissions() {
-        tableModel.setRowCount(0);
+        submissionPager.reload();
+    }
+
+    private void showSubmissions(List<String> records, boolean firstPage) {
+        if (firstPage) {
+            tableModel.setRowCount(0);
+            submissionRows.clear();
+        }
         try {
-            String response = socketClient.getSubmissions(assignmentId);
-            if (response == null) return;
-
-            String[] parts = response.split("\\|");
-            if (parts.length >= 2 && parts[1].equals("SUCCESS")) {
-                for (int i = 2; i < parts.length; i++) {
-                    String[] data = parts[i].split(":");
-                    if (data.length >= 8) {
-                        Object[] row = {
-                                Long.parseLong(data[0]),  // submissionId
-                                data[2],                   // submitterName
-                                data[5],                   // status
-                                data[6].isEmpty() ? "-" : data[6],  // score
-                                data[7]                    // submittedAt
-                        };
-                        tableModel.addRow(row);
-                    }
+            for (String record : records) {
+                String[] data = record.split(":");
+                if (data.length >= 8) {
+                    Object[] row = {
+                            Long.parseLong(data[0]),  // submissionId
+                            data[2],                   // submitterName
+                            data[5],                   // status
+                            data[6].isEmpty() ? "-" : data[6],  // score
+                            data[7]                    // submittedAt
+                    };
+                    tableModel.addRow(row);
+                    submissionRows.add(data);
                 }
             }
         } catch (Exception e) {
@@ -149,30 +169,47 @@ public class AssignmentManageDialog extends JDialog {
         }
     }
 
+    // 목록을 받을 때 저장해 둔 필드로 표시 (다시 요청하지 않음)
     private void loadSubmissionDetail(int row) {
-        try {
-            String response = socketClient.getSubmissions(assignmentId);
-            if (response == null) return;
-
-            String[] parts = response.split("\\|");
-            if (parts.length > row + 2) {
-                String[] data = parts[row + 2].split(":");
-                if (data.length >= 5) {
-                    String content = socketClient.decodeText(data[3]);
-                    String fileName = data.length >= 5 && !data[4].isEmpty() ?
-                            socketClient.decodeText(data[4]) : "";
-
-                    StringBuilder sb = new StringBuilder();
-                    sb.append("제출 내용:\n").append(content);
-                    if (!fileName.isEmpty()) {
-                        sb.append("\n\n첨부파일: ").append(fileName);
-                    }
-                    contentArea.setText(sb.toString());
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (row >= submissionRows.size()) return;
+        String[] data = submissionRows.get(row);
+        String content = socketClient.decodeText(data[3]);
+        String fileName = !data[4].isEmpty() ? socketClient.decodeText(data[4]) : "";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("제출 내용:\n").append(content);
+        if (!fileName.isEmpty()) {
+            sb.append("\n\n첨부파일: ").append(fileName);
         }
+        contentArea.setText(sb.toString());
+        selectedFileName = fileName;
+        downloadButton.setEnabled(!fileName.isEmpty());
+    }
+
+    private void downloadSelectedFile() {
+        int row = submissionTable.getSelectedRow();
+        if (row < 0 || selectedFileName.isEmpty()) return;
+
+        Long submissionId = (Long) tableModel.getValueAt(row, 0);
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(selectedFileName));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File target = chooser.getSelectedFile();
+
+        // 큰 파일도 화면이 멈추지 않도록 별도 스레드에서 받음
+        downloadButton.setEnabled(false);
+        new Thread(() -> {
+            boolean success = socketClient.downloadFile("SUBMISSION", submissionId, target);
+            SwingUtilities.invokeLater(() -> {
+                downloadButton.setEnabled(true);
+                if (success) {
+                    JOptionPane.showMessageDialog(this, "저장했습니다: " + target.getAbsolutePath(),
+                            "성공", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "첨부파일을 받지 못했습니다.", "오류", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }).start();
     }
 
     private void gradeSelectedSubmission() {
@@ -0,0 +1,113 @@
+package org.study.platform.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 클라이언트 쪽 캐시 (크기 제한, 가장 오래 조회되지 않은 항목부터 내보냄).
+ *
+ * 서버 알림(NEW_COMMENT, POST_DELETED 등)을 받으면 해당 항목을 지운다.
+ * 요청을 보낸 뒤 응답이 오기 전에 무효화가 있었으면 그 응답은 이미 오래된 것일 수 있으므로 넣지 않는다 (stamp 비교).
+ */
+public class ClientCache<K, V> {
+
+    private final int maxEntries;
+    private final LinkedHashMap<K, V> entries;
+    // 아래 필드는 모두 this로 동기화
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ClientCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries는 1 이상이어야 합니다: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > ClientCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // 캐시에 없으면 null
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    // 요청을 보내기 전에 받아 두고 put에 넘긴다
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    public synchronized void put(K key, V value, long stamp) {
+        if (invalidations != stamp) {
+            return;
+        }
+        entries.put(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * 캐시에 있으면 이미 완료된 future를 돌려준다 (네트워크 요청 없음).
+     * 없으면 fetcher로 요청하고, null이 아닌 결과만 캐시한다.
+     */
+    public CompletableFuture<V> getOrFetch(K key, Supplier<CompletableFuture<V>> fetcher) {
+        V cached = get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long stamp = stamp();
+        return fetcher.get().thenApply(value -> {
+            if (value != null) {
+                put(key, value, stamp);
+            }
+            return value;
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ClientCache{size=" + entries.size() + "/" + maxEntries + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
@@ -19,6 +19,8 @@ public class ClientMainFrame extends JFrame {
     private JLabel userInfoLabel;
 
     private SocketClient.MessageListener messageListener;
+    // 글 알림(안 읽은 수 변경)이 몰려도 방 목록은 한 번만 다시 읽는다
+    private final RefreshScheduler refresh = new RefreshScheduler(RefreshScheduler.DEFAULT_WINDOW_MS);
 
     public ClientMainFrame(SocketClient socketClient, Long userId, String nickname) {
         this.socketClient = socketClient;
@@ -49,7 +51,7 @@ public class ClientMainFrame extends JFrame {
         centerPanel.setBorder(BorderFactory.createTitledBorder("📚 스터디 방 목록"));
 
         // 테이블
-        String[] columnNames = {"방 ID", "방 이름", "방장", "생성일"};
+        String[] columnNames = {"방 ID", "방 이름", "방장", "생성일", "안 읽음"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -103,6 +105,7 @@ public class ClientMainFrame extends JFrame {
                 );
 
                 if (confirm == JOptionPane.YES_OPTION) {
+                    refresh.shutdown();
                     new Thread(() -> {
                         if (socketClient != null) {
                             socketClient.disconnect();
@@ -120,6 +123,9 @@ public class ClientMainFrame extends JFrame {
             SwingUtilities.invokeLater(() -> {
                 if (message.startsWith("NEW_ROOM:") || message.startsWith("ROOM_DELETED:")) {
                     loadRooms();
+                } else if (message.startsWith("POST_UPDATE:")) {
+                    // 다른 방에 새 글 - 안 읽은 수 갱신
+                    refresh.request("rooms", socketClient::getRooms, this::showRooms);
                 }
             });
         };
@@ -127,32 +133,16 @@ public class ClientMainFrame extends JFrame {
     }
 
     private void loadRooms() {
-        tableModel.setRowCount(0);
         try {
             String response = socketClient.getRooms();
 
             if (response == null) {
+                tableModel.setRowCount(0);
                 JOptionPane.showMessageDialog(this, "서버 응답 없음",
                         "오류", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-
-            String[] parts = response.split("\\|");
-
-            if (parts.length >= 2 && parts[1].equals("SUCCESS")) {
-                for (int i = 2; i < parts.length; i++) {
-                    String[] roomData = parts[i].split(":");
-                    if (roomData.length >= 5) {
-                        Object[] row = {
-                                Long.parseLong(roomData[0]),
-                                roomData[1],
-                                roomData[3],
-                                roomData[4]
-                        };
-                        tableModel.addRow(row);
-                    }
-                }
-            }
+            showRooms(response);
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "방 목록 로드 실패: " + ex.getMessage(),
                     "오류", JOptionPane.ERROR_MESSAGE);
@@ -160,6 +150,33 @@ public class ClientMainFrame extends JFrame {
         }
     }
 
+    // 행: 방ID:방이름:방장ID:방장닉네임:생성일:안 읽은 수 (생성일에도 ':'가 있으므로 안 읽은 수는 마지막 ':' 뒤)
+    private void showRooms(String response) {
+        if (response == null) {
+            return;
+        }
+        tableModel.setRowCount(0);
+        String[] parts = response.split("\\|");
+
+        if (parts.length >= 2 && parts[1].equals("SUCCESS")) {
+            for (int i = 2; i < parts.length; i++) {
+                String[] roomData = parts[i].split(":", 5);
+                if (roomData.length >= 5) {
+                    int last = roomData[4].lastIndexOf(':');
+                    int unread = Integer.parseInt(roomData[4].substring(last + 1));
+                    Object[] row = {
+                            Long.parseLong(roomData[0]),
+                            roomData[1],
+                            roomData[3],
+                            roomData[4].substring(0, last),
+                            unread > 0 ? unread : ""
+                    };
+                    tableModel.addRow(row);
+                }
+            }
+        }
+    }
+
     private void handleCreateRoom() {
         String roomName = JOptionPane.showInputDialog(this, "방 이름을 입력하세요:",
                 "방 만들기", JOptionPane.PLAIN_MESSAGE);
@@ -2,15 +2,23 @@ package org.study.platform.client;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.text.DefaultCaret;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class ClientRoomFrame extends JFrame {
 
+    // 검색 결과 최대 개수
+    private static final int SEARCH_LIMIT = 20;
+
     private SocketClient socketClient;
     private Long currentUserId;
     private String currentUserNickname;
@@ -24,11 +32,17 @@ public class ClientRoomFrame extends JFrame {
     private DefaultTableModel postTableModel;
     private JTextArea postContentArea;
     private JTextArea commentArea;
+    // 공지/게시글/댓글은 한 페이지씩 받고 스크롤하면 이어서 받음
+    private ScrollPager noticePager;
+    private ScrollPager postPager;
+    private ScrollPager commentPager;
     private JTextField commentField;
     private JButton writePostButton;
     private JButton deletePostButton;
     private JButton refreshButton;
     private JButton backButton;
+    private JTextField searchField;
+    private JButton searchButton;
     private JLabel roomInfoLabel;
     private JTextArea roomUsersArea;
     private JTextArea readStatusArea;
@@ -42,8 +56,14 @@ public class ClientRoomFrame extends JFrame {
     private Long selectedPostId;
     private Long selectedPostAuthorId;
     private boolean selectedPostHasAssignment;
+    // "댓글이 없습니다." 대신 실제 댓글이 표시되어 있는지
+    private boolean hasComments;
 
     private SocketClient.MessageListener messageListener;
+    // 방 접속자 목록 (입장 시 스냅샷 + 이후 변경분)
+    private final PresenceRoster roomRoster = new PresenceRoster();
+    // 알림으로 인한 다시 읽기는 모아서 EDT 밖에서 (읽음 알림은 공지 직후 수백 개씩 몰려옴)
+    private final RefreshScheduler refresh = new RefreshScheduler(RefreshScheduler.DEFAULT_WINDOW_MS);
 
     public ClientRoomFrame(SocketClient socketClient, Long userId, String nickname, Long roomId, String roomName) {
         this.socketClient = socketClient;
@@ -72,7 +92,11 @@ public class ClientRoomFrame extends JFrame {
         roomInfoLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         backButton = new JButton("← 메인으로");
+        searchField = new JTextField(15);
+        searchButton = new JButton("검색");
         JPanel topRightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        topRightPanel.add(searchField);
+        topRightPanel.add(searchButton);
         topRightPanel.add(backButton);
 
         topPanel.add(roomInfoLabel, BorderLayout.WEST);
@@ -99,6 +123,9 @@ public class ClientRoomFrame extends JFrame {
         noticeTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane noticeScroll = new JScrollPane(noticeTable);
         noticePanel.add(noticeScroll, BorderLayout.CENTER);
+        noticePager = new ScrollPager(noticeScroll,
+                cursor -> socketClient.getNoticesPageAsync(roomId, ScrollPager.DEFAULT_PAGE_SIZE, cursor),
+                this::showNotices);
 
         leftPanel.add(noticePanel, BorderLayout.NORTH);
 
@@ -117,6 +144,9 @@ public class ClientRoomFrame extends JFrame {
         postTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane postScroll = new JScrollPane(postTable);
         postListPanel.add(postScroll, BorderLayout.CENTER);
+        postPager = new ScrollPager(postScroll,
+                cursor -> socketClient.getGeneralPostsPageAsync(roomId, ScrollPager.DEFAULT_PAGE_SIZE, cursor),
+                this::showGeneralPosts);
 
         JPanel postButtonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         writePostButton = new JButton("글쓰기");
@@ -171,8 +201,13 @@ public class ClientRoomFrame extends JFrame {
         commentArea.setEditable(false);
         commentArea.setLineWrap(true);
         commentArea.setFont(new Font("Dialog", Font.PLAIN, 12));
+        // 다음 페이지를 덧붙여도 스크롤 위치를 유지 (끝으로 따라가면 계속 다음 페이지를 요청함)
+        ((DefaultCaret) commentArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
         JScrollPane commentScroll = new JScrollPane(commentArea);
         commentPanel.add(commentScroll, BorderLayout.CENTER);
+        commentPager = new ScrollPager(commentScroll,
+                cursor -> socketClient.getCommentsPageAsync(selectedPostId, ScrollPager.DEFAULT_PAGE_SIZE, cursor),
+                this::showComments);
 
         JPanel commentInputPanel = new JPanel(new BorderLayout(5, 5));
         commentField = new JTextField();
@@ -233,9 +268,15 @@ public class ClientRoomFrame extends JFrame {
             }
         });
 
+        // 검색 (Enter 또는 버튼)
+        searchField.addActionListener(e -> handleSearch());
+        searchButton.addActionListener(e -> handleSearch());
+
         writePostButton.addActionListener(e -> handleWritePost());
         deletePostButton.addActionListener(e -> handleDeletePost());
         refreshButton.addActionListener(e -> {
+            // 새로고침은 캐시를 거치지 않고 서버에서 다시 받는다
+            socketClient.clearCaches();
             loadNotices();
             loadGeneralPosts();
         });
@@ -262,6 +303,11 @@ public class ClientRoomFrame extends JFrame {
                 }
                 dispose();
             }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refresh.shutdown();
+            }
         });
     }
 
@@ -269,24 +315,20 @@ public class ClientRoomFrame extends JFrame {
         messageListener = message -> {
             SwingUtilities.invokeLater(() -> {
                 try {
-                    if (message.startsWith("NEW_POST:" + roomId)) {
-                        loadNotices();
-                        loadGeneralPosts();
-                    } else if (message.startsWith("POST_DELETED:" + roomId)) {
-                        loadNotices();
-                        loadGeneralPosts();
-                        postContentArea.setText("");
-                        commentArea.setText("");
-                        assignmentPanel.setVisible(false);
+                    if (message.startsWith("NEW_POST:" + roomId + ":")) {
+                        applyNewPost(PostEvent.parse(message));
+                    } else if (message.startsWith("POST_CHANGED:" + roomId + ":")) {
+                        applyPostChanged(PostEvent.parse(message));
+                    } else if (message.startsWith("POST_DELETED:" + roomId + ":")) {
+                        applyPostDeleted(Long.parseLong(message.split(":")[2]));
                     } else if (message.startsWith("NEW_COMMENT:") && selectedPostId != null) {
-                        String[] parts = message.split(":");
-                        if (parts.length >= 2 && parts[1].equals(selectedPostId.toString())) {
-                            loadComments(selectedPostId);
-                        }
+                        applyNewComment(message);
                     } else if (message.startsWith("POST_READ:") && selectedPostId != null) {
                         String[] parts = message.split(":");
                         if (parts.length >= 2 && parts[1].equals(selectedPostId.toString())) {
-                            loadReadStatus(selectedPostId);
+                            Long postId = selectedPostId;
+                            refresh.request("readStatus", () -> socketClient.getReadStatus(postId),
+                                    response -> showReadStatus(postId, response));
                         }
                     } else if (message.startsWith("ROOM_JOIN:" + roomId)) {
                         String[] parts = message.split(":");
@@ -298,8 +340,10 @@ public class ClientRoomFrame extends JFrame {
                         if (parts.length >= 4) {
                             roomUsersArea.append(parts[3] + " 님이 퇴장했습니다.\n");
                         }
-                    } else if (message.startsWith("ROOM_USERLIST:" + roomId)) {
+                    } else if (message.startsWith("ROOM_USERLIST:" + roomId + ":")) {
                         updateRoomUsers(message);
+                    } else if (message.startsWith("ROOM_PRESENCE:" + roomId + ":")) {
+                        applyRoomPresence(message);
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -309,38 +353,128 @@ public class ClientRoomFrame extends JFrame {
         socketClient.addMessageListener(messageListener);
     }
 
+    // 알림에 글 정보가 모두 들어 있으므로 목록을 다시 받지 않고 맨 위에 한 줄 추가 (최신순)
+    private void applyNewPost(PostEvent post) {
+        if (post == null) {
+            // 구버전 서버 - 필드가 모자라면 목록을 다시 받음
+            loadNotices();
+            loadGeneralPosts();
+            return;
+        }
+        if (post.isNotice()) {
+            if (findRow(noticeTableModel, post.getPostId()) < 0) {
+                noticeTableModel.insertRow(0, new Object[]{post.getPostId(), post.getTitle(), post.getAuthorName()});
+            }
+        } else if (findRow(postTableModel, post.getPostId()) < 0) {
+            postTableModel.insertRow(0, new Object[]{post.getPostId(), post.getTitle(), post.getAuthorName(),
+                    post.hasAssignment() ? "📋" : ""});
+        }
+    }
+
+    private void applyPostChanged(PostEvent post) {
+        if (post == null) return;
+        int row = findRow(postTableModel, post.getPostId());
+        if (row >= 0) {
+            postTableModel.setValueAt(post.hasAssignment() ? "📋" : "", row, 3);
+        }
+        // 글 상세 캐시는 SocketClient가 이미 지웠으므로 다시 받는다
+        if (post.getPostId().equals(selectedPostId)) {
+            onResponse(socketClient.getPostDetailAsync(selectedPostId), detail -> showPostDetail(post.getPostId(), detail));
+        }
+    }
+
+    private void applyPostDeleted(Long postId) {
+        int row = findRow(noticeTableModel, postId);
+        if (row >= 0) noticeTableModel.removeRow(row);
+        row = findRow(postTableModel, postId);
+        if (row >= 0) postTableModel.removeRow(row);
+        if (postId.equals(selectedPostId)) {
+            postContentArea.setText("");
+            commentArea.setText("");
+            readStatusArea.setText("");
+            assignmentPanel.setVisible(false);
+            selectedPostId = null;
+        }
+    }
+
+    private void applyNewComment(String message) {
+        CommentEvent comment = CommentEvent.parse(message);
+        if (comment == null) {
+            // 구버전 서버
+            String[] parts = message.split(":");
+            if (parts.length >= 2 && parts[1].equals(selectedPostId.toString())) {
+                loadComments(selectedPostId);
+            }
+            return;
+        }
+        // 아직 받지 않은 페이지가 있으면 새 댓글(가장 최근)은 마지막 페이지와 함께 온다
+        if (!comment.getPostId().equals(selectedPostId) || commentPager.hasMore()) return;
+        if (!hasComments) {
+            commentArea.setText("");
+            hasComments = true;
+        }
+        appendComment(comment.getAuthorName(), comment.getContent(), comment.getCreatedAt());
+    }
+
+    private static int findRow(DefaultTableModel model, Long postId) {
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (postId.equals(model.getValueAt(row, 0))) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
     private void updateRoomUsers(String message) {
-        String[] parts = message.split(":", 3);
-        if (parts.length >= 3) {
-            roomUsersArea.setText("현재 참여자:\n");
-            String[] users = parts[2].split(",");
-            for (String user : users) {
-                String[] userData = user.split(":");
-                if (userData.length >= 2) {
-                    roomUsersArea.append("• " + userData[1] + "\n");
-                }
+        // ROOM_USERLIST:roomId:version:userId:nickname,userId:nickname,...
+        String[] parts = message.split(":", 4);
+        if (parts.length >= 4) {
+            roomRoster.applySnapshot(Long.parseLong(parts[2]), parts[3]);
+            showRoomUsers();
+        }
+    }
+
+    private void applyRoomPresence(String message) {
+        // ROOM_PRESENCE:roomId:이전버전:버전:userId:nickname:입장여부,...
+        String[] parts = message.split(":", 5);
+        if (parts.length >= 5) {
+            if (roomRoster.applyDelta(Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4])) {
+                showRoomUsers();
+            } else {
+                // 중간 변경을 놓침 - 전체 목록 다시 요청
+                socketClient.requestRoomUserList(roomId);
             }
         }
     }
 
+    private void showRoomUsers() {
+        roomUsersArea.setText("현재 참여자:\n");
+        for (String nickname : roomRoster.getNicknames()) {
+            roomUsersArea.append("• " + nickname + "\n");
+        }
+    }
+
+    // 응답이 오면 이벤트 디스패치 스레드에서 처리 (요청은 기다리지 않고 여러 개를 동시에 보냄)
+    private <T> void onResponse(CompletableFuture<T> request, Consumer<T> handler) {
+        request.thenAccept(response -> SwingUtilities.invokeLater(() -> handler.accept(response)));
+    }
+
     private void loadNotices() {
-        noticeTableModel.setRowCount(0);
-        try {
-            String response = socketClient.getNotices(roomId);
-            if (response == null) return;
+        noticePager.reload();
+    }
 
-            String[] parts = response.split("\\|");
-            if (parts.length >= 2 && parts[1].equals("SUCCESS")) {
-                for (int i = 2; i < parts.length; i++) {
-                    String[] data = parts[i].split(":");
-                    if (data.length >= 5) {
-                        Object[] row = {
-                                Long.parseLong(data[0]),
-                                socketClient.decodeText(data[1]),
-                                data[2]
-                        };
-                        noticeTableModel.addRow(row);
-                    }
+    private void showNotices(List<String> records, boolean firstPage) {
+        if (firstPage) noticeTableModel.setRowCount(0);
+        try {
+            for (String record : records) {
+                String[] data = record.split(":");
+                if (data.length >= 5) {
+                    Object[] row = {
+                            Long.parseLong(data[0]),
+                            socketClient.decodeText(data[1]),
+                            data[2]
+                    };
+                    noticeTableModel.addRow(row);
                 }
             }
         } catch (Exception e) {
@@ -349,24 +483,22 @@ public class ClientRoomFrame extends JFrame {
     }
 
     private void loadGeneralPosts() {
-        postTableModel.setRowCount(0);
-        try {
-            String response = socketClient.getGeneralPosts(roomId);
-            if (response == null) return;
+        postPager.reload();
+    }
 
-            String[] parts = response.split("\\|");
-            if (parts.length >= 2 && parts[1].equals("SUCCESS")) {
-                for (int i = 2; i < parts.length; i++) {
-                    String[] data = parts[i].split(":");
-                    if (data.length >= 5) {
-                        Object[] row = {
-                                Long.parseLong(data[0]),
-                                socketClient.decodeText(data[1]),
-                                data[2],
-                                data[3].equals("true") ? "📋" : ""
-                        };
-                        postTableModel.addRow(row);
-                    }
+    private void showGeneralPosts(List<String> records, boolean firstPage) {
+        if (firstPage) postTableModel.setRowCount(0);
+        try {
+            for (String record : records) {
+                String[] data = record.split(":");
+                if (data.length >= 5) {
+                    Object[] row = {
+                            Long.parseLong(data[0]),
+                            socketClient.decodeText(data[1]),
+                            data[2],
+                            data[3].equals("true") ? "📋" : ""
+                    };
+                    postTableModel.addRow(row);
                 }
             }
         } catch (Exception e) {
@@ -376,37 +508,37 @@ public class ClientRoomFrame extends JFrame {
 
     private void loadPostDetail(Long postId) {
         this.selectedPostId = postId;
-        try {
-            String response = socketClient.getPostDetail(postId);
-            if (response == null) return;
-
-            String[] parts = response.split("\\|");
-            if (parts.length >= 9 && parts[1].equals("SUCCESS")) {
-                this.selectedPostAuthorId = Long.parseLong(parts[4]);
-                this.selectedPostHasAssignment = parts[7].equals("true");
-
-                StringBuilder sb = new StringBuilder();
-                sb.append("제목: ").append(socketClient.decodeText(parts[2])).append("\n");
-                sb.append("작성자: ").append(parts[5]).append("\n");
-                sb.append("작성일: ").append(parts[8]).append("\n");
-                sb.append("유형: ").append(parts[6].equals("NOTICE") ? "공지사항" : "일반").append("\n");
-                sb.append("\n").append(socketClient.decodeText(parts[3]));
-
-                postContentArea.setText(sb.toString());
-                postContentArea.setCaretPosition(0);
-
-                loadComments(postId);
-                loadReadStatus(postId);
-                markAsRead(postId);
+        // 본문, 댓글, 읽음 현황을 한 번에 요청 (이미 본 글이면 SocketClient 캐시에서 바로 완료됨)
+        onResponse(socketClient.getPostDetailAsync(postId), detail -> showPostDetail(postId, detail));
+        loadComments(postId);
+        loadReadStatus(postId);
+        markAsRead(postId);
+    }
 
-                if (selectedPostHasAssignment) {
-                    loadAssignmentInfo(postId);
-                } else {
-                    assignmentPanel.setVisible(false);
-                }
-            }
-        } catch (Exception e) {
+    private void showPostDetail(Long postId, PostDetail detail) {
+        // 응답이 오기 전에 다른 게시글을 선택한 경우 무시
+        if (!postId.equals(selectedPostId)) return;
+        if (detail == null) {
             postContentArea.setText("게시글을 불러올 수 없습니다.");
+            return;
+        }
+        this.selectedPostAuthorId = detail.getAuthorId();
+        this.selectedPostHasAssignment = detail.hasAssignment();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("제목: ").append(detail.getTitle()).append("\n");
+        sb.append("작성자: ").append(detail.getAuthorName()).append("\n");
+        sb.append("작성일: ").append(detail.getCreatedAt()).append("\n");
+        sb.append("유형: ").append(detail.isNotice() ? "공지사항" : "일반").append("\n");
+        sb.append("\n").append(detail.getContent());
+
+        postContentArea.setText(sb.toString());
+        postContentArea.setCaretPosition(0);
+
+        if (selectedPostHasAssignment) {
+            loadAssignmentInfo(postId);
+        } else {
+            assignmentPanel.setVisible(false);
         }
     }
 
@@ -442,24 +574,23 @@ public class ClientRoomFrame extends JFrame {
         }
     }
 
+    // 선택한 글(selectedPostId)의 댓글을 첫 페이지부터 다시 받음
     private void loadComments(Long postId) {
-        commentArea.setText("");
-        try {
-            String response = socketClient.getComments(postId);
-            if (response == null) return;
+        commentPager.reload();
+    }
 
-            String[] parts = response.split("\\|");
-            if (parts.length >= 2 && parts[1].equals("SUCCESS")) {
-                if (parts.length == 2) {
-                    commentArea.setText("댓글이 없습니다.");
-                } else {
-                    for (int i = 2; i < parts.length; i++) {
-                        String[] data = parts[i].split(":");
-                        if (data.length >= 4) {
-                            commentArea.append("[" + data[1] + "] " + data[3] + "\n");
-                            commentArea.append(socketClient.decodeText(data[2]) + "\n\n");
-                        }
-                    }
+    private void showComments(List<String> records, boolean firstPage) {
+        if (firstPage) {
+            hasComments = !records.isEmpty();
+            commentArea.setText(hasComments ? "" : "댓글이 없습니다.");
+            commentArea.setCaretPosition(0);
+        }
+        try {
+            for (String record : records) {
+                // 댓글번호:작성자:내용:작성일 (작성일의 ':'는 치환되지 않으므로 개수 제한)
+                String[] data = record.split(":", 4);
+                if (data.length >= 4) {
+                    appendComment(socketClient.decodeText(data[1]), socketClient.decodeText(data[2]), data[3]);
                 }
             }
         } catch (Exception e) {
@@ -467,10 +598,19 @@ public class ClientRoomFrame extends JFrame {
         }
     }
 
+    private void appendComment(String authorName, String content, String createdAt) {
+        commentArea.append("[" + authorName + "] " + createdAt + "\n");
+        commentArea.append(content + "\n\n");
+    }
+
     private void loadReadStatus(Long postId) {
+        onResponse(socketClient.getReadStatusAsync(postId), response -> showReadStatus(postId, response));
+    }
+
+    private void showReadStatus(Long postId, String response) {
+        if (!postId.equals(selectedPostId)) return;
         readStatusArea.setText("");
         try {
-            String response = socketClient.getReadStatus(postId);
             if (response == null) return;
 
             String[] parts = response.split("\\|");
@@ -490,8 +630,11 @@ public class ClientRoomFrame extends JFrame {
     }
 
     private void markAsRead(Long postId) {
+        // 이미 읽음 처리한 글을 다시 열 때는 요청하지 않음
+        if (socketClient.isMarkedRead(postId)) return;
         try {
-            socketClient.markRead(postId);
+            // 서버는 한 연결의 명령을 순서대로 처리하므로 읽음 처리 후에 알림이 나간다
+            socketClient.markReadAsync(postId);
             socketClient.sendPostRead(postId);
         } catch (Exception e) {
             // 무시
@@ -539,8 +682,7 @@ public class ClientRoomFrame extends JFrame {
             try {
                 String response = socketClient.createPost(roomId, title, content, type);
                 if (response != null && response.contains("SUCCESS")) {
-                    loadNotices();
-                    loadGeneralPosts();
+                    // 목록은 서버의 NEW_POST 알림으로 추가됨
                     JOptionPane.showMessageDialog(this, "게시글이 작성되었습니다.");
                 } else {
                     JOptionPane.showMessageDialog(this, "작성 실패");
@@ -564,13 +706,8 @@ public class ClientRoomFrame extends JFrame {
             try {
                 String response = socketClient.deletePost(selectedPostId);
                 if (response != null && response.contains("SUCCESS")) {
-                    loadNotices();
-                    loadGeneralPosts();
-                    postContentArea.setText("");
-                    commentArea.setText("");
-                    readStatusArea.setText("");
-                    assignmentPanel.setVisible(false);
-                    selectedPostId = null;
+                    // 목록에서 빼고 화면을 비움 (POST_DELETED 알림과 같은 처리 - 알림이 나중에 와도 무시됨)
+                    applyPostDeleted(selectedPostId);
                     JOptionPane.showMessageDialog(this, "삭제되었습니다.");
                 } else {
                     JOptionPane.showMessageDialog(this, "삭제 실패");
@@ -581,6 +718,50 @@ public class ClientRoomFrame extends JFrame {
         }
     }
 
+    private void handleSearch() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) return;
+        onResponse(socketClient.searchAsync(roomId, query, SEARCH_LIMIT), response -> showSearchResults(query, response));
+    }
+
+    // 결과를 골라 확인하면 그 글을 연다 (댓글/과제 결과는 달린 글)
+    private void showSearchResults(String query, String response) {
+        String[] parts = response != null ? response.split("\\|") : new String[0];
+        if (parts.length < 2 || !parts[1].equals("SUCCESS")) {
+            JOptionPane.showMessageDialog(this, "검색 실패");
+            return;
+        }
+        if (parts.length == 2) {
+            JOptionPane.showMessageDialog(this, "'" + query + "' 검색 결과가 없습니다.");
+            return;
+        }
+        DefaultListModel<String> items = new DefaultListModel<>();
+        List<Long> postIds = new ArrayList<>();
+        for (int i = 2; i < parts.length; i++) {
+            // 종류:글 ID:대상 ID:점수:제목
+            String[] data = parts[i].split(":", 5);
+            if (data.length < 5) continue;
+            String kind = switch (data[0]) {
+                case "COMMENT" -> "[댓글] ";
+                case "ASSIGNMENT" -> "[과제] ";
+                default -> "[글] ";
+            };
+            items.addElement(kind + socketClient.decodeText(data[4]));
+            postIds.add(Long.parseLong(data[1]));
+        }
+        JList<String> list = new JList<>(items);
+        list.setSelectedIndex(0);
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setPreferredSize(new Dimension(400, 250));
+        int choice = JOptionPane.showConfirmDialog(this, scroll, "'" + query + "' 검색 결과",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice == JOptionPane.OK_OPTION && list.getSelectedIndex() >= 0) {
+            noticeTable.clearSelection();
+            postTable.clearSelection();
+            loadPostDetail(postIds.get(list.getSelectedIndex()));
+        }
+    }
+
     private void handleWriteComment() {
         if (selectedPostId == null) {
             JOptionPane.showMessageDialog(this, "게시글을 먼저 선택하세요.");
@@ -593,8 +774,8 @@ public class ClientRoomFrame extends JFrame {
         try {
             String response = socketClient.createComment(selectedPostId, content);
             if (response != null && response.contains("SUCCESS")) {
+                // 댓글은 서버의 NEW_COMMENT 알림으로 덧붙여짐
                 commentField.setText("");
-                loadComments(selectedPostId);
             }
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "댓글 작성 실패: " + e.getMessage());
@@ -636,20 +817,7 @@ public class ClientRoomFrame extends JFrame {
                     dialog.setVisible(true);
 
                     if (dialog.isConfirmed()) {
-                        String content = dialog.getContent();
-                        File file = dialog.getSelectedFile();
-
-                        String fileName = file != null ? file.getName() : null;
-                        String filePath = file != null ? file.getAbsolutePath() : null;
-                        Long fileSize = file != null ? file.length() : null;
-
-                        String submitResponse = socketClient.submitAssignment(assignmentId, content, fileName, filePath, fileSize);
-                        if (submitResponse != null && submitResponse.contains("SUCCESS")) {
-                            JOptionPane.showMessageDialog(this, "과제가 제출되었습니다.");
-                            loadAssignmentInfo(selectedPostId);
-                        } else {
-                            JOptionPane.showMessageDialog(this, "제출 실패");
-                        }
+                        submitAssignment(assignmentId, selectedPostId, dialog.getContent(), dialog.getSelectedFile());
                     }
                 }
             }
@@ -657,4 +825,49 @@ public class ClientRoomFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "오류: " + e.getMessage());
         }
     }
+
+    // 파일 업로드가 길어도 화면이 멈추지 않도록 별도 스레드에서 올리고 제출
+    private void submitAssignment(Long assignmentId, Long postId, String content, File file) {
+        String fileName = file != null ? file.getName() : null;
+        Long fileSize = file != null ? file.length() : null;
+        assignmentActionButton.setEnabled(false);
+        new Thread(() -> {
+            String error = null;
+            try {
+                // 파일 내용을 서버에 올리고 저장소 키를 제출물에 기록
+                String filePath = null;
+                if (file != null) {
+                    filePath = socketClient.uploadFile(file, null);
+                    if (filePath == null) {
+                        error = "파일 업로드 실패";
+                    }
+                }
+                if (error == null) {
+                    String submitResponse = socketClient.submitAssignment(assignmentId, content, fileName, filePath, fileSize);
+                    if (submitResponse == null || !submitResponse.contains("SUCCESS")) {
+                        error = "제출 실패";
+                    }
+                }
+            } catch (Exception e) {
+                error = "오류: " + e.getMessage();
+            }
+            String result = error;
+            SwingUtilities.invokeLater(() -> {
+                assignmentActionButton.setEnabled(true);
+                if (result != null) {
+                    JOptionPane.showMessageDialog(this, result);
+                    return;
+                }
+                JOptionPane.showMessageDialog(this, "과제가 제출되었습니다.");
+                if (postId.equals(selectedPostId)) {
+                    loadAssignmentInfo(postId);
+                }
+            });
+        }).start();
+    }
+
+    // 알림 새로고침 묶기 통계 (요청 · 조회 · 화면 갱신 수, 아낀 UI 시간) - 창을 닫은 뒤에도 읽을 수 있다
+    public RefreshScheduler getRefreshScheduler() {
+        return refresh;
+    }
 }
@@ -0,0 +1,51 @@
+package org.study.platform.client;
+
+import org.study.platform.protocol.TextCodec;
+
+/**
+ * NEW_COMMENT 알림 - 댓글 목록을 다시 요청하지 않고 바로 덧붙일 수 있는 정보를 모두 담는다.
+ */
+public final class CommentEvent {
+
+    private final Long postId;
+    private final Long commentId;
+    private final String authorName;
+    private final String content;
+    private final Long authorId;
+    private final String createdAt;
+
+    private CommentEvent(Long postId, Long commentId, String authorName, String content,
+                         Long authorId, String createdAt) {
+        this.postId = postId;
+        this.commentId = commentId;
+        this.authorName = authorName;
+        this.content = content;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * NEW_COMMENT:글번호:댓글번호:작성자:내용:작성자번호:작성일
+     * 작성일에는 ':'가 그대로 들어 있으므로 나눌 개수를 제한한다. 필드가 모자라면(구버전 서버) null
+     */
+    public static CommentEvent parse(String message) {
+        String[] parts = message.split(":", 7);
+        if (parts.length < 7) {
+            return null;
+        }
+        return new CommentEvent(
+                Long.parseLong(parts[1]),
+                Long.parseLong(parts[2]),
+                TextCodec.unescape(parts[3]),
+                TextCodec.unescape(parts[4]),
+                Long.parseLong(parts[5]),
+                parts[6]);
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getCommentId() { return commentId; }
+    public String getAuthorName() { return authorName; }
+    public String getContent() { return content; }
+    public Long getAuthorId() { return authorId; }
+    public String getCreatedAt() { return createdAt; }
+}
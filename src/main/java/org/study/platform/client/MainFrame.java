@@ -162,8 +162,7 @@ public class MainFrame extends JFrame {
         try {
             List<Room> rooms = roomService.findAllRooms();
             for (Room room : rooms) {
-                String creatorName = userService.findById(room.getCreatorId())
-                        .map(User::getNickname).orElse("알 수 없음");
+                String creatorName = userService.findNickname(room.getCreatorId()).orElse("알 수 없음");
 
                 Object[] row = {
                         room.getRoomId(),
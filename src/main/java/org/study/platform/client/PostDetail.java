@@ -0,0 +1,66 @@
+package org.study.platform.client;
+
+import org.study.platform.protocol.TextCodec;
+
+/**
+ * GET_POST_DETAIL 응답을 한 번 해석해 둔 값 (SocketClient 캐시에 그대로 보관).
+ */
+public final class PostDetail {
+
+    private final Long postId;
+    private final String title;
+    private final String content;
+    private final Long authorId;
+    private final String authorName;
+    private final String postType;
+    private final boolean hasAssignment;
+    private final String createdAt;
+
+    PostDetail(Long postId, String title, String content, Long authorId, String authorName,
+               String postType, boolean hasAssignment, String createdAt) {
+        this.postId = postId;
+        this.title = title;
+        this.content = content;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.postType = postType;
+        this.hasAssignment = hasAssignment;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * GET_POST_DETAIL_RESPONSE|SUCCESS|글번호|제목|내용|작성자번호|작성자|유형|과제여부|작성일
+     * 실패 응답이거나 응답이 없으면 null
+     */
+    static PostDetail parse(String response) {
+        if (response == null) {
+            return null;
+        }
+        String[] parts = response.split("\\|", -1);
+        if (parts.length < 10 || !parts[1].equals("SUCCESS")) {
+            return null;
+        }
+        return new PostDetail(
+                Long.parseLong(parts[2]),
+                TextCodec.unescape(parts[3]),
+                TextCodec.unescape(parts[4]),
+                Long.parseLong(parts[5]),
+                TextCodec.unescape(parts[6]),
+                parts[7],
+                parts[8].equals("true"),
+                parts[9]);
+    }
+
+    public Long getPostId() { return postId; }
+    public String getTitle() { return title; }
+    public String getContent() { return content; }
+    public Long getAuthorId() { return authorId; }
+    public String getAuthorName() { return authorName; }
+    public String getPostType() { return postType; }
+    public boolean hasAssignment() { return hasAssignment; }
+    public String getCreatedAt() { return createdAt; }
+
+    public boolean isNotice() {
+        return "NOTICE".equals(postType);
+    }
+}
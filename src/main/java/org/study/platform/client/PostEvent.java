@@ -0,0 +1,63 @@
+package org.study.platform.client;
+
+import org.study.platform.protocol.TextCodec;
+
+/**
+ * NEW_POST / POST_CHANGED 알림 - 목록 행을 다시 요청하지 않고 바로 고칠 수 있는 정보를 모두 담는다.
+ */
+public final class PostEvent {
+
+    private final Long roomId;
+    private final Long postId;
+    private final String title;
+    private final String authorName;
+    private final String postType;
+    private final Long authorId;
+    private final boolean hasAssignment;
+    private final String createdAt;
+
+    private PostEvent(Long roomId, Long postId, String title, String authorName, String postType,
+                      Long authorId, boolean hasAssignment, String createdAt) {
+        this.roomId = roomId;
+        this.postId = postId;
+        this.title = title;
+        this.authorName = authorName;
+        this.postType = postType;
+        this.authorId = authorId;
+        this.hasAssignment = hasAssignment;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * 이름:방번호:글번호:제목:작성자:유형:작성자번호:과제여부:작성일
+     * 작성일에는 ':'가 그대로 들어 있으므로 나눌 개수를 제한한다. 필드가 모자라면(구버전 서버) null
+     */
+    public static PostEvent parse(String message) {
+        String[] parts = message.split(":", 9);
+        if (parts.length < 9) {
+            return null;
+        }
+        return new PostEvent(
+                Long.parseLong(parts[1]),
+                Long.parseLong(parts[2]),
+                TextCodec.unescape(parts[3]),
+                TextCodec.unescape(parts[4]),
+                parts[5],
+                Long.parseLong(parts[6]),
+                parts[7].equals("true"),
+                parts[8]);
+    }
+
+    public Long getRoomId() { return roomId; }
+    public Long getPostId() { return postId; }
+    public String getTitle() { return title; }
+    public String getAuthorName() { return authorName; }
+    public String getPostType() { return postType; }
+    public Long getAuthorId() { return authorId; }
+    public boolean hasAssignment() { return hasAssignment; }
+    public String getCreatedAt() { return createdAt; }
+
+    public boolean isNotice() {
+        return "NOTICE".equals(postType);
+    }
+}
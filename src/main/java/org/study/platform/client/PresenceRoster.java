@@ -0,0 +1,70 @@
+package org.study.platform.client;
+
+import org.study.platform.protocol.TextCodec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서버가 보내는 접속자 목록 스냅샷과 변경분을 적용해서 현재 목록을 유지한다.
+ * 스냅샷을 받기 전의 변경분은 무시하고, 중간 변경을 놓쳤으면(버전 차이) 다시 스냅샷을 요청해야 한다.
+ */
+public class PresenceRoster {
+
+    private final Map<Long, String> members = new LinkedHashMap<>();
+    // 스냅샷을 받기 전이면 -1
+    private long version = -1;
+
+    // list: userId:nickname,userId:nickname,...
+    public void applySnapshot(long snapshotVersion, String list) {
+        members.clear();
+        if (list != null && !list.isEmpty()) {
+            for (String user : list.split(",")) {
+                String[] userData = user.split(":");
+                if (userData.length >= 2) {
+                    members.put(Long.parseLong(userData[0]), TextCodec.unescape(userData[1]));
+                }
+            }
+        }
+        version = snapshotVersion;
+    }
+
+    /**
+     * changes: userId:nickname:입장여부,...
+     * 놓친 변경이 있어 스냅샷을 다시 받아야 하면 false
+     */
+    public boolean applyDelta(long baseVersion, long deltaVersion, String changes) {
+        if (version < 0 || deltaVersion <= version) {
+            // 스냅샷 전이거나 이미 스냅샷에 포함된 변경
+            return true;
+        }
+        if (baseVersion > version) {
+            return false;
+        }
+        if (changes != null && !changes.isEmpty()) {
+            for (String change : changes.split(",")) {
+                String[] data = change.split(":");
+                if (data.length >= 3) {
+                    long userId = Long.parseLong(data[0]);
+                    if (Boolean.parseBoolean(data[2])) {
+                        members.put(userId, TextCodec.unescape(data[1]));
+                    } else {
+                        members.remove(userId);
+                    }
+                }
+            }
+        }
+        version = deltaVersion;
+        return true;
+    }
+
+    public List<String> getNicknames() {
+        return new ArrayList<>(members.values());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,197 @@
+package org.study.platform.client;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 화면 새로고침 요청을 자원(키)별로 짧은 시간(window) 동안 모아서 한 번만 실행한다.
+ *
+ * 알림이 몰려와도(댓글 50개 등) 같은 자원은 창 안에서 한 번만 다시 읽고, 읽기는 이벤트 디스패치 스레드(EDT)
+ * 밖의 전용 스레드에서 한다. 그사이 끝난 결과들은 EDT에 한 번에 반영한다.
+ * 읽는 중에 같은 자원 요청이 또 오면 끝난 뒤 한 번 더 읽는다 (읽기 시작 전의 상태로 끝나지 않도록).
+ */
+public class RefreshScheduler {
+
+    public static final long DEFAULT_WINDOW_MS = 150;
+
+    // 자원 하나의 예약 상태. 아래 필드는 모두 RefreshScheduler.this로 동기화
+    private static final class Task {
+        // 읽기(EDT 밖) → 화면 반영(EDT)
+        Callable<Runnable> job;
+        boolean running;
+        boolean again;
+    }
+
+    private final long windowMs;
+    private final Executor uiExecutor;
+    private final ScheduledExecutorService executor;
+
+    private final Map<String, Task> tasks = new HashMap<>();
+    // EDT에 반영할 결과 (한 번의 EDT 작업으로 모아서 실행)
+    private List<Runnable> results = new ArrayList<>();
+    private boolean applyScheduled;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder uiUpdates = new LongAdder();
+    // EDT 밖에서 읽는 데 걸린 시간 (예전에는 EDT가 그대로 멈춰 있던 시간)
+    private final LongAdder fetchNanos = new LongAdder();
+
+    public RefreshScheduler(long windowMs) {
+        this(windowMs, SwingUtilities::invokeLater);
+    }
+
+    RefreshScheduler(long windowMs, Executor uiExecutor) {
+        this.windowMs = windowMs;
+        this.uiExecutor = uiExecutor;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * key 자원을 다시 읽도록 예약. 창 안에 같은 key 요청이 여러 번 오면 마지막 요청의 fetch/apply로 한 번만 실행한다.
+     * fetch는 전용 스레드에서, apply는 EDT에서 실행된다.
+     */
+    public <T> void request(String key, Callable<T> fetch, Consumer<T> apply) {
+        Callable<Runnable> job = () -> {
+            T value = fetch.call();
+            return () -> apply.accept(value);
+        };
+        requests.increment();
+        synchronized (this) {
+            Task task = tasks.get(key);
+            if (task != null) {
+                task.job = job;
+                if (task.running) {
+                    task.again = true;
+                }
+                return;
+            }
+            task = new Task();
+            task.job = job;
+            tasks.put(key, task);
+        }
+        schedule(key);
+    }
+
+    private void schedule(String key) {
+        try {
+            executor.schedule(() -> run(key), windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 창을 닫아 shutdown된 뒤의 요청은 버린다
+        }
+    }
+
+    private void run(String key) {
+        Task task;
+        Callable<Runnable> job;
+        synchronized (this) {
+            task = tasks.get(key);
+            task.running = true;
+            job = task.job;
+        }
+        Runnable result = null;
+        long start = System.nanoTime();
+        try {
+            result = job.call();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        fetchNanos.add(System.nanoTime() - start);
+        fetches.increment();
+        if (result != null) {
+            deliver(result);
+        }
+
+        boolean again;
+        synchronized (this) {
+            task.running = false;
+            again = task.again;
+            task.again = false;
+            if (!again) {
+                tasks.remove(key);
+            }
+        }
+        if (again) {
+            schedule(key);
+        }
+    }
+
+    private void deliver(Runnable result) {
+        synchronized (this) {
+            results.add(result);
+            if (applyScheduled) {
+                return;
+            }
+            applyScheduled = true;
+        }
+        uiExecutor.execute(this::applyResults);
+    }
+
+    private void applyResults() {
+        List<Runnable> batch;
+        synchronized (this) {
+            batch = results;
+            results = new ArrayList<>();
+            applyScheduled = false;
+        }
+        uiUpdates.increment();
+        for (Runnable result : batch) {
+            try {
+                result.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFetches() {
+        return fetches.sum();
+    }
+
+    public long getUiUpdates() {
+        return uiUpdates.sum();
+    }
+
+    /**
+     * 예전 방식(알림마다 EDT에서 바로 읽기) 대비 EDT가 멈추지 않은 시간 추정.
+     * 실제로 EDT 밖에서 읽은 시간 + 합쳐서 생략한 요청 수 × 평균 읽기 시간
+     */
+    public long getSavedUiMillis() {
+        long count = fetches.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long nanos = fetchNanos.sum();
+        long skipped = Math.max(0, requests.sum() - count);
+        return (nanos + skipped * (nanos / count)) / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshScheduler{requests=" + getRequests() + ", fetches=" + getFetches()
+                + ", uiUpdates=" + getUiUpdates() + ", savedUiMs=" + getSavedUiMillis() + "}";
+    }
+}
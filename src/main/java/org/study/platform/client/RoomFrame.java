@@ -11,7 +11,9 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class RoomFrame extends JFrame {
 
@@ -54,6 +56,10 @@ public class RoomFrame extends JFrame {
 
     // 실시간 리스너
     private SocketClient.MessageListener messageListener;
+    // 방 접속자 목록 (입장 시 스냅샷 + 이후 변경분)
+    private final PresenceRoster roomRoster = new PresenceRoster();
+    // 목록/댓글/읽음 현황 다시 읽기는 모아서 EDT 밖에서
+    private final RefreshScheduler refresh = new RefreshScheduler(RefreshScheduler.DEFAULT_WINDOW_MS);
 
     public RoomFrame(PostService postService, CommentService commentService,
                      PostReadStatusService postReadStatusService, UserService userService) {
@@ -304,6 +310,11 @@ public class RoomFrame extends JFrame {
                 }
                 dispose();
             }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refresh.shutdown();
+            }
         });
     }
 
@@ -312,11 +323,13 @@ public class RoomFrame extends JFrame {
         messageListener = message -> {
             SwingUtilities.invokeLater(() -> {
                 try {
-                    if (message.startsWith("NEW_POST:" + currentRoom.getRoomId())) {
-                        // 새 게시글 알림
+                    // 목록/댓글/읽음 현황은 RefreshScheduler가 모아서 한 번만 다시 읽는다
+                    if (message.startsWith("NEW_POST:" + currentRoom.getRoomId() + ":")
+                            || message.startsWith("POST_CHANGED:" + currentRoom.getRoomId() + ":")) {
+                        // 새 게시글 / 과제 등록 알림
                         loadNotices();
                         loadGeneralPosts();
-                    } else if (message.startsWith("POST_DELETED:" + currentRoom.getRoomId())) {
+                    } else if (message.startsWith("POST_DELETED:" + currentRoom.getRoomId() + ":")) {
                         loadNotices();
                         loadGeneralPosts();
                         postContentArea.setText("");
@@ -344,8 +357,10 @@ public class RoomFrame extends JFrame {
                             String leaverName = parts[3];
                             roomUsersArea.append(leaverName + " 님이 퇴장했습니다.\n");
                         }
-                    } else if (message.startsWith("ROOM_USERLIST:" + currentRoom.getRoomId())) {
+                    } else if (message.startsWith("ROOM_USERLIST:" + currentRoom.getRoomId() + ":")) {
                         updateRoomUsers(message);
+                    } else if (message.startsWith("ROOM_PRESENCE:" + currentRoom.getRoomId() + ":")) {
+                        applyRoomPresence(message);
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -356,58 +371,67 @@ public class RoomFrame extends JFrame {
     }
 
     private void updateRoomUsers(String message) {
-        // ROOM_USERLIST:roomId:userId:nickname,userId:nickname,...
-        String[] parts = message.split(":", 3);
-        if (parts.length >= 3) {
-            roomUsersArea.setText("현재 참여자:\n");
-            String[] users = parts[2].split(",");
-            for (String user : users) {
-                String[] userData = user.split(":");
-                if (userData.length >= 2) {
-                    roomUsersArea.append("• " + userData[1] + "\n");
-                }
+        // ROOM_USERLIST:roomId:version:userId:nickname,userId:nickname,...
+        String[] parts = message.split(":", 4);
+        if (parts.length >= 4) {
+            roomRoster.applySnapshot(Long.parseLong(parts[2]), parts[3]);
+            showRoomUsers();
+        }
+    }
+
+    private void applyRoomPresence(String message) {
+        // ROOM_PRESENCE:roomId:이전버전:버전:userId:nickname:입장여부,...
+        String[] parts = message.split(":", 5);
+        if (parts.length >= 5) {
+            if (roomRoster.applyDelta(Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4])) {
+                showRoomUsers();
+            } else {
+                // 중간 변경을 놓침 - 전체 목록 다시 요청
+                socketClient.requestRoomUserList(currentRoom.getRoomId());
             }
         }
     }
 
+    private void showRoomUsers() {
+        roomUsersArea.setText("현재 참여자:\n");
+        for (String nickname : roomRoster.getNicknames()) {
+            roomUsersArea.append("• " + nickname + "\n");
+        }
+    }
+
     // 공지사항 로드
     private void loadNotices() {
-        noticeTableModel.setRowCount(0);
-        try {
-            List<Post> notices = postService.findNoticesByRoomId(currentRoom.getRoomId());
-            for (Post post : notices) {
-                String authorName = userService.findById(post.getAuthorId())
-                        .map(User::getNickname).orElse("알 수 없음");
-                Object[] row = {
-                        post.getPostId(),
-                        post.getTitle(),
-                        authorName
-                };
-                noticeTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        Long roomId = currentRoom.getRoomId();
+        refresh.request("notices", () -> postRows(postService.findNoticesByRoomId(roomId), false),
+                rows -> showRows(noticeTableModel, rows));
     }
 
     // 일반 게시글 로드
     private void loadGeneralPosts() {
-        postTableModel.setRowCount(0);
-        try {
-            List<Post> posts = postService.findGeneralPostsByRoomId(currentRoom.getRoomId());
-            for (Post post : posts) {
-                String authorName = userService.findById(post.getAuthorId())
-                        .map(User::getNickname).orElse("알 수 없음");
-                Object[] row = {
-                        post.getPostId(),
-                        post.getTitle(),
-                        authorName,
-                        post.getHasAssignment() ? "📋" : ""
-                };
-                postTableModel.addRow(row);
+        Long roomId = currentRoom.getRoomId();
+        refresh.request("posts", () -> postRows(postService.findGeneralPostsByRoomId(roomId), true),
+                rows -> showRows(postTableModel, rows));
+    }
+
+    // EDT 밖에서 실행 - 작성자 이름까지 채운 표 행
+    private List<Object[]> postRows(List<PostSummary> posts, boolean withAssignment) {
+        Map<Long, String> nicknames = userService.findNicknames(posts, PostSummary::getAuthorId);
+        List<Object[]> rows = new ArrayList<>(posts.size());
+        for (PostSummary post : posts) {
+            String authorName = nicknames.getOrDefault(post.getAuthorId(), "알 수 없음");
+            if (withAssignment) {
+                rows.add(new Object[]{post.getPostId(), post.getTitle(), authorName, post.getHasAssignment() ? "📋" : ""});
+            } else {
+                rows.add(new Object[]{post.getPostId(), post.getTitle(), authorName});
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    private static void showRows(DefaultTableModel model, List<Object[]> rows) {
+        model.setRowCount(0);
+        for (Object[] row : rows) {
+            model.addRow(row);
         }
     }
 
@@ -420,8 +444,7 @@ public class RoomFrame extends JFrame {
                 this.selectedPostAuthorId = post.getAuthorId();
                 this.selectedPostHasAssignment = post.getHasAssignment();
 
-                String authorName = userService.findById(post.getAuthorId())
-                        .map(User::getNickname).orElse("알 수 없음");
+                String authorName = userService.findNickname(post.getAuthorId()).orElse("알 수 없음");
 
                 StringBuilder sb = new StringBuilder();
                 sb.append("제목: ").append(post.getTitle()).append("\n");
@@ -435,7 +458,7 @@ public class RoomFrame extends JFrame {
 
                 loadComments(postId);
                 loadReadStatus(postId);
-                markAsRead(postId);
+                markAsRead(post);
 
                 // 과제 패널 설정
                 if (post.getHasAssignment()) {
@@ -486,45 +509,59 @@ public class RoomFrame extends JFrame {
 
     // 댓글 로드
     private void loadComments(Long postId) {
-        commentArea.setText("");
-        try {
-            List<Comment> comments = commentService.findByPostId(postId);
-            if (comments.isEmpty()) {
-                commentArea.setText("댓글이 없습니다.");
-            } else {
+        refresh.request("comments", () -> {
+            try {
+                List<Comment> comments = commentService.findByPostId(postId);
+                if (comments.isEmpty()) {
+                    return "댓글이 없습니다.";
+                }
+                Map<Long, String> nicknames = userService.findNicknames(comments, Comment::getAuthorId);
+                StringBuilder sb = new StringBuilder();
                 for (Comment comment : comments) {
-                    String authorName = userService.findById(comment.getAuthorId())
-                            .map(User::getNickname).orElse("알 수 없음");
-                    commentArea.append("[" + authorName + "] " + comment.getCreatedAt() + "\n");
-                    commentArea.append(comment.getContent() + "\n\n");
+                    String authorName = nicknames.getOrDefault(comment.getAuthorId(), "알 수 없음");
+                    sb.append("[").append(authorName).append("] ").append(comment.getCreatedAt()).append("\n");
+                    sb.append(comment.getContent()).append("\n\n");
                 }
+                return sb.toString();
+            } catch (Exception e) {
+                return "댓글 로드 실패: " + e.getMessage();
             }
-        } catch (Exception e) {
-            commentArea.setText("댓글 로드 실패: " + e.getMessage());
-        }
+        }, text -> {
+            // 읽는 사이 다른 글을 선택했으면 무시
+            if (postId.equals(selectedPostId)) {
+                commentArea.setText(text);
+            }
+        });
     }
 
     // 읽음 상태 로드
     private void loadReadStatus(Long postId) {
-        readStatusArea.setText("");
-        try {
-            List<PostReadStatus> statuses = postReadStatusService.getReadStatusByPost(postId);
-            readStatusArea.append("총 " + statuses.size() + "명\n\n");
-            for (PostReadStatus status : statuses) {
-                String userName = userService.findById(status.getUserId())
-                        .map(User::getNickname).orElse("알 수 없음");
-                readStatusArea.append("• " + userName + "\n");
+        refresh.request("readStatus", () -> {
+            try {
+                List<Long> readerIds = postReadStatusService.getReaderIds(postId);
+                Map<Long, String> nicknames = userService.findNicknames(readerIds);
+                StringBuilder sb = new StringBuilder();
+                sb.append("총 ").append(readerIds.size()).append("명\n\n");
+                for (Long readerId : readerIds) {
+                    sb.append("• ").append(nicknames.getOrDefault(readerId, "알 수 없음")).append("\n");
+                }
+                return sb.toString();
+            } catch (Exception e) {
+                return "로드 실패";
             }
-        } catch (Exception e) {
-            readStatusArea.setText("로드 실패");
-        }
+        }, text -> {
+            if (postId.equals(selectedPostId)) {
+                readStatusArea.setText(text);
+            }
+        });
     }
 
     // 읽음 처리
-    private void markAsRead(Long postId) {
+    private void markAsRead(Post post) {
+        Long postId = post.getPostId();
         try {
             if (!postReadStatusService.hasRead(postId, currentUser.getUserId())) {
-                postReadStatusService.markAsRead(postId, currentUser.getUserId());
+                postReadStatusService.markAsRead(post, currentUser.getUserId());
                 socketClient.sendPostRead(postId);
                 loadReadStatus(postId);
             }
@@ -662,8 +699,16 @@ public class RoomFrame extends JFrame {
                         File file = dialog.getSelectedFile();
 
                         String fileName = file != null ? file.getName() : null;
-                        String filePath = file != null ? file.getAbsolutePath() : null;
                         Long fileSize = file != null ? file.length() : null;
+                        // 파일 내용을 서버에 올리고 저장소 키를 제출물에 기록
+                        String filePath = null;
+                        if (file != null) {
+                            filePath = socketClient.uploadFile(file, null);
+                            if (filePath == null) {
+                                JOptionPane.showMessageDialog(this, "파일 업로드 실패", "오류", JOptionPane.ERROR_MESSAGE);
+                                return;
+                            }
+                        }
 
                         String submitResponse = socketClient.submitAssignment(assignmentId, content, fileName, filePath, fileSize);
                         if (submitResponse != null && submitResponse.contains("SUCCESS")) {
@@ -679,4 +724,9 @@ public class RoomFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "오류: " + e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    // 알림 새로고침 묶기 통계 (요청 · 조회 · 화면 갱신 수, 아낀 UI 시간) - 창을 닫은 뒤에도 읽을 수 있다
+    public RefreshScheduler getRefreshScheduler() {
+        return refresh;
+    }
 }
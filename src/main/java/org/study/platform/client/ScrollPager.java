@@ -0,0 +1,84 @@
+package org.study.platform.client;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 목록을 한 페이지씩 불러오고, 스크롤이 끝에 가까워지면 다음 페이지를 요청한다.
+ * 서버 응답 형식: NAME_RESPONSE|SUCCESS|다음 페이지 위치(마지막이면 빈 값)|항목|항목...
+ * 모든 메서드와 콜백은 이벤트 디스패치 스레드에서 실행된다.
+ */
+public class ScrollPager {
+
+    public static final int DEFAULT_PAGE_SIZE = 30;
+    // 스크롤이 끝에서 이만큼(픽셀) 안에 들어오면 다음 페이지 요청
+    private static final int NEAR_END_PIXELS = 40;
+
+    private final JScrollPane scrollPane;
+    // 페이지 위치(null = 첫 페이지) → 응답
+    private final Function<String, CompletableFuture<String>> fetcher;
+    // (항목들, 첫 페이지 여부) - 첫 페이지면 기존 목록을 비우고 채운다
+    private final BiConsumer<List<String>, Boolean> onPage;
+
+    private String nextCursor;
+    private boolean loading;
+    // reload() 이전에 보낸 요청의 응답은 버림
+    private int generation;
+
+    public ScrollPager(JScrollPane scrollPane, Function<String, CompletableFuture<String>> fetcher,
+                       BiConsumer<List<String>, Boolean> onPage) {
+        this.scrollPane = scrollPane;
+        this.fetcher = fetcher;
+        this.onPage = onPage;
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                loadMoreIfNearEnd();
+            }
+        });
+    }
+
+    // 첫 페이지부터 다시
+    public void reload() {
+        generation++;
+        nextCursor = null;
+        fetch(null, true);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    private void fetch(String cursor, boolean first) {
+        loading = true;
+        int requested = generation;
+        fetcher.apply(cursor).thenAccept(response -> SwingUtilities.invokeLater(() -> {
+            if (requested != generation) return;
+            loading = false;
+            showPage(response, first);
+        }));
+    }
+
+    private void showPage(String response, boolean first) {
+        if (response == null) return;
+        // 빈 페이지 위치도 필드로 남기도록 limit -1
+        String[] parts = response.split("\\|", -1);
+        if (parts.length < 3 || !parts[1].equals("SUCCESS")) return;
+
+        nextCursor = parts[2].isEmpty() ? null : parts[2];
+        onPage.accept(Arrays.asList(parts).subList(3, parts.length), first);
+        // 목록이 화면보다 짧으면 스크롤 이벤트가 생기지 않으므로 배치가 끝난 뒤 한 번 더 확인
+        SwingUtilities.invokeLater(this::loadMoreIfNearEnd);
+    }
+
+    private void loadMoreIfNearEnd() {
+        if (loading || nextCursor == null) return;
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - NEAR_END_PIXELS) {
+            fetch(nextCursor, false);
+        }
+    }
+}
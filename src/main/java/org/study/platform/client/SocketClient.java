@@ -1,23 +1,70 @@
 package org.study.platform.client;
 
+import org.study.platform.protocol.BinaryCodec;
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.TextCodec;
+import org.study.platform.protocol.WireFormat;
+
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SocketClient {
 
     private static final int SERVER_PORT = 9090;
+    // 바이너리 핸드셰이크 응답 대기 시간 (응답이 없으면 텍스트 프로토콜로 재연결)
+    private static final int HANDSHAKE_TIMEOUT_MS = 3000;
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    private static final long RESPONSE_TIMEOUT_MS = 5000;
+    // 다운로드 응답이나 조각이 이 시간 동안 오지 않으면 실패 (조각을 받을 때마다 다시 잰다)
+    private static final long DOWNLOAD_IDLE_TIMEOUT_MS = 15000;
+    // 파일 전송 상태를 알 수 없을 때 쓰는 기본값 (서버가 UPLOAD_BEGIN 응답으로 알려줌)
+    private static final int DEFAULT_UPLOAD_WINDOW = 4;
+    // 종류별 캐시 항목 수 한도
+    private static final int CACHE_MAX_ENTRIES = 500;
 
     private String serverHost;
     private Socket socket;
-    private BufferedReader in;
-    private PrintWriter out;
+    private InputStream in;
+    private OutputStream out;
+    private WireFormat format;
+    private int version;
+    private final Object writeLock = new Object();
     private Long userId;
     private String nickname;
     private volatile boolean running = false;
-    private String lastResponse = null;
-    private final Object responseLock = new Object();
+
+    // 응답을 기다리는 요청 (요청 번호 → 대기 중인 요청). 한 연결에서 여러 요청을 동시에 보낼 수 있다.
+    private final Map<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestId = new AtomicLong();
+    // 요청 번호를 모르는 구버전 서버용 - 서버는 한 연결의 요청을 순서대로 처리하므로 보낸 순서대로 응답을 짝지음
+    private final Queue<PendingRequest> unnumberedRequests = new ConcurrentLinkedQueue<>();
+    // 받는 중인 다운로드 (전송 번호 = DOWNLOAD 요청 번호)
+    private final Map<Long, Download> downloads = new ConcurrentHashMap<>();
+
+    // 이미 받은 응답 캐시 - 다시 연 글은 서버에 묻지 않는다. 서버 알림으로 무효화하고, 연결이 끊기면 비운다
+    private final ClientCache<Long, PostDetail> postDetails = new ClientCache<>(CACHE_MAX_ENTRIES);
+    // 글별 댓글 첫 페이지 응답 (기본 페이지 크기만)
+    private final ClientCache<Long, String> commentPages = new ClientCache<>(CACHE_MAX_ENTRIES);
+    // 글별 읽음 현황 응답
+    private final ClientCache<Long, String> readStatuses = new ClientCache<>(CACHE_MAX_ENTRIES);
+    private final ClientCache<Long, String> nicknames = new ClientCache<>(CACHE_MAX_ENTRIES);
+    // 이 연결에서 이미 읽음 처리한 글 (다시 열어도 MARK_READ를 보내지 않음)
+    private final ClientCache<Long, Boolean> markedRead = new ClientCache<>(CACHE_MAX_ENTRIES);
 
     private List<MessageListener> listeners = new ArrayList<>();
 
@@ -25,22 +72,45 @@ public class SocketClient {
         void onMessageReceived(String message);
     }
 
-    public SocketClient(String serverHost) {
-        this.serverHost = serverHost;
+    private static class PendingRequest {
+        final String expectedResponse;
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        PendingRequest(String expectedResponse) {
+            this.expectedResponse = expectedResponse;
+        }
     }
 
-    private String encode(String text) {
-        if (text == null) return "";
-        return text.replace("|", "&#124;")
-                .replace(":", "&#58;")
-                .replace("\n", "&#10;");
+    // FILE_CHUNK를 받을 때마다 파일에 쓰고 받은 위치를 서버에 알린다 (수신 스레드에서만 기록)
+    private static class Download {
+        final FileChannel channel;
+        final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        long size = -1;
+        long received;
+        // 마지막으로 응답/조각을 받은 시각
+        volatile long lastProgressNanos = System.nanoTime();
+
+        Download(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        // DOWNLOAD 응답: DOWNLOAD_RESPONSE|SUCCESS|전송번호|파일이름|크기|조각크기|창크기
+        void start(Message response) {
+            lastProgressNanos = System.nanoTime();
+            if (response.size() < 4 || !"SUCCESS".equals(response.get(0))) {
+                System.err.println("다운로드 실패: " + TextCodec.format(response));
+                done.complete(false);
+                return;
+            }
+            size = ((Number) response.get(3)).longValue();
+            if (size == 0) {
+                done.complete(true);
+            }
+        }
     }
 
-    private String decode(String text) {
-        if (text == null) return "";
-        return text.replace("&#124;", "|")
-                .replace("&#58;", ":")
-                .replace("&#10;", "\n");
+    public SocketClient(String serverHost) {
+        this.serverHost = serverHost;
     }
 
     public boolean startConnection() {
@@ -48,16 +118,17 @@ public class SocketClient {
             if (socket != null && !socket.isClosed()) {
                 return true;
             }
-            socket = new Socket(serverHost, SERVER_PORT);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            out = new PrintWriter(socket.getOutputStream(), true);
+            if (!connect(WireFormat.BINARY)) {
+                // 바이너리 프로토콜을 모르는 서버 - 기존 텍스트 프로토콜로 재연결
+                connect(WireFormat.TEXT);
+            }
             running = true;
 
             Thread receiverThread = new Thread(this::receiveMessages);
             receiverThread.setDaemon(true);
             receiverThread.start();
 
-            System.out.println("서버 연결 성공: " + serverHost);
+            System.out.println("서버 연결 성공: " + serverHost + " (" + format + ")");
             return true;
         } catch (IOException e) {
             System.err.println("서버 연결 실패: " + e.getMessage());
@@ -65,6 +136,32 @@ public class SocketClient {
         }
     }
 
+    private boolean connect(WireFormat wireFormat) throws IOException {
+        socket = new Socket(serverHost, SERVER_PORT);
+        in = new BufferedInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream());
+        format = wireFormat;
+        version = 0;
+        if (wireFormat == WireFormat.TEXT) {
+            return true;
+        }
+
+        out.write(BinaryCodec.hello(BinaryCodec.VERSION));
+        out.flush();
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        try {
+            byte[] hello = new byte[BinaryCodec.HELLO_LENGTH];
+            new DataInputStream(in).readFully(hello);
+            version = BinaryCodec.readHello(hello);
+            socket.setSoTimeout(0);
+            return true;
+        } catch (IOException e) {
+            // 응답 없음 또는 핸드셰이크 형식이 아닌 응답
+            socket.close();
+            return false;
+        }
+    }
+
     public boolean authenticate(Long userId, String nickname) {
         this.userId = userId;
         this.nickname = nickname;
@@ -75,52 +172,205 @@ public class SocketClient {
             }
         }
 
-        sendMessage("AUTH:" + userId + ":" + nickname);
+        sendMessage(Message.event("AUTH", userId, nickname));
         return true;
     }
 
     private void receiveMessages() {
         try {
-            String message;
-            while (running && (message = in.readLine()) != null) {
-                final String finalMessage = message;
-
-                // 응답 메시지인 경우
-                if (message.contains("|") && message.contains("_RESPONSE")) {
-                    synchronized (responseLock) {
-                        lastResponse = message;
-                        responseLock.notify();
+            if (format == WireFormat.BINARY) {
+                DataInputStream input = new DataInputStream(in);
+                while (running) {
+                    int length = input.readInt();
+                    if (length < 0 || length > MAX_FRAME_BYTES) {
+                        throw new IOException("잘못된 프레임 길이: " + length);
+                    }
+                    byte[] payload = new byte[length];
+                    input.readFully(payload);
+                    Message message = BinaryCodec.decode(ByteBuffer.wrap(payload), version);
+                    if ("FILE_CHUNK".equals(message.getCommand())) {
+                        receiveFileChunk(message);
+                        continue;
+                    }
+                    if (message.getRequestId() != 0) {
+                        Download download = downloads.get(message.getRequestId());
+                        if (download != null) {
+                            download.start(message);
+                        }
                     }
+                    // 화면 코드는 기존 텍스트 형식으로 응답을 해석하므로 같은 형태로 변환해서 전달
+                    String text = TextCodec.format(message);
+                    if (message.getRequestId() != 0) {
+                        PendingRequest pending = pendingRequests.remove(message.getRequestId());
+                        if (pending != null) {
+                            pending.future.complete(text);
+                        }
+                    }
+                    invalidateCaches(text);
+                    notifyListeners(text);
                 }
-
-                // 리스너들에게 메시지 전달 (실시간 업데이트용)
-                for (MessageListener listener : new ArrayList<>(listeners)) {
-                    try {
-                        listener.onMessageReceived(finalMessage);
-                    } catch (Exception e) {
-                        e.printStackTrace();
+            } else {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, WireFormat.TEXT_CHARSET));
+                String message;
+                while (running && (message = reader.readLine()) != null) {
+                    if (message.contains("|") && message.contains("_RESPONSE")) {
+                        completeUnnumbered(message);
                     }
+                    invalidateCaches(message);
+                    notifyListeners(message);
                 }
             }
+        } catch (EOFException e) {
+            // 서버가 연결을 닫음
         } catch (IOException e) {
             if (running) {
                 System.err.println("메시지 수신 중 오류: " + e.getMessage());
             }
+        } finally {
+            failPendingRequests();
+            // 끊긴 동안의 알림을 받지 못하므로 캐시를 믿을 수 없음
+            clearCaches();
         }
     }
 
-    public void sendMessage(String message) {
+    // 서버 알림으로 캐시 무효화 (화면 리스너보다 먼저 - 리스너가 다시 요청하면 새 응답을 받도록)
+    private void invalidateCaches(String message) {
+        String[] parts = message.split(":");
+        if (parts.length < 2) {
+            return;
+        }
+        try {
+            switch (parts[0]) {
+                case "NEW_COMMENT":
+                    // NEW_COMMENT:글번호:댓글번호:작성자:내용:작성자번호:작성일
+                    commentPages.invalidate(Long.parseLong(parts[1]));
+                    break;
+                case "POST_READ":
+                    // POST_READ:글번호:사용자번호:닉네임
+                    readStatuses.invalidate(Long.parseLong(parts[1]));
+                    break;
+                case "POST_DELETED":
+                    // POST_DELETED:방번호:글번호
+                    if (parts.length >= 3) {
+                        invalidatePost(Long.parseLong(parts[2]));
+                    }
+                    break;
+                case "POST_CHANGED":
+                    // POST_CHANGED:방번호:글번호:... (과제 등록 등)
+                    if (parts.length >= 3) {
+                        postDetails.invalidate(Long.parseLong(parts[2]));
+                    }
+                    break;
+                default:
+                    // NEW_POST: 새 글은 캐시에 없고, 목록은 캐시하지 않으므로 화면이 다시 받는다
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // 알림 형식이 아님 (응답 본문에 ':'가 들어간 경우 등)
+        }
+    }
+
+    private void invalidatePost(Long postId) {
+        postDetails.invalidate(postId);
+        commentPages.invalidate(postId);
+        readStatuses.invalidate(postId);
+    }
+
+    // 새로고침 등 서버에서 다시 받고 싶을 때
+    public void clearCaches() {
+        postDetails.clear();
+        commentPages.clear();
+        readStatuses.clear();
+        nicknames.clear();
+        markedRead.clear();
+    }
+
+    // FILE_CHUNK|전송번호|위치|내용
+    private void receiveFileChunk(Message chunk) throws IOException {
+        long transferId = ((Number) chunk.get(0)).longValue();
+        Download download = downloads.get(transferId);
+        if (download == null || download.done.isDone()) {
+            return;
+        }
+        long offset = ((Number) chunk.get(1)).longValue();
+        ByteBuffer data = ByteBuffer.wrap((byte[]) chunk.get(2));
+        while (data.hasRemaining()) {
+            download.channel.write(data, offset + data.position());
+        }
+        download.received = Math.max(download.received, offset + data.capacity());
+        download.lastProgressNanos = System.nanoTime();
+        sendMessage(Message.event("DOWNLOAD_ACK", transferId, download.received));
+        if (download.size >= 0 && download.received >= download.size) {
+            download.done.complete(true);
+        }
+    }
+
+    // 앞에서부터 응답 이름이 맞는 요청을 찾아 완료 (건너뛴 요청은 응답을 받지 못한 것으로 처리)
+    private void completeUnnumbered(String response) {
+        PendingRequest pending;
+        while ((pending = unnumberedRequests.poll()) != null) {
+            if (response.startsWith(pending.expectedResponse)) {
+                pending.future.complete(response);
+                return;
+            }
+            pending.future.complete(null);
+        }
+    }
+
+    private void failPendingRequests() {
+        for (PendingRequest pending : pendingRequests.values()) {
+            pending.future.complete(null);
+        }
+        pendingRequests.clear();
+        for (Download download : downloads.values()) {
+            download.done.complete(false);
+        }
+        PendingRequest pending;
+        while ((pending = unnumberedRequests.poll()) != null) {
+            pending.future.complete(null);
+        }
+    }
+
+    private void notifyListeners(String message) {
+        // 리스너들에게 메시지 전달 (실시간 업데이트용)
+        for (MessageListener listener : new ArrayList<>(listeners)) {
+            try {
+                listener.onMessageReceived(message);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void sendMessage(Message message) {
         if (out != null && running) {
-            out.println(message);
+            byte[] bytes = format.encode(message, version);
+            synchronized (writeLock) {
+                try {
+                    out.write(bytes);
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("메시지 전송 실패: " + e.getMessage());
+                }
+            }
         }
     }
 
     public void sendChatMessage(String message) {
-        sendMessage("CHAT:" + encode(message));
+        sendMessage(Message.event("CHAT", message));
     }
 
     public void sendPostRead(Long postId) {
-        sendMessage("POST_READ:" + postId);
+        sendMessage(Message.event("POST_READ", postId));
+    }
+
+    // 접속자 목록 버전 차이를 발견했을 때 스냅샷 재요청 (USERLIST / ROOM_USERLIST 알림으로 도착)
+    public void requestUserList() {
+        sendMessage(Message.event("GET_USERLIST"));
+    }
+
+    public void requestRoomUserList(Long roomId) {
+        sendMessage(Message.of("GET_ROOM_USERLIST", roomId));
     }
 
     public void addMessageListener(MessageListener listener) {
@@ -155,129 +405,379 @@ public class SocketClient {
         return running && socket != null && !socket.isClosed();
     }
 
-    public String sendRequestAndWaitResponse(String request, String expectedResponsePrefix) {
-        synchronized (responseLock) {
-            lastResponse = null;
+    /**
+     * 요청을 보내고 응답을 기다리지 않고 바로 반환한다.
+     * 응답(전체 응답 줄)이 오면 완료되고, 시간 초과나 연결 종료 시 null로 완료된다.
+     */
+    public CompletableFuture<String> sendRequest(Message request, String expectedResponse) {
+        if (supportsRequestIds()) {
+            return sendRequest(request, expectedResponse, nextRequestId.incrementAndGet());
+        }
+        PendingRequest pending = new PendingRequest(expectedResponse);
+        // 대기열 순서와 전송 순서가 같아야 함
+        synchronized (writeLock) {
+            unnumberedRequests.offer(pending);
             sendMessage(request);
+        }
+        return pending.future.completeOnTimeout(null, RESPONSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
 
-            try {
-                responseLock.wait(5000);
+    // 요청 번호를 미리 정해야 하는 경우 (다운로드는 응답보다 먼저 받을 곳을 등록)
+    private CompletableFuture<String> sendRequest(Message request, String expectedResponse, long requestId) {
+        PendingRequest pending = new PendingRequest(expectedResponse);
+        pendingRequests.put(requestId, pending);
+        pending.future.whenComplete((response, error) -> pendingRequests.remove(requestId));
+        sendMessage(request.withRequestId(requestId));
+        return pending.future.completeOnTimeout(null, RESPONSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
 
-                if (lastResponse != null && lastResponse.startsWith(expectedResponsePrefix)) {
-                    return lastResponse;
-                }
-                return null;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return null;
+    private boolean supportsRequestIds() {
+        return format == WireFormat.BINARY && version >= BinaryCodec.REQUEST_ID_VERSION;
+    }
+
+    public String sendRequestAndWaitResponse(Message request, String expectedResponsePrefix) {
+        return await(sendRequest(request, expectedResponsePrefix), expectedResponsePrefix);
+    }
+
+    // 응답 이름이 다르거나 응답이 없으면 null
+    private String await(CompletableFuture<String> future, String expectedResponsePrefix) {
+        try {
+            String response = future.get();
+            if (response != null && response.startsWith(expectedResponsePrefix)) {
+                return response;
             }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
         }
     }
 
     // 기본 요청 메서드들
     public String login(String username, String password) {
-        return sendRequestAndWaitResponse("LOGIN|" + username + "|" + password, "LOGIN_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("LOGIN", username, password), "LOGIN_RESPONSE");
     }
 
     public String register(String username, String password, String nickname) {
-        return sendRequestAndWaitResponse("REGISTER|" + username + "|" + password + "|" + nickname, "REGISTER_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("REGISTER", username, password, nickname), "REGISTER_RESPONSE");
     }
 
     public String getRooms() {
-        return sendRequestAndWaitResponse("GET_ROOMS", "GET_ROOMS_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("GET_ROOMS"), "GET_ROOMS_RESPONSE");
     }
 
     public String createRoom(String roomName) {
-        return sendRequestAndWaitResponse("CREATE_ROOM|" + roomName, "CREATE_ROOM_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("CREATE_ROOM", roomName), "CREATE_ROOM_RESPONSE");
     }
 
     public String deleteRoom(Long roomId) {
-        return sendRequestAndWaitResponse("DELETE_ROOM|" + roomId, "DELETE_ROOM_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("DELETE_ROOM", roomId), "DELETE_ROOM_RESPONSE");
     }
 
     public String joinRoom(Long roomId) {
-        return sendRequestAndWaitResponse("JOIN_ROOM|" + roomId, "JOIN_ROOM_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("JOIN_ROOM", roomId), "JOIN_ROOM_RESPONSE");
     }
 
     public String leaveRoom(Long roomId) {
-        return sendRequestAndWaitResponse("LEAVE_ROOM|" + roomId, "LEAVE_ROOM_RESPONSE");
+        String response = sendRequestAndWaitResponse(Message.of("LEAVE_ROOM", roomId), "LEAVE_ROOM_RESPONSE");
+        // 나간 방의 댓글/읽음 알림은 더 오지 않는다 - 글이 어느 방인지 모르므로 모두 비움 (글 본문은 바뀌지 않으므로 유지)
+        commentPages.clear();
+        readStatuses.clear();
+        return response;
     }
 
     public String getPosts(Long roomId) {
-        return sendRequestAndWaitResponse("GET_POSTS|" + roomId, "GET_POSTS_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("GET_POSTS", roomId), "GET_POSTS_RESPONSE");
+    }
+
+    // 목록 한 페이지 (cursor: 이전 응답의 다음 페이지 위치, null이면 첫 페이지)
+    // 응답: NAME_RESPONSE|SUCCESS|다음 페이지 위치(마지막 페이지면 빈 값)|항목...
+    public CompletableFuture<String> getPostsPageAsync(Long roomId, int limit, String cursor) {
+        return sendRequest(Message.of("GET_POSTS", roomId, limit, cursor != null ? cursor : ""), "GET_POSTS_RESPONSE");
+    }
+
+    public CompletableFuture<String> getNoticesPageAsync(Long roomId, int limit, String cursor) {
+        return sendRequest(Message.of("GET_NOTICES", roomId, limit, cursor != null ? cursor : ""), "GET_NOTICES_RESPONSE");
+    }
+
+    public CompletableFuture<String> getGeneralPostsPageAsync(Long roomId, int limit, String cursor) {
+        return sendRequest(Message.of("GET_GENERAL_POSTS", roomId, limit, cursor != null ? cursor : ""),
+                "GET_GENERAL_POSTS_RESPONSE");
+    }
+
+    public CompletableFuture<String> getCommentsPageAsync(Long postId, int limit, String cursor) {
+        if (cursor == null && limit == ScrollPager.DEFAULT_PAGE_SIZE) {
+            return commentPages.getOrFetch(postId, () -> successOnly(
+                    sendRequest(Message.of("GET_COMMENTS", postId, limit, ""), "GET_COMMENTS_RESPONSE"),
+                    "GET_COMMENTS_RESPONSE"));
+        }
+        return sendRequest(Message.of("GET_COMMENTS", postId, limit, cursor != null ? cursor : ""), "GET_COMMENTS_RESPONSE");
+    }
+
+    public CompletableFuture<String> getSubmissionsPageAsync(Long assignmentId, int limit, String cursor) {
+        return sendRequest(Message.of("GET_SUBMISSIONS", assignmentId, limit, cursor != null ? cursor : ""),
+                "GET_SUBMISSIONS_RESPONSE");
     }
 
     public String getNotices(Long roomId) {
-        return sendRequestAndWaitResponse("GET_NOTICES|" + roomId, "GET_NOTICES_RESPONSE");
+        return await(getNoticesAsync(roomId), "GET_NOTICES_RESPONSE");
+    }
+
+    public CompletableFuture<String> getNoticesAsync(Long roomId) {
+        return sendRequest(Message.of("GET_NOTICES", roomId), "GET_NOTICES_RESPONSE");
     }
 
     public String getGeneralPosts(Long roomId) {
-        return sendRequestAndWaitResponse("GET_GENERAL_POSTS|" + roomId, "GET_GENERAL_POSTS_RESPONSE");
+        return await(getGeneralPostsAsync(roomId), "GET_GENERAL_POSTS_RESPONSE");
+    }
+
+    public CompletableFuture<String> getGeneralPostsAsync(Long roomId) {
+        return sendRequest(Message.of("GET_GENERAL_POSTS", roomId), "GET_GENERAL_POSTS_RESPONSE");
     }
 
     public String createPost(Long roomId, String title, String content, String postType) {
-        return sendRequestAndWaitResponse("CREATE_POST|" + roomId + "|" + encode(title) + "|" + encode(content) + "|" + postType, "CREATE_POST_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("CREATE_POST", roomId, title, content, postType), "CREATE_POST_RESPONSE");
     }
 
     public String deletePost(Long postId) {
-        return sendRequestAndWaitResponse("DELETE_POST|" + postId, "DELETE_POST_RESPONSE");
+        String response = sendRequestAndWaitResponse(Message.of("DELETE_POST", postId), "DELETE_POST_RESPONSE");
+        invalidatePost(postId);
+        return response;
     }
 
-    public String getPostDetail(Long postId) {
-        return sendRequestAndWaitResponse("GET_POST_DETAIL|" + postId, "GET_POST_DETAIL_RESPONSE");
+    // 글이 없거나 응답이 없으면 null
+    public PostDetail getPostDetail(Long postId) {
+        return getPostDetailAsync(postId).join();
+    }
+
+    public CompletableFuture<PostDetail> getPostDetailAsync(Long postId) {
+        return postDetails.getOrFetch(postId, () ->
+                sendRequest(Message.of("GET_POST_DETAIL", postId), "GET_POST_DETAIL_RESPONSE").thenApply(response -> {
+                    PostDetail detail = PostDetail.parse(response);
+                    if (detail != null) {
+                        nicknames.put(detail.getAuthorId(), detail.getAuthorName(), nicknames.stamp());
+                    }
+                    return detail;
+                }));
     }
 
     public String getComments(Long postId) {
-        return sendRequestAndWaitResponse("GET_COMMENTS|" + postId, "GET_COMMENTS_RESPONSE");
+        return await(getCommentsAsync(postId), "GET_COMMENTS_RESPONSE");
+    }
+
+    public CompletableFuture<String> getCommentsAsync(Long postId) {
+        return sendRequest(Message.of("GET_COMMENTS", postId), "GET_COMMENTS_RESPONSE");
     }
 
     public String createComment(Long postId, String content) {
-        return sendRequestAndWaitResponse("CREATE_COMMENT|" + postId + "|" + encode(content), "CREATE_COMMENT_RESPONSE");
+        String response = sendRequestAndWaitResponse(Message.of("CREATE_COMMENT", postId, content), "CREATE_COMMENT_RESPONSE");
+        commentPages.invalidate(postId);
+        return response;
     }
 
     public String getUser(Long userId) {
-        return sendRequestAndWaitResponse("GET_USER|" + userId, "GET_USER_RESPONSE");
+        String nickname = getUserNickname(userId);
+        if (nickname == null) {
+            return null;
+        }
+        return TextCodec.format(Message.of("GET_USER_RESPONSE", "SUCCESS", nickname));
+    }
+
+    // 사용자가 없거나 응답이 없으면 null
+    public String getUserNickname(Long userId) {
+        return nicknames.getOrFetch(userId, () ->
+                successOnly(sendRequest(Message.of("GET_USER", userId), "GET_USER_RESPONSE"), "GET_USER_RESPONSE")
+                        .thenApply(response -> response != null ? decodeText(response.split("\\|")[2]) : null))
+                .join();
     }
 
     public String markRead(Long postId) {
-        return sendRequestAndWaitResponse("MARK_READ|" + postId, "MARK_READ_RESPONSE");
+        return await(markReadAsync(postId), "MARK_READ_RESPONSE");
+    }
+
+    public CompletableFuture<String> markReadAsync(Long postId) {
+        long stamp = markedRead.stamp();
+        return sendRequest(Message.of("MARK_READ", postId), "MARK_READ_RESPONSE").thenApply(response -> {
+            if (response != null && response.startsWith("MARK_READ_RESPONSE|SUCCESS")) {
+                markedRead.put(postId, Boolean.TRUE, stamp);
+            }
+            return response;
+        });
+    }
+
+    // 이 연결에서 이미 읽음 처리한 글인지 (다시 열 때 MARK_READ / POST_READ를 생략)
+    public boolean isMarkedRead(Long postId) {
+        return markedRead.get(postId) != null;
     }
 
     public String getReadStatus(Long postId) {
-        return sendRequestAndWaitResponse("GET_READ_STATUS|" + postId, "GET_READ_STATUS_RESPONSE");
+        return await(getReadStatusAsync(postId), "GET_READ_STATUS_RESPONSE");
+    }
+
+    public CompletableFuture<String> getReadStatusAsync(Long postId) {
+        return readStatuses.getOrFetch(postId, () -> successOnly(
+                sendRequest(Message.of("GET_READ_STATUS", postId), "GET_READ_STATUS_RESPONSE"),
+                "GET_READ_STATUS_RESPONSE"));
+    }
+
+    // 실패 응답은 캐시하지 않도록 null로 바꾼다
+    private static CompletableFuture<String> successOnly(CompletableFuture<String> future, String responseName) {
+        return future.thenApply(response ->
+                response != null && response.startsWith(responseName + "|SUCCESS") ? response : null);
     }
 
     // 과제 관련 메서드
     public String createAssignment(Long postId, String title, String description, String dueDate) {
         String dueDateParam = dueDate != null ? dueDate : "";
-        return sendRequestAndWaitResponse("CREATE_ASSIGNMENT|" + postId + "|" + encode(title) + "|" + encode(description) + "|" + dueDateParam, "CREATE_ASSIGNMENT_RESPONSE");
+        String response = sendRequestAndWaitResponse(Message.of("CREATE_ASSIGNMENT", postId, title, description, dueDateParam), "CREATE_ASSIGNMENT_RESPONSE");
+        // 과제 여부가 바뀜
+        postDetails.invalidate(postId);
+        return response;
     }
 
     public String getAssignment(Long postId) {
-        return sendRequestAndWaitResponse("GET_ASSIGNMENT|" + postId, "GET_ASSIGNMENT_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("GET_ASSIGNMENT", postId), "GET_ASSIGNMENT_RESPONSE");
     }
 
     public String submitAssignment(Long assignmentId, String content, String fileName, String filePath, Long fileSize) {
-        String fileNameParam = fileName != null ? encode(fileName) : "";
+        String fileNameParam = fileName != null ? fileName : "";
         String filePathParam = filePath != null ? filePath : "";
         String fileSizeParam = fileSize != null ? fileSize.toString() : "";
-        return sendRequestAndWaitResponse("SUBMIT_ASSIGNMENT|" + assignmentId + "|" + encode(content) + "|" + fileNameParam + "|" + filePathParam + "|" + fileSizeParam, "SUBMIT_ASSIGNMENT_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("SUBMIT_ASSIGNMENT", assignmentId, content, fileNameParam, filePathParam, fileSizeParam), "SUBMIT_ASSIGNMENT_RESPONSE");
     }
 
     public String getSubmissions(Long assignmentId) {
-        return sendRequestAndWaitResponse("GET_SUBMISSIONS|" + assignmentId, "GET_SUBMISSIONS_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("GET_SUBMISSIONS", assignmentId), "GET_SUBMISSIONS_RESPONSE");
     }
 
     public String getMySubmission(Long assignmentId) {
-        return sendRequestAndWaitResponse("GET_MY_SUBMISSION|" + assignmentId, "GET_MY_SUBMISSION_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("GET_MY_SUBMISSION", assignmentId), "GET_MY_SUBMISSION_RESPONSE");
     }
 
     public String gradeSubmission(Long submissionId, Integer score, String feedback) {
         String scoreParam = score != null ? score.toString() : "";
-        return sendRequestAndWaitResponse("GRADE_SUBMISSION|" + submissionId + "|" + scoreParam + "|" + encode(feedback), "GRADE_SUBMISSION_RESPONSE");
+        return sendRequestAndWaitResponse(Message.of("GRADE_SUBMISSION", submissionId, scoreParam, feedback), "GRADE_SUBMISSION_RESPONSE");
+    }
+
+    /**
+     * 파일을 조각으로 나눠 업로드하고 서버 저장소의 키를 돌려준다 (실패하면 null).
+     * 확인 응답을 받지 못한 조각은 서버가 알려준 창 크기까지만 보내므로 큰 파일도 다른 요청을 막지 않는다.
+     * postId를 주면 게시글 첨부파일(files)로 등록된다.
+     */
+    public String uploadFile(File file, Long postId) {
+        String begin = sendRequestAndWaitResponse(
+                Message.of("UPLOAD_BEGIN", file.getName(), file.length(), postId != null ? postId : ""),
+                "UPLOAD_BEGIN_RESPONSE");
+        if (begin == null || !begin.startsWith("UPLOAD_BEGIN_RESPONSE|SUCCESS")) {
+            System.err.println("업로드 시작 실패: " + begin);
+            return null;
+        }
+        // UPLOAD_BEGIN_RESPONSE|SUCCESS|업로드번호|조각크기|창크기
+        String[] parts = begin.split("\\|");
+        long uploadId = Long.parseLong(parts[2]);
+        int chunkBytes = Integer.parseInt(parts[3]);
+        int window = parts.length > 4 ? Integer.parseInt(parts[4]) : DEFAULT_UPLOAD_WINDOW;
+
+        ArrayDeque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long offset = 0;
+            long size = channel.size();
+            while (offset < size) {
+                if (inFlight.size() >= window && !isChunkAccepted(inFlight.poll())) {
+                    return null;
+                }
+                ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(chunkBytes, size - offset));
+                while (chunk.hasRemaining() && channel.read(chunk, offset + chunk.position()) >= 0) {
+                    // 끝까지 읽음
+                }
+                inFlight.add(sendRequest(Message.of("UPLOAD_CHUNK", uploadId, offset, chunk.array()),
+                        "UPLOAD_CHUNK_RESPONSE"));
+                offset += chunk.capacity();
+            }
+            while (!inFlight.isEmpty()) {
+                if (!isChunkAccepted(inFlight.poll())) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("파일 읽기 실패: " + e.getMessage());
+            return null;
+        }
+
+        String end = sendRequestAndWaitResponse(Message.of("UPLOAD_END", uploadId), "UPLOAD_END_RESPONSE");
+        if (end == null || !end.startsWith("UPLOAD_END_RESPONSE|SUCCESS")) {
+            System.err.println("업로드 완료 실패: " + end);
+            return null;
+        }
+        // UPLOAD_END_RESPONSE|SUCCESS|키|파일번호
+        return end.split("\\|")[2];
+    }
+
+    private boolean isChunkAccepted(CompletableFuture<String> future) {
+        String response = await(future, "UPLOAD_CHUNK_RESPONSE");
+        if (response == null || !response.startsWith("UPLOAD_CHUNK_RESPONSE|SUCCESS")) {
+            System.err.println("업로드 실패: " + response);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 첨부파일을 target에 받는다. kind는 FILE(게시글 첨부, 파일 번호) 또는 SUBMISSION(과제 제출물 번호).
+     * 바이너리 프로토콜에서만 지원하며, 받은 만큼 서버에 알려야 다음 조각이 오므로 수신 스레드가 직접 파일에 쓴다.
+     */
+    public boolean downloadFile(String kind, Long id, File target) {
+        if (!supportsRequestIds()) {
+            System.err.println("파일 다운로드는 바이너리 프로토콜에서만 지원합니다");
+            return false;
+        }
+        long requestId = nextRequestId.incrementAndGet();
+        try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Download download = new Download(channel);
+            // 첫 조각이 응답 바로 뒤에 오므로 요청 전에 등록
+            downloads.put(requestId, download);
+            sendRequest(Message.of("DOWNLOAD", kind, id), "DOWNLOAD_RESPONSE", requestId)
+                    .thenAccept(response -> {
+                        if (response == null) download.done.complete(false);
+                    });
+            long idleTimeout = TimeUnit.MILLISECONDS.toNanos(DOWNLOAD_IDLE_TIMEOUT_MS);
+            while (true) {
+                long remaining = download.lastProgressNanos + idleTimeout - System.nanoTime();
+                if (remaining <= 0) {
+                    System.err.println("다운로드 시간 초과: " + download.received + "/" + download.size + " bytes");
+                    download.done.complete(false);
+                    return false;
+                }
+                try {
+                    return download.done.get(remaining, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // 그사이 조각을 받았으면 다시 기다림
+                }
+            }
+        } catch (IOException | ExecutionException e) {
+            System.err.println("다운로드 실패: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            downloads.remove(requestId);
+        }
+    }
+
+    // 방 안 검색 - 응답: SEARCH_RESPONSE|SUCCESS|종류:글 ID:대상 ID:점수:제목... (점수 높은 순)
+    public CompletableFuture<String> searchAsync(Long roomId, String query, int limit) {
+        return sendRequest(Message.of("SEARCH", roomId, query, limit), "SEARCH_RESPONSE");
+    }
+
+    public String getFiles(Long postId) {
+        return sendRequestAndWaitResponse(Message.of("GET_FILES", postId), "GET_FILES_RESPONSE");
     }
 
     public String decodeText(String text) {
-        return decode(text);
+        return TextCodec.unescape(text);
     }
 }
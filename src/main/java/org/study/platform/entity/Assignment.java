@@ -4,11 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments",
+        indexes = @Index(name = "idx_assignments_post", columnList = "post_id"))
 public class Assignment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "assignments_seq")
+    @SequenceGenerator(name = "assignments_seq", sequenceName = "assignments_seq", allocationSize = 50)
     @Column(name = "assignment_id")
     private Long assignmentId;
 
@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignment_submissions")
+// 과제당 한 사람 한 번 제출 (assignment_id로 시작하므로 과제별 조회에도 사용), 제출 목록은 최근 제출순
+@Table(name = "assignment_submissions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_submissions_assignment_user", columnNames = {"assignment_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_submissions_assignment_submitted", columnList = "assignment_id, submitted_at, submission_id"),
+                @Index(name = "idx_submissions_user", columnList = "user_id")
+        })
 public class AssignmentSubmission {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "assignment_submissions_seq")
+    @SequenceGenerator(name = "assignment_submissions_seq", sequenceName = "assignment_submissions_seq", allocationSize = 50)
     @Column(name = "submission_id")
     private Long submissionId;
 
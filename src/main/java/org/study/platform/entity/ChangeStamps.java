@@ -0,0 +1,67 @@
+package org.study.platform.entity;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 변경분 동기화(*_SINCE)에 쓰는 시각(글 작성/수정, 댓글 작성, 삭제 기록)을 찍고, 아직 커밋되지 않은 시각을 기억한다.
+ *
+ * 시각은 flush 때 찍히고 커밋은 그 뒤에 되므로, 조회 시각을 그대로 다음 기준 시각으로 쓰면
+ * 조회 전에 시각이 찍히고 조회 뒤에 커밋된 행을 놓친다. watermark()는 커밋이 끝나지 않은 트랜잭션이 찍은
+ * 가장 이른 시각을 넘지 않으므로, 커밋이 얼마나 늦어지든 그 행은 다음 동기화에서 받는다.
+ */
+public final class ChangeStamps {
+
+    private static final Object lock = new Object();
+    // 커밋/롤백을 기다리는 시각 (트랜잭션마다 찍은 만큼)
+    private static final List<LocalDateTime> pending = new ArrayList<>();
+
+    private ChangeStamps() {
+    }
+
+    // 엔티티 @PrePersist/@PreUpdate에서 호출 - 트랜잭션이 끝날 때까지 기준 시각이 이 시각을 넘지 않는다
+    public static LocalDateTime stamp() {
+        LocalDateTime now;
+        synchronized (lock) {
+            now = LocalDateTime.now();
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return now;
+            }
+            pending.add(now);
+        }
+        LocalDateTime stamped = now;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (lock) {
+                    pending.remove(stamped);
+                }
+            }
+        });
+        return now;
+    }
+
+    // 지금까지 커밋된 변경을 모두 포함하는 기준 시각: 지금과 커밋 전인 가장 이른 시각 중 이른 쪽
+    public static LocalDateTime watermark() {
+        synchronized (lock) {
+            LocalDateTime watermark = LocalDateTime.now();
+            for (LocalDateTime stamped : pending) {
+                if (stamped.isBefore(watermark)) {
+                    watermark = stamped;
+                }
+            }
+            return watermark;
+        }
+    }
+
+    // 커밋을 기다리는 시각 수 (테스트/통계용)
+    public static int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+}
@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "posts")
+// 목록/페이지 조회는 (방, [유형,] 작성 시각 역순, ID 역순) - 인덱스 순서대로 읽고 정렬하지 않는다
+@Table(name = "posts",
+        indexes = {
+                @Index(name = "idx_posts_room_updated", columnList = "room_id, updated_at"),
+                @Index(name = "idx_posts_room_created", columnList = "room_id, created_at, post_id"),
+                @Index(name = "idx_posts_room_type_created", columnList = "room_id, post_type, created_at, post_id")
+        })
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     @Column(name = "post_id")
     private Long postId;
 
@@ -44,13 +51,13 @@ public class Post {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = ChangeStamps.stamp();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = ChangeStamps.stamp();
     }
 
     public Post() {}
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post_read_status")
+// 같은 사용자가 같은 글을 두 번 읽음 처리하지 않도록 (post_id로 시작하므로 글별 조회에도 사용)
+@Table(name = "post_read_status",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_read_status_post_user", columnNames = {"post_id", "user_id"}),
+        indexes = @Index(name = "idx_post_read_status_user", columnList = "user_id"))
 public class PostReadStatus {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_read_status_seq")
+    @SequenceGenerator(name = "post_read_status_seq", sequenceName = "post_read_status_seq", allocationSize = 50)
     @Column(name = "read_id")
     private Long readId;
 
@@ -23,7 +27,9 @@ public class PostReadStatus {
 
     @PrePersist
     protected void onCreate() {
-        readAt = LocalDateTime.now();
+        if (readAt == null) {
+            readAt = LocalDateTime.now();
+        }
     }
 
     public PostReadStatus() {}
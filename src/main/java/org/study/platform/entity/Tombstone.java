@@ -0,0 +1,54 @@
+package org.study.platform.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// 삭제 기록 - 변경분 동기화(*_SINCE)에서 마지막 동기화 이후 지워진 글/댓글을 알려 주기 위해 남긴다
+@Entity
+@Table(name = "tombstones",
+        indexes = @Index(name = "idx_tombstones_scope_deleted", columnList = "kind, scope_id, deleted_at"))
+public class Tombstone {
+
+    public enum Kind {
+        POST,       // scopeId = 방 ID
+        COMMENT     // scopeId = 게시글 ID
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tombstones_seq")
+    @SequenceGenerator(name = "tombstones_seq", sequenceName = "tombstones_seq", allocationSize = 50)
+    @Column(name = "tombstone_id")
+    private Long tombstoneId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = ChangeStamps.stamp();
+    }
+
+    public Tombstone() {}
+
+    public Tombstone(Kind kind, Long scopeId, Long targetId) {
+        this.kind = kind;
+        this.scopeId = scopeId;
+        this.targetId = targetId;
+    }
+
+    public Long getTombstoneId() { return tombstoneId; }
+    public Kind getKind() { return kind; }
+    public Long getScopeId() { return scopeId; }
+    public Long getTargetId() { return targetId; }
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
@@ -0,0 +1,335 @@
+package org.study.platform.protocol;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 길이 접두 바이너리 프로토콜.
+ *
+ * 핸드셰이크: 클라이언트가 연결 직후 HELLO(0x00 'S' 'P' 'B' 버전)를 보내면 서버가 합의한 버전으로 같은 형식의 응답을 보낸다.
+ * 텍스트 프로토콜 메시지는 0x00으로 시작하지 않으므로 첫 바이트로 구분할 수 있다.
+ *
+ * 프레임: [int32 본문 길이][본문]
+ * 본문 v1: [varint (opcode << 1 | 구분자 비트)][varint 필드 수][필드...]
+ * 본문 v2: [varint (opcode << 2 | 요청 번호 비트 << 1 | 구분자 비트)][요청 번호 비트가 있으면 varint 요청 번호]
+ *          [varint 필드 수][필드...]
+ * 필드:   [태그 1바이트][값] - 정수는 zigzag varint, 문자열은 varint 길이 + UTF-8, 시각은 epoch millis,
+ *         바이트 배열은 varint 길이 + 원본 바이트
+ */
+public final class BinaryCodec {
+
+    public static final int VERSION = 2;
+    // 이 버전부터 요청 번호를 실어 보낼 수 있음
+    public static final int REQUEST_ID_VERSION = 2;
+    public static final int HELLO_LENGTH = 5;
+    private static final byte[] MAGIC = {0x00, 'S', 'P', 'B'};
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_FALSE = 3;
+    private static final byte TAG_TRUE = 4;
+    private static final byte TAG_TIMESTAMP = 5;
+    private static final byte TAG_RECORD = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_BYTES = 8;
+
+    private BinaryCodec() {}
+
+    public static byte[] hello(int version) {
+        return new byte[]{MAGIC[0], MAGIC[1], MAGIC[2], MAGIC[3], (byte) version};
+    }
+
+    // HELLO를 검사하고 상대가 요청한 버전을 반환
+    public static int readHello(byte[] hello) throws ProtocolException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (hello[i] != MAGIC[i]) {
+                throw new ProtocolException("잘못된 핸드셰이크");
+            }
+        }
+        return hello[4] & 0xFF;
+    }
+
+    // 길이 접두를 포함한 프레임 전체 (version: 핸드셰이크로 합의한 버전)
+    public static byte[] encode(Message message, int version) {
+        Writer writer = writeHeader(message, version, message.size());
+        for (Object field : message.getFields()) {
+            writeField(writer, field);
+        }
+        return writer.finishFrame(0);
+    }
+
+    /**
+     * 마지막 필드가 byteCount 바이트의 바이트 배열인 프레임의 앞부분만 만든다.
+     * 반환한 바이트 바로 뒤에 byteCount 바이트를 이어 보내면 완전한 프레임이 되므로,
+     * 파일 내용을 메모리에 올리지 않고 FileChannel.transferTo로 소켓에 직접 보낼 수 있다.
+     */
+    public static byte[] encodeWithTrailingBytes(Message message, int version, int byteCount) {
+        Writer writer = writeHeader(message, version, message.size() + 1);
+        for (Object field : message.getFields()) {
+            writeField(writer, field);
+        }
+        writer.writeByte(TAG_BYTES);
+        writer.writeVarint(byteCount);
+        return writer.finishFrame(byteCount);
+    }
+
+    /**
+     * 요청 번호 없이 인코딩해 둔 프레임에 요청 번호를 붙인 새 프레임 (본문은 그대로 복사).
+     * 미리 인코딩해 둔 응답을 요청마다 다시 인코딩하지 않고 보낼 때 사용.
+     */
+    public static byte[] withRequestId(byte[] frame, int version, long requestId) {
+        if (requestId == 0 || version < REQUEST_ID_VERSION) {
+            return frame;
+        }
+        ByteBuffer in = ByteBuffer.wrap(frame, 4, frame.length - 4);
+        long header;
+        try {
+            header = readVarint(in);
+        } catch (ProtocolException e) {
+            throw new IllegalArgumentException("잘못된 프레임", e);
+        }
+        if ((header & 2) != 0) {
+            throw new IllegalArgumentException("이미 요청 번호가 있는 프레임");
+        }
+        Writer writer = new Writer();
+        writer.writeInt(0);
+        writer.writeVarint(header | 2);
+        writer.writeVarint(requestId);
+        int bodyStart = in.position();
+        int bodyLength = frame.length - bodyStart;
+        writer.ensure(bodyLength);
+        System.arraycopy(frame, bodyStart, writer.buffer, writer.position, bodyLength);
+        writer.position += bodyLength;
+        return writer.finishFrame(0);
+    }
+
+    private static Writer writeHeader(Message message, int version, int fieldCount) {
+        int opcode = Opcode.codeOf(message.getCommand());
+        if (opcode < 0) {
+            throw new IllegalArgumentException("등록되지 않은 명령: " + message.getCommand());
+        }
+        long colonBit = message.getStyle() == Message.Style.COLON ? 1 : 0;
+        Writer writer = new Writer();
+        writer.writeInt(0); // 길이 자리
+        if (version >= REQUEST_ID_VERSION) {
+            long requestId = message.getRequestId();
+            writer.writeVarint(((long) opcode << 2) | (requestId != 0 ? 2 : 0) | colonBit);
+            if (requestId != 0) {
+                writer.writeVarint(requestId);
+            }
+        } else {
+            writer.writeVarint(((long) opcode << 1) | colonBit);
+        }
+        writer.writeVarint(fieldCount);
+        return writer;
+    }
+
+    private static void writeField(Writer writer, Object field) {
+        if (field == null) {
+            writer.writeByte(TAG_NULL);
+        } else if (field instanceof String) {
+            byte[] bytes = ((String) field).getBytes(StandardCharsets.UTF_8);
+            writer.writeByte(TAG_STRING);
+            writer.writeVarint(bytes.length);
+            writer.writeBytes(bytes);
+        } else if (field instanceof Long || field instanceof Integer) {
+            writer.writeByte(TAG_INT);
+            writer.writeVarint(zigzag(((Number) field).longValue()));
+        } else if (field instanceof byte[]) {
+            byte[] bytes = (byte[]) field;
+            writer.writeByte(TAG_BYTES);
+            writer.writeVarint(bytes.length);
+            writer.writeBytes(bytes);
+        } else if (field instanceof Boolean) {
+            writer.writeByte((Boolean) field ? TAG_TRUE : TAG_FALSE);
+        } else if (field instanceof LocalDateTime) {
+            writer.writeByte(TAG_TIMESTAMP);
+            writer.writeVarint(zigzag(((LocalDateTime) field).toInstant(ZoneOffset.UTC).toEpochMilli()));
+        } else if (field instanceof Message.Record) {
+            List<Object> values = ((Message.Record) field).getFields();
+            writer.writeByte(TAG_RECORD);
+            writer.writeVarint(values.size());
+            for (Object value : values) {
+                writeField(writer, value);
+            }
+        } else if (field instanceof List) {
+            List<?> values = (List<?>) field;
+            writer.writeByte(TAG_LIST);
+            writer.writeVarint(values.size());
+            for (Object value : values) {
+                writeField(writer, value);
+            }
+        } else {
+            // 그 외 타입 (enum 등)은 문자열로
+            writeField(writer, field.toString());
+        }
+    }
+
+    // 길이 접두를 제외한 본문을 해석
+    public static Message decode(ByteBuffer payload, int version) throws ProtocolException {
+        try {
+            long header = readVarint(payload);
+            Message.Style style = (header & 1) == 1 ? Message.Style.COLON : Message.Style.PIPE;
+            long requestId = 0;
+            String command;
+            if (version >= REQUEST_ID_VERSION) {
+                command = Opcode.nameOf((int) (header >>> 2));
+                if ((header & 2) != 0) {
+                    requestId = readVarint(payload);
+                }
+            } else {
+                command = Opcode.nameOf((int) (header >>> 1));
+            }
+            int count = readCount(payload);
+            List<Object> fields = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                fields.add(readField(payload));
+            }
+            return new Message(command, style, fields).withRequestId(requestId);
+        } catch (BufferUnderflowException e) {
+            throw new ProtocolException("프레임이 잘렸습니다");
+        }
+    }
+
+    private static Object readField(ByteBuffer in) throws ProtocolException {
+        byte tag = in.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING: {
+                int length = readCount(in);
+                if (in.hasArray()) {
+                    String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+                    in.position(in.position() + length);
+                    return value;
+                }
+                byte[] bytes = new byte[length];
+                in.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            case TAG_INT:
+                return unzigzag(readVarint(in));
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_TIMESTAMP:
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(unzigzag(readVarint(in))), ZoneOffset.UTC);
+            case TAG_RECORD: {
+                int count = readCount(in);
+                List<Object> values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    values.add(readField(in));
+                }
+                return new Message.Record(values);
+            }
+            case TAG_BYTES: {
+                byte[] bytes = new byte[readCount(in)];
+                in.get(bytes);
+                return bytes;
+            }
+            case TAG_LIST: {
+                int count = readCount(in);
+                List<Object> values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    values.add(readField(in));
+                }
+                return values;
+            }
+            default:
+                throw new ProtocolException("알 수 없는 필드 타입: " + tag);
+        }
+    }
+
+    // 개수/길이는 남은 바이트 수를 넘을 수 없음
+    private static int readCount(ByteBuffer in) throws ProtocolException {
+        long count = readVarint(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new ProtocolException("잘못된 길이: " + count);
+        }
+        return (int) count;
+    }
+
+    private static long readVarint(ByteBuffer in) throws ProtocolException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new ProtocolException("varint가 너무 깁니다");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // 크기가 늘어나는 바이트 배열
+    private static final class Writer {
+
+        private byte[] buffer = new byte[128];
+        private int position = 0;
+
+        void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                byte[] bigger = new byte[Math.max(buffer.length * 2, position + extra)];
+                System.arraycopy(buffer, 0, bigger, 0, position);
+                buffer = bigger;
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buffer[position++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        // 앞의 4바이트에 본문 길이를 채우고 딱 맞는 배열 반환
+        // trailing: 프레임 뒤에 따로 이어 보낼 바이트 수 (길이 접두에만 포함)
+        byte[] finishFrame(int trailing) {
+            int length = position - 4 + trailing;
+            buffer[0] = (byte) (length >>> 24);
+            buffer[1] = (byte) (length >>> 16);
+            buffer[2] = (byte) (length >>> 8);
+            buffer[3] = (byte) length;
+            byte[] frame = new byte[position];
+            System.arraycopy(buffer, 0, frame, 0, position);
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.study.platform.protocol;
+
+/**
+ * 여러 연결에 보낼 메시지를 형식별로 한 번만 인코딩해서 공유한다.
+ * 받는 연결의 형식(텍스트 / 바이너리 버전)이 처음 요청될 때 인코딩하고, 이후에는 같은 바이트 배열을 돌려준다.
+ * 돌려받은 배열은 읽기 전용으로만 사용해야 한다.
+ *
+ * 미리 만들어 둔 응답은 withRequestId()로 요청 번호만 붙여 보낸다 (본문은 다시 인코딩하지 않고 복사).
+ */
+public final class EncodedMessage {
+
+    private final Message message;
+    private byte[] text;
+    // 인덱스 = 바이너리 프로토콜 버전
+    private final byte[][] binary = new byte[BinaryCodec.VERSION + 1][];
+    // withRequestId로 만든 경우: 공유하는 원본과 붙일 요청 번호
+    private final EncodedMessage shared;
+    private final long requestId;
+
+    public EncodedMessage(Message message) {
+        this.message = message;
+        this.shared = null;
+        this.requestId = 0;
+    }
+
+    private EncodedMessage(EncodedMessage shared, long requestId) {
+        this.message = shared.message;
+        this.shared = shared;
+        this.requestId = requestId;
+    }
+
+    // 요청 번호가 없는 메시지에만 사용 (응답 한 건에 쓰고 버린다)
+    public EncodedMessage withRequestId(long requestId) {
+        if (requestId == 0) {
+            return this;
+        }
+        return new EncodedMessage(this, requestId);
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    public synchronized byte[] bytes(WireFormat format, int version) {
+        if (shared != null) {
+            return withRequestId(shared.bytes(format, version), format, version);
+        }
+        if (format == WireFormat.TEXT) {
+            if (text == null) {
+                text = format.encode(message, version);
+            }
+            return text;
+        }
+        if (version < 0 || version >= binary.length) {
+            return format.encode(message, version);
+        }
+        if (binary[version] == null) {
+            binary[version] = format.encode(message, version);
+        }
+        return binary[version];
+    }
+
+    private byte[] withRequestId(byte[] bytes, WireFormat format, int version) {
+        if (format == WireFormat.BINARY) {
+            return BinaryCodec.withRequestId(bytes, version, requestId);
+        }
+        byte[] prefix = ("#" + requestId + "|").getBytes(WireFormat.TEXT_CHARSET);
+        byte[] line = new byte[prefix.length + bytes.length];
+        System.arraycopy(prefix, 0, line, 0, prefix.length);
+        System.arraycopy(bytes, 0, line, prefix.length, bytes.length);
+        return line;
+    }
+}
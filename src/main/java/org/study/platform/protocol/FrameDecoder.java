@@ -0,0 +1,134 @@
+package org.study.platform.protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 받은 바이트를 모아 완성된 메시지 단위로 잘라낸다 (블로킹/NIO 서버 공용).
+ * 첫 바이트로 형식을 정한다: HELLO(0x00...)면 바이너리, 아니면 기존 텍스트 줄 형식.
+ * 한 프레임(텍스트는 한 줄)이 maxFrameBytes를 넘으면 ProtocolException을 던진다.
+ */
+public class FrameDecoder {
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    public interface Listener {
+        // 바이너리 핸드셰이크 완료 - 서버는 합의한 버전으로 HELLO를 돌려보내야 한다
+        void onHandshake(int version);
+
+        void onMessage(Message message);
+    }
+
+    private final int maxFrameBytes;
+    private final Listener listener;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private WireFormat format;
+    private int version;
+    // 텍스트 모드에서 줄바꿈이 없다고 확인된 바이트 수 (같은 바이트를 다시 훑지 않기 위함)
+    private int scanned = 0;
+
+    public FrameDecoder(int maxFrameBytes, Listener listener) {
+        this.maxFrameBytes = maxFrameBytes;
+        this.listener = listener;
+    }
+
+    public void decode(ByteBuffer input) throws ProtocolException {
+        append(input);
+        buffer.flip();
+        try {
+            if (format == null && !detectFormat()) {
+                return;
+            }
+            if (format == WireFormat.BINARY) {
+                decodeFrames();
+            } else {
+                decodeLines();
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void append(ByteBuffer input) {
+        if (buffer.remaining() < input.remaining()) {
+            int needed = buffer.position() + input.remaining();
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, needed));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        buffer.put(input);
+    }
+
+    private boolean detectFormat() throws ProtocolException {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        if (buffer.get(buffer.position()) != 0x00) {
+            format = WireFormat.TEXT;
+            return true;
+        }
+        if (buffer.remaining() < BinaryCodec.HELLO_LENGTH) {
+            return false;
+        }
+        byte[] hello = new byte[BinaryCodec.HELLO_LENGTH];
+        buffer.get(hello);
+        int requested = BinaryCodec.readHello(hello);
+        version = Math.min(requested, BinaryCodec.VERSION);
+        if (version < 1) {
+            throw new ProtocolException("지원하지 않는 프로토콜 버전: " + requested);
+        }
+        format = WireFormat.BINARY;
+        listener.onHandshake(version);
+        return true;
+    }
+
+    private void decodeFrames() throws ProtocolException {
+        while (buffer.remaining() >= 4) {
+            int length = buffer.getInt(buffer.position());
+            if (length < 0 || length > maxFrameBytes) {
+                throw new ProtocolException("프레임이 너무 큽니다: " + length + " bytes");
+            }
+            if (buffer.remaining() < 4 + length) {
+                return;
+            }
+            buffer.position(buffer.position() + 4);
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+            listener.onMessage(BinaryCodec.decode(payload, version));
+        }
+    }
+
+    private void decodeLines() throws ProtocolException {
+        byte[] array = buffer.array();
+        int start = buffer.position();
+        int i = start + scanned;
+        int limit = buffer.limit();
+        while (i < limit) {
+            if (array[i] == '\n') {
+                int end = i;
+                if (end > start && array[end - 1] == '\r') {
+                    end--;
+                }
+                String line = new String(array, start, end - start, WireFormat.TEXT_CHARSET);
+                start = i + 1;
+                buffer.position(start);
+                listener.onMessage(TextCodec.parse(line));
+            }
+            i++;
+        }
+        scanned = limit - start;
+        if (scanned > maxFrameBytes) {
+            throw new ProtocolException("메시지가 너무 깁니다: " + scanned + " bytes");
+        }
+    }
+
+    // 아직 형식이 정해지지 않았으면 null
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
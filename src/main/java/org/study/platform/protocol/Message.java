@@ -0,0 +1,117 @@
+package org.study.platform.protocol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 서버와 클라이언트가 주고받는 메시지 하나.
+ * 명령 이름과 타입이 있는 필드 목록으로 구성되며, 텍스트/바이너리 중 어느 형식으로도 직렬화할 수 있다.
+ *
+ * 필드 값으로 쓸 수 있는 타입: null, String, Long/Integer, Boolean, LocalDateTime,
+ * {@link Record} (텍스트에서 ':'로 연결), List (텍스트에서 ','로 연결)
+ */
+public class Message {
+
+    // 텍스트 형식에서 최상위 필드 구분자 ("CMD|a|b" 또는 "CMD:a:b")
+    public enum Style { PIPE, COLON }
+
+    private final String command;
+    private final Style style;
+    private final List<Object> fields;
+    // 요청-응답 짝을 맞추기 위한 번호 (0이면 없음). 서버는 요청의 번호를 응답에 그대로 돌려준다.
+    private long requestId;
+
+    public Message(String command, Style style, List<Object> fields) {
+        this.command = command;
+        this.style = style;
+        this.fields = fields;
+    }
+
+    // 요청/응답 메시지 ("CMD|a|b")
+    public static Message of(String command, Object... fields) {
+        return new Message(command, Style.PIPE, new ArrayList<>(Arrays.asList(fields)));
+    }
+
+    // 실시간 알림 메시지 ("CMD:a:b")
+    public static Message event(String command, Object... fields) {
+        return new Message(command, Style.COLON, new ArrayList<>(Arrays.asList(fields)));
+    }
+
+    public static Record record(Object... fields) {
+        return new Record(Arrays.asList(fields));
+    }
+
+    // 목록 응답을 만들 때 필드 추가
+    public Message add(Object field) {
+        fields.add(field);
+        return this;
+    }
+
+    public Message withRequestId(long requestId) {
+        this.requestId = requestId;
+        return this;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public Style getStyle() {
+        return style;
+    }
+
+    public List<Object> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    public Object get(int index) {
+        return fields.get(index);
+    }
+
+    // [명령, 필드1, 필드2, ...] 형태의 문자열 배열 (형식과 관계없이 내용 비교용)
+    public String[] toParts() {
+        String[] parts = new String[fields.size() + 1];
+        parts[0] = command;
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = fields.get(i);
+            parts[i + 1] = value == null ? "" : value.toString();
+        }
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        return TextCodec.format(this);
+    }
+
+    // 여러 값을 묶은 하나의 필드 (예: 목록 응답의 한 행)
+    public static final class Record {
+
+        private final List<Object> fields;
+
+        public Record(List<Object> fields) {
+            this.fields = fields;
+        }
+
+        public List<Object> getFields() {
+            return fields;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            TextCodec.appendField(sb, this);
+            return sb.toString();
+        }
+    }
+}
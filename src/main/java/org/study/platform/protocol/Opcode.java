@@ -0,0 +1,109 @@
+package org.study.platform.protocol;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 바이너리 프로토콜에서 명령 이름 대신 보내는 번호.
+ * "XXX_RESPONSE"는 XXX의 번호에 RESPONSE_FLAG를 더해서 보낸다.
+ * 번호는 한 번 배포되면 바꾸지 않는다 (새 명령은 뒤에 추가).
+ */
+public enum Opcode {
+
+    // 요청
+    AUTH(1),
+    LOGIN(2),
+    REGISTER(3),
+    GET_ROOMS(4),
+    CREATE_ROOM(5),
+    DELETE_ROOM(6),
+    JOIN_ROOM(7),
+    LEAVE_ROOM(8),
+    GET_POSTS(9),
+    GET_NOTICES(10),
+    GET_GENERAL_POSTS(11),
+    CREATE_POST(12),
+    DELETE_POST(13),
+    GET_POST_DETAIL(14),
+    GET_COMMENTS(15),
+    CREATE_COMMENT(16),
+    GET_USER(17),
+    MARK_READ(18),
+    GET_READ_STATUS(19),
+    CREATE_ASSIGNMENT(20),
+    GET_ASSIGNMENT(21),
+    SUBMIT_ASSIGNMENT(22),
+    GET_SUBMISSIONS(23),
+    GET_MY_SUBMISSION(24),
+    GRADE_SUBMISSION(25),
+    CHAT(26),
+    POST_READ(27),
+    GET_USERLIST(28),
+    GET_ROOM_USERLIST(29),
+    UPLOAD_BEGIN(30),
+    UPLOAD_CHUNK(31),
+    UPLOAD_END(32),
+    DOWNLOAD(33),
+    DOWNLOAD_ACK(34),
+    GET_FILES(35),
+    GET_POSTS_SINCE(36),
+    GET_COMMENTS_SINCE(37),
+    SEARCH(38),
+
+    // 서버 알림
+    CONNECTED(100),
+    USERLIST(101),
+    ROOM_USERLIST(102),
+    ROOM_JOIN(103),
+    ROOM_LEAVE(104),
+    NEW_ROOM(105),
+    ROOM_DELETED(106),
+    NEW_POST(107),
+    POST_UPDATE(108),
+    POST_DELETED(109),
+    NEW_COMMENT(110),
+    ASSIGNMENT_SUBMITTED(111),
+    SERVER_SHUTDOWN(112),
+    ERROR(113),
+    PRESENCE(114),
+    ROOM_PRESENCE(115),
+    FILE_CHUNK(116),
+    POST_CHANGED(117);
+
+    public static final int RESPONSE_FLAG = 0x400;
+    private static final String RESPONSE_SUFFIX = "_RESPONSE";
+
+    private static final Map<String, Integer> CODES_BY_NAME = new HashMap<>();
+    private static final Map<Integer, String> NAMES_BY_CODE = new HashMap<>();
+
+    static {
+        for (Opcode opcode : values()) {
+            CODES_BY_NAME.put(opcode.name(), opcode.code);
+            CODES_BY_NAME.put(opcode.name() + RESPONSE_SUFFIX, opcode.code | RESPONSE_FLAG);
+            NAMES_BY_CODE.put(opcode.code, opcode.name());
+            NAMES_BY_CODE.put(opcode.code | RESPONSE_FLAG, opcode.name() + RESPONSE_SUFFIX);
+        }
+    }
+
+    private final int code;
+
+    Opcode(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    // 등록되지 않은 명령이면 -1
+    public static int codeOf(String command) {
+        Integer code = CODES_BY_NAME.get(command);
+        return code != null ? code : -1;
+    }
+
+    // 등록되지 않은 번호면 "UNKNOWN_<번호>"
+    public static String nameOf(int code) {
+        String name = NAMES_BY_CODE.get(code);
+        return name != null ? name : "UNKNOWN_" + code;
+    }
+}
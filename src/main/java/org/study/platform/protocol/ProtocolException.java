@@ -0,0 +1,11 @@
+package org.study.platform.protocol;
+
+import java.io.IOException;
+
+// 프레임 크기 초과, 잘못된 핸드셰이크 등 복구할 수 없는 프로토콜 오류
+public class ProtocolException extends IOException {
+
+    public ProtocolException(String message) {
+        super(message);
+    }
+}
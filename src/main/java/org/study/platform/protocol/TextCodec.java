@@ -0,0 +1,154 @@
+package org.study.platform.protocol;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 기존 텍스트 프로토콜 (한 줄에 메시지 하나, '|' 또는 ':'로 필드 구분).
+ * 구분자 문자는 HTML 엔티티로 치환해서 보낸다: '|' → &#124;, ':' → &#58;, 줄바꿈 → &#10;
+ * 요청 번호가 있으면 줄 앞에 "#번호|"를 붙인다 (예: "#12|GET_POSTS|3").
+ */
+public final class TextCodec {
+
+    private TextCodec() {}
+
+    // 한 번의 순회로 구분자 문자를 치환 (치환할 문자가 없으면 원본 반환)
+    public static String escape(String text) {
+        if (text == null) return "";
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = c == '|' ? "&#124;" : c == ':' ? "&#58;" : c == '\n' ? "&#10;" : null;
+            if (replacement != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.length() + 16);
+                    sb.append(text, 0, i);
+                }
+                sb.append(replacement);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    public static String unescape(String text) {
+        if (text == null) return "";
+        int amp = text.indexOf("&#");
+        if (amp < 0) return text;
+        StringBuilder sb = new StringBuilder(text.length());
+        sb.append(text, 0, amp);
+        int i = amp;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '&' && text.startsWith("&#124;", i)) {
+                sb.append('|');
+                i += 6;
+            } else if (c == '&' && text.startsWith("&#58;", i)) {
+                sb.append(':');
+                i += 5;
+            } else if (c == '&' && text.startsWith("&#10;", i)) {
+                sb.append('\n');
+                i += 5;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    // 전송용 한 줄 (요청 번호 포함, 줄바꿈 제외)
+    public static String formatLine(Message message) {
+        if (message.getRequestId() == 0) {
+            return format(message);
+        }
+        return "#" + message.getRequestId() + "|" + format(message);
+    }
+
+    // 요청 번호를 제외한 기존 형식
+    public static String format(Message message) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(message.getCommand());
+        char separator = message.getStyle() == Message.Style.COLON ? ':' : '|';
+        for (Object field : message.getFields()) {
+            sb.append(separator);
+            appendField(sb, field);
+        }
+        return sb.toString();
+    }
+
+    static void appendField(StringBuilder sb, Object field) {
+        if (field == null) {
+            return;
+        }
+        if (field instanceof String) {
+            sb.append(escape((String) field));
+        } else if (field instanceof byte[]) {
+            // 바이트 배열은 Base64 (구분자 문자가 나오지 않음)
+            sb.append(Base64.getEncoder().encodeToString((byte[]) field));
+        } else if (field instanceof Message.Record) {
+            List<Object> values = ((Message.Record) field).getFields();
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) sb.append(':');
+                appendField(sb, values.get(i));
+            }
+        } else if (field instanceof List) {
+            List<?> values = (List<?>) field;
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) sb.append(',');
+                appendField(sb, values.get(i));
+            }
+        } else {
+            // 숫자, Boolean, 날짜는 그대로 (날짜의 ':'는 기존 형식과 같이 치환하지 않음)
+            sb.append(field);
+        }
+    }
+
+    /**
+     * 한 줄을 메시지로 변환. 명령 이름 바로 뒤의 문자('|' 또는 ':')를 필드 구분자로 사용하며,
+     * 정규식 없이 한 번만 순회한다. 필드 값은 치환이 풀린 문자열이다.
+     */
+    public static Message parse(String line) {
+        int length = line.length();
+        int i = 0;
+        long requestId = 0;
+        if (length > 0 && line.charAt(0) == '#') {
+            int bar = line.indexOf('|');
+            if (bar > 1) {
+                try {
+                    requestId = Long.parseLong(line.substring(1, bar));
+                    i = bar + 1;
+                } catch (NumberFormatException e) {
+                    // 번호가 아니면 일반 명령으로 취급
+                }
+            }
+        }
+        int commandStart = i;
+        while (i < length && isCommandChar(line.charAt(i))) {
+            i++;
+        }
+        if (i == length || (line.charAt(i) != '|' && line.charAt(i) != ':')) {
+            return new Message(line.substring(commandStart), Message.Style.PIPE, new ArrayList<>())
+                    .withRequestId(requestId);
+        }
+
+        String command = line.substring(commandStart, i);
+        char separator = line.charAt(i);
+        Message.Style style = separator == ':' ? Message.Style.COLON : Message.Style.PIPE;
+        List<Object> fields = new ArrayList<>();
+        int start = i + 1;
+        for (int j = start; j <= length; j++) {
+            if (j == length || line.charAt(j) == separator) {
+                fields.add(unescape(line.substring(start, j)));
+                start = j + 1;
+            }
+        }
+        return new Message(command, style, fields).withRequestId(requestId);
+    }
+
+    private static boolean isCommandChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,26 @@
+package org.study.platform.protocol;
+
+import java.nio.charset.Charset;
+
+// 연결마다 핸드셰이크로 정해지는 전송 형식
+public enum WireFormat {
+
+    TEXT {
+        @Override
+        public byte[] encode(Message message, int version) {
+            return (TextCodec.formatLine(message) + "\n").getBytes(TEXT_CHARSET);
+        }
+    },
+    BINARY {
+        @Override
+        public byte[] encode(Message message, int version) {
+            return BinaryCodec.encode(message, version);
+        }
+    };
+
+    // 기존 텍스트 프로토콜은 양쪽 모두 플랫폼 기본 문자셋을 사용해 왔다
+    public static final Charset TEXT_CHARSET = Charset.defaultCharset();
+
+    // version: 바이너리 형식에서 핸드셰이크로 합의한 버전 (텍스트는 무시)
+    public abstract byte[] encode(Message message, int version);
+}
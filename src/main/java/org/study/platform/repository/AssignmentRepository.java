@@ -1,7 +1,10 @@
 package org.study.platform.repository;
 
 import org.study.platform.entity.Assignment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +15,21 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     Optional<Assignment> findByPostId(Long postId);
     
     List<Assignment> findByPostIdIn(List<Long> postIds);
+
+    // 검색 색인 구성용: ID 순으로 나눠 읽는다 (글의 방 ID 포함)
+    @Query("select a.assignmentId as assignmentId, a.postId as postId, p.roomId as roomId, a.title as title,"
+            + " a.description as description"
+            + " from Assignment a, Post p where p.postId = a.postId and a.assignmentId > :afterId order by a.assignmentId")
+    List<RoomAssignment> findRoomAssignmentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select coalesce(max(a.assignmentId), 0) from Assignment a")
+    Long findMaxAssignmentId();
+
+    interface RoomAssignment {
+        Long getAssignmentId();
+        Long getPostId();
+        Long getRoomId();
+        String getTitle();
+        String getDescription();
+    }
 }
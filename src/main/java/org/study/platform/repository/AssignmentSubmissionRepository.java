@@ -1,8 +1,13 @@
 package org.study.platform.repository;
 
 import org.study.platform.entity.AssignmentSubmission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +17,18 @@ public interface AssignmentSubmissionRepository extends JpaRepository<Assignment
     List<AssignmentSubmission> findByAssignmentId(Long assignmentId);
     
     List<AssignmentSubmission> findByAssignmentIdOrderBySubmittedAtDesc(Long assignmentId);
+
+    // 페이지 조회 (최근 제출순, 제출 시각이 같으면 ID 역순)
+    Slice<AssignmentSubmission> findByAssignmentIdOrderBySubmittedAtDescSubmissionIdDesc(Long assignmentId,
+                                                                                       Pageable pageable);
+
+    @Query("select s from AssignmentSubmission s where s.assignmentId = :assignmentId"
+            + " and (s.submittedAt < :submittedAt or (s.submittedAt = :submittedAt and s.submissionId < :submissionId))"
+            + " order by s.submittedAt desc, s.submissionId desc")
+    Slice<AssignmentSubmission> findPageByAssignmentId(@Param("assignmentId") Long assignmentId,
+                                                       @Param("submittedAt") LocalDateTime submittedAt,
+                                                       @Param("submissionId") Long submissionId,
+                                                       Pageable pageable);
     
     Optional<AssignmentSubmission> findByAssignmentIdAndUserId(Long assignmentId, Long userId);
     
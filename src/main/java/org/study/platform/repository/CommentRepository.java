@@ -1,8 +1,13 @@
 package org.study.platform.repository;
 
 import org.study.platform.entity.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -10,4 +15,31 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostId(Long postId);
     List<Comment> findByPostIdOrderByCreatedAtAsc(Long postId);
     List<Comment> findByAuthorId(Long authorId);
+
+    // 페이지 조회 (오래된 순, 작성 시각이 같으면 ID 순)
+    Slice<Comment> findByPostIdOrderByCreatedAtAscCommentIdAsc(Long postId, Pageable pageable);
+
+    // 변경분 동기화: since 이후 작성된 댓글 (인덱스 post_id, created_at 범위 조회)
+    List<Comment> findByPostIdAndCreatedAtAfterOrderByCreatedAtAscCommentIdAsc(Long postId, LocalDateTime since);
+
+    @Query("select c from Comment c where c.postId = :postId"
+            + " and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.commentId > :commentId))"
+            + " order by c.createdAt asc, c.commentId asc")
+    Slice<Comment> findPageByPostId(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("commentId") Long commentId, Pageable pageable);
+
+    // 검색 색인 구성용: ID 순으로 나눠 읽는다 (글의 방 ID 포함)
+    @Query("select c.commentId as commentId, c.postId as postId, p.roomId as roomId, c.content as content"
+            + " from Comment c, Post p where p.postId = c.postId and c.commentId > :afterId order by c.commentId")
+    List<RoomComment> findRoomCommentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select coalesce(max(c.commentId), 0) from Comment c")
+    Long findMaxCommentId();
+
+    interface RoomComment {
+        Long getCommentId();
+        Long getPostId();
+        Long getRoomId();
+        String getContent();
+    }
 }
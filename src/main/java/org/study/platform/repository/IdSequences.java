@@ -0,0 +1,67 @@
+package org.study.platform.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 엔티티 ID 시퀀스를 테이블의 기존 ID 뒤로 맞춘다.
+ *
+ * ID를 IDENTITY 열 대신 시퀀스(@SequenceGenerator, 50개씩 미리 받음)로 만들면서, 예전 방식으로 쌓인 행이 있는
+ * DB에서는 새로 만든 시퀀스가 1부터 시작해 기존 ID와 겹친다. 스키마 갱신(ddl-auto) 직후, 첫 INSERT 전에
+ * 시퀀스의 다음 값이 최대 ID + 한 번에 받는 개수보다 작으면 그 뒤로 옮긴다. 이미 앞서 있거나 빈 테이블이면 그대로 둔다.
+ */
+@Component
+public class IdSequences {
+
+    // 테이블, ID 열, 시퀀스 (엔티티의 @SequenceGenerator와 같게)
+    private static final String[][] SEQUENCES = {
+            {"users", "user_id", "users_seq"},
+            {"rooms", "room_id", "rooms_seq"},
+            {"posts", "post_id", "posts_seq"},
+            {"comments", "comment_id", "comments_seq"},
+            {"post_read_status", "read_id", "post_read_status_seq"},
+            {"assignments", "assignment_id", "assignments_seq"},
+            {"assignment_submissions", "submission_id", "assignment_submissions_seq"},
+            {"files", "file_id", "files_seq"},
+            {"tombstones", "tombstone_id", "tombstones_seq"},
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory: 스키마 갱신(테이블/시퀀스 생성)이 끝난 뒤에 실행되도록
+    @Autowired
+    public IdSequences(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void synchronize() {
+        for (String[] sequence : SEQUENCES) {
+            // H2: BASE_VALUE = 다음에 돌려줄 값
+            List<long[]> state = jdbcTemplate.query(
+                    "select base_value, increment from information_schema.sequences where upper(sequence_name) = upper(?)",
+                    (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)}, sequence[2]);
+            if (state.isEmpty()) {
+                continue;
+            }
+            Long maxId = jdbcTemplate.queryForObject(
+                    "select coalesce(max(" + sequence[1] + "), 0) from " + sequence[0], Long.class);
+            if (maxId == 0) {
+                continue;
+            }
+            long next = state.get(0)[0];
+            long increment = state.get(0)[1];
+            // 받은 값 바로 아래 increment개까지 ID로 쓰일 수 있으므로 (pooled)
+            long safe = maxId + increment + 1;
+            if (next < safe) {
+                jdbcTemplate.execute("alter sequence " + sequence[2] + " restart with " + safe);
+                System.out.println("ID 시퀀스 조정: " + sequence[2] + " " + next + " → " + safe);
+            }
+        }
+    }
+}
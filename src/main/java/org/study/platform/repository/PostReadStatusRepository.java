@@ -1,7 +1,10 @@
 package org.study.platform.repository;
 
 import org.study.platform.entity.PostReadStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +15,18 @@ public interface PostReadStatusRepository extends JpaRepository<PostReadStatus,
     List<PostReadStatus> findByUserId(Long userId);
     Optional<PostReadStatus> findByPostIdAndUserId(Long postId, Long userId);
     boolean existsByPostIdAndUserId(Long postId, Long userId);
+
+    // 읽음 색인 구성용: ID 순으로 나눠 읽는다 (엔티티 전체를 읽지 않음)
+    @Query("select r.readId as readId, r.postId as postId, r.userId as userId from PostReadStatus r"
+            + " where r.readId > :afterId order by r.readId")
+    List<Receipt> findReceiptsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select coalesce(max(r.readId), 0) from PostReadStatus r")
+    Long findMaxReadId();
+
+    interface Receipt {
+        Long getReadId();
+        Long getPostId();
+        Long getUserId();
+    }
 }
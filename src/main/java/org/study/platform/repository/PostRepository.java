@@ -1,8 +1,14 @@
 package org.study.platform.repository;
 
 import org.study.platform.entity.Post;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +18,68 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByAuthorId(Long authorId);
     List<Post> findByRoomIdOrderByCreatedAtDesc(Long roomId);
     List<Post> findByRoomIdAndPostTypeOrderByCreatedAtDesc(Long roomId, Post.PostType postType);
+
+    // 페이지 조회 (최신순, 작성 시각이 같으면 ID 역순) - 첫 페이지와 (createdAt, postId) 이후 페이지
+    Slice<Post> findByRoomIdOrderByCreatedAtDescPostIdDesc(Long roomId, Pageable pageable);
+
+    Slice<Post> findByRoomIdAndPostTypeOrderByCreatedAtDescPostIdDesc(Long roomId, Post.PostType postType,
+                                                                     Pageable pageable);
+
+    @Query("select p from Post p where p.roomId = :roomId"
+            + " and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.postId < :postId))"
+            + " order by p.createdAt desc, p.postId desc")
+    Slice<Post> findPageByRoomId(@Param("roomId") Long roomId, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("postId") Long postId, Pageable pageable);
+
+    @Query("select p from Post p where p.roomId = :roomId and p.postType = :postType"
+            + " and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.postId < :postId))"
+            + " order by p.createdAt desc, p.postId desc")
+    Slice<Post> findPageByRoomIdAndPostType(@Param("roomId") Long roomId, @Param("postType") Post.PostType postType,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("postId") Long postId,
+                                            Pageable pageable);
+
+    // 변경분 동기화: since 이후 작성/수정된 글 (인덱스 room_id, updated_at 범위 조회)
+    @Query("select p from Post p where p.roomId = :roomId and p.updatedAt > :since"
+            + " order by p.updatedAt asc, p.postId asc")
+    List<Post> findChangedSince(@Param("roomId") Long roomId, @Param("since") LocalDateTime since);
+
+    // 방 글 목록 캐시용: 본문을 빼고 목록에 필요한 열만 (최신순)
+    @Query("select p.postId as postId, p.roomId as roomId, p.authorId as authorId, p.title as title,"
+            + " p.postType as postType, p.hasAssignment as hasAssignment, p.createdAt as createdAt"
+            + " from Post p where p.roomId = :roomId order by p.createdAt desc, p.postId desc")
+    List<Summary> findSummariesByRoomId(@Param("roomId") Long roomId);
+
+    // 안 읽은 수 계산용: ID 순으로 나눠 읽는다 (글 ID, 방 ID만)
+    @Query("select p.postId as postId, p.roomId as roomId from Post p where p.postId > :afterId order by p.postId")
+    List<PostRoom> findPostRoomsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 방 삭제 시 읽음 색인 정리용
+    @Query("select p.postId from Post p where p.roomId = :roomId")
+    List<Long> findPostIdsByRoomId(@Param("roomId") Long roomId);
+
+    @Query("select coalesce(max(p.postId), 0) from Post p")
+    Long findMaxPostId();
+
+    // 검색 색인 갱신용: 댓글 · 과제가 어느 방의 글에 달렸는지
+    @Query("select p.postId as postId, p.roomId as roomId from Post p where p.postId in :postIds")
+    List<PostRoom> findPostRooms(@Param("postIds") Collection<Long> postIds);
+
+    // 검색 색인 구성용: ID 순으로 나눠 읽는다
+    @Query("select p from Post p where p.postId > :afterId order by p.postId")
+    List<Post> findPostsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface PostRoom {
+        Long getPostId();
+        Long getRoomId();
+    }
+
+    interface Summary {
+        Long getPostId();
+        Long getRoomId();
+        Long getAuthorId();
+        String getTitle();
+        Post.PostType getPostType();
+        Boolean getHasAssignment();
+        LocalDateTime getCreatedAt();
+    }
 }
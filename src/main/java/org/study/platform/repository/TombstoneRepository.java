@@ -0,0 +1,27 @@
+package org.study.platform.repository;
+
+import org.study.platform.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    // since 이후 지워진 대상 ID (인덱스 kind, scope_id, deleted_at 범위 조회)
+    @Query("select t.targetId from Tombstone t where t.kind = :kind and t.scopeId = :scopeId"
+            + " and t.deletedAt > :since order by t.deletedAt asc")
+    List<Long> findDeletedSince(@Param("kind") Tombstone.Kind kind, @Param("scopeId") Long scopeId,
+                                @Param("since") LocalDateTime since);
+
+    // 보존 기간이 지난 기록 정리
+    @Modifying
+    @Transactional
+    @Query("delete from Tombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,98 @@
+package org.study.platform.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 엔티티 @Table에 선언한 유일 제약이 DB에 실제로 있는지 확인하고, 없으면 중복 행을 지운 뒤 만든다.
+ *
+ * 제약을 선언하기 전에 쌓인 DB에 중복 행이 있으면 스키마 갱신(ddl-auto)의 제약 추가가 실패하는데,
+ * Hibernate는 경고만 남기고 계속하므로 제약 없이 실행된다. 같은 키의 행 중 KEEP_FIRST 순서로 첫 행
+ * (따로 정하지 않은 테이블은 ID가 가장 작은 것, 즉 먼저 저장된 것)만 남기고, 지운 행의 ID를 로그에 남긴다.
+ */
+@Component
+public class UniqueConstraints {
+
+    // 테이블별로 남길 행의 순서 (ORDER BY 식, 같으면 ID가 작은 쪽)
+    // 과제 제출물은 채점/제출이 가장 최근인 것 - 점수와 피드백이 있는 행이나 다시 낸 제출물을 남긴다
+    static final Map<String, String> KEEP_FIRST = Map.of(
+            "assignment_submissions", "coalesce(graded_at, submitted_at) desc");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // EntityManagerFactory: 스키마 갱신(테이블/제약 생성)이 끝난 뒤에 실행되도록
+    @Autowired
+    public UniqueConstraints(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void verify() {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null || table.uniqueConstraints().length == 0) {
+                continue;
+            }
+            String idColumn = idColumn(entity.getJavaType());
+            for (UniqueConstraint constraint : table.uniqueConstraints()) {
+                ensure(table.name(), idColumn, constraint.name(), constraint.columnNames());
+            }
+        }
+    }
+
+    // 제약이 없으면 중복을 지우고 만든다 - 지운 행 ID (이미 있으면 빈 목록)
+    List<Long> ensure(String table, String idColumn, String name, String[] columns) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.table_constraints"
+                        + " where upper(constraint_name) = upper(?) and constraint_type = 'UNIQUE'",
+                Integer.class, name);
+        if (existing != null && existing > 0) {
+            return List.of();
+        }
+        String key = String.join(", ", columns);
+        // NULL은 유일 제약에 걸리지 않으므로 중복으로 보지 않는다
+        StringBuilder notNull = new StringBuilder();
+        for (String column : columns) {
+            notNull.append(notNull.length() == 0 ? " where " : " and ").append(column).append(" is not null");
+        }
+        String keepFirst = KEEP_FIRST.containsKey(table) ? KEEP_FIRST.get(table) + ", " : "";
+        List<Long> duplicates = jdbcTemplate.queryForList("select " + idColumn + " from (select " + idColumn
+                + ", row_number() over (partition by " + key + " order by " + keepFirst + idColumn + ") rn"
+                + " from " + table + notNull + ") ranked where rn > 1 order by " + idColumn, Long.class);
+        for (Long id : duplicates) {
+            jdbcTemplate.update("delete from " + table + " where " + idColumn + " = ?", id);
+        }
+        jdbcTemplate.execute("alter table " + table + " add constraint " + name + " unique (" + key + ")");
+        if (duplicates.isEmpty()) {
+            System.out.println("유일 제약 생성: " + name);
+        } else {
+            System.out.println("유일 제약 생성: " + name + " (중복 행 " + duplicates.size() + "건 삭제, "
+                    + table + "." + idColumn + " = " + duplicates + ")");
+        }
+        return duplicates;
+    }
+
+    private static String idColumn(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Id.class)) {
+                Column column = field.getAnnotation(Column.class);
+                return column != null && !column.name().isEmpty() ? column.name() : field.getName();
+            }
+        }
+        throw new IllegalStateException("@Id 필드가 없습니다: " + type.getName());
+    }
+}
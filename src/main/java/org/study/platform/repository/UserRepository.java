@@ -2,11 +2,24 @@ package org.study.platform.repository;
 
 import org.study.platform.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    // 목록 화면용: 여러 사용자의 닉네임만 한 번에 (엔티티 전체를 읽지 않음)
+    @Query("select u.userId as userId, u.nickname as nickname from User u where u.userId in :userIds")
+    List<Nickname> findNicknames(@Param("userIds") Collection<Long> userIds);
+
+    interface Nickname {
+        Long getUserId();
+        String getNickname();
+    }
 }
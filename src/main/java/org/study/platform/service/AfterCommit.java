@@ -0,0 +1,25 @@
+package org.study.platform.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 캐시 · 색인처럼 DB와 맞춰 두는 메모리 상태는 커밋된 뒤에 고친다
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    // 트랜잭션 안이면 커밋된 뒤에 (롤백되면 실행하지 않음), 밖이면 바로 실행
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
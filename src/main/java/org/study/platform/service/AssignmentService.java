@@ -4,13 +4,17 @@ import org.study.platform.entity.Assignment;
 import org.study.platform.entity.AssignmentSubmission;
 import org.study.platform.repository.AssignmentRepository;
 import org.study.platform.repository.AssignmentSubmissionRepository;
-import org.study.platform.repository.PostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,15 +22,18 @@ public class AssignmentService {
 
     private final AssignmentRepository assignmentRepository;
     private final AssignmentSubmissionRepository submissionRepository;
-    private final PostRepository postRepository;
+    private final PostService postService;
+    // 검색 색인은 커밋된 뒤에 고친다
+    private final SearchService searchService;
 
     @Autowired
     public AssignmentService(AssignmentRepository assignmentRepository,
                             AssignmentSubmissionRepository submissionRepository,
-                            PostRepository postRepository) {
+                            PostService postService, SearchService searchService) {
         this.assignmentRepository = assignmentRepository;
         this.submissionRepository = submissionRepository;
-        this.postRepository = postRepository;
+        this.postService = postService;
+        this.searchService = searchService;
     }
 
     // 과제 생성
@@ -35,11 +42,9 @@ public class AssignmentService {
         Assignment assignment = new Assignment(postId, title, description, dueDate);
         Assignment saved = assignmentRepository.save(assignment);
         
-        // Post에 과제 여부 표시
-        postRepository.findById(postId).ifPresent(post -> {
-            post.setHasAssignment(true);
-            postRepository.save(post);
-        });
+        // Post에 과제 여부 표시 (글 목록 캐시에도 반영)
+        postService.setHasAssignment(postId, true);
+        AfterCommit.run(() -> searchService.assignmentSaved(saved));
         
         return saved;
     }
@@ -58,11 +63,9 @@ public class AssignmentService {
     @Transactional
     public void deleteAssignment(Long assignmentId) {
         assignmentRepository.findById(assignmentId).ifPresent(assignment -> {
-            postRepository.findById(assignment.getPostId()).ifPresent(post -> {
-                post.setHasAssignment(false);
-                postRepository.save(post);
-            });
+            postService.setHasAssignment(assignment.getPostId(), false);
             assignmentRepository.delete(assignment);
+            AfterCommit.run(() -> searchService.assignmentDeleted(assignment));
         });
     }
 
@@ -115,6 +118,15 @@ public class AssignmentService {
         return submissionRepository.findByAssignmentIdOrderBySubmittedAtDesc(assignmentId);
     }
 
+    // 최근 제출물부터 한 페이지 (after: 이전 페이지의 마지막 제출물, null이면 첫 페이지)
+    public Slice<AssignmentSubmission> getSubmissionPage(Long assignmentId, PageCursor after, int size) {
+        PageRequest page = PageRequest.ofSize(PageCursor.clampSize(size));
+        if (after == null) {
+            return submissionRepository.findByAssignmentIdOrderBySubmittedAtDescSubmissionIdDesc(assignmentId, page);
+        }
+        return submissionRepository.findPageByAssignmentId(assignmentId, after.getCreatedAt(), after.getId(), page);
+    }
+
     // 특정 사용자의 제출물 조회
     public Optional<AssignmentSubmission> getSubmission(Long assignmentId, Long userId) {
         return submissionRepository.findByAssignmentIdAndUserId(assignmentId, userId);
@@ -139,6 +151,51 @@ public class AssignmentService {
         return submissionRepository.save(submission);
     }
 
+    // 여러 제출물을 한 번에 채점: 한 번의 IN 조회로 읽고, UPDATE는 커밋 때 JDBC 배치로 묶인다
+    @Transactional
+    public List<AssignmentSubmission> gradeSubmissions(List<Grade> grades) {
+        List<Long> submissionIds = new ArrayList<>(grades.size());
+        for (Grade grade : grades) {
+            submissionIds.add(grade.getSubmissionId());
+        }
+        Map<Long, AssignmentSubmission> submissions = new HashMap<>();
+        for (AssignmentSubmission submission : submissionRepository.findAllById(submissionIds)) {
+            submissions.put(submission.getSubmissionId(), submission);
+        }
+
+        LocalDateTime gradedAt = LocalDateTime.now();
+        List<AssignmentSubmission> graded = new ArrayList<>(grades.size());
+        for (Grade grade : grades) {
+            AssignmentSubmission submission = submissions.get(grade.getSubmissionId());
+            if (submission == null) {
+                throw new IllegalArgumentException("제출물을 찾을 수 없습니다: " + grade.getSubmissionId());
+            }
+            submission.setScore(grade.getScore());
+            submission.setFeedback(grade.getFeedback());
+            submission.setStatus(AssignmentSubmission.SubmissionStatus.GRADED);
+            submission.setGradedAt(gradedAt);
+            graded.add(submission);
+        }
+        return graded;
+    }
+
+    // 일괄 채점 한 건
+    public static final class Grade {
+        private final Long submissionId;
+        private final Integer score;
+        private final String feedback;
+
+        public Grade(Long submissionId, Integer score, String feedback) {
+            this.submissionId = submissionId;
+            this.score = score;
+            this.feedback = feedback;
+        }
+
+        public Long getSubmissionId() { return submissionId; }
+        public Integer getScore() { return score; }
+        public String getFeedback() { return feedback; }
+    }
+
     // 제출물 조회
     public Optional<AssignmentSubmission> findSubmissionById(Long submissionId) {
         return submissionRepository.findById(submissionId);
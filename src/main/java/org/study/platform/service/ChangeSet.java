@@ -0,0 +1,64 @@
+package org.study.platform.service;
+
+import org.study.platform.entity.ChangeStamps;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 변경분 동기화 결과: since 이후 추가/수정된 행, 삭제된 ID, 다음 요청에 보낼 기준 시각.
+ *
+ * 기준 시각은 ChangeStamps.watermark() - 커밋되지 않은 트랜잭션이 찍은 가장 이른 시각을 넘지 않으므로
+ * 조회 뒤에 커밋된 행도 다음 동기화에서 받는다. 여기에 OVERLAP만큼 더 앞당겨 기준 시각과 같은 시각에 찍힌 행과
+ * DB 시각 반올림에 대비한다 (경계 근처의 행을 한 번 더 받을 뿐, 클라이언트는 ID 기준으로 덮어쓰므로 중복은 무해).
+ *
+ * since가 삭제 기록 보존 기간보다 오래되었으면 변경분 대신 전체를 담고 isFullReload()가 true
+ * (클라이언트는 가진 목록을 버리고 이것으로 바꾼다).
+ */
+public final class ChangeSet<T> {
+
+    static final Duration OVERLAP = Duration.ofMillis(100);
+
+    private final List<T> changed;
+    private final List<Long> deletedIds;
+    private final LocalDateTime watermark;
+    private final boolean fullReload;
+
+    ChangeSet(List<T> changed, List<Long> deletedIds, LocalDateTime watermark) {
+        this(changed, deletedIds, watermark, false);
+    }
+
+    private ChangeSet(List<T> changed, List<Long> deletedIds, LocalDateTime watermark, boolean fullReload) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.fullReload = fullReload;
+    }
+
+    // 기준 시각이 보존 기간보다 오래됨 - 전체 목록
+    static <T> ChangeSet<T> fullReload(List<T> all, LocalDateTime watermark) {
+        return new ChangeSet<>(all, List.of(), watermark, true);
+    }
+
+    // 조회를 시작하기 전에 호출
+    static LocalDateTime nextWatermark() {
+        return ChangeStamps.watermark().minus(OVERLAP);
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public boolean isFullReload() {
+        return fullReload;
+    }
+}
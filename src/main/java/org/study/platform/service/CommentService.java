@@ -1,10 +1,15 @@
 package org.study.platform.service;
 
 import org.study.platform.entity.Comment;
+import org.study.platform.entity.Tombstone;
 import org.study.platform.repository.CommentRepository;
+import org.study.platform.repository.TombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,16 +17,33 @@ import java.util.Optional;
 public class CommentService {
 
     private final CommentRepository commentRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TombstoneRetention tombstoneRetention;
+    // 검색 색인은 커밋된 뒤에 고친다
+    private final SearchService searchService;
 
     @Autowired
-    public CommentService(CommentRepository commentRepository) {
+    public CommentService(CommentRepository commentRepository, TombstoneRepository tombstoneRepository,
+                          TombstoneRetention tombstoneRetention, SearchService searchService) {
         this.commentRepository = commentRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.tombstoneRetention = tombstoneRetention;
+        this.searchService = searchService;
     }
 
     @Transactional
     public Comment createComment(Long postId, Long authorId, String content) {
-        Comment comment = new Comment(postId, authorId, content);
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(new Comment(postId, authorId, content));
+        AfterCommit.run(() -> searchService.commentsSaved(List.of(saved)));
+        return saved;
+    }
+
+    // 여러 댓글을 한 트랜잭션으로 (가져오기, 테스트 데이터 등) - INSERT는 JDBC 배치로 묶인다
+    @Transactional
+    public List<Comment> createComments(List<Comment> comments) {
+        List<Comment> saved = commentRepository.saveAll(comments);
+        AfterCommit.run(() -> searchService.commentsSaved(saved));
+        return saved;
     }
 
     @Transactional
@@ -35,12 +57,37 @@ public class CommentService {
             throw new IllegalArgumentException("작성자만 삭제할 수 있습니다.");
         }
         commentRepository.delete(comment);
+        tombstoneRepository.save(new Tombstone(Tombstone.Kind.COMMENT, comment.getPostId(), commentId));
+        AfterCommit.run(() -> searchService.commentDeleted(comment));
     }
 
     public List<Comment> findByPostId(Long postId) {
         return commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
     }
 
+    // since 이후 작성/삭제된 댓글 (댓글은 수정되지 않으므로 작성 시각 기준). since가 null이면 전체,
+    // 삭제 기록 보존 기간보다 오래되었으면 전체를 isFullReload()로
+    public ChangeSet<Comment> findChangedSince(Long postId, LocalDateTime since) {
+        LocalDateTime watermark = ChangeSet.nextWatermark();
+        if (since == null) {
+            return new ChangeSet<>(commentRepository.findByPostIdOrderByCreatedAtAsc(postId), List.of(), watermark);
+        }
+        if (tombstoneRetention.isExpired(since)) {
+            return ChangeSet.fullReload(commentRepository.findByPostIdOrderByCreatedAtAsc(postId), watermark);
+        }
+        return new ChangeSet<>(commentRepository.findByPostIdAndCreatedAtAfterOrderByCreatedAtAscCommentIdAsc(postId, since),
+                tombstoneRepository.findDeletedSince(Tombstone.Kind.COMMENT, postId, since), watermark);
+    }
+
+    // 오래된 댓글부터 한 페이지 (after: 이전 페이지의 마지막 댓글, null이면 첫 페이지)
+    public Slice<Comment> findPageByPostId(Long postId, PageCursor after, int size) {
+        PageRequest page = PageRequest.ofSize(PageCursor.clampSize(size));
+        if (after == null) {
+            return commentRepository.findByPostIdOrderByCreatedAtAscCommentIdAsc(postId, page);
+        }
+        return commentRepository.findPageByPostId(postId, after.getCreatedAt(), after.getId(), page);
+    }
+
     public Optional<Comment> findById(Long commentId) {
         return commentRepository.findById(commentId);
     }
@@ -0,0 +1,103 @@
+package org.study.platform.service;
+
+import org.study.platform.entity.File;
+import org.study.platform.entity.Post;
+import org.study.platform.repository.FileRepository;
+import org.study.platform.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드된 첨부파일 저장소.
+ * 파일은 저장 디렉터리에 임의의 키(UUID) 이름으로 저장하고, DB(files 테이블, 과제 제출물)에는 키만 기록한다.
+ * 업로드 중인 파일은 tmp 아래에 쓰고, 다 받은 뒤에 키 이름으로 옮긴다.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private final FileRepository fileRepository;
+    private final PostRepository postRepository;
+    private final Path root;
+    private final Path tempDir;
+
+    @Autowired
+    public FileStorageService(FileRepository fileRepository, PostRepository postRepository,
+                              @Value("${file.storage.dir:./data/files}") String storageDir) {
+        this.fileRepository = fileRepository;
+        this.postRepository = postRepository;
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("파일 저장 디렉터리를 만들 수 없습니다: " + root, e);
+        }
+    }
+
+    // 업로드 중인 내용을 쓸 임시 파일
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(tempDir, "upload-", ".part");
+    }
+
+    // 다 받은 임시 파일을 저장소로 옮기고 키를 돌려준다
+    public String commit(Path tempFile) throws IOException {
+        String key = UUID.randomUUID().toString();
+        Files.move(tempFile, root.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+        return key;
+    }
+
+    public void discard(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            System.err.println("임시 파일 삭제 실패: " + tempFile + " (" + e.getMessage() + ")");
+        }
+    }
+
+    // 키 형식이 아니면 (클라이언트의 로컬 경로, ../ 등) 저장소 밖을 가리키지 않도록 거부
+    public Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("잘못된 파일 키입니다.");
+        }
+        return root.resolve(key);
+    }
+
+    public boolean exists(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches() && Files.isRegularFile(root.resolve(key));
+    }
+
+    @Transactional
+    public File attachToPost(Long postId, Long userId, String fileName, String key, long fileSize) {
+        Optional<Post> postOpt = postRepository.findById(postId);
+        if (postOpt.isEmpty()) {
+            throw new IllegalArgumentException("존재하지 않는 게시글입니다.");
+        }
+        if (!postOpt.get().getAuthorId().equals(userId)) {
+            throw new IllegalArgumentException("작성자만 파일을 첨부할 수 있습니다.");
+        }
+        return fileRepository.save(new File(postId, fileName, key, fileSize));
+    }
+
+    public Optional<File> findById(Long fileId) {
+        return fileRepository.findById(fileId);
+    }
+
+    public List<File> findByPostId(Long postId) {
+        return fileRepository.findByPostIdOrderByUploadedAtAsc(postId);
+    }
+}
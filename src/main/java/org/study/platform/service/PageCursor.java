@@ -0,0 +1,77 @@
+package org.study.platform.service;
+
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 목록 페이지의 위치: 이전 페이지 마지막 항목의 (작성 시각, ID).
+ * 다음 페이지는 이 값보다 뒤의 항목부터 찾으므로(keyset) OFFSET처럼 앞의 행을 다시 읽지 않는다.
+ * 클라이언트에는 "epoch 나노초_ID" 문자열로 보내고 그대로 돌려받는다 (구분자 문자가 없어 치환 불필요).
+ */
+public final class PageCursor {
+
+    // 클라이언트가 요청할 수 있는 한 페이지의 최대 항목 수
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private PageCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime createdAt, Long id) {
+        return new PageCursor(createdAt, id);
+    }
+
+    // 빈 값이면 null (첫 페이지)
+    public static PageCursor parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        int separator = token.indexOf('_');
+        try {
+            if (separator < 0) throw new NumberFormatException();
+            long nanos = Long.parseLong(token.substring(0, separator));
+            long id = Long.parseLong(token.substring(separator + 1));
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+            return new PageCursor(createdAt, id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 페이지 위치입니다: " + token);
+        }
+    }
+
+    // 다음 페이지가 있으면 이 페이지 마지막 항목의 위치, 없으면 빈 문자열
+    public static <T> String next(Slice<T> page, Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        List<T> content = page.getContent();
+        if (!page.hasNext() || content.isEmpty()) {
+            return "";
+        }
+        T last = content.get(content.size() - 1);
+        return of(createdAt.apply(last), id.apply(last)).encode();
+    }
+
+    public String encode() {
+        long nanos = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+        return nanos + "_" + id;
+    }
+
+    // 요청한 크기를 1 ~ MAX_PAGE_SIZE로 제한
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
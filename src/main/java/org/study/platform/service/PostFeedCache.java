@@ -0,0 +1,223 @@
+package org.study.platform.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 방별 글 목록 캐시 (본문 제외, 최신순).
+ *
+ * 방을 처음 조회할 때 DB에서 한 번 읽고, 이후 글 작성/수정/삭제는 DB 커밋 뒤에 캐시 목록을 직접 고친다.
+ * 그래서 글이 몰리는 방에서도 목록 조회는 DB를 읽지 않는다.
+ *
+ * 전체 크기(추정 바이트)가 maxBytes를 넘으면 가장 오래 조회되지 않은 방부터 내보낸다.
+ * 방 하나가 혼자 maxBytes를 넘으면 캐시하지 않고 get()이 null을 돌려준다 (호출한 쪽이 DB에서 페이지 단위로 읽음).
+ */
+public final class PostFeedCache {
+
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    // 행 하나의 고정 비용 추정 (객체 헤더, 필드, 목록 참조, 시각 객체) - 제목은 따로 글자당 2바이트
+    private static final int SUMMARY_BYTES = 120;
+
+    private static final class RoomFeed {
+        // 불변 목록 - 바꿀 때는 새 목록으로 교체
+        List<PostSummary> posts;
+        long bytes;
+    }
+
+    // 방 목록을 DB에서 읽는 중 - 그동안 해당 방에 변경이 있으면 읽은 결과를 넣지 않는다
+    private static final class Load {
+        int loaders;
+        boolean dirty;
+    }
+
+    private final long maxBytes;
+    private final Function<Long, List<PostSummary>> loader;
+
+    // 접근 순서 (앞쪽이 가장 오래 조회되지 않은 방). 아래 필드는 모두 this로 동기화
+    private final LinkedHashMap<Long, RoomFeed> feeds = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Load> loads = new HashMap<>();
+    private final Set<Long> oversized = new HashSet<>();
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PostFeedCache(long maxBytes, Function<Long, List<PostSummary>> loader) {
+        this.maxBytes = maxBytes;
+        this.loader = loader;
+    }
+
+    /**
+     * 방의 글 목록 (최신순, 읽기 전용). 캐시하기에 너무 큰 방이면 null.
+     */
+    public List<PostSummary> get(Long roomId) {
+        Load load;
+        synchronized (this) {
+            RoomFeed feed = feeds.get(roomId);
+            if (feed != null) {
+                hits++;
+                return feed.posts;
+            }
+            if (oversized.contains(roomId)) {
+                return null;
+            }
+            misses++;
+            load = loads.computeIfAbsent(roomId, id -> new Load());
+            load.loaders++;
+        }
+
+        List<PostSummary> loaded = null;
+        try {
+            loaded = new ArrayList<>(loader.apply(roomId));
+            loaded.sort(PostSummary.NEWEST_FIRST);
+            loaded = Collections.unmodifiableList(loaded);
+        } finally {
+            synchronized (this) {
+                if (--load.loaders == 0) {
+                    loads.remove(roomId);
+                }
+                if (loaded != null && !load.dirty && !feeds.containsKey(roomId)) {
+                    install(roomId, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // 새 글 또는 수정된 글 (같은 ID가 있으면 교체)
+    public synchronized void put(PostSummary post) {
+        RoomFeed feed = beginChange(post.getRoomId());
+        if (feed == null) {
+            return;
+        }
+        List<PostSummary> posts = new ArrayList<>(feed.posts.size() + 1);
+        for (PostSummary existing : feed.posts) {
+            if (!existing.getPostId().equals(post.getPostId())) {
+                posts.add(existing);
+            }
+        }
+        int index = Collections.binarySearch(posts, post, PostSummary.NEWEST_FIRST);
+        posts.add(index < 0 ? -index - 1 : index, post);
+        replace(post.getRoomId(), feed, posts);
+    }
+
+    public synchronized void remove(Long roomId, Long postId) {
+        RoomFeed feed = beginChange(roomId);
+        if (feed == null) {
+            return;
+        }
+        List<PostSummary> posts = new ArrayList<>(feed.posts.size());
+        for (PostSummary existing : feed.posts) {
+            if (!existing.getPostId().equals(postId)) {
+                posts.add(existing);
+            }
+        }
+        if (posts.size() != feed.posts.size()) {
+            replace(roomId, feed, posts);
+        }
+    }
+
+    // 방 삭제 등: 다음 조회 때 다시 읽는다
+    public synchronized void invalidate(Long roomId) {
+        beginChange(roomId);
+        RoomFeed feed = feeds.remove(roomId);
+        if (feed != null) {
+            bytes -= feed.bytes;
+        }
+        oversized.remove(roomId);
+    }
+
+    // 읽는 중인 목록은 버리게 표시하고, 캐시된 목록을 돌려준다 (없으면 null)
+    private RoomFeed beginChange(Long roomId) {
+        Load load = loads.get(roomId);
+        if (load != null) {
+            load.dirty = true;
+        }
+        return feeds.get(roomId);
+    }
+
+    private void replace(Long roomId, RoomFeed feed, List<PostSummary> posts) {
+        long size = estimate(posts);
+        bytes += size - feed.bytes;
+        feed.posts = Collections.unmodifiableList(posts);
+        feed.bytes = size;
+        if (size > maxBytes) {
+            feeds.remove(roomId);
+            bytes -= size;
+            oversized.add(roomId);
+            return;
+        }
+        evictIfOverBudget(roomId);
+    }
+
+    private void install(Long roomId, List<PostSummary> posts) {
+        long size = estimate(posts);
+        if (size > maxBytes) {
+            oversized.add(roomId);
+            return;
+        }
+        RoomFeed feed = new RoomFeed();
+        feed.posts = posts;
+        feed.bytes = size;
+        feeds.put(roomId, feed);
+        bytes += size;
+        evictIfOverBudget(roomId);
+    }
+
+    // 방금 쓴 방은 남기고 오래된 방부터
+    private void evictIfOverBudget(Long keep) {
+        Iterator<Map.Entry<Long, RoomFeed>> it = feeds.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Long, RoomFeed> entry = it.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            bytes -= entry.getValue().bytes;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static long estimate(List<PostSummary> posts) {
+        long size = 0;
+        for (PostSummary post : posts) {
+            size += SUMMARY_BYTES + (post.getTitle() != null ? post.getTitle().length() * 2L : 0);
+        }
+        return size;
+    }
+
+    public synchronized int getRoomCount() {
+        return feeds.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PostFeedCache{rooms=" + feeds.size() + ", bytes=" + bytes + "/" + maxBytes + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
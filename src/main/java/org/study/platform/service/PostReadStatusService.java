@@ -1,33 +1,136 @@
 package org.study.platform.service;
 
+import jakarta.annotation.PreDestroy;
+import org.study.platform.entity.Post;
 import org.study.platform.entity.PostReadStatus;
 import org.study.platform.repository.PostReadStatusRepository;
+import org.study.platform.repository.PostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 @Service
 public class PostReadStatusService {
 
+    // 색인을 만들 때 한 번에 읽는 행 수
+    private static final int LOAD_BATCH = 10_000;
+
     private final PostReadStatusRepository postReadStatusRepository;
+    private final PostRepository postRepository;
+    private final ReadStatusIndex index;
+    private final ReadReceiptWriter receiptWriter;
+    // 사용자별 · 방별 안 읽은 글 수 - 처음 한 번 구성한 뒤에는 작성/읽음/삭제 때 값만 고친다
+    private final UnreadCounters unread = new UnreadCounters();
+    private volatile boolean unreadLoaded;
+    // 비어 있으면 검사점을 쓰지 않는다 (매번 테이블에서 구성)
+    private final Path unreadCheckpointFile;
+    // 검사점을 남긴 DB와 같은 DB인지 구분 (같은 파일 경로에 다른 DB를 연결한 경우)
+    private final String datasourceUrl;
+    private final ScheduledExecutorService checkpointer;
+    // 검사점 판단용
+    private volatile long checkpointedVersion = -1;
+    private long lastSeenVersion = -1;
 
     @Autowired
-    public PostReadStatusService(PostReadStatusRepository postReadStatusRepository) {
+    public PostReadStatusService(PostReadStatusRepository postReadStatusRepository, PostRepository postRepository,
+                                 @Value("${read-receipt.flush-interval-ms:" + ReadReceiptWriter.DEFAULT_FLUSH_INTERVAL_MS + "}") long flushIntervalMs,
+                                 @Value("${read-receipt.batch-size:" + ReadReceiptWriter.DEFAULT_BATCH_SIZE + "}") int batchSize,
+                                 @Value("${unread.checkpoint-file:./data/unread-counters.dat}") String unreadCheckpointFile,
+                                 @Value("${unread.checkpoint-interval-ms:60000}") long checkpointIntervalMs,
+                                 @Value("${spring.datasource.url:}") String datasourceUrl) {
         this.postReadStatusRepository = postReadStatusRepository;
+        this.postRepository = postRepository;
+        this.index = new ReadStatusIndex(this::loadReceipts);
+        // 한 묶음 = saveAll 한 번 = 트랜잭션 한 번
+        this.receiptWriter = new ReadReceiptWriter(batchSize, flushIntervalMs, this::saveReceipts);
+        this.unreadCheckpointFile = unreadCheckpointFile.isBlank() ? null : Paths.get(unreadCheckpointFile);
+        this.datasourceUrl = datasourceUrl;
+        if (checkpointIntervalMs > 0 && this.unreadCheckpointFile != null) {
+            checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "unread-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checkpointer.scheduleWithFixedDelay(this::checkpointIfQuiet, checkpointIntervalMs, checkpointIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            checkpointer = null;
+        }
     }
 
-    @Transactional
-    public PostReadStatus markAsRead(Long postId, Long userId) {
-        if (postReadStatusRepository.existsByPostIdAndUserId(postId, userId)) {
+    /**
+     * 색인과 안 읽은 수에 바로 반영하고 DB 기록은 묶어서 나중에 쓴다 (read-receipt.flush-interval-ms 이내).
+     * 중복은 색인에서 걸러지므로 같은 (글, 사용자)는 한 번만 저장된다.
+     */
+    public void markAsRead(Post post, Long userId) {
+        index.load();
+        if (!index.add(post.getPostId(), userId)) {
             throw new IllegalArgumentException("이미 읽은 게시글입니다.");
         }
-        PostReadStatus readStatus = new PostReadStatus(postId, userId);
-        return postReadStatusRepository.save(readStatus);
+        if (unreadLoaded) {
+            unread.postRead(userId, post.getRoomId());
+        }
+        PostReadStatus readStatus = new PostReadStatus(post.getPostId(), userId);
+        // 저장 시각이 아니라 읽은 시각
+        readStatus.setReadAt(LocalDateTime.now());
+        receiptWriter.submit(readStatus);
+    }
+
+    // === 안 읽은 수 (PostService가 커밋 뒤에 호출) ===
+    // 아직 구성 전이면 무시 - 구성할 때 테이블에서 읽는다
+
+    public void postCreated(Long roomId) {
+        if (unreadLoaded) {
+            unread.postCreated(roomId);
+        }
+    }
+
+    public void postDeleted(Long roomId, Long postId) {
+        long[] readers = index.remove(postId);
+        if (unreadLoaded) {
+            unread.postDeleted(roomId, readers);
+        }
+    }
+
+    // 방의 글은 DB에 남아 있으므로 ID를 읽어 와서 읽음 색인에서 뺀다
+    public void roomDeleted(Long roomId) {
+        index.removeAll(postRepository.findPostIdsByRoomId(roomId));
+        if (unreadLoaded) {
+            unread.roomDeleted(roomId);
+        }
     }
 
-    public List<PostReadStatus> getReadStatusByPost(Long postId) {
-        return postReadStatusRepository.findByPostId(postId);
+    // 안 읽은 글이 있는 방만 (방 ID → 안 읽은 수) - DB를 읽지 않음
+    public Map<Long, Integer> getUnreadCounts(Long userId) {
+        loadUnread();
+        return unread.unreadByRoom(userId);
+    }
+
+    // 읽은 사용자 ID (오름차순) - DB를 읽지 않음
+    public List<Long> getReaderIds(Long postId) {
+        long[] readers = index.readers(postId);
+        List<Long> userIds = new ArrayList<>(readers.length);
+        for (long userId : readers) {
+            userIds.add(userId);
+        }
+        return userIds;
+    }
+
+    public int countReaders(Long postId) {
+        return index.count(postId);
     }
 
     public List<PostReadStatus> getReadStatusByUser(Long userId) {
@@ -35,6 +138,150 @@ public class PostReadStatusService {
     }
 
     public boolean hasRead(Long postId, Long userId) {
-        return postReadStatusRepository.existsByPostIdAndUserId(postId, userId);
+        return index.contains(postId, userId);
+    }
+
+    // 서버 시작 시 호출 - 첫 요청이 테이블 전체를 읽는 비용을 떠안지 않도록
+    public void rebuildIndex() {
+        index.load();
+        loadUnread();
+    }
+
+    public ReadStatusIndex getIndex() {
+        return index;
+    }
+
+    public ReadReceiptWriter getReceiptWriter() {
+        return receiptWriter;
+    }
+
+    public UnreadCounters getUnreadCounters() {
+        return unread;
+    }
+
+    // 남은 읽음 기록을 모두 쓰고, 안 읽은 수 검사점을 남기고 종료
+    @PreDestroy
+    public void close() {
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+        }
+        receiptWriter.close();
+        System.out.println("읽음 기록 쓰기 종료: " + receiptWriter);
+        if (unreadLoaded && unreadCheckpointFile != null && unread.getVersion() != checkpointedVersion) {
+            checkpoint();
+        }
+    }
+
+    // 검사점이 있고 DB 지문이 같으면 파일에서, 아니면 글 목록과 읽음 색인에서 구성
+    private void loadUnread() {
+        if (unreadLoaded) {
+            return;
+        }
+        synchronized (unread) {
+            if (unreadLoaded) {
+                return;
+            }
+            index.load();
+            long start = System.nanoTime();
+            String source = "검사점";
+            boolean restored = false;
+            try {
+                restored = unreadCheckpointFile != null && unread.readCheckpoint(unreadCheckpointFile, fingerprint());
+            } catch (IOException e) {
+                System.err.println("안 읽은 수 검사점 읽기 실패: " + e.getMessage());
+            }
+            if (!restored) {
+                unread.clear();
+                countPosts();
+                source = "테이블";
+            }
+            checkpointedVersion = restored ? unread.getVersion() : -1;
+            unreadLoaded = true;
+            System.out.println("안 읽은 수 구성(" + source + "): " + unread + " ("
+                    + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        }
+    }
+
+    // 글마다 방의 글 수를 올리고, 그 글을 읽은 사용자의 그 방 읽은 수를 올린다 (조인 없이 색인 사용)
+    private void countPosts() {
+        long afterId = 0;
+        List<PostRepository.PostRoom> batch;
+        do {
+            batch = postRepository.findPostRoomsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (PostRepository.PostRoom post : batch) {
+                unread.postCreated(post.getRoomId());
+                for (long userId : index.readers(post.getPostId())) {
+                    unread.postRead(userId, post.getRoomId());
+                }
+                afterId = post.getPostId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+    }
+
+    // 검사점이 현재 DB와 같은 상태인지 확인하는 값
+    private long[] fingerprint() {
+        return new long[]{datasourceUrl.hashCode(), postRepository.count(), postRepository.findMaxPostId(),
+                postReadStatusRepository.count(), postReadStatusRepository.findMaxReadId()};
+    }
+
+    // 한 주기 동안 값이 바뀌지 않았을 때만 (커밋과 반영 사이에 찍힌 검사점이 어긋나지 않도록). 부하가 계속되면 종료 시에만 남는다
+    private void checkpointIfQuiet() {
+        if (!unreadLoaded) {
+            return;
+        }
+        long version = unread.getVersion();
+        if (version == checkpointedVersion) {
+            return;
+        }
+        if (version != lastSeenVersion) {
+            lastSeenVersion = version;
+            return;
+        }
+        receiptWriter.flush();
+        if (receiptWriter.getPendingCount() == 0) {
+            checkpoint();
+        }
+    }
+
+    private void checkpoint() {
+        try {
+            long version = unread.getVersion();
+            // 지문을 읽는 사이에 값이 바뀌었으면 쓰지 않고 다음 기회에
+            if (unread.writeCheckpoint(unreadCheckpointFile, fingerprint(), version)) {
+                checkpointedVersion = version;
+            }
+        } catch (Exception e) {
+            System.err.println("안 읽은 수 검사점 저장 실패: " + e.getMessage());
+        }
+    }
+
+    // 이미 있는 (글, 사용자)가 섞여 있으면 묶음 전체가 유일 제약에 걸리므로 한 건씩 다시 저장하고 중복은 버린다
+    private void saveReceipts(List<PostReadStatus> batch) {
+        try {
+            postReadStatusRepository.saveAll(batch);
+        } catch (DataIntegrityViolationException e) {
+            int duplicates = 0;
+            for (PostReadStatus receipt : batch) {
+                receipt.setReadId(null);
+                try {
+                    postReadStatusRepository.save(receipt);
+                } catch (DataIntegrityViolationException duplicate) {
+                    duplicates++;
+                }
+            }
+            System.err.println("읽음 기록 중복 " + duplicates + "건 무시");
+        }
+    }
+
+    private void loadReceipts(BiConsumer<Long, Long> sink) {
+        long afterId = 0;
+        List<PostReadStatusRepository.Receipt> batch;
+        do {
+            batch = postReadStatusRepository.findReceiptsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (PostReadStatusRepository.Receipt receipt : batch) {
+                sink.accept(receipt.getPostId(), receipt.getUserId());
+                afterId = receipt.getReadId();
+            }
+        } while (batch.size() == LOAD_BATCH);
     }
 }
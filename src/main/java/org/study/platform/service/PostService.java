@@ -2,11 +2,19 @@ package org.study.platform.service;
 
 import org.study.platform.entity.Post;
 import org.study.platform.entity.Room;
+import org.study.platform.entity.Tombstone;
 import org.study.platform.repository.PostRepository;
 import org.study.platform.repository.RoomRepository;
+import org.study.platform.repository.TombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,11 +23,26 @@ public class PostService {
 
     private final PostRepository postRepository;
     private final RoomRepository roomRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TombstoneRetention tombstoneRetention;
+    // 방별 글 목록 - 작성/수정/삭제가 커밋된 뒤 직접 고치므로 목록 조회는 DB를 읽지 않는다
+    private final PostFeedCache feedCache;
+    // 안 읽은 수와 검색 색인도 커밋된 뒤에 고친다
+    private final PostReadStatusService readStatusService;
+    private final SearchService searchService;
 
     @Autowired
-    public PostService(PostRepository postRepository, RoomRepository roomRepository) {
+    public PostService(PostRepository postRepository, RoomRepository roomRepository,
+                       TombstoneRepository tombstoneRepository, TombstoneRetention tombstoneRetention,
+                       PostReadStatusService readStatusService, SearchService searchService,
+                       @Value("${post.feed-cache.max-bytes:" + PostFeedCache.DEFAULT_MAX_BYTES + "}") long feedCacheMaxBytes) {
         this.postRepository = postRepository;
         this.roomRepository = roomRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.tombstoneRetention = tombstoneRetention;
+        this.readStatusService = readStatusService;
+        this.searchService = searchService;
+        this.feedCache = new PostFeedCache(feedCacheMaxBytes, this::loadFeed);
     }
 
     @Transactional
@@ -34,8 +57,14 @@ public class PostService {
                 throw new IllegalArgumentException("공지사항은 방장만 작성할 수 있습니다.");
             }
         }
-        Post post = new Post(roomId, authorId, title, content, postType);
-        return postRepository.save(post);
+        Post post = postRepository.save(new Post(roomId, authorId, title, content, postType));
+        PostSummary summary = PostSummary.of(post);
+        AfterCommit.run(() -> {
+            feedCache.put(summary);
+            readStatusService.postCreated(roomId);
+            searchService.postSaved(post);
+        });
+        return post;
     }
 
     @Transactional
@@ -50,7 +79,23 @@ public class PostService {
         }
         post.setTitle(title);
         post.setContent(content);
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        PostSummary summary = PostSummary.of(saved);
+        AfterCommit.run(() -> {
+            feedCache.put(summary);
+            searchService.postSaved(saved);
+        });
+        return saved;
+    }
+
+    // 과제 등록/삭제 시 목록의 과제 표시 변경
+    @Transactional
+    public void setHasAssignment(Long postId, boolean hasAssignment) {
+        postRepository.findById(postId).ifPresent(post -> {
+            post.setHasAssignment(hasAssignment);
+            PostSummary summary = PostSummary.of(postRepository.save(post));
+            AfterCommit.run(() -> feedCache.put(summary));
+        });
     }
 
     @Transactional
@@ -64,18 +109,137 @@ public class PostService {
             throw new IllegalArgumentException("작성자만 삭제할 수 있습니다.");
         }
         postRepository.delete(post);
+        Long roomId = post.getRoomId();
+        tombstoneRepository.save(new Tombstone(Tombstone.Kind.POST, roomId, postId));
+        AfterCommit.run(() -> {
+            feedCache.remove(roomId, postId);
+            readStatusService.postDeleted(roomId, postId);
+            searchService.postDeleted(roomId, postId);
+        });
+    }
+
+    // 방 삭제 시 그 방의 목록, 안 읽은 수, 검색 색인을 버린다
+    public void evictRoom(Long roomId) {
+        feedCache.invalidate(roomId);
+        readStatusService.roomDeleted(roomId);
+        searchService.roomDeleted(roomId);
+    }
+
+    public List<PostSummary> findByRoomId(Long roomId) {
+        List<PostSummary> feed = feedCache.get(roomId);
+        if (feed == null) {
+            return toSummaries(postRepository.findByRoomIdOrderByCreatedAtDesc(roomId));
+        }
+        return feed;
+    }
+
+    public List<PostSummary> findNoticesByRoomId(Long roomId) {
+        return findByRoomIdAndType(roomId, Post.PostType.NOTICE);
     }
 
-    public List<Post> findByRoomId(Long roomId) {
-        return postRepository.findByRoomIdOrderByCreatedAtDesc(roomId);
+    public List<PostSummary> findGeneralPostsByRoomId(Long roomId) {
+        return findByRoomIdAndType(roomId, Post.PostType.GENERAL);
     }
 
-    public List<Post> findNoticesByRoomId(Long roomId) {
-        return postRepository.findByRoomIdAndPostTypeOrderByCreatedAtDesc(roomId, Post.PostType.NOTICE);
+    private List<PostSummary> findByRoomIdAndType(Long roomId, Post.PostType postType) {
+        List<PostSummary> feed = feedCache.get(roomId);
+        if (feed == null) {
+            return toSummaries(postRepository.findByRoomIdAndPostTypeOrderByCreatedAtDesc(roomId, postType));
+        }
+        List<PostSummary> posts = new ArrayList<>();
+        for (PostSummary post : feed) {
+            if (post.getPostType() == postType) {
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * since 이후 작성/수정/삭제된 글. since가 null이면 전체 (삭제 목록은 비어 있음),
+     * 삭제 기록 보존 기간보다 오래되었으면 전체를 isFullReload()로 보낸다.
+     * 다음 요청에는 결과의 기준 시각을 보낸다.
+     */
+    public ChangeSet<Post> findChangedSince(Long roomId, LocalDateTime since) {
+        LocalDateTime watermark = ChangeSet.nextWatermark();
+        if (since == null) {
+            return new ChangeSet<>(postRepository.findByRoomIdOrderByCreatedAtDesc(roomId), List.of(), watermark);
+        }
+        if (tombstoneRetention.isExpired(since)) {
+            return ChangeSet.fullReload(postRepository.findByRoomIdOrderByCreatedAtDesc(roomId), watermark);
+        }
+        return new ChangeSet<>(postRepository.findChangedSince(roomId, since),
+                tombstoneRepository.findDeletedSince(Tombstone.Kind.POST, roomId, since), watermark);
+    }
+
+    // 최신 글부터 한 페이지 (after: 이전 페이지의 마지막 글, null이면 첫 페이지)
+    public Slice<PostSummary> findPageByRoomId(Long roomId, PageCursor after, int size) {
+        return findPage(roomId, null, after, size);
+    }
+
+    public Slice<PostSummary> findPageByRoomIdAndType(Long roomId, Post.PostType postType, PageCursor after, int size) {
+        return findPage(roomId, postType, after, size);
+    }
+
+    // postType이 null이면 모든 글
+    private Slice<PostSummary> findPage(Long roomId, Post.PostType postType, PageCursor after, int size) {
+        PageRequest page = PageRequest.ofSize(PageCursor.clampSize(size));
+        List<PostSummary> feed = feedCache.get(roomId);
+        if (feed == null) {
+            return findPageFromDb(roomId, postType, after, page).map(PostSummary::of);
+        }
+        // 캐시된 목록에서 위치 다음 글부터 (목록이 같은 기준으로 정렬되어 있음)
+        List<PostSummary> content = new ArrayList<>(page.getPageSize());
+        boolean hasNext = false;
+        for (PostSummary post : feed) {
+            if (postType != null && post.getPostType() != postType) continue;
+            if (after != null && !isAfter(post, after)) continue;
+            if (content.size() == page.getPageSize()) {
+                hasNext = true;
+                break;
+            }
+            content.add(post);
+        }
+        return new SliceImpl<>(content, page, hasNext);
+    }
+
+    private static boolean isAfter(PostSummary post, PageCursor cursor) {
+        int compare = post.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return compare < 0 || (compare == 0 && post.getPostId() < cursor.getId());
+    }
+
+    private Slice<Post> findPageFromDb(Long roomId, Post.PostType postType, PageCursor after, PageRequest page) {
+        if (postType == null) {
+            if (after == null) {
+                return postRepository.findByRoomIdOrderByCreatedAtDescPostIdDesc(roomId, page);
+            }
+            return postRepository.findPageByRoomId(roomId, after.getCreatedAt(), after.getId(), page);
+        }
+        if (after == null) {
+            return postRepository.findByRoomIdAndPostTypeOrderByCreatedAtDescPostIdDesc(roomId, postType, page);
+        }
+        return postRepository.findPageByRoomIdAndPostType(roomId, postType, after.getCreatedAt(), after.getId(), page);
+    }
+
+    private List<PostSummary> loadFeed(Long roomId) {
+        List<PostSummary> posts = new ArrayList<>();
+        for (PostRepository.Summary row : postRepository.findSummariesByRoomId(roomId)) {
+            posts.add(PostSummary.of(row));
+        }
+        return posts;
+    }
+
+    private static List<PostSummary> toSummaries(List<Post> posts) {
+        List<PostSummary> summaries = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            summaries.add(PostSummary.of(post));
+        }
+        return summaries;
     }
 
-    public List<Post> findGeneralPostsByRoomId(Long roomId) {
-        return postRepository.findByRoomIdAndPostTypeOrderByCreatedAtDesc(roomId, Post.PostType.GENERAL);
+    // 적중/실패/교체 횟수 확인용
+    public PostFeedCache getFeedCache() {
+        return feedCache;
     }
 
     public Optional<Post> findById(Long postId) {
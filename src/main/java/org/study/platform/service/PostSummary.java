@@ -0,0 +1,54 @@
+package org.study.platform.service;
+
+import org.study.platform.entity.Post;
+import org.study.platform.repository.PostRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * 글 목록 한 행 (본문 제외). 불변이라 캐시에서 꺼낸 그대로 여러 스레드가 함께 읽는다.
+ */
+public final class PostSummary {
+
+    // 목록 순서: 최신순, 작성 시각이 같으면 ID 역순 (페이지 위치와 같은 기준)
+    public static final Comparator<PostSummary> NEWEST_FIRST =
+            Comparator.comparing(PostSummary::getCreatedAt).thenComparing(PostSummary::getPostId).reversed();
+
+    private final Long postId;
+    private final Long roomId;
+    private final Long authorId;
+    private final String title;
+    private final Post.PostType postType;
+    private final Boolean hasAssignment;
+    private final LocalDateTime createdAt;
+
+    PostSummary(Long postId, Long roomId, Long authorId, String title, Post.PostType postType,
+                        Boolean hasAssignment, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.roomId = roomId;
+        this.authorId = authorId;
+        this.title = title;
+        this.postType = postType;
+        this.hasAssignment = hasAssignment;
+        this.createdAt = createdAt;
+    }
+
+    public static PostSummary of(Post post) {
+        return new PostSummary(post.getPostId(), post.getRoomId(), post.getAuthorId(), post.getTitle(),
+                post.getPostType(), post.getHasAssignment(), post.getCreatedAt());
+    }
+
+    public static PostSummary of(PostRepository.Summary row) {
+        return new PostSummary(row.getPostId(), row.getRoomId(), row.getAuthorId(), row.getTitle(),
+                row.getPostType(), row.getHasAssignment(), row.getCreatedAt());
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getRoomId() { return roomId; }
+    public Long getAuthorId() { return authorId; }
+    public String getTitle() { return title; }
+    public Post.PostType getPostType() { return postType; }
+    public Boolean getHasAssignment() { return hasAssignment; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
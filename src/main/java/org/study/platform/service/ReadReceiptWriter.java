@@ -0,0 +1,163 @@
+package org.study.platform.service;
+
+import org.study.platform.entity.PostReadStatus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 읽음 기록을 모아서 DB에 쓰는 버퍼 (write-behind).
+ *
+ * 공지가 올라오면 몇 초 안에 수백 명의 읽음 처리가 몰리는데, 한 건마다 트랜잭션을 열지 않고
+ * batchSize개가 모이거나 flushIntervalMs가 지나면 한 트랜잭션(sink)으로 묶어서 넣는다.
+ * 서버가 비정상 종료되면 마지막 flushIntervalMs 동안의 기록을 잃을 수 있다 (정상 종료 시에는 close()가 모두 쓴다).
+ * flushIntervalMs가 0 이하이면 모으지 않고 submit에서 바로 쓴다.
+ *
+ * 중복은 호출한 쪽(ReadStatusIndex.add)이 이미 걸렀다고 가정한다.
+ */
+public final class ReadReceiptWriter {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final int batchSize;
+    private final long flushIntervalMs;
+    // 한 묶음을 한 트랜잭션으로 저장
+    private final Consumer<List<PostReadStatus>> sink;
+    private final ScheduledExecutorService flusher;
+
+    // 아래 필드는 모두 this로 동기화
+    private final ArrayDeque<PostReadStatus> pending = new ArrayDeque<>();
+    private boolean flushRequested;
+    private long written;
+    private long batches;
+    private long failedBatches;
+
+    // flush는 한 번에 하나만 (저장 실패 시 순서를 지켜 앞에 되돌려 놓기 위해)
+    private final Object flushLock = new Object();
+
+    ReadReceiptWriter(int batchSize, long flushIntervalMs, Consumer<List<PostReadStatus>> sink) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.sink = sink;
+        if (flushIntervalMs > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "read-receipt-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public void submit(PostReadStatus receipt) {
+        if (flusher == null) {
+            // 바로 쓰기
+            sink.accept(List.of(receipt));
+            synchronized (this) {
+                written++;
+                batches++;
+            }
+            return;
+        }
+        synchronized (this) {
+            pending.addLast(receipt);
+            if (pending.size() < batchSize || flushRequested) {
+                return;
+            }
+            flushRequested = true;
+        }
+        // 묶음 크기만큼 찼으면 주기를 기다리지 않고 바로
+        try {
+            flusher.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            // close 중 - close가 남은 기록을 쓴다
+        }
+    }
+
+    // 쌓인 기록을 batchSize씩 저장. 실패하면 그 묶음을 앞에 되돌려 놓고 다음 주기에 다시 시도
+    public void flush() {
+        synchronized (flushLock) {
+            while (true) {
+                List<PostReadStatus> batch;
+                synchronized (this) {
+                    flushRequested = false;
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                    while (batch.size() < batchSize && !pending.isEmpty()) {
+                        batch.add(pending.pollFirst());
+                    }
+                }
+                try {
+                    sink.accept(batch);
+                } catch (RuntimeException e) {
+                    System.err.println("읽음 기록 저장 실패 (" + batch.size() + "건, 다음 주기에 재시도): " + e.getMessage());
+                    synchronized (this) {
+                        for (int i = batch.size() - 1; i >= 0; i--) {
+                            PostReadStatus receipt = batch.get(i);
+                            // 실패한 저장에서 받은 ID가 남아 있으면 다음 saveAll이 새 행이 아닌 것으로 보고 행마다 SELECT 후 병합한다
+                            receipt.setReadId(null);
+                            pending.addFirst(receipt);
+                        }
+                        failedBatches++;
+                    }
+                    return;
+                }
+                synchronized (this) {
+                    written += batch.size();
+                    batches++;
+                }
+            }
+        }
+    }
+
+    // 종료 시 남은 기록을 모두 쓴다
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    // 아직 DB에 쓰지 않은 기록 수
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized long getWrittenCount() {
+        return written;
+    }
+
+    public synchronized long getBatchCount() {
+        return batches;
+    }
+
+    public synchronized long getFailedBatchCount() {
+        return failedBatches;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ReadReceiptWriter{pending=" + pending.size() + ", written=" + written + ", batches=" + batches
+                + ", failedBatches=" + failedBatches + ", batchSize=" + batchSize
+                + ", flushIntervalMs=" + flushIntervalMs + "}";
+    }
+}
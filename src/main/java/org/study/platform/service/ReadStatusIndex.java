@@ -0,0 +1,128 @@
+package org.study.platform.service;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 글별 읽은 사용자 집합 (메모리, UserIdBitmap).
+ *
+ * post_read_status 테이블은 그대로 영구 기록으로 쓰고, 이 색인은 서버 시작 시 테이블을 한 번 읽어 만든다.
+ * 이후 읽음 처리는 add()로 먼저 반영하고 DB 기록은 ReadReceiptWriter가 묶어서 나중에 쓰므로
+ * "누가 읽었나 / 몇 명 읽었나"는 DB를 읽지 않는다 (아직 DB에 쓰지 않은 읽음도 보인다).
+ *
+ * 읽어 들이는 중에 들어온 add()도 그대로 합쳐진다 (집합이므로 순서와 중복이 상관없음).
+ * 조회는 다 읽어 들인 뒤에만 한다.
+ */
+public final class ReadStatusIndex {
+
+    // 테이블 전체를 (글 ID, 사용자 ID) 쌍으로 넘겨준다
+    private final Consumer<BiConsumer<Long, Long>> loader;
+    private final ConcurrentHashMap<Long, UserIdBitmap> readers = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    ReadStatusIndex(Consumer<BiConsumer<Long, Long>> loader) {
+        this.loader = loader;
+    }
+
+    // 처음 한 번만 테이블을 읽는다 (이미 읽었으면 바로 반환)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                long start = System.nanoTime();
+                loader.accept(this::add);
+                loaded = true;
+                System.out.println("읽음 색인 구성: " + this + " (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
+            }
+        }
+    }
+
+    // 새로 추가되었으면 true
+    public boolean add(Long postId, Long userId) {
+        UserIdBitmap bitmap = readers.computeIfAbsent(postId, id -> new UserIdBitmap());
+        synchronized (bitmap) {
+            return bitmap.add(userId);
+        }
+    }
+
+    public boolean contains(Long postId, Long userId) {
+        load();
+        UserIdBitmap bitmap = readers.get(postId);
+        if (bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.contains(userId);
+        }
+    }
+
+    public int count(Long postId) {
+        load();
+        UserIdBitmap bitmap = readers.get(postId);
+        if (bitmap == null) {
+            return 0;
+        }
+        synchronized (bitmap) {
+            return bitmap.cardinality();
+        }
+    }
+
+    // 읽은 사용자 ID (오름차순)
+    public long[] readers(Long postId) {
+        load();
+        UserIdBitmap bitmap = readers.get(postId);
+        if (bitmap == null) {
+            return new long[0];
+        }
+        synchronized (bitmap) {
+            return bitmap.toArray();
+        }
+    }
+
+    // 글 삭제: 그 글의 집합을 버리고 읽었던 사용자 ID (오름차순)를 돌려준다
+    public long[] remove(Long postId) {
+        UserIdBitmap bitmap = readers.remove(postId);
+        if (bitmap == null) {
+            return new long[0];
+        }
+        synchronized (bitmap) {
+            return bitmap.toArray();
+        }
+    }
+
+    // 방 삭제: 방의 글 집합을 모두 버린다
+    public void removeAll(Collection<Long> postIds) {
+        for (Long postId : postIds) {
+            readers.remove(postId);
+        }
+    }
+
+    public int getPostCount() {
+        return readers.size();
+    }
+
+    public long getBytes() {
+        long bytes = 0;
+        for (UserIdBitmap bitmap : readers.values()) {
+            synchronized (bitmap) {
+                bytes += bitmap.bytes();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        long receipts = 0;
+        for (UserIdBitmap bitmap : readers.values()) {
+            synchronized (bitmap) {
+                receipts += bitmap.cardinality();
+            }
+        }
+        return "ReadStatusIndex{posts=" + readers.size() + ", receipts=" + receipts + ", bytes=" + getBytes() + "}";
+    }
+}
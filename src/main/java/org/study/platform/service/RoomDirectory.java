@@ -0,0 +1,128 @@
+package org.study.platform.service;
+
+import org.study.platform.entity.Room;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * 메모리에 두는 방 목록 (방장 닉네임 포함).
+ *
+ * 처음 조회할 때 DB에서 한 번 읽고, 이후에는 RoomService의 방 생성/삭제가 직접 반영한다.
+ * 조회는 불변 스냅샷을 돌려주므로 잠금이 없고, 변경은 새 스냅샷을 만들어 바꿔 끼운다.
+ * 스냅샷이 바뀌지 않았으면 같은 객체이므로 호출한 쪽은 스냅샷 기준으로 인코딩한 응답을 재사용할 수 있다.
+ */
+public final class RoomDirectory {
+
+    public static final class Entry {
+        private final Long roomId;
+        private final String roomName;
+        private final Long creatorId;
+        private final String creatorName;
+        private final LocalDateTime createdAt;
+
+        Entry(Room room, String creatorName) {
+            this(room.getRoomId(), room.getRoomName(), room.getCreatorId(), creatorName, room.getCreatedAt());
+        }
+
+        private Entry(Long roomId, String roomName, Long creatorId, String creatorName, LocalDateTime createdAt) {
+            this.roomId = roomId;
+            this.roomName = roomName;
+            this.creatorId = creatorId;
+            this.creatorName = creatorName;
+            this.createdAt = createdAt;
+        }
+
+        public Long getRoomId() { return roomId; }
+        public String getRoomName() { return roomName; }
+        public Long getCreatorId() { return creatorId; }
+        public String getCreatorName() { return creatorName; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+
+    // 방 ID 순 (findAll 순서와 같음)
+    public static final class Snapshot {
+        private final List<Entry> rooms;
+
+        private Snapshot(List<Entry> rooms) {
+            this.rooms = Collections.unmodifiableList(rooms);
+        }
+
+        public List<Entry> getRooms() {
+            return rooms;
+        }
+    }
+
+    private final Supplier<List<Entry>> loader;
+    private volatile Snapshot snapshot;
+
+    RoomDirectory(Supplier<List<Entry>> loader) {
+        this.loader = loader;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new Snapshot(new ArrayList<>(loader.get()));
+            }
+            return snapshot;
+        }
+    }
+
+    // 이미 있으면 바꾼다 (처음 읽을 때 이미 포함된 방일 수 있음)
+    synchronized void put(Entry entry) {
+        if (snapshot == null) {
+            // 아직 읽지 않았으면 처음 조회할 때 DB에서 함께 읽힌다
+            return;
+        }
+        Map<Long, Entry> rooms = toMap();
+        rooms.put(entry.getRoomId(), entry);
+        snapshot = new Snapshot(new ArrayList<>(rooms.values()));
+    }
+
+    synchronized void remove(Long roomId) {
+        if (snapshot == null) {
+            return;
+        }
+        Map<Long, Entry> rooms = toMap();
+        if (rooms.remove(roomId) != null) {
+            snapshot = new Snapshot(new ArrayList<>(rooms.values()));
+        }
+    }
+
+    // 방장이 닉네임을 바꾸면 그 사람이 만든 방의 표시 이름도 바꾼다
+    synchronized void creatorRenamed(Long userId, String nickname) {
+        if (snapshot == null) {
+            return;
+        }
+        List<Entry> rooms = new ArrayList<>(snapshot.getRooms());
+        boolean changed = false;
+        for (int i = 0; i < rooms.size(); i++) {
+            Entry entry = rooms.get(i);
+            if (entry.getCreatorId().equals(userId)) {
+                rooms.set(i, new Entry(entry.roomId, entry.roomName, entry.creatorId, nickname, entry.createdAt));
+                changed = true;
+            }
+        }
+        if (changed) {
+            snapshot = new Snapshot(rooms);
+        }
+    }
+
+    private Map<Long, Entry> toMap() {
+        Map<Long, Entry> rooms = new TreeMap<>();
+        for (Entry entry : snapshot.getRooms()) {
+            rooms.put(entry.getRoomId(), entry);
+        }
+        return rooms;
+    }
+}
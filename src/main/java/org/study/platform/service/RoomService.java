@@ -4,27 +4,36 @@ import org.study.platform.entity.Room;
 import org.study.platform.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private final UserService userService;
+    private final PostService postService;
+    // GET_ROOMS는 DB 대신 여기서 읽는다 - 생성/삭제가 DB에 반영된 직후 함께 갱신
+    private final RoomDirectory directory;
 
     @Autowired
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, UserService userService, PostService postService) {
         this.roomRepository = roomRepository;
+        this.userService = userService;
+        this.postService = postService;
+        this.directory = new RoomDirectory(this::loadDirectory);
+        userService.addNicknameListener(directory::creatorRenamed);
     }
 
-    @Transactional
+    // 저장(커밋)이 끝난 뒤에 목록에 넣어야 하므로 트랜잭션으로 묶지 않는다 (save 자체가 트랜잭션)
     public Room createRoom(String roomName, Long creatorId) {
-        Room room = new Room(roomName, creatorId);
-        return roomRepository.save(room);
+        Room room = roomRepository.save(new Room(roomName, creatorId));
+        directory.put(new RoomDirectory.Entry(room, userService.findNickname(creatorId).orElse("알 수 없음")));
+        return room;
     }
 
-    @Transactional
     public void deleteRoom(Long roomId, Long userId) {
         Optional<Room> roomOpt = roomRepository.findById(roomId);
         if (roomOpt.isEmpty()) {
@@ -35,12 +44,30 @@ public class RoomService {
             throw new IllegalArgumentException("방장만 삭제할 수 있습니다.");
         }
         roomRepository.delete(room);
+        directory.remove(roomId);
+        postService.evictRoom(roomId);
     }
 
     public List<Room> findAllRooms() {
         return roomRepository.findAll();
     }
 
+    // 방 목록 (방장 닉네임 포함) - 처음 한 번 이후에는 DB를 읽지 않음
+    public RoomDirectory.Snapshot getDirectory() {
+        return directory.snapshot();
+    }
+
+    private List<RoomDirectory.Entry> loadDirectory() {
+        List<Room> rooms = roomRepository.findAll();
+        Map<Long, String> nicknames = userService.findNicknames(rooms, Room::getCreatorId);
+        List<RoomDirectory.Entry> entries = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            String creatorName = nicknames.get(room.getCreatorId());
+            entries.add(new RoomDirectory.Entry(room, creatorName != null ? creatorName : "알 수 없음"));
+        }
+        return entries;
+    }
+
     public Optional<Room> findById(Long roomId) {
         return roomRepository.findById(roomId);
     }
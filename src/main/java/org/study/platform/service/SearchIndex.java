@@ -0,0 +1,593 @@
+package org.study.platform.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 글 · 댓글 · 과제의 전문 검색 색인 (역색인, 메모리 + 디스크 세그먼트).
+ *
+ * 새 문서는 메모리에 모았다가 flushDocs개가 되면 변하지 않는 세그먼트(SearchSegment)로 만든다. 세그먼트가
+ * MAX_SEGMENTS개를 넘으면 작은 것부터 MAX_SEGMENTS개를 하나로 합친다 (잠금 밖에서 만들고 바꿔 끼울 때만 잠금).
+ * 수정 = 삭제 후 추가, 삭제는 세그먼트의 삭제 비트만 켠다.
+ *
+ * 순위는 BM25 (제목 단어는 TITLE_WEIGHT배로 센다), 검색어의 모든 단어를 가진 문서만 돌려준다.
+ *
+ * 파일: 세그먼트마다 seg-세대.dat, 정상 종료(close) 때 세그먼트 목록 · 삭제 표시 · DB 지문을 manifest.dat에 남긴다.
+ * 시작 때(open) 목록을 읽은 뒤 지우므로, 비정상 종료 후에는 목록이 없어 DB에서 다시 만든다.
+ */
+public final class SearchIndex {
+
+    public enum Type { POST, COMMENT, ASSIGNMENT }
+
+    public static final int DEFAULT_FLUSH_DOCS = 10_000;
+    static final int MAX_SEGMENTS = 10;
+    static final int TITLE_WEIGHT = 3;
+    // 결과에 보여줄 제목 길이 (댓글은 내용 앞부분)
+    static final int TITLE_PREVIEW = 40;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MANIFEST_MAGIC = 0x5352434D; // "SRCM"
+    private static final int MANIFEST_VERSION = 1;
+    private static final String MANIFEST = "manifest.dat";
+
+    // null이면 파일로 남기지 않음
+    private final Path directory;
+    private final int flushDocs;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 아래는 lock 안에서만
+    private final List<SearchSegment> segments = new ArrayList<>();
+    // 메모리 문서 (종류/ID → 문서)와 단어별 문서 수
+    private final Map<Long, Doc> memory = new HashMap<>();
+    private final Map<String, Integer> memoryFrequencies = new HashMap<>();
+    private long liveDocs;
+    private long liveLength;
+    private long nextGeneration = 1;
+    private long mergeCount;
+    // 병합은 한 번에 하나
+    private final Object mergeLock = new Object();
+
+    public SearchIndex(Path directory, int flushDocs) {
+        this.directory = directory;
+        this.flushDocs = Math.max(1, flushDocs);
+    }
+
+    // === 갱신 ===
+
+    // 같은 종류/ID가 있으면 바꾼다. title이 null이면 본문 앞부분을 결과 제목으로
+    public void add(Type type, long id, long roomId, long postId, String title, String body) {
+        Doc doc = new Doc(type, id, roomId, postId, title, body);
+        boolean full;
+        lock.writeLock().lock();
+        try {
+            removeLocked(type, id, roomId, postId);
+            memory.put(key(type, id), doc);
+            for (String term : doc.frequencies.keySet()) {
+                memoryFrequencies.merge(term, 1, Integer::sum);
+            }
+            liveDocs++;
+            liveLength += doc.length;
+            full = memory.size() >= flushDocs;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    public void remove(Type type, long id, long roomId, long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(type, id, roomId, postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 글과 그 글의 댓글 · 과제
+    public void removePost(long roomId, long postId) {
+        lock.writeLock().lock();
+        try {
+            Iterator<Doc> docs = memory.values().iterator();
+            while (docs.hasNext()) {
+                Doc doc = docs.next();
+                if (doc.roomId == roomId && doc.postId == postId) {
+                    docs.remove();
+                    forgetLocked(doc);
+                }
+            }
+            for (SearchSegment segment : segments) {
+                deleteRangeLocked(segment, segment.lowerBound(roomId, postId, 0, Long.MIN_VALUE),
+                        segment.lowerBound(roomId, postId + 1, 0, Long.MIN_VALUE));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRoom(long roomId) {
+        lock.writeLock().lock();
+        try {
+            Iterator<Doc> docs = memory.values().iterator();
+            while (docs.hasNext()) {
+                Doc doc = docs.next();
+                if (doc.roomId == roomId) {
+                    docs.remove();
+                    forgetLocked(doc);
+                }
+            }
+            for (SearchSegment segment : segments) {
+                deleteRangeLocked(segment, segment.lowerBound(roomId, Long.MIN_VALUE, 0, Long.MIN_VALUE),
+                        segment.lowerBound(roomId + 1, Long.MIN_VALUE, 0, Long.MIN_VALUE));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            segments.clear();
+            memory.clear();
+            memoryFrequencies.clear();
+            liveDocs = 0;
+            liveLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Type type, long id, long roomId, long postId) {
+        Doc doc = memory.remove(key(type, id));
+        if (doc != null) {
+            forgetLocked(doc);
+        }
+        for (SearchSegment segment : segments) {
+            int found = segment.find(roomId, postId, type.ordinal(), id);
+            if (found >= 0) {
+                deleteLocked(segment, found);
+            }
+        }
+    }
+
+    private void forgetLocked(Doc doc) {
+        for (String term : doc.frequencies.keySet()) {
+            memoryFrequencies.computeIfPresent(term, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        liveDocs--;
+        liveLength -= doc.length;
+    }
+
+    private void deleteRangeLocked(SearchSegment segment, int from, int to) {
+        for (int doc = from; doc < to; doc++) {
+            deleteLocked(segment, doc);
+        }
+    }
+
+    private void deleteLocked(SearchSegment segment, int doc) {
+        if (segment.delete(doc)) {
+            liveDocs--;
+            liveLength -= segment.length(doc);
+        }
+    }
+
+    // 메모리 문서를 세그먼트로 내리고 파일로 남긴 뒤, 세그먼트가 많으면 합친다
+    public void flush() {
+        SearchSegment segment;
+        lock.writeLock().lock();
+        try {
+            if (memory.isEmpty()) {
+                return;
+            }
+            segment = SearchSegment.build(nextGeneration++, new ArrayList<>(memory.values()));
+            segments.add(segment);
+            memory.clear();
+            memoryFrequencies.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        save(segment);
+        maybeMerge();
+    }
+
+    private void maybeMerge() {
+        synchronized (mergeLock) {
+            while (true) {
+                List<SearchSegment> sources;
+                List<BitSet> snapshot = new ArrayList<>();
+                long generation;
+                lock.writeLock().lock();
+                try {
+                    if (segments.size() <= MAX_SEGMENTS) {
+                        return;
+                    }
+                    sources = new ArrayList<>(segments);
+                    sources.sort(Comparator.comparingInt(SearchSegment::liveCount));
+                    sources = new ArrayList<>(sources.subList(0, MAX_SEGMENTS));
+                    for (SearchSegment source : sources) {
+                        snapshot.add((BitSet) source.getDeleted().clone());
+                    }
+                    generation = nextGeneration++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                SearchSegment merged = SearchSegment.merge(generation, sources, snapshot);
+                lock.writeLock().lock();
+                try {
+                    // 합치는 동안 지워진 문서는 새 세그먼트에서도 지운다 (세는 값은 이미 뺐음)
+                    for (int s = 0; s < sources.size(); s++) {
+                        SearchSegment source = sources.get(s);
+                        BitSet later = (BitSet) source.getDeleted().clone();
+                        later.andNot(snapshot.get(s));
+                        for (int doc = later.nextSetBit(0); doc >= 0; doc = later.nextSetBit(doc + 1)) {
+                            int moved = merged.find(source.room(doc), source.postId(doc), source.type(doc), source.id(doc));
+                            if (moved >= 0) {
+                                merged.delete(moved);
+                            }
+                        }
+                    }
+                    segments.removeAll(sources);
+                    segments.add(merged);
+                    mergeCount++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                save(merged);
+            }
+        }
+    }
+
+    private void save(SearchSegment segment) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            segment.write(segmentFile(segment.getGeneration()));
+        } catch (IOException e) {
+            // 종료(close) 때 다시 시도
+            System.err.println("검색 세그먼트 저장 실패: " + e.getMessage());
+        }
+    }
+
+    // === 검색 ===
+
+    // 방 안에서 검색어의 모든 단어를 가진 문서 (점수 높은 순, 최대 limit개)
+    public List<Hit> search(long roomId, String query, int limit) {
+        Set<String> unique = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (unique.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] terms = unique.toArray(new String[0]);
+        TopHits top = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            if (liveDocs <= 0) {
+                return List.of();
+            }
+            double averageLength = (double) liveLength / liveDocs;
+            double[] idf = new double[terms.length];
+            for (int t = 0; t < terms.length; t++) {
+                long frequency = memoryFrequencies.getOrDefault(terms[t], 0);
+                for (SearchSegment segment : segments) {
+                    frequency += segment.documentFrequency(terms[t]);
+                }
+                if (frequency == 0) {
+                    return List.of();
+                }
+                // 삭제된 문서도 세므로 전체 문서 수를 넘지 않게
+                frequency = Math.min(frequency, liveDocs);
+                idf[t] = Math.log(1 + (liveDocs - frequency + 0.5) / (frequency + 0.5));
+            }
+            for (SearchSegment segment : segments) {
+                segment.search(roomId, terms, idf, averageLength, top);
+            }
+            for (Doc doc : memory.values()) {
+                if (doc.roomId != roomId) {
+                    continue;
+                }
+                double score = 0;
+                for (int t = 0; t < terms.length && score >= 0; t++) {
+                    Integer frequency = doc.frequencies.get(terms[t]);
+                    score = frequency == null ? -1 : score + score(idf[t], frequency, doc.length, averageLength);
+                }
+                if (score >= 0 && top.accepts(score)) {
+                    top.add(new Hit(doc.type, doc.id, doc.roomId, doc.postId, score, doc.title));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.sorted();
+    }
+
+    static double score(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // === 파일 ===
+
+    /**
+     * 정상 종료 때 남긴 목록이 있고 DB 지문이 같으면 세그먼트 파일을 읽어 색인을 바꾼다.
+     * 목록은 (읽었든 아니든) 지운다 - 다음 close 전에 죽으면 DB에서 다시 만들도록. 읽지 못했으면 false (색인은 그대로).
+     */
+    public boolean open(long[] fingerprint) throws IOException {
+        if (directory == null) {
+            return false;
+        }
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return false;
+        }
+        try {
+            List<SearchSegment> loaded = new ArrayList<>();
+            long generation;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+                if (in.readInt() != MANIFEST_MAGIC || in.readInt() != MANIFEST_VERSION) {
+                    return false;
+                }
+                long[] saved = new long[in.readInt()];
+                for (int i = 0; i < saved.length; i++) {
+                    saved[i] = in.readLong();
+                }
+                if (!Arrays.equals(saved, fingerprint)) {
+                    return false;
+                }
+                generation = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long segmentGeneration = in.readLong();
+                    long[] words = new long[in.readInt()];
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] = in.readLong();
+                    }
+                    loaded.add(SearchSegment.read(segmentFile(segmentGeneration), segmentGeneration, BitSet.valueOf(words)));
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                clear();
+                segments.addAll(loaded);
+                nextGeneration = generation;
+                for (SearchSegment segment : loaded) {
+                    liveDocs += segment.liveCount();
+                    liveLength += segment.liveLength();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(manifest);
+        }
+    }
+
+    // 이번 실행의 변경이 반영되지 않은 목록이 남지 않도록 (색인을 열기 전에 글이 바뀌는 경우)
+    public void discardSaved() throws IOException {
+        if (directory != null) {
+            Files.deleteIfExists(directory.resolve(MANIFEST));
+        }
+    }
+
+    /**
+     * 메모리 문서를 세그먼트로 내리고, 아직 파일이 없는 세그먼트와 목록(삭제 표시, DB 지문)을 쓴다.
+     * 목록에 없는 세그먼트 파일(병합된 옛 세그먼트)은 지운다.
+     */
+    public void close(long[] fingerprint) throws IOException {
+        flush();
+        if (directory == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            Set<Path> keep = new HashSet<>();
+            for (SearchSegment segment : segments) {
+                Path file = segmentFile(segment.getGeneration());
+                if (!segment.isSaved()) {
+                    segment.write(file);
+                }
+                keep.add(file.getFileName());
+            }
+            Path manifest = directory.resolve(MANIFEST);
+            Path temp = directory.resolve(MANIFEST + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MANIFEST_MAGIC);
+                out.writeInt(MANIFEST_VERSION);
+                out.writeInt(fingerprint.length);
+                for (long value : fingerprint) {
+                    out.writeLong(value);
+                }
+                out.writeLong(nextGeneration);
+                out.writeInt(segments.size());
+                for (SearchSegment segment : segments) {
+                    out.writeLong(segment.getGeneration());
+                    long[] words = segment.getDeleted().toLongArray();
+                    out.writeInt(words.length);
+                    for (long word : words) {
+                        out.writeLong(word);
+                    }
+                }
+            }
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "seg-*.dat")) {
+                for (Path file : files) {
+                    if (!keep.contains(file.getFileName())) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Path segmentFile(long generation) {
+        return directory.resolve("seg-" + generation + ".dat");
+    }
+
+    // === 상태 ===
+
+    public long getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getMergeCount() {
+        lock.readLock().lock();
+        try {
+            return mergeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            return "SearchIndex{docs=" + liveDocs + ", segments=" + segments.size() + ", memory=" + memory.size()
+                    + ", merges=" + mergeCount + "}";
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static long key(Type type, long id) {
+        return (long) type.ordinal() << 56 | id;
+    }
+
+    // 색인할 문서 하나 (단어 → 빈도)
+    static final class Doc implements Comparable<Doc> {
+        final Type type;
+        final long id;
+        final long roomId;
+        final long postId;
+        final String title;
+        final Map<String, Integer> frequencies = new HashMap<>();
+        final int length;
+
+        Doc(Type type, long id, long roomId, long postId, String title, String body) {
+            this.type = type;
+            this.id = id;
+            this.roomId = roomId;
+            this.postId = postId;
+            int total = 0;
+            for (String term : SearchTokenizer.tokenize(title)) {
+                frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+                total += TITLE_WEIGHT;
+            }
+            for (String term : SearchTokenizer.tokenize(body)) {
+                frequencies.merge(term, 1, Integer::sum);
+                total++;
+            }
+            this.length = total;
+            String display = title != null ? title : body != null ? body : "";
+            this.title = display.length() > TITLE_PREVIEW ? display.substring(0, TITLE_PREVIEW) : display;
+        }
+
+        @Override
+        public int compareTo(Doc other) {
+            int compare = Long.compare(roomId, other.roomId);
+            if (compare == 0) {
+                compare = Long.compare(postId, other.postId);
+            }
+            if (compare == 0) {
+                compare = Integer.compare(type.ordinal(), other.type.ordinal());
+            }
+            if (compare == 0) {
+                compare = Long.compare(id, other.id);
+            }
+            return compare;
+        }
+    }
+
+    public static final class Hit {
+        private final Type type;
+        private final long id;
+        private final long roomId;
+        private final long postId;
+        private final double score;
+        private final String title;
+
+        Hit(Type type, long id, long roomId, long postId, double score, String title) {
+            this.type = type;
+            this.id = id;
+            this.roomId = roomId;
+            this.postId = postId;
+            this.score = score;
+            this.title = title;
+        }
+
+        public Type getType() { return type; }
+        public long getId() { return id; }
+        public long getRoomId() { return roomId; }
+        public long getPostId() { return postId; }
+        public double getScore() { return score; }
+        public String getTitle() { return title; }
+    }
+
+    // 점수 상위 limit개 (가장 낮은 점수가 맨 위인 힙)
+    static final class TopHits {
+        private final int limit;
+        private final PriorityQueue<Hit> heap = new PriorityQueue<>(Comparator.comparingDouble(Hit::getScore));
+
+        TopHits(int limit) {
+            this.limit = limit;
+        }
+
+        boolean accepts(double score) {
+            return heap.size() < limit || score > heap.peek().getScore();
+        }
+
+        void add(Hit hit) {
+            heap.add(hit);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        // 점수 높은 순, 같으면 최근 글 먼저
+        List<Hit> sorted() {
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort(Comparator.comparingDouble(Hit::getScore).reversed()
+                    .thenComparing(Comparator.comparingLong(Hit::getPostId).reversed())
+                    .thenComparingLong(Hit::getId));
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,556 @@
+package org.study.platform.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 검색 색인의 한 조각 (세그먼트). 만든 뒤에는 삭제 표시 말고는 바뀌지 않는다.
+ *
+ * 문서는 (방, 글, 종류, ID) 순으로 정렬해 0부터 번호를 붙인다. 한 방의 문서가 번호상 한 구간에 모이므로
+ * 방 안 검색은 게시 목록(단어 → 문서 번호, 빈도)에서 그 구간만 읽는다. 게시 목록은 번호 차이를 varint로 압축하고
+ * BLOCK개마다 건너뛰기 항목(블록의 마지막 번호, 블록 바이트 수)을 두어 구간 앞부분은 풀지 않고 건너뛴다.
+ * 삭제된 문서는 비트만 켜 두고 병합할 때 뺀다.
+ *
+ * 삭제 표시는 SearchIndex의 잠금 안에서만 읽고 쓴다.
+ */
+final class SearchSegment {
+
+    static final int BLOCK = 128;
+    private static final int FILE_MAGIC = 0x53524347; // "SRCG"
+    private static final int FILE_VERSION = 1;
+
+    private final long generation;
+    private final long[] rooms;
+    private final long[] postIds;
+    private final byte[] types;
+    private final long[] ids;
+    private final int[] lengths;
+    private final String[] titles;
+    // 단어 → [개수][건너뛰기 수][건너뛰기 표 바이트 수][(블록 마지막 번호, 블록 바이트 수)...][(번호 차이, 빈도)...]
+    private final Map<String, byte[]> postings;
+    private final BitSet deleted;
+    private int deletedCount;
+    // 파일로 남겼는지
+    private volatile boolean saved;
+
+    private SearchSegment(long generation, long[] rooms, long[] postIds, byte[] types, long[] ids, int[] lengths,
+                          String[] titles, Map<String, byte[]> postings, BitSet deleted) {
+        this.generation = generation;
+        this.rooms = rooms;
+        this.postIds = postIds;
+        this.types = types;
+        this.ids = ids;
+        this.lengths = lengths;
+        this.titles = titles;
+        this.postings = postings;
+        this.deleted = deleted;
+        this.deletedCount = deleted.cardinality();
+    }
+
+    // docs는 이 안에서 정렬된다
+    static SearchSegment build(long generation, List<SearchIndex.Doc> docs) {
+        docs.sort(null);
+        int size = docs.size();
+        long[] rooms = new long[size];
+        long[] postIds = new long[size];
+        byte[] types = new byte[size];
+        long[] ids = new long[size];
+        int[] lengths = new int[size];
+        String[] titles = new String[size];
+        Map<String, IntPairs> lists = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            SearchIndex.Doc doc = docs.get(i);
+            rooms[i] = doc.roomId;
+            postIds[i] = doc.postId;
+            types[i] = (byte) doc.type.ordinal();
+            ids[i] = doc.id;
+            lengths[i] = doc.length;
+            titles[i] = doc.title;
+            for (Map.Entry<String, Integer> term : doc.frequencies.entrySet()) {
+                lists.computeIfAbsent(term.getKey(), key -> new IntPairs(4)).add(i, term.getValue());
+            }
+        }
+        Map<String, byte[]> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        for (Map.Entry<String, IntPairs> list : lists.entrySet()) {
+            IntPairs pairs = list.getValue();
+            postings.put(list.getKey(), encode(pairs.docs, pairs.freqs, pairs.size));
+        }
+        return new SearchSegment(generation, rooms, postIds, types, ids, lengths, titles, postings, new BitSet(size));
+    }
+
+    /**
+     * 여러 세그먼트의 살아 있는 문서를 하나로 합친다 (deleted: 각 세그먼트의 삭제 표시 사본).
+     * 각 세그먼트가 이미 정렬되어 있으므로 문서는 k-way 병합, 게시 목록은 새 번호로 바꿔 단어별로 다시 압축한다.
+     */
+    static SearchSegment merge(long generation, List<SearchSegment> sources, List<BitSet> deleted) {
+        int count = sources.size();
+        int total = 0;
+        int[][] renumber = new int[count][];
+        for (int s = 0; s < count; s++) {
+            SearchSegment source = sources.get(s);
+            renumber[s] = new int[source.size()];
+            Arrays.fill(renumber[s], -1);
+            total += source.size() - deleted.get(s).cardinality();
+        }
+        long[] rooms = new long[total];
+        long[] postIds = new long[total];
+        byte[] types = new byte[total];
+        long[] ids = new long[total];
+        int[] lengths = new int[total];
+        String[] titles = new String[total];
+        int[] cursors = new int[count];
+        for (int next = 0; next < total; next++) {
+            int best = -1;
+            for (int s = 0; s < count; s++) {
+                SearchSegment source = sources.get(s);
+                BitSet gone = deleted.get(s);
+                while (cursors[s] < source.size() && gone.get(cursors[s])) {
+                    cursors[s]++;
+                }
+                if (cursors[s] < source.size()
+                        && (best < 0 || source.compare(cursors[s], sources.get(best), cursors[best]) < 0)) {
+                    best = s;
+                }
+            }
+            SearchSegment source = sources.get(best);
+            int doc = cursors[best]++;
+            renumber[best][doc] = next;
+            rooms[next] = source.rooms[doc];
+            postIds[next] = source.postIds[doc];
+            types[next] = source.types[doc];
+            ids[next] = source.ids[doc];
+            lengths[next] = source.lengths[doc];
+            titles[next] = source.titles[doc];
+        }
+
+        Set<String> terms = new HashSet<>();
+        for (SearchSegment source : sources) {
+            terms.addAll(source.postings.keySet());
+        }
+        Map<String, byte[]> postings = new HashMap<>(terms.size() * 4 / 3 + 1);
+        long[] packed = new long[64];
+        for (String term : terms) {
+            int size = 0;
+            int contributors = 0;
+            for (int s = 0; s < count; s++) {
+                byte[] list = sources.get(s).postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                contributors++;
+                IntPairs pairs = decodeRange(list, 0, Integer.MAX_VALUE);
+                for (int i = 0; i < pairs.size; i++) {
+                    int doc = renumber[s][pairs.docs[i]];
+                    if (doc < 0) {
+                        continue;
+                    }
+                    if (size == packed.length) {
+                        packed = Arrays.copyOf(packed, size * 2);
+                    }
+                    packed[size++] = (long) doc << 32 | pairs.freqs[i];
+                }
+            }
+            if (size == 0) {
+                continue;
+            }
+            // 한 세그먼트 안에서는 새 번호도 오름차순 - 여러 세그먼트에서 모였을 때만 정렬
+            if (contributors > 1) {
+                Arrays.sort(packed, 0, size);
+            }
+            int[] docs = new int[size];
+            int[] freqs = new int[size];
+            for (int i = 0; i < size; i++) {
+                docs[i] = (int) (packed[i] >>> 32);
+                freqs[i] = (int) packed[i];
+            }
+            postings.put(term, encode(docs, freqs, size));
+        }
+        return new SearchSegment(generation, rooms, postIds, types, ids, lengths, titles, postings, new BitSet(total));
+    }
+
+    // === 조회 ===
+
+    /**
+     * 방(roomId)의 문서 중 모든 단어를 가진 것을 BM25 점수로 top에 넘긴다.
+     * 가장 드문 단어의 방 구간을 먼저 풀고, 나머지 단어는 남은 후보의 번호 구간만 풀어서 교집합을 줄여 간다.
+     */
+    void search(long roomId, String[] terms, double[] idf, double averageLength, SearchIndex.TopHits top) {
+        int from = lowerBound(roomId, Long.MIN_VALUE, 0, Long.MIN_VALUE);
+        int to = lowerBound(roomId + 1, Long.MIN_VALUE, 0, Long.MIN_VALUE);
+        if (from == to) {
+            return;
+        }
+        byte[][] lists = new byte[terms.length][];
+        int rarest = 0;
+        for (int t = 0; t < terms.length; t++) {
+            lists[t] = postings.get(terms[t]);
+            if (lists[t] == null) {
+                return;
+            }
+            if (count(lists[t]) < count(lists[rarest])) {
+                rarest = t;
+            }
+        }
+        IntPairs candidates = decodeRange(lists[rarest], from, to);
+        int size = candidates.size;
+        int[] docs = candidates.docs;
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            scores[i] = SearchIndex.score(idf[rarest], candidates.freqs[i], lengths[docs[i]], averageLength);
+        }
+        for (int t = 0; t < terms.length && size > 0; t++) {
+            if (t == rarest) {
+                continue;
+            }
+            IntPairs other = decodeRange(lists[t], docs[0], docs[size - 1] + 1);
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                while (j < other.size && other.docs[j] < docs[i]) {
+                    j++;
+                }
+                if (j < other.size && other.docs[j] == docs[i]) {
+                    docs[kept] = docs[i];
+                    scores[kept] = scores[i]
+                            + SearchIndex.score(idf[t], other.freqs[j], lengths[docs[i]], averageLength);
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+        for (int i = 0; i < size; i++) {
+            int doc = docs[i];
+            if (!deleted.get(doc) && top.accepts(scores[i])) {
+                top.add(new SearchIndex.Hit(SearchIndex.Type.values()[types[doc]], ids[doc], rooms[doc], postIds[doc],
+                        scores[i], titles[doc]));
+            }
+        }
+    }
+
+    // 단어가 나오는 문서 수 (삭제된 문서 포함)
+    int documentFrequency(String term) {
+        byte[] list = postings.get(term);
+        return list == null ? 0 : count(list);
+    }
+
+    // (방, 글, 종류, ID)인 문서 번호, 없으면 -1
+    int find(long roomId, long postId, int type, long id) {
+        int doc = lowerBound(roomId, postId, type, id);
+        if (doc < size() && rooms[doc] == roomId && postIds[doc] == postId && types[doc] == type && ids[doc] == id) {
+            return doc;
+        }
+        return -1;
+    }
+
+    // (방, 글, 종류, ID) 이상인 첫 문서 번호
+    int lowerBound(long roomId, long postId, int type, long id) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTo(mid, roomId, postId, type, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareTo(int doc, long roomId, long postId, int type, long id) {
+        int compare = Long.compare(rooms[doc], roomId);
+        if (compare == 0) {
+            compare = Long.compare(postIds[doc], postId);
+        }
+        if (compare == 0) {
+            compare = Integer.compare(types[doc], type);
+        }
+        if (compare == 0) {
+            compare = Long.compare(ids[doc], id);
+        }
+        return compare;
+    }
+
+    private int compare(int doc, SearchSegment other, int otherDoc) {
+        return compareTo(doc, other.rooms[otherDoc], other.postIds[otherDoc], other.types[otherDoc], other.ids[otherDoc]);
+    }
+
+    // 새로 지웠으면 true
+    boolean delete(int doc) {
+        if (deleted.get(doc)) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        return true;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    int size() {
+        return rooms.length;
+    }
+
+    int liveCount() {
+        return size() - deletedCount;
+    }
+
+    long liveLength() {
+        long total = 0;
+        for (int doc = 0; doc < size(); doc++) {
+            if (!deleted.get(doc)) {
+                total += lengths[doc];
+            }
+        }
+        return total;
+    }
+
+    BitSet getDeleted() {
+        return deleted;
+    }
+
+    long room(int doc) {
+        return rooms[doc];
+    }
+
+    long postId(int doc) {
+        return postIds[doc];
+    }
+
+    int type(int doc) {
+        return types[doc];
+    }
+
+    long id(int doc) {
+        return ids[doc];
+    }
+
+    int length(int doc) {
+        return lengths[doc];
+    }
+
+    boolean isSaved() {
+        return saved;
+    }
+
+    // === 게시 목록 압축 ===
+
+    static byte[] encode(int[] docs, int[] freqs, int count) {
+        VarintBuffer body = new VarintBuffer(count * 2 + 4);
+        VarintBuffer skips = new VarintBuffer(8);
+        int skipCount = 0;
+        int previous = 0;
+        int blockStart = 0;
+        for (int i = 0; i < count; i++) {
+            body.write(docs[i] - previous);
+            body.write(freqs[i]);
+            previous = docs[i];
+            if ((i + 1) % BLOCK == 0 && i + 1 < count) {
+                skips.write(docs[i]);
+                skips.write(body.length - blockStart);
+                blockStart = body.length;
+                skipCount++;
+            }
+        }
+        VarintBuffer out = new VarintBuffer(body.length + skips.length + 15);
+        out.write(count);
+        out.write(skipCount);
+        out.write(skips.length);
+        out.append(skips);
+        out.append(body);
+        return Arrays.copyOf(out.bytes, out.length);
+    }
+
+    private static int count(byte[] list) {
+        return new VarintReader(list).next();
+    }
+
+    // from 이상 to 미만 번호만
+    static IntPairs decodeRange(byte[] list, int from, int to) {
+        VarintReader in = new VarintReader(list);
+        int remaining = in.next();
+        int skipCount = in.next();
+        int skipBytes = in.next();
+        int body = in.position + skipBytes;
+        int previous = 0;
+        for (int s = 0; s < skipCount; s++) {
+            int last = in.next();
+            int bytes = in.next();
+            if (last >= from) {
+                break;
+            }
+            previous = last;
+            body += bytes;
+            remaining -= BLOCK;
+        }
+        in.position = body;
+        IntPairs pairs = new IntPairs(Math.min(remaining, 64));
+        for (int i = 0; i < remaining; i++) {
+            int doc = previous + in.next();
+            int freq = in.next();
+            previous = doc;
+            if (doc >= to) {
+                break;
+            }
+            if (doc >= from) {
+                pairs.add(doc, freq);
+            }
+        }
+        return pairs;
+    }
+
+    // === 파일 ===
+
+    // 임시 파일에 쓴 뒤 바꿔치기
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(size());
+            for (int doc = 0; doc < size(); doc++) {
+                out.writeLong(rooms[doc]);
+                out.writeLong(postIds[doc]);
+                out.writeByte(types[doc]);
+                out.writeLong(ids[doc]);
+                out.writeInt(lengths[doc]);
+                out.writeUTF(titles[doc]);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, byte[]> list : postings.entrySet()) {
+                out.writeUTF(list.getKey());
+                out.writeInt(list.getValue().length);
+                out.write(list.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        saved = true;
+    }
+
+    static SearchSegment read(Path file, long generation, BitSet deleted) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IOException("검색 세그먼트 형식이 다릅니다: " + file);
+            }
+            int size = in.readInt();
+            long[] rooms = new long[size];
+            long[] postIds = new long[size];
+            byte[] types = new byte[size];
+            long[] ids = new long[size];
+            int[] lengths = new int[size];
+            String[] titles = new String[size];
+            for (int doc = 0; doc < size; doc++) {
+                rooms[doc] = in.readLong();
+                postIds[doc] = in.readLong();
+                types[doc] = in.readByte();
+                ids[doc] = in.readLong();
+                lengths[doc] = in.readInt();
+                titles[doc] = in.readUTF();
+            }
+            int terms = in.readInt();
+            Map<String, byte[]> postings = new HashMap<>(terms * 4 / 3 + 1);
+            for (int i = 0; i < terms; i++) {
+                String term = in.readUTF();
+                byte[] list = new byte[in.readInt()];
+                in.readFully(list);
+                postings.put(term, list);
+            }
+            SearchSegment segment = new SearchSegment(generation, rooms, postIds, types, ids, lengths, titles, postings,
+                    deleted);
+            segment.saved = true;
+            return segment;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SearchSegment{generation=" + generation + ", docs=" + size() + ", deleted=" + deletedCount
+                + ", terms=" + postings.size() + "}";
+    }
+
+    // (번호, 빈도) 목록
+    static final class IntPairs {
+        int[] docs;
+        int[] freqs;
+        int size;
+
+        IntPairs(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            freqs = new int[docs.length];
+        }
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private static final class VarintBuffer {
+        byte[] bytes;
+        int length;
+
+        VarintBuffer(int capacity) {
+            bytes = new byte[Math.max(capacity, 8)];
+        }
+
+        void write(int value) {
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void append(VarintBuffer other) {
+            if (length + other.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, length + other.length);
+            }
+            System.arraycopy(other.bytes, 0, bytes, length, other.length);
+            length += other.length;
+        }
+    }
+
+    private static final class VarintReader {
+        private final byte[] bytes;
+        int position;
+
+        VarintReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int next() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.study.platform.service;
+
+import jakarta.annotation.PreDestroy;
+import org.study.platform.entity.Assignment;
+import org.study.platform.entity.Comment;
+import org.study.platform.entity.Post;
+import org.study.platform.repository.AssignmentRepository;
+import org.study.platform.repository.CommentRepository;
+import org.study.platform.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class SearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    // 색인을 만들 때 한 번에 읽는 행 수
+    private static final int LOAD_BATCH = 10_000;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final AssignmentRepository assignmentRepository;
+    // 글 제목/본문, 댓글, 과제 제목/설명 - 처음 한 번 구성한 뒤에는 작성/수정/삭제 때 고친다
+    private final SearchIndex index;
+    private volatile boolean loaded;
+    private volatile boolean savedDiscarded;
+    // 색인 파일을 남긴 DB와 같은 DB인지 구분 (같은 파일 경로에 다른 DB를 연결한 경우)
+    private final String datasourceUrl;
+
+    @Autowired
+    public SearchService(PostRepository postRepository, CommentRepository commentRepository,
+                         AssignmentRepository assignmentRepository,
+                         @Value("${search.index-dir:./data/search}") String indexDir,
+                         @Value("${search.flush-docs:" + SearchIndex.DEFAULT_FLUSH_DOCS + "}") int flushDocs,
+                         @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.index = new SearchIndex(indexDir.isBlank() ? null : Paths.get(indexDir), flushDocs);
+        this.datasourceUrl = datasourceUrl;
+    }
+
+    // 방 안에서 검색 (점수 높은 순) - DB를 읽지 않음
+    public List<SearchIndex.Hit> search(Long roomId, String query, int limit) {
+        load();
+        return index.search(roomId, query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    // 서버 시작 시 호출 - 첫 검색이 테이블 전체를 읽는 비용을 떠안지 않도록
+    public void rebuildIndex() {
+        load();
+    }
+
+    // === 색인 갱신 (각 서비스가 커밋 뒤에 호출) ===
+    // 아직 구성 전이면 무시 - 구성할 때 테이블에서 읽는다
+
+    public void postSaved(Post post) {
+        if (skip()) return;
+        index.add(SearchIndex.Type.POST, post.getPostId(), post.getRoomId(), post.getPostId(),
+                post.getTitle(), post.getContent());
+    }
+
+    // 글의 댓글 · 과제도 함께
+    public void postDeleted(Long roomId, Long postId) {
+        if (skip()) return;
+        index.removePost(roomId, postId);
+    }
+
+    public void roomDeleted(Long roomId) {
+        if (skip()) return;
+        index.removeRoom(roomId);
+    }
+
+    public void commentsSaved(List<Comment> comments) {
+        if (skip() || comments.isEmpty()) return;
+        Set<Long> postIds = new HashSet<>();
+        for (Comment comment : comments) {
+            postIds.add(comment.getPostId());
+        }
+        Map<Long, Long> rooms = findRooms(postIds);
+        for (Comment comment : comments) {
+            Long roomId = rooms.get(comment.getPostId());
+            if (roomId != null) {
+                index.add(SearchIndex.Type.COMMENT, comment.getCommentId(), roomId, comment.getPostId(),
+                        null, comment.getContent());
+            }
+        }
+    }
+
+    // 글이 이미 지워졌으면 글과 함께 빠졌으므로 할 일 없음
+    public void commentDeleted(Comment comment) {
+        if (skip()) return;
+        Long roomId = findRooms(Set.of(comment.getPostId())).get(comment.getPostId());
+        if (roomId != null) {
+            index.remove(SearchIndex.Type.COMMENT, comment.getCommentId(), roomId, comment.getPostId());
+        }
+    }
+
+    public void assignmentSaved(Assignment assignment) {
+        if (skip()) return;
+        Long roomId = findRooms(Set.of(assignment.getPostId())).get(assignment.getPostId());
+        if (roomId != null) {
+            index.add(SearchIndex.Type.ASSIGNMENT, assignment.getAssignmentId(), roomId, assignment.getPostId(),
+                    assignment.getTitle(), assignment.getDescription());
+        }
+    }
+
+    public void assignmentDeleted(Assignment assignment) {
+        if (skip()) return;
+        Long roomId = findRooms(Set.of(assignment.getPostId())).get(assignment.getPostId());
+        if (roomId != null) {
+            index.remove(SearchIndex.Type.ASSIGNMENT, assignment.getAssignmentId(), roomId, assignment.getPostId());
+        }
+    }
+
+    // 구성 전이면 true. 지난 종료 때 남긴 색인 파일은 이 변경을 모르므로 한 번 버린다 (다음 구성은 테이블에서)
+    private boolean skip() {
+        if (loaded) {
+            return false;
+        }
+        if (!savedDiscarded) {
+            try {
+                index.discardSaved();
+                savedDiscarded = true;
+            } catch (IOException e) {
+                System.err.println("검색 색인 목록 삭제 실패: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private Map<Long, Long> findRooms(Set<Long> postIds) {
+        Map<Long, Long> rooms = new HashMap<>();
+        for (PostRepository.PostRoom post : postRepository.findPostRooms(postIds)) {
+            rooms.put(post.getPostId(), post.getRoomId());
+        }
+        return rooms;
+    }
+
+    public SearchIndex getIndex() {
+        return index;
+    }
+
+    // 메모리 문서를 세그먼트 파일로 남기고 다음 시작 때 쓸 목록을 저장
+    @PreDestroy
+    public void close() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            index.close(fingerprint());
+            System.out.println("검색 색인 저장: " + index);
+        } catch (Exception e) {
+            System.err.println("검색 색인 저장 실패: " + e.getMessage());
+        }
+    }
+
+    // 정상 종료 때 남긴 세그먼트 파일이 있고 DB 지문이 같으면 파일에서, 아니면 테이블에서 구성
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (index) {
+            if (loaded) {
+                return;
+            }
+            long start = System.nanoTime();
+            String source = "파일";
+            boolean restored = false;
+            try {
+                restored = index.open(fingerprint());
+            } catch (IOException e) {
+                System.err.println("검색 색인 파일 읽기 실패: " + e.getMessage());
+            }
+            if (!restored) {
+                index.clear();
+                indexTables();
+                source = "테이블";
+            }
+            loaded = true;
+            System.out.println("검색 색인 구성(" + source + "): " + index + " ("
+                    + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        }
+    }
+
+    private void indexTables() {
+        long afterId = 0;
+        List<Post> posts;
+        do {
+            posts = postRepository.findPostsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (Post post : posts) {
+                index.add(SearchIndex.Type.POST, post.getPostId(), post.getRoomId(), post.getPostId(),
+                        post.getTitle(), post.getContent());
+                afterId = post.getPostId();
+            }
+        } while (posts.size() == LOAD_BATCH);
+
+        afterId = 0;
+        List<CommentRepository.RoomComment> comments;
+        do {
+            comments = commentRepository.findRoomCommentsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (CommentRepository.RoomComment comment : comments) {
+                index.add(SearchIndex.Type.COMMENT, comment.getCommentId(), comment.getRoomId(), comment.getPostId(),
+                        null, comment.getContent());
+                afterId = comment.getCommentId();
+            }
+        } while (comments.size() == LOAD_BATCH);
+
+        afterId = 0;
+        List<AssignmentRepository.RoomAssignment> assignments;
+        do {
+            assignments = assignmentRepository.findRoomAssignmentsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            for (AssignmentRepository.RoomAssignment assignment : assignments) {
+                index.add(SearchIndex.Type.ASSIGNMENT, assignment.getAssignmentId(), assignment.getRoomId(),
+                        assignment.getPostId(), assignment.getTitle(), assignment.getDescription());
+                afterId = assignment.getAssignmentId();
+            }
+        } while (assignments.size() == LOAD_BATCH);
+    }
+
+    // 색인 파일이 현재 DB와 같은 상태인지 확인하는 값
+    private long[] fingerprint() {
+        return new long[]{datasourceUrl.hashCode(), postRepository.count(), postRepository.findMaxPostId(),
+                commentRepository.count(), commentRepository.findMaxCommentId(),
+                assignmentRepository.count(), assignmentRepository.findMaxAssignmentId()};
+    }
+}
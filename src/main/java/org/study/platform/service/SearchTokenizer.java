@@ -0,0 +1,60 @@
+package org.study.platform.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색 색인 / 검색어를 단어로 나눈다.
+ *
+ * 한글은 조사가 붙어 띄어쓰기 단위로는 찾을 수 없으므로("스터디가", "스터디를") 이어진 한글을 두 글자씩 겹쳐 자른다
+ * ("스터디가" → 스터, 터디, 디가). 검색어도 같은 방식으로 자르고 모든 조각을 가진 문서를 찾으므로 "스터디"로
+ * 찾을 수 있다. 한 글자뿐인 한글은 그대로 한 단어. 영문/숫자는 이어진 부분을 소문자 한 단어로, 나머지 문자는 구분자.
+ */
+public final class SearchTokenizer {
+
+    // 영문/숫자 단어는 이 길이까지만 (긴 URL 등이 사전을 키우지 않도록)
+    static final int MAX_WORD_LENGTH = 32;
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isHangul(c)) {
+                int start = i;
+                while (i < length && isHangul(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    tokens.add(String.valueOf(c));
+                } else {
+                    for (int j = start; j + 1 < i; j++) {
+                        tokens.add(text.substring(j, j + 2));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i)) && !isHangul(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(text.substring(start, Math.min(i, start + MAX_WORD_LENGTH)).toLowerCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    // 완성형 한글 음절 (가-힣)
+    static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+}
@@ -0,0 +1,81 @@
+package org.study.platform.service;
+
+import jakarta.annotation.PreDestroy;
+import org.study.platform.repository.TombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 삭제 기록(tombstones) 보존 기간.
+ *
+ * 보존 기간이 지난 기록은 주기적으로 지운다. 그래서 기준 시각이 보존 기간보다 오래된 변경분 요청은
+ * 그사이의 삭제를 모두 알려 줄 수 없으므로 전체를 다시 보낸다 (ChangeSet.isFullReload).
+ * 지우는 기준 시각은 항상 (지금 - 보존 기간)보다 앞이므로, 그 안쪽의 기준 시각에 필요한 기록은 남아 있다.
+ */
+@Component
+public class TombstoneRetention {
+
+    public static final long DEFAULT_RETENTION_DAYS = 30;
+
+    private final TombstoneRepository tombstoneRepository;
+    private final Duration retention;
+    private final ScheduledExecutorService purger;
+
+    @Autowired
+    public TombstoneRetention(TombstoneRepository tombstoneRepository,
+                              @Value("${tombstone.retention-days:" + DEFAULT_RETENTION_DAYS + "}") long retentionDays,
+                              @Value("${tombstone.purge-interval-ms:3600000}") long purgeIntervalMs) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.retention = Duration.ofDays(retentionDays);
+        if (purgeIntervalMs > 0) {
+            purger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "tombstone-purger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            purger.scheduleWithFixedDelay(this::purgeQuietly, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            purger = null;
+        }
+    }
+
+    // 이 시각 이전의 삭제는 기록이 지워졌을 수 있다
+    public LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(retention);
+    }
+
+    // 변경분 대신 전체를 보내야 하는 기준 시각인지
+    public boolean isExpired(LocalDateTime since) {
+        return since.isBefore(cutoff());
+    }
+
+    // 보존 기간이 지난 기록을 지우고 지운 수를 돌려준다
+    public int purge() {
+        return tombstoneRepository.deleteDeletedBefore(cutoff());
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                System.out.println("삭제 기록 정리: " + purged + "건");
+            }
+        } catch (Exception e) {
+            System.err.println("삭제 기록 정리 실패: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+}
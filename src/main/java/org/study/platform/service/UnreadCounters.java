@@ -0,0 +1,209 @@
+package org.study.platform.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 사용자별 · 방별 안 읽은 글 수 (메모리).
+ *
+ * 새 글이 올라올 때 모든 사용자의 값을 올리지 않도록 방별 글 수와 (사용자, 방)별 읽은 글 수를 따로 두고
+ * 안 읽은 수 = 방의 글 수 - 그 사용자가 그 방에서 읽은 글 수 로 계산한다.
+ * 글 작성 / 읽음 / 글 삭제가 반영될 때마다 값만 고치므로 방 목록에 안 읽은 수를 붙여도 DB를 읽지 않는다.
+ *
+ * 검사점(checkpoint): 전체 값을 파일에 저장해 두고, 다음 시작 때 DB 지문(글 수, 최대 글 ID, 읽음 기록 수,
+ * 최대 읽음 ID)이 같으면 테이블을 다시 훑지 않고 파일에서 읽는다. 지문이 다르면 버리고 다시 만든다.
+ *
+ * 모든 메서드는 this로 동기화한다.
+ */
+public final class UnreadCounters {
+
+    private static final int CHECKPOINT_MAGIC = 0x554E5244; // "UNRD"
+    private static final int CHECKPOINT_VERSION = 1;
+
+    // 방 ID → 글 수
+    private final Map<Long, Integer> roomPosts = new HashMap<>();
+    // 사용자 ID → (방 ID → 읽은 글 수)
+    private final Map<Long, Map<Long, Integer>> userReads = new HashMap<>();
+    // 값이 바뀔 때마다 증가 (검사점을 쓸지 판단)
+    private long version;
+
+    public synchronized void postCreated(Long roomId) {
+        roomPosts.merge(roomId, 1, Integer::sum);
+        version++;
+    }
+
+    public synchronized void postRead(Long userId, Long roomId) {
+        userReads.computeIfAbsent(userId, id -> new HashMap<>()).merge(roomId, 1, Integer::sum);
+        version++;
+    }
+
+    // readers: 지워진 글을 읽었던 사용자 (그 사용자들의 읽은 수도 하나씩 줄인다)
+    public synchronized void postDeleted(Long roomId, long[] readers) {
+        decrement(roomPosts, roomId);
+        for (long userId : readers) {
+            Map<Long, Integer> reads = userReads.get(userId);
+            if (reads != null) {
+                decrement(reads, roomId);
+            }
+        }
+        version++;
+    }
+
+    public synchronized void roomDeleted(Long roomId) {
+        roomPosts.remove(roomId);
+        for (Map<Long, Integer> reads : userReads.values()) {
+            reads.remove(roomId);
+        }
+        version++;
+    }
+
+    public synchronized int unread(Long userId, Long roomId) {
+        int posts = roomPosts.getOrDefault(roomId, 0);
+        Map<Long, Integer> reads = userReads.get(userId);
+        int read = reads == null ? 0 : reads.getOrDefault(roomId, 0);
+        return Math.max(0, posts - read);
+    }
+
+    // 안 읽은 글이 있는 방만 (방 ID → 안 읽은 수)
+    public synchronized Map<Long, Integer> unreadByRoom(Long userId) {
+        Map<Long, Integer> reads = userReads.get(userId);
+        Map<Long, Integer> unread = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : roomPosts.entrySet()) {
+            int read = reads == null ? 0 : reads.getOrDefault(entry.getKey(), 0);
+            int count = entry.getValue() - read;
+            if (count > 0) {
+                unread.put(entry.getKey(), count);
+            }
+        }
+        return unread;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized void clear() {
+        roomPosts.clear();
+        userReads.clear();
+        version++;
+    }
+
+    private static void decrement(Map<Long, Integer> counts, Long key) {
+        Integer count = counts.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count <= 1) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count - 1);
+        }
+    }
+
+    // === 검사점 ===
+
+    /**
+     * 임시 파일에 쓴 뒤 바꿔치기 (쓰는 도중 종료되어도 이전 검사점이 남도록).
+     * 지문을 구한 뒤 값이 바뀌었으면(version이 expectedVersion과 다르면) 쓰지 않고 false.
+     */
+    public boolean writeCheckpoint(Path file, long[] fingerprint, long expectedVersion) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeInt(fingerprint.length);
+            for (long value : fingerprint) {
+                out.writeLong(value);
+            }
+            synchronized (this) {
+                if (version != expectedVersion) {
+                    out.close();
+                    Files.delete(temp);
+                    return false;
+                }
+                out.writeInt(roomPosts.size());
+                for (Map.Entry<Long, Integer> entry : roomPosts.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+                out.writeInt(userReads.size());
+                for (Map.Entry<Long, Map<Long, Integer>> user : userReads.entrySet()) {
+                    out.writeLong(user.getKey());
+                    out.writeInt(user.getValue().size());
+                    for (Map.Entry<Long, Integer> entry : user.getValue().entrySet()) {
+                        out.writeLong(entry.getKey());
+                        out.writeInt(entry.getValue());
+                    }
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    // 파일이 없거나, 형식이 다르거나, 지문이 다르면 false (값은 바꾸지 않음)
+    public boolean readCheckpoint(Path file, long[] fingerprint) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                return false;
+            }
+            long[] saved = new long[in.readInt()];
+            for (int i = 0; i < saved.length; i++) {
+                saved[i] = in.readLong();
+            }
+            if (!Arrays.equals(saved, fingerprint)) {
+                return false;
+            }
+            Map<Long, Integer> posts = new HashMap<>();
+            int rooms = in.readInt();
+            for (int i = 0; i < rooms; i++) {
+                posts.put(in.readLong(), in.readInt());
+            }
+            Map<Long, Map<Long, Integer>> reads = new HashMap<>();
+            int users = in.readInt();
+            for (int i = 0; i < users; i++) {
+                long userId = in.readLong();
+                int count = in.readInt();
+                Map<Long, Integer> byRoom = new HashMap<>();
+                for (int j = 0; j < count; j++) {
+                    byRoom.put(in.readLong(), in.readInt());
+                }
+                reads.put(userId, byRoom);
+            }
+            synchronized (this) {
+                roomPosts.clear();
+                roomPosts.putAll(posts);
+                userReads.clear();
+                userReads.putAll(reads);
+                version++;
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        long reads = 0;
+        for (Map<Long, Integer> byRoom : userReads.values()) {
+            reads += byRoom.size();
+        }
+        return "UnreadCounters{rooms=" + roomPosts.size() + ", users=" + userReads.size()
+                + ", userRooms=" + reads + "}";
+    }
+}
@@ -0,0 +1,142 @@
+package org.study.platform.service;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * userId → 닉네임 캐시 (크기 제한).
+ *
+ * 조회는 ConcurrentHashMap 조회 한 번이라 잠금이 없다. 가득 차면 CLOCK(second chance) 방식으로
+ * 넣은 순서대로 보되, 그동안 조회된 항목은 한 바퀴 더 남기고 조회되지 않은 항목을 내보낸다.
+ *
+ * 변경 시에는 invalidate()로 지운다. DB에서 읽는 동안 invalidate가 일어났으면
+ * 읽은 값이 이미 오래된 것일 수 있으므로, 읽기 전에 받은 stamp가 달라졌으면 put하지 않는다.
+ */
+public final class UserCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final class Entry {
+        final Long userId;
+        final String nickname;
+        // 마지막 교체 검사 이후 조회되었는지
+        volatile boolean referenced;
+
+        Entry(Long userId, String nickname) {
+            this.userId = userId;
+            this.nickname = nickname;
+        }
+    }
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // 교체 순서 (넣은 순서). 지워지거나 다시 넣어 바뀐 항목이 남아 있을 수 있다 - entries의 항목과 다르면 건너뜀
+    private final ArrayDeque<Entry> clock = new ArrayDeque<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries는 1 이상이어야 합니다: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    // 캐시에 없으면 null
+    public String get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.nickname;
+    }
+
+    // DB에서 읽기 전에 받아 두고 put에 넘긴다
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(Long userId, String nickname, long stamp) {
+        synchronized (clock) {
+            if (invalidations.get() != stamp) {
+                return;
+            }
+            Entry entry = new Entry(userId, nickname);
+            entries.put(userId, entry);
+            clock.addLast(entry);
+            evictIfFull();
+        }
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (clock) {
+            invalidations.incrementAndGet();
+            entries.remove(userId);
+            // 지웠다 넣기를 반복해도 교체 순서 목록이 끝없이 늘지 않도록
+            if (clock.size() > maxEntries * 2) {
+                clock.removeIf(this::isStale);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (clock) {
+            invalidations.incrementAndGet();
+            entries.clear();
+            clock.clear();
+        }
+    }
+
+    private void evictIfFull() {
+        while (entries.size() > maxEntries) {
+            Entry entry = clock.pollFirst();
+            if (isStale(entry)) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.addLast(entry);
+            } else {
+                entries.remove(entry.userId);
+                evictions.increment();
+            }
+        }
+    }
+
+    // 지워졌거나 다시 넣어 새 항목으로 바뀐 자리
+    private boolean isStale(Entry entry) {
+        return entries.get(entry.userId) != entry;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "UserCache{size=" + size() + "/" + maxEntries + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+}
@@ -0,0 +1,157 @@
+package org.study.platform.service;
+
+import java.util.Arrays;
+
+/**
+ * 사용자 ID 집합을 압축해서 담는 비트맵 (Roaring 방식).
+ *
+ * ID를 상위 비트(키)와 하위 16비트로 나눠 키마다 컨테이너 하나를 둔다.
+ * 컨테이너는 값이 적으면 정렬된 char 배열(값당 2바이트), 4096개를 넘으면 65536비트 비트맵(8KB)으로 바꾼다.
+ * 사용자 ID는 대부분 작고 연속적이라 글 하나의 읽은 사람 수천 명이 수 KB에 들어간다.
+ *
+ * 스레드 안전하지 않다 - 호출한 쪽이 동기화한다.
+ */
+public final class UserIdBitmap {
+
+    // 배열 컨테이너 최대 크기 (넘으면 비트맵 컨테이너가 더 작음)
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private static final class Container {
+        // 둘 중 하나만 사용
+        char[] array;
+        long[] bitmap;
+        int cardinality;
+
+        boolean contains(char low) {
+            if (bitmap != null) {
+                return (bitmap[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+        }
+
+        boolean add(char low) {
+            if (bitmap != null) {
+                long before = bitmap[low >>> 6];
+                long after = before | (1L << low);
+                if (before == after) {
+                    return false;
+                }
+                bitmap[low >>> 6] = after;
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(low);
+            }
+            index = -index - 1;
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(array, index, array, index + 1, cardinality - index);
+            array[index] = low;
+            cardinality++;
+            return true;
+        }
+
+        private void toBitmap() {
+            bitmap = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                char low = array[i];
+                bitmap[low >>> 6] |= 1L << low;
+            }
+            array = null;
+        }
+
+        // 오름차순으로 out[offset..]에 채우고 채운 개수를 돌려준다
+        int copyTo(long high, long[] out, int offset) {
+            long base = high << 16;
+            if (bitmap == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    out[offset++] = base | array[i];
+                }
+                return cardinality;
+            }
+            int written = 0;
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long bits = bitmap[word];
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    out[offset + written++] = base | ((long) word << 6 | bit);
+                    bits &= bits - 1;
+                }
+            }
+            return written;
+        }
+
+        long bytes() {
+            return bitmap != null ? BITMAP_WORDS * 8L : array.length * 2L;
+        }
+    }
+
+    // 키 오름차순
+    private long[] keys = new long[1];
+    private Container[] containers = new Container[1];
+    private int size;
+    private int cardinality;
+
+    public boolean add(long userId) {
+        long high = userId >>> 16;
+        int index = Arrays.binarySearch(keys, 0, size, high);
+        Container container;
+        if (index >= 0) {
+            container = containers[index];
+        } else {
+            index = -index - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(containers, index, containers, index + 1, size - index);
+            container = new Container();
+            container.array = new char[4];
+            keys[index] = high;
+            containers[index] = container;
+            size++;
+        }
+        if (container.add((char) userId)) {
+            cardinality++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(long userId) {
+        int index = Arrays.binarySearch(keys, 0, size, userId >>> 16);
+        return index >= 0 && containers[index].contains((char) userId);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    // 오름차순
+    public long[] toArray() {
+        long[] out = new long[cardinality];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            offset += containers[i].copyTo(keys[i], out, offset);
+        }
+        return out;
+    }
+
+    // 추정 메모리 (컨테이너 내용 + 키 배열)
+    public long bytes() {
+        long bytes = keys.length * 16L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].bytes();
+        }
+        return bytes;
+    }
+}
@@ -3,18 +3,34 @@ package org.study.platform.service;
 import org.study.platform.entity.User;
 import org.study.platform.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    // 닉네임은 거의 바뀌지 않으므로 메모리에 두고, 바꿀 때(updateNickname) 지운다
+    private final UserCache nicknameCache;
+    // 닉네임을 복사해 둔 다른 캐시(방 목록 등)에 변경을 알린다 (userId, 새 닉네임)
+    private final List<BiConsumer<Long, String>> nicknameListeners = new CopyOnWriteArrayList<>();
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository,
+                       @Value("${user.cache.max-entries:" + UserCache.DEFAULT_MAX_ENTRIES + "}") int cacheMaxEntries) {
         this.userRepository = userRepository;
+        this.nicknameCache = new UserCache(cacheMaxEntries);
     }
 
     @Transactional
@@ -26,6 +42,26 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // 닉네임 변경: 커밋된 뒤에 캐시에서 지우고 알린다 (커밋 전에 지우면 그사이 조회가 예전 값을 다시 넣을 수 있음)
+    @Transactional
+    public User updateNickname(Long userId, String nickname) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
+        user.setNickname(nickname);
+        User saved = userRepository.save(user);
+        AfterCommit.run(() -> {
+            nicknameCache.invalidate(userId);
+            for (BiConsumer<Long, String> listener : nicknameListeners) {
+                listener.accept(userId, nickname);
+            }
+        });
+        return saved;
+    }
+
+    public void addNicknameListener(BiConsumer<Long, String> listener) {
+        nicknameListeners.add(listener);
+    }
+
     public User login(String username, String password) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isEmpty()) {
@@ -42,7 +78,58 @@ public class UserService {
         return userRepository.findById(userId);
     }
 
+    // 이름 표시용 - 캐시에 있으면 DB를 읽지 않는다
+    public Optional<String> findNickname(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findNicknames(List.of(userId)).get(userId));
+    }
+
+    /**
+     * 목록의 각 행에 필요한 닉네임을 조회 (userId → 닉네임).
+     * 캐시에 없는 사용자만 모아 쿼리 한 번으로 읽는다. 행마다 findById를 부르면 목록 길이만큼 쿼리가 나가므로
+     * 목록 응답은 이 메서드를 사용한다.
+     */
+    public Map<Long, String> findNicknames(Collection<Long> userIds) {
+        Map<Long, String> nicknames = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            String nickname = nicknameCache.get(userId);
+            if (nickname != null) {
+                nicknames.put(userId, nickname);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return nicknames;
+        }
+        long stamp = nicknameCache.stamp();
+        for (UserRepository.Nickname row : userRepository.findNicknames(missing)) {
+            nicknames.put(row.getUserId(), row.getNickname());
+            nicknameCache.put(row.getUserId(), row.getNickname(), stamp);
+        }
+        return nicknames;
+    }
+
+    public <T> Map<Long, String> findNicknames(Collection<T> rows, Function<T, Long> userIdOf) {
+        Set<Long> userIds = new HashSet<>();
+        for (T row : rows) {
+            userIds.add(userIdOf.apply(row));
+        }
+        return findNicknames(userIds);
+    }
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
+
+    // 적중/실패/교체 횟수 확인용
+    public UserCache getNicknameCache() {
+        return nicknameCache;
+    }
 }
@@ -0,0 +1,150 @@
+package org.study.platform.socket;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 브로드캐스트를 요청 스레드 밖에서 전달한다.
+ * 같은 lane(방 번호 또는 전체)에 넣은 작업은 넣은 순서대로 하나씩 실행되고, 서로 다른 lane은 병렬로 실행된다.
+ */
+public class BroadcastDispatcher {
+
+    // 전체 사용자 대상 브로드캐스트의 lane
+    public static final Object GLOBAL_LANE = "global";
+
+    private final Executor executor;
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    // 지표: 브로드캐스트 수, 받는 사람 수, 요청부터 전달 완료까지 걸린 시간
+    private final AtomicLong broadcastCount = new AtomicLong();
+    private final AtomicLong recipientTotal = new AtomicLong();
+    private final AtomicLong recipientMax = new AtomicLong();
+    private final AtomicLong latencyTotalNanos = new AtomicLong();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+
+    public BroadcastDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * delivery는 실제로 메시지를 보낸 연결 수를 반환한다.
+     */
+    public void submit(Object laneKey, IntSupplier delivery) {
+        long submittedAt = System.nanoTime();
+        Runnable task = () -> {
+            int recipients = delivery.getAsInt();
+            record(recipients, System.nanoTime() - submittedAt);
+        };
+        // lane 제거와 겹치지 않도록 compute 안에서 넣는다 (제거된 lane에 넣거나 같은 키의 lane이 둘 생기지 않게)
+        Lane lane = lanes.compute(laneKey, (key, existing) -> {
+            Lane target = existing != null ? existing : new Lane(key);
+            target.tasks.offer(task);
+            return target;
+        });
+        lane.schedule();
+    }
+
+    // 삭제된 방처럼 더 이상 쓰지 않는 lane 정리 - 남은 작업이 있으면 다 실행한 뒤에 제거
+    public void removeLane(Object laneKey) {
+        lanes.computeIfPresent(laneKey, (key, lane) -> {
+            lane.retired = true;
+            return lane.isIdle() ? null : lane;
+        });
+    }
+
+    // 남아 있는 lane 수
+    int getLaneCount() {
+        return lanes.size();
+    }
+
+    private void record(int recipients, long latencyNanos) {
+        broadcastCount.incrementAndGet();
+        recipientTotal.addAndGet(recipients);
+        recipientMax.accumulateAndGet(recipients, Math::max);
+        latencyTotalNanos.addAndGet(latencyNanos);
+        latencyMaxNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    private class Lane {
+        final Object key;
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean running = new AtomicBoolean(false);
+        // removeLane이 호출됨 - 비면 제거 (lanes의 compute 안에서만 기록)
+        volatile boolean retired;
+
+        Lane(Object key) {
+            this.key = key;
+        }
+
+        boolean isIdle() {
+            return tasks.isEmpty() && !running.get();
+        }
+
+        void schedule() {
+            if (!tasks.isEmpty() && running.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // 서버 종료 중
+                    running.set(false);
+                    tasks.clear();
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        System.err.println("브로드캐스트 전달 중 오류: " + e.getMessage());
+                    }
+                }
+            } finally {
+                running.set(false);
+            }
+            schedule();
+            if (retired) {
+                lanes.computeIfPresent(key, (k, lane) -> lane == this && isIdle() ? null : lane);
+            }
+        }
+    }
+
+    public long getBroadcastCount() {
+        return broadcastCount.get();
+    }
+
+    public double getAverageRecipients() {
+        long count = broadcastCount.get();
+        return count == 0 ? 0 : (double) recipientTotal.get() / count;
+    }
+
+    public long getMaxRecipients() {
+        return recipientMax.get();
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = broadcastCount.get();
+        return count == 0 ? 0 : latencyTotalNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxLatencyMillis() {
+        return latencyMaxNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("브로드캐스트 %d건, 받는 사람 평균 %.1f명 (최대 %d명), 전달 시간 평균 %.2f ms (최대 %.2f ms)",
+                getBroadcastCount(), getAverageRecipients(), getMaxRecipients(),
+                getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+}
@@ -1,22 +1,128 @@
 package org.study.platform.socket;
 
 import org.study.platform.entity.*;
+import org.study.platform.protocol.BinaryCodec;
+import org.study.platform.protocol.EncodedMessage;
+import org.study.platform.protocol.FrameDecoder;
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.ProtocolException;
+import org.study.platform.protocol.WireFormat;
 import org.study.platform.service.*;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Slice;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.study.platform.socket.CommandRegistry.*;
 
 public class ClientHandler implements Runnable {
 
+    // 명령 → 처리 함수와 인자 정의 (새 명령은 여기에 한 줄 등록)
+    private static final CommandRegistry<ClientHandler> COMMANDS = new CommandRegistry<>(h -> h.userId != null);
+
+    static {
+        COMMANDS.register("AUTH", ClientHandler::handleAuth, longArg("userId"), stringArg("nickname"))
+                .noDb().onInvalid(reason -> Message.event("CONNECTED", "fail"));
+        COMMANDS.register("LOGIN", ClientHandler::handleLogin, stringArg("username"), stringArg("password"));
+        COMMANDS.register("REGISTER", ClientHandler::handleRegister,
+                stringArg("username"), stringArg("password"), stringArg("nickname"));
+        COMMANDS.register("GET_ROOMS", ClientHandler::handleGetRooms);
+        COMMANDS.register("CREATE_ROOM", ClientHandler::handleCreateRoom, stringArg("roomName")).requiresLogin();
+        COMMANDS.register("DELETE_ROOM", ClientHandler::handleDeleteRoom, longArg("roomId")).requiresLogin();
+        COMMANDS.register("JOIN_ROOM", ClientHandler::handleJoinRoom, longArg("roomId")).noDb().requiresLogin();
+        COMMANDS.register("LEAVE_ROOM", ClientHandler::handleLeaveRoom, longArg("roomId")).noDb().requiresLogin();
+        // 목록 명령: limit을 주면 한 페이지씩 (응답 SUCCESS 뒤에 다음 페이지 위치), 생략하면 전체
+        COMMANDS.register("GET_POSTS", ClientHandler::handleGetPosts, longArg("roomId"),
+                intArg("limit").optional(), stringArg("cursor").optional());
+        // 변경분 동기화: since(이전 응답의 기준 시각) 이후 바뀐 행과 삭제된 ID만, 생략하면 전체
+        COMMANDS.register("GET_POSTS_SINCE", ClientHandler::handleGetPostsSince, longArg("roomId"),
+                dateTimeArg("since").optional());
+        COMMANDS.register("GET_NOTICES", ClientHandler::handleGetNotices, longArg("roomId"),
+                intArg("limit").optional(), stringArg("cursor").optional());
+        COMMANDS.register("GET_GENERAL_POSTS", ClientHandler::handleGetGeneralPosts, longArg("roomId"),
+                intArg("limit").optional(), stringArg("cursor").optional());
+        COMMANDS.register("CREATE_POST", ClientHandler::handleCreatePost, longArg("roomId"), stringArg("title"),
+                stringArg("content"), enumArg("postType", Post.PostType.class)).requiresLogin();
+        COMMANDS.register("DELETE_POST", ClientHandler::handleDeletePost, longArg("postId")).requiresLogin();
+        COMMANDS.register("GET_POST_DETAIL", ClientHandler::handleGetPostDetail, longArg("postId"));
+        COMMANDS.register("GET_COMMENTS", ClientHandler::handleGetComments, longArg("postId"),
+                intArg("limit").optional(), stringArg("cursor").optional());
+        COMMANDS.register("GET_COMMENTS_SINCE", ClientHandler::handleGetCommentsSince, longArg("postId"),
+                dateTimeArg("since").optional());
+        COMMANDS.register("CREATE_COMMENT", ClientHandler::handleCreateComment,
+                longArg("postId"), stringArg("content")).requiresLogin();
+        COMMANDS.register("GET_USER", ClientHandler::handleGetUser, longArg("userId"));
+        COMMANDS.register("MARK_READ", ClientHandler::handleMarkRead, longArg("postId")).requiresLogin();
+        COMMANDS.register("GET_READ_STATUS", ClientHandler::handleGetReadStatus, longArg("postId"));
+        COMMANDS.register("CREATE_ASSIGNMENT", ClientHandler::handleCreateAssignment, longArg("postId"),
+                stringArg("title"), stringArg("description"), dateTimeArg("dueDate").optional()).requiresLogin();
+        COMMANDS.register("GET_ASSIGNMENT", ClientHandler::handleGetAssignment, longArg("postId"));
+        COMMANDS.register("SUBMIT_ASSIGNMENT", ClientHandler::handleSubmitAssignment, longArg("assignmentId"),
+                stringArg("content"), stringArg("fileName").optional(), stringArg("filePath").optional(),
+                longArg("fileSize").optional()).requiresLogin();
+        COMMANDS.register("GET_SUBMISSIONS", ClientHandler::handleGetSubmissions, longArg("assignmentId"),
+                intArg("limit").optional(), stringArg("cursor").optional());
+        COMMANDS.register("GET_MY_SUBMISSION", ClientHandler::handleGetMySubmission,
+                longArg("assignmentId")).requiresLogin();
+        COMMANDS.register("GRADE_SUBMISSION", ClientHandler::handleGradeSubmission, longArg("submissionId"),
+                intArg("score").optional(), stringArg("feedback")).requiresLogin();
+        // 알림성 명령: 인자가 잘못되면 응답 없이 무시
+        COMMANDS.register("CHAT", ClientHandler::handleChat, stringArg("message"))
+                .noDb().onInvalid(reason -> null);
+        COMMANDS.register("POST_READ", ClientHandler::handlePostRead, longArg("postId"))
+                .noDb().onInvalid(reason -> null);
+        COMMANDS.register("GET_USERLIST", ClientHandler::handleGetUserList)
+                .noDb().requiresLogin().onInvalid(reason -> null);
+        COMMANDS.register("GET_ROOM_USERLIST", ClientHandler::handleGetRoomUserList, longArg("roomId"))
+                .noDb().requiresLogin().onInvalid(reason -> null);
+        // 파일 전송 (조각과 수신 확인은 DB를 쓰지 않음)
+        COMMANDS.register("UPLOAD_BEGIN", ClientHandler::handleUploadBegin, stringArg("fileName"),
+                longArg("fileSize"), longArg("postId").optional()).requiresLogin();
+        COMMANDS.register("UPLOAD_CHUNK", ClientHandler::handleUploadChunk, longArg("uploadId"),
+                longArg("offset"), bytesArg("data")).noDb().requiresLogin();
+        COMMANDS.register("UPLOAD_END", ClientHandler::handleUploadEnd, longArg("uploadId")).requiresLogin();
+        COMMANDS.register("DOWNLOAD", ClientHandler::handleDownload,
+                enumArg("kind", FileTransferSession.Kind.class), longArg("id")).requiresLogin();
+        COMMANDS.register("DOWNLOAD_ACK", ClientHandler::handleDownloadAck, longArg("transferId"),
+                longArg("offset")).noDb().requiresLogin().onInvalid(reason -> null);
+        COMMANDS.register("GET_FILES", ClientHandler::handleGetFiles, longArg("postId"));
+        // 검색 색인만 읽는다
+        COMMANDS.register("SEARCH", ClientHandler::handleSearch, longArg("roomId"), stringArg("query"),
+                intArg("limit").optional()).noDb();
+    }
+
+    private static final int READ_BUFFER_SIZE = 8192;
+    // 블로킹 모드에서 flush 한 번에 모아 보낼 최대 크기
+    private static final int WRITE_BATCH_BYTES = 64 * 1024;
+    // 연결을 닫기 전 남은 응답을 보내는 데 기다리는 최대 시간
+    private static final long CLOSE_FLUSH_TIMEOUT_MS = 2000;
+    public static final int DEFAULT_MAX_FRAME_BYTES = 1024 * 1024;
+
     private Socket clientSocket;
+    // NIO 모드에서 사용 (블로킹 모드에서는 null)
+    private NioConnection connection;
     private ConnectionManager connectionManager;
     private ApplicationContext context;
-    private BufferedReader in;
-    private PrintWriter out;
+    private InputStream in;
+    private volatile OutputStream out;
+    // 블로킹 모드의 송신 대기열과 writer (보내는 스레드는 대기열에 넣기만 하고 writer가 모아서 기록)
+    private OutboundQueue outboundQueue;
+    private Executor writerExecutor;
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    // 블로킹 모드의 전송 형식 (핸드셰이크 전에는 텍스트)
+    private volatile WireFormat format = WireFormat.TEXT;
+    private volatile int version;
+    // 처리 중인 요청의 번호 - 응답에 그대로 돌려준다 (한 연결의 명령은 한 번에 하나씩 처리됨)
+    private long currentRequestId;
     private Long userId;
     private String nickname;
     private Long currentRoomId;
@@ -28,9 +134,27 @@ public class ClientHandler implements Runnable {
     private CommentService commentService;
     private PostReadStatusService postReadStatusService;
     private AssignmentService assignmentService;
+    private DbCallLimiter dbCallLimiter;
+    private FileStorageService fileStorageService;
+    private SearchService searchService;
+    // 이 연결에서 진행 중인 업로드/다운로드
+    private FileTransferSession fileTransfers;
 
-    public ClientHandler(Socket socket, ConnectionManager connectionManager, ApplicationContext context) {
+    public ClientHandler(Socket socket, ConnectionManager connectionManager, ApplicationContext context,
+                         Executor writerExecutor) {
+        this(connectionManager, context);
         this.clientSocket = socket;
+        this.writerExecutor = writerExecutor;
+        this.outboundQueue = OutboundQueue.create(context.getEnvironment());
+    }
+
+    public ClientHandler(NioConnection connection, ConnectionManager connectionManager, ApplicationContext context) {
+        this(connectionManager, context);
+        this.connection = connection;
+        connection.setHandler(this);
+    }
+
+    private ClientHandler(ConnectionManager connectionManager, ApplicationContext context) {
         this.connectionManager = connectionManager;
         this.context = context;
 
@@ -40,580 +164,487 @@ public class ClientHandler implements Runnable {
         this.commentService = context.getBean(CommentService.class);
         this.postReadStatusService = context.getBean(PostReadStatusService.class);
         this.assignmentService = context.getBean(AssignmentService.class);
-    }
-
-    private String encode(String text) {
-        if (text == null) return "";
-        return text.replace("|", "&#124;")
-                .replace(":", "&#58;")
-                .replace("\n", "&#10;");
-    }
-
-    private String decode(String text) {
-        if (text == null) return "";
-        return text.replace("&#124;", "|")
-                .replace("&#58;", ":")
-                .replace("&#10;", "\n");
+        this.dbCallLimiter = context.getBean(DbCallLimiter.class);
+        this.fileStorageService = context.getBean(FileStorageService.class);
+        this.searchService = context.getBean(SearchService.class);
+        this.fileTransfers = FileTransferSession.create(context.getEnvironment(), fileStorageService, this::sendFileRegion);
     }
 
     @Override
     public void run() {
-        try {
-            in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-            out = new PrintWriter(clientSocket.getOutputStream(), true);
+        int maxFrameBytes = context.getEnvironment().getProperty(
+                "socket.protocol.max-frame-bytes", Integer.class, DEFAULT_MAX_FRAME_BYTES);
+        FrameDecoder decoder = new FrameDecoder(maxFrameBytes, new FrameDecoder.Listener() {
+            @Override
+            public void onHandshake(int negotiated) {
+                version = negotiated;
+                format = WireFormat.BINARY;
+                outboundQueue.offerRaw(BinaryCodec.hello(negotiated));
+                scheduleWrite();
+            }
 
-            String message;
-            while (running && (message = in.readLine()) != null) {
+            @Override
+            public void onMessage(Message message) {
                 handleMessage(message);
             }
+        });
+        try {
+            in = clientSocket.getInputStream();
+            out = new BufferedOutputStream(clientSocket.getOutputStream(), WRITE_BATCH_BYTES);
+
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read;
+            while (running && (read = in.read(buffer)) != -1) {
+                decoder.decode(ByteBuffer.wrap(buffer, 0, read));
+            }
 
+        } catch (ProtocolException e) {
+            System.err.println("프로토콜 오류: " + e.getMessage());
+            sendMessage(Message.of("ERROR", e.getMessage()));
         } catch (IOException e) {
             System.err.println("클라이언트 처리 중 오류: " + e.getMessage());
         } finally {
+            flushBeforeClose();
             disconnect();
         }
     }
 
-    private void handleMessage(String message) {
-        if (message.startsWith("AUTH:")) {
-            String[] parts = message.split(":");
-            handleAuth(parts);
+    // 블로킹 모드에서는 run()이, NIO 모드에서는 NioConnection이 호출
+    void handleMessage(Message message) {
+        currentRequestId = message.getRequestId();
+
+        CommandRegistry.Command<ClientHandler> command = COMMANDS.find(message.getCommand());
+        if (command == null) {
+            respond(Message.of("ERROR", "Unknown command: " + message.getCommand()));
             return;
         }
-
-        String[] parts = message.split("\\|");
-        String command = parts[0];
-
-        try {
-            switch (command) {
-                case "AUTH":
-                    handleAuth(parts);
-                    break;
-                case "LOGIN":
-                    handleLogin(parts);
-                    break;
-                case "REGISTER":
-                    handleRegister(parts);
-                    break;
-                case "GET_ROOMS":
-                    handleGetRooms();
-                    break;
-                case "CREATE_ROOM":
-                    handleCreateRoom(parts);
-                    break;
-                case "DELETE_ROOM":
-                    handleDeleteRoom(parts);
-                    break;
-                case "JOIN_ROOM":
-                    handleJoinRoom(parts);
-                    break;
-                case "LEAVE_ROOM":
-                    handleLeaveRoom(parts);
-                    break;
-                case "GET_POSTS":
-                    handleGetPosts(parts);
-                    break;
-                case "GET_NOTICES":
-                    handleGetNotices(parts);
-                    break;
-                case "GET_GENERAL_POSTS":
-                    handleGetGeneralPosts(parts);
-                    break;
-                case "CREATE_POST":
-                    handleCreatePost(parts);
-                    break;
-                case "DELETE_POST":
-                    handleDeletePost(parts);
-                    break;
-                case "GET_POST_DETAIL":
-                    handleGetPostDetail(parts);
-                    break;
-                case "GET_COMMENTS":
-                    handleGetComments(parts);
-                    break;
-                case "CREATE_COMMENT":
-                    handleCreateComment(parts);
-                    break;
-                case "GET_USER":
-                    handleGetUser(parts);
-                    break;
-                case "MARK_READ":
-                    handleMarkRead(parts);
-                    break;
-                case "GET_READ_STATUS":
-                    handleGetReadStatus(parts);
-                    break;
-                case "CREATE_ASSIGNMENT":
-                    handleCreateAssignment(parts);
-                    break;
-                case "GET_ASSIGNMENT":
-                    handleGetAssignment(parts);
-                    break;
-                case "SUBMIT_ASSIGNMENT":
-                    handleSubmitAssignment(parts);
-                    break;
-                case "GET_SUBMISSIONS":
-                    handleGetSubmissions(parts);
-                    break;
-                case "GET_MY_SUBMISSION":
-                    handleGetMySubmission(parts);
-                    break;
-                case "GRADE_SUBMISSION":
-                    handleGradeSubmission(parts);
-                    break;
-                case "CHAT":
-                    handleChat(parts);
-                    break;
-                case "POST_READ":
-                    handlePostRead(parts);
-                    break;
-                default:
-                    sendMessage("ERROR|Unknown command: " + command);
-            }
-        } catch (Exception e) {
-            sendMessage("ERROR|" + e.getMessage());
+        boolean usesDb = command.usesDb();
+        if (usesDb && !dbCallLimiter.acquire()) {
+            respond(Message.of(command.getName() + "_RESPONSE", "ERROR", "서버 사용량이 많습니다. 잠시 후 다시 시도하세요."));
+            return;
+        }
+        try {
+            COMMANDS.invoke(command, this, message);
+        } catch (CommandRegistry.InvalidCommandException e) {
+            Message reply = command.errorReply(e.getMessage());
+            if (reply != null) {
+                respond(reply);
+            }
+        } catch (Exception e) {
+            respond(Message.of("ERROR", e.getMessage()));
             e.printStackTrace();
+        } finally {
+            if (usesDb) {
+                dbCallLimiter.release();
+            }
         }
     }
 
-    private void handleAuth(String[] parts) {
-        if (parts.length >= 3) {
-            this.userId = Long.parseLong(parts[1]);
-            this.nickname = parts[2];
-            connectionManager.addClient(userId, nickname, this);
-            sendMessage("CONNECTED:success");
-            connectionManager.broadcastUserList();
-        } else {
-            sendMessage("CONNECTED:fail");
-        }
+    private void handleAuth(CommandArgs args) {
+        this.userId = args.getLong(0);
+        this.nickname = args.getString(1);
+        connectionManager.addClient(userId, nickname, this);
+        sendMessage(Message.event("CONNECTED", "success"));
+        // 다른 사용자들에게는 변경분만 전달되고, 본인은 전체 목록을 한 번 받는다
+        connectionManager.sendUserList(userId);
     }
 
-    private void handleLogin(String[] parts) {
-        if (parts.length < 3) {
-            sendMessage("LOGIN_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        String username = parts[1];
-        String password = parts[2];
+    private void handleLogin(CommandArgs args) {
+        String username = args.getString(0);
+        String password = args.getString(1);
         try {
             User user = userService.login(username, password);
-            sendMessage("LOGIN_RESPONSE|SUCCESS|" + user.getUserId() + "|" + user.getNickname());
+            respond(Message.of("LOGIN_RESPONSE", "SUCCESS", user.getUserId(), user.getNickname()));
         } catch (Exception e) {
-            sendMessage("LOGIN_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("LOGIN_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleRegister(String[] parts) {
-        if (parts.length < 4) {
-            sendMessage("REGISTER_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        String username = parts[1];
-        String password = parts[2];
-        String nickname = parts[3];
+    private void handleRegister(CommandArgs args) {
+        String username = args.getString(0);
+        String password = args.getString(1);
+        String nickname = args.getString(2);
         try {
             User user = userService.register(username, password, nickname);
-            sendMessage("REGISTER_RESPONSE|SUCCESS|" + user.getUserId() + "|" + user.getNickname());
+            respond(Message.of("REGISTER_RESPONSE", "SUCCESS", user.getUserId(), user.getNickname()));
         } catch (Exception e) {
-            sendMessage("REGISTER_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("REGISTER_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetRooms() {
+    private void handleGetRooms(CommandArgs args) {
         try {
-            List<Room> rooms = roomService.findAllRooms();
-            StringBuilder sb = new StringBuilder("GET_ROOMS_RESPONSE|SUCCESS");
-            for (Room room : rooms) {
-                User creator = userService.findById(room.getCreatorId()).orElse(null);
-                String creatorName = creator != null ? creator.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(room.getRoomId()).append(":")
-                        .append(room.getRoomName()).append(":")
-                        .append(room.getCreatorId()).append(":")
-                        .append(creatorName).append(":")
-                        .append(room.getCreatedAt());
-            }
-            sendMessage(sb.toString());
+            // 방 목록이 바뀌지 않았으면 인코딩해 둔 응답에 요청 번호만 붙여 보낸다 (안 읽은 글이 있으면 이 사용자용으로 새로)
+            Map<Long, Integer> unread = userId != null ? postReadStatusService.getUnreadCounts(userId) : Map.of();
+            EncodedMessage response = connectionManager.getRoomListResponse(roomService.getDirectory(), unread);
+            sendMessage(response.withRequestId(currentRequestId));
         } catch (Exception e) {
-            sendMessage("GET_ROOMS_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_ROOMS_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleCreateRoom(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("CREATE_ROOM_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        String roomName = parts[1];
+    private void handleCreateRoom(CommandArgs args) {
+        String roomName = args.getString(0);
         try {
             Room room = roomService.createRoom(roomName, userId);
-            sendMessage("CREATE_ROOM_RESPONSE|SUCCESS|" + room.getRoomId());
+            respond(Message.of("CREATE_ROOM_RESPONSE", "SUCCESS", room.getRoomId()));
             // 모든 클라이언트에게 새 방 알림
             connectionManager.notifyNewRoom(room.getRoomId(), roomName, userId, nickname);
         } catch (Exception e) {
-            sendMessage("CREATE_ROOM_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("CREATE_ROOM_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleDeleteRoom(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("DELETE_ROOM_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long roomId = Long.parseLong(parts[1]);
+    private void handleDeleteRoom(CommandArgs args) {
+        Long roomId = args.getLong(0);
         try {
             roomService.deleteRoom(roomId, userId);
-            sendMessage("DELETE_ROOM_RESPONSE|SUCCESS");
+            respond(Message.of("DELETE_ROOM_RESPONSE", "SUCCESS"));
             connectionManager.notifyRoomDeleted(roomId);
         } catch (Exception e) {
-            sendMessage("DELETE_ROOM_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("DELETE_ROOM_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleJoinRoom(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("JOIN_ROOM_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long roomId = Long.parseLong(parts[1]);
+    private void handleJoinRoom(CommandArgs args) {
+        Long roomId = args.getLong(0);
         this.currentRoomId = roomId;
         connectionManager.joinRoom(roomId, userId);
-        sendMessage("JOIN_ROOM_RESPONSE|SUCCESS");
-        connectionManager.broadcastRoomUserList(roomId);
+        respond(Message.of("JOIN_ROOM_RESPONSE", "SUCCESS"));
+        connectionManager.sendRoomUserList(roomId, userId);
     }
 
-    private void handleLeaveRoom(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("LEAVE_ROOM_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long roomId = Long.parseLong(parts[1]);
+    private void handleLeaveRoom(CommandArgs args) {
+        Long roomId = args.getLong(0);
         connectionManager.leaveRoom(roomId, userId);
         if (currentRoomId != null && currentRoomId.equals(roomId)) {
             currentRoomId = null;
         }
-        sendMessage("LEAVE_ROOM_RESPONSE|SUCCESS");
-        connectionManager.broadcastRoomUserList(roomId);
+        respond(Message.of("LEAVE_ROOM_RESPONSE", "SUCCESS"));
     }
 
-    private void handleGetPosts(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_POSTS_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long roomId = Long.parseLong(parts[1]);
+    private void handleGetPosts(CommandArgs args) {
+        Long roomId = args.getLong(0);
+        Integer limit = args.getInt(1);
         try {
-            List<Post> posts = postService.findByRoomId(roomId);
-            StringBuilder sb = new StringBuilder("GET_POSTS_RESPONSE|SUCCESS");
-            for (Post post : posts) {
-                User author = userService.findById(post.getAuthorId()).orElse(null);
-                String authorName = author != null ? author.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(post.getPostId()).append(":")
-                        .append(encode(post.getTitle())).append(":")
-                        .append(authorName).append(":")
-                        .append(post.getPostType()).append(":")
-                        .append(post.getHasAssignment()).append(":")
-                        .append(post.getCreatedAt());
+            Message response = Message.of("GET_POSTS_RESPONSE", "SUCCESS");
+            List<PostSummary> posts;
+            if (limit == null) {
+                posts = postService.findByRoomId(roomId);
+            } else {
+                Slice<PostSummary> page = postService.findPageByRoomId(roomId, PageCursor.parse(args.getString(2)), limit);
+                posts = page.getContent();
+                response.add(PageCursor.next(page, PostSummary::getCreatedAt, PostSummary::getPostId));
+            }
+            Map<Long, String> nicknames = userService.findNicknames(posts, PostSummary::getAuthorId);
+            for (PostSummary post : posts) {
+                String authorName = nicknameOf(nicknames, post.getAuthorId());
+                response.add(Message.record(post.getPostId(), post.getTitle(), authorName,
+                        post.getPostType(), post.getHasAssignment(), post.getCreatedAt()));
             }
-            sendMessage(sb.toString());
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GET_POSTS_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_POSTS_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetNotices(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_NOTICES_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long roomId = Long.parseLong(parts[1]);
+    // 응답: SUCCESS|다음 기준 시각|삭제된 글 ID 목록|바뀐 글...
+    // 기준 시각이 삭제 기록 보존 기간보다 오래되었으면 RELOAD|다음 기준 시각||전체 글... (가진 목록을 버리고 바꾼다)
+    private void handleGetPostsSince(CommandArgs args) {
+        Long roomId = args.getLong(0);
         try {
-            List<Post> posts = postService.findNoticesByRoomId(roomId);
-            StringBuilder sb = new StringBuilder("GET_NOTICES_RESPONSE|SUCCESS");
-            for (Post post : posts) {
-                User author = userService.findById(post.getAuthorId()).orElse(null);
-                String authorName = author != null ? author.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(post.getPostId()).append(":")
-                        .append(encode(post.getTitle())).append(":")
-                        .append(authorName).append(":")
-                        .append(post.getHasAssignment()).append(":")
-                        .append(post.getCreatedAt());
+            ChangeSet<Post> changes = postService.findChangedSince(roomId, args.getDateTime(1));
+            Message response = Message.of("GET_POSTS_SINCE_RESPONSE", changes.isFullReload() ? "RELOAD" : "SUCCESS",
+                    changes.getWatermark(), changes.getDeletedIds());
+            Map<Long, String> nicknames = userService.findNicknames(changes.getChanged(), Post::getAuthorId);
+            for (Post post : changes.getChanged()) {
+                response.add(Message.record(post.getPostId(), post.getTitle(), nicknameOf(nicknames, post.getAuthorId()),
+                        post.getPostType(), post.getHasAssignment(), post.getCreatedAt()));
             }
-            sendMessage(sb.toString());
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GET_NOTICES_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_POSTS_SINCE_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetGeneralPosts(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_GENERAL_POSTS_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long roomId = Long.parseLong(parts[1]);
+    private void handleGetNotices(CommandArgs args) {
+        Long roomId = args.getLong(0);
+        Integer limit = args.getInt(1);
         try {
-            List<Post> posts = postService.findGeneralPostsByRoomId(roomId);
-            StringBuilder sb = new StringBuilder("GET_GENERAL_POSTS_RESPONSE|SUCCESS");
-            for (Post post : posts) {
-                User author = userService.findById(post.getAuthorId()).orElse(null);
-                String authorName = author != null ? author.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(post.getPostId()).append(":")
-                        .append(encode(post.getTitle())).append(":")
-                        .append(authorName).append(":")
-                        .append(post.getHasAssignment()).append(":")
-                        .append(post.getCreatedAt());
+            Message response = Message.of("GET_NOTICES_RESPONSE", "SUCCESS");
+            List<PostSummary> posts;
+            if (limit == null) {
+                posts = postService.findNoticesByRoomId(roomId);
+            } else {
+                Slice<PostSummary> page = postService.findPageByRoomIdAndType(roomId, Post.PostType.NOTICE,
+                        PageCursor.parse(args.getString(2)), limit);
+                posts = page.getContent();
+                response.add(PageCursor.next(page, PostSummary::getCreatedAt, PostSummary::getPostId));
+            }
+            Map<Long, String> nicknames = userService.findNicknames(posts, PostSummary::getAuthorId);
+            for (PostSummary post : posts) {
+                String authorName = nicknameOf(nicknames, post.getAuthorId());
+                response.add(Message.record(post.getPostId(), post.getTitle(), authorName,
+                        post.getHasAssignment(), post.getCreatedAt()));
             }
-            sendMessage(sb.toString());
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GET_GENERAL_POSTS_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_NOTICES_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleCreatePost(String[] parts) {
-        if (parts.length < 5 || userId == null) {
-            sendMessage("CREATE_POST_RESPONSE|ERROR|입력 오류");
-            return;
+    private void handleGetGeneralPosts(CommandArgs args) {
+        Long roomId = args.getLong(0);
+        Integer limit = args.getInt(1);
+        try {
+            Message response = Message.of("GET_GENERAL_POSTS_RESPONSE", "SUCCESS");
+            List<PostSummary> posts;
+            if (limit == null) {
+                posts = postService.findGeneralPostsByRoomId(roomId);
+            } else {
+                Slice<PostSummary> page = postService.findPageByRoomIdAndType(roomId, Post.PostType.GENERAL,
+                        PageCursor.parse(args.getString(2)), limit);
+                posts = page.getContent();
+                response.add(PageCursor.next(page, PostSummary::getCreatedAt, PostSummary::getPostId));
+            }
+            Map<Long, String> nicknames = userService.findNicknames(posts, PostSummary::getAuthorId);
+            for (PostSummary post : posts) {
+                String authorName = nicknameOf(nicknames, post.getAuthorId());
+                response.add(Message.record(post.getPostId(), post.getTitle(), authorName,
+                        post.getHasAssignment(), post.getCreatedAt()));
+            }
+            respond(response);
+        } catch (Exception e) {
+            respond(Message.of("GET_GENERAL_POSTS_RESPONSE", "ERROR", e.getMessage()));
         }
-        Long roomId = Long.parseLong(parts[1]);
-        String title = decode(parts[2]);
-        String content = decode(parts[3]);
-        Post.PostType postType = Post.PostType.valueOf(parts[4]);
+    }
+
+    private void handleCreatePost(CommandArgs args) {
+        Long roomId = args.getLong(0);
+        String title = args.getString(1);
+        String content = args.getString(2);
+        Post.PostType postType = args.getEnum(3);
         try {
             Post post = postService.createPost(roomId, userId, title, content, postType);
-            sendMessage("CREATE_POST_RESPONSE|SUCCESS|" + post.getPostId());
+            respond(Message.of("CREATE_POST_RESPONSE", "SUCCESS", post.getPostId()));
             // 실시간 알림
-            connectionManager.notifyNewPost(roomId, post.getPostId(), title, nickname, postType.name());
+            connectionManager.notifyNewPost(PostSummary.of(post), nickname);
         } catch (Exception e) {
-            sendMessage("CREATE_POST_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("CREATE_POST_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleDeletePost(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("DELETE_POST_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
+    private void handleDeletePost(CommandArgs args) {
+        Long postId = args.getLong(0);
         try {
             Post post = postService.findById(postId).orElse(null);
             Long roomId = post != null ? post.getRoomId() : null;
             postService.deletePost(postId, userId);
-            sendMessage("DELETE_POST_RESPONSE|SUCCESS");
+            respond(Message.of("DELETE_POST_RESPONSE", "SUCCESS"));
             if (roomId != null) {
                 connectionManager.notifyPostDeleted(roomId, postId);
             }
         } catch (Exception e) {
-            sendMessage("DELETE_POST_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("DELETE_POST_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetPostDetail(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_POST_DETAIL_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
+    private void handleGetPostDetail(CommandArgs args) {
+        Long postId = args.getLong(0);
         try {
             Post post = postService.findById(postId).orElse(null);
             if (post != null) {
-                User author = userService.findById(post.getAuthorId()).orElse(null);
-                String authorName = author != null ? author.getNickname() : "알 수 없음";
-                sendMessage("GET_POST_DETAIL_RESPONSE|SUCCESS|" +
-                        post.getPostId() + "|" +
-                        encode(post.getTitle()) + "|" +
-                        encode(post.getContent()) + "|" +
-                        post.getAuthorId() + "|" +
-                        authorName + "|" +
-                        post.getPostType() + "|" +
-                        post.getHasAssignment() + "|" +
-                        post.getCreatedAt());
+                String authorName = userService.findNickname(post.getAuthorId()).orElse("알 수 없음");
+                respond(Message.of("GET_POST_DETAIL_RESPONSE", "SUCCESS",
+                        post.getPostId(),
+                        post.getTitle(),
+                        post.getContent(),
+                        post.getAuthorId(),
+                        authorName,
+                        post.getPostType(),
+                        post.getHasAssignment(),
+                        post.getCreatedAt()));
             } else {
-                sendMessage("GET_POST_DETAIL_RESPONSE|ERROR|게시글을 찾을 수 없습니다");
+                respond(Message.of("GET_POST_DETAIL_RESPONSE", "ERROR", "게시글을 찾을 수 없습니다"));
             }
         } catch (Exception e) {
-            sendMessage("GET_POST_DETAIL_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_POST_DETAIL_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetComments(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_COMMENTS_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
+    private void handleGetComments(CommandArgs args) {
+        Long postId = args.getLong(0);
+        Integer limit = args.getInt(1);
         try {
-            List<Comment> comments = commentService.findByPostId(postId);
-            StringBuilder sb = new StringBuilder("GET_COMMENTS_RESPONSE|SUCCESS");
+            Message response = Message.of("GET_COMMENTS_RESPONSE", "SUCCESS");
+            List<Comment> comments;
+            if (limit == null) {
+                comments = commentService.findByPostId(postId);
+            } else {
+                Slice<Comment> page = commentService.findPageByPostId(postId, PageCursor.parse(args.getString(2)), limit);
+                comments = page.getContent();
+                response.add(PageCursor.next(page, Comment::getCreatedAt, Comment::getCommentId));
+            }
+            Map<Long, String> nicknames = userService.findNicknames(comments, Comment::getAuthorId);
             for (Comment comment : comments) {
-                User author = userService.findById(comment.getAuthorId()).orElse(null);
-                String authorName = author != null ? author.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(comment.getCommentId()).append(":")
-                        .append(authorName).append(":")
-                        .append(encode(comment.getContent())).append(":")
-                        .append(comment.getCreatedAt());
+                String authorName = nicknameOf(nicknames, comment.getAuthorId());
+                response.add(Message.record(comment.getCommentId(), authorName,
+                        comment.getContent(), comment.getCreatedAt()));
             }
-            sendMessage(sb.toString());
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GET_COMMENTS_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_COMMENTS_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleCreateComment(String[] parts) {
-        if (parts.length < 3 || userId == null) {
-            sendMessage("CREATE_COMMENT_RESPONSE|ERROR|입력 오류");
-            return;
+    // 응답: SUCCESS|다음 기준 시각|삭제된 댓글 ID 목록|새 댓글...
+    // 기준 시각이 삭제 기록 보존 기간보다 오래되었으면 RELOAD|다음 기준 시각||전체 댓글...
+    private void handleGetCommentsSince(CommandArgs args) {
+        Long postId = args.getLong(0);
+        try {
+            ChangeSet<Comment> changes = commentService.findChangedSince(postId, args.getDateTime(1));
+            Message response = Message.of("GET_COMMENTS_SINCE_RESPONSE", changes.isFullReload() ? "RELOAD" : "SUCCESS",
+                    changes.getWatermark(), changes.getDeletedIds());
+            Map<Long, String> nicknames = userService.findNicknames(changes.getChanged(), Comment::getAuthorId);
+            for (Comment comment : changes.getChanged()) {
+                response.add(Message.record(comment.getCommentId(), nicknameOf(nicknames, comment.getAuthorId()),
+                        comment.getContent(), comment.getCreatedAt()));
+            }
+            respond(response);
+        } catch (Exception e) {
+            respond(Message.of("GET_COMMENTS_SINCE_RESPONSE", "ERROR", e.getMessage()));
         }
-        Long postId = Long.parseLong(parts[1]);
-        String content = decode(parts[2]);
+    }
+
+    private void handleCreateComment(CommandArgs args) {
+        Long postId = args.getLong(0);
+        String content = args.getString(1);
         try {
             Comment comment = commentService.createComment(postId, userId, content);
-            sendMessage("CREATE_COMMENT_RESPONSE|SUCCESS|" + comment.getCommentId());
+            respond(Message.of("CREATE_COMMENT_RESPONSE", "SUCCESS", comment.getCommentId()));
             // 실시간 댓글 알림
             Post post = postService.findById(postId).orElse(null);
             if (post != null) {
-                connectionManager.notifyNewComment(post.getRoomId(), postId, comment.getCommentId(), nickname, content);
+                connectionManager.notifyNewComment(post.getRoomId(), comment, nickname);
             }
         } catch (Exception e) {
-            sendMessage("CREATE_COMMENT_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("CREATE_COMMENT_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetUser(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_USER_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long targetUserId = Long.parseLong(parts[1]);
+    private void handleGetUser(CommandArgs args) {
+        Long targetUserId = args.getLong(0);
         try {
-            User user = userService.findById(targetUserId).orElse(null);
-            if (user != null) {
-                sendMessage("GET_USER_RESPONSE|SUCCESS|" + user.getNickname());
+            String targetNickname = userService.findNickname(targetUserId).orElse(null);
+            if (targetNickname != null) {
+                respond(Message.of("GET_USER_RESPONSE", "SUCCESS", targetNickname));
             } else {
-                sendMessage("GET_USER_RESPONSE|ERROR|사용자를 찾을 수 없습니다");
+                respond(Message.of("GET_USER_RESPONSE", "ERROR", "사용자를 찾을 수 없습니다"));
             }
         } catch (Exception e) {
-            sendMessage("GET_USER_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_USER_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleMarkRead(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("MARK_READ_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
+    private void handleMarkRead(CommandArgs args) {
+        Long postId = args.getLong(0);
         try {
             if (!postReadStatusService.hasRead(postId, userId)) {
-                postReadStatusService.markAsRead(postId, userId);
+                Post post = postService.findById(postId)
+                        .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 게시글입니다."));
+                postReadStatusService.markAsRead(post, userId);
                 // 실시간 읽음 알림
-                Post post = postService.findById(postId).orElse(null);
-                if (post != null) {
-                    connectionManager.notifyPostRead(post.getRoomId(), postId, userId, nickname);
-                }
+                connectionManager.notifyPostRead(post.getRoomId(), postId, userId, nickname);
             }
-            sendMessage("MARK_READ_RESPONSE|SUCCESS");
+            respond(Message.of("MARK_READ_RESPONSE", "SUCCESS"));
         } catch (Exception e) {
-            sendMessage("MARK_READ_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("MARK_READ_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetReadStatus(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_READ_STATUS_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
+    private void handleGetReadStatus(CommandArgs args) {
+        Long postId = args.getLong(0);
         try {
-            List<PostReadStatus> statuses = postReadStatusService.getReadStatusByPost(postId);
-            StringBuilder sb = new StringBuilder("GET_READ_STATUS_RESPONSE|SUCCESS");
-            for (PostReadStatus status : statuses) {
-                User user = userService.findById(status.getUserId()).orElse(null);
-                String userName = user != null ? user.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(status.getUserId()).append(":")
-                        .append(userName);
+            // 읽은 사용자는 메모리 색인에서, 닉네임은 캐시에서 (DB를 읽지 않음)
+            List<Long> readerIds = postReadStatusService.getReaderIds(postId);
+            Message response = Message.of("GET_READ_STATUS_RESPONSE", "SUCCESS");
+            Map<Long, String> nicknames = userService.findNicknames(readerIds);
+            for (Long readerId : readerIds) {
+                response.add(Message.record(readerId, nicknameOf(nicknames, readerId)));
             }
-            sendMessage(sb.toString());
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GET_READ_STATUS_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_READ_STATUS_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
+    // 목록 행의 작성자 이름 - 탈퇴 등으로 사용자가 없으면 "알 수 없음"
+    private static String nicknameOf(Map<Long, String> nicknames, Long userId) {
+        String nickname = nicknames.get(userId);
+        return nickname != null ? nickname : "알 수 없음";
+    }
+
     // === 과제 관련 핸들러 ===
 
-    private void handleCreateAssignment(String[] parts) {
-        if (parts.length < 4 || userId == null) {
-            sendMessage("CREATE_ASSIGNMENT_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
-        String title = decode(parts[2]);
-        String description = decode(parts[3]);
-        LocalDateTime dueDate = null;
-        if (parts.length >= 5 && !parts[4].isEmpty()) {
-            dueDate = LocalDateTime.parse(parts[4], DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        }
+    private void handleCreateAssignment(CommandArgs args) {
+        Long postId = args.getLong(0);
+        String title = args.getString(1);
+        String description = args.getString(2);
+        LocalDateTime dueDate = args.getDateTime(3);
         try {
             // 게시글 작성자만 과제 생성 가능
             Post post = postService.findById(postId).orElse(null);
             if (post == null) {
-                sendMessage("CREATE_ASSIGNMENT_RESPONSE|ERROR|게시글을 찾을 수 없습니다");
+                respond(Message.of("CREATE_ASSIGNMENT_RESPONSE", "ERROR", "게시글을 찾을 수 없습니다"));
                 return;
             }
             if (!post.getAuthorId().equals(userId)) {
-                sendMessage("CREATE_ASSIGNMENT_RESPONSE|ERROR|게시글 작성자만 과제를 생성할 수 있습니다");
+                respond(Message.of("CREATE_ASSIGNMENT_RESPONSE", "ERROR", "게시글 작성자만 과제를 생성할 수 있습니다"));
                 return;
             }
             Assignment assignment = assignmentService.createAssignment(postId, title, description, dueDate);
-            sendMessage("CREATE_ASSIGNMENT_RESPONSE|SUCCESS|" + assignment.getAssignmentId());
+            respond(Message.of("CREATE_ASSIGNMENT_RESPONSE", "SUCCESS", assignment.getAssignmentId()));
+            // 목록의 과제 표시와 글 상세(클라이언트 캐시)가 바뀜
+            postService.findById(postId).ifPresent(changed ->
+                    connectionManager.notifyPostChanged(PostSummary.of(changed), nickname));
         } catch (Exception e) {
-            sendMessage("CREATE_ASSIGNMENT_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("CREATE_ASSIGNMENT_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetAssignment(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_ASSIGNMENT_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long postId = Long.parseLong(parts[1]);
+    private void handleGetAssignment(CommandArgs args) {
+        Long postId = args.getLong(0);
         try {
             Assignment assignment = assignmentService.findByPostId(postId).orElse(null);
             if (assignment != null) {
-                String dueDate = assignment.getDueDate() != null ?
-                        assignment.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "";
-                sendMessage("GET_ASSIGNMENT_RESPONSE|SUCCESS|" +
-                        assignment.getAssignmentId() + "|" +
-                        encode(assignment.getTitle()) + "|" +
-                        encode(assignment.getDescription()) + "|" +
-                        dueDate + "|" +
-                        assignment.getCreatedAt());
+                respond(Message.of("GET_ASSIGNMENT_RESPONSE", "SUCCESS",
+                        assignment.getAssignmentId(),
+                        assignment.getTitle(),
+                        assignment.getDescription(),
+                        assignment.getDueDate(),
+                        assignment.getCreatedAt()));
             } else {
-                sendMessage("GET_ASSIGNMENT_RESPONSE|ERROR|과제가 없습니다");
+                respond(Message.of("GET_ASSIGNMENT_RESPONSE", "ERROR", "과제가 없습니다"));
             }
         } catch (Exception e) {
-            sendMessage("GET_ASSIGNMENT_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_ASSIGNMENT_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleSubmitAssignment(String[] parts) {
-        if (parts.length < 3 || userId == null) {
-            sendMessage("SUBMIT_ASSIGNMENT_RESPONSE|ERROR|입력 오류");
-            return;
+    private void handleSubmitAssignment(CommandArgs args) {
+        Long assignmentId = args.getLong(0);
+        String content = args.getString(1);
+        String fileName = args.getString(2);
+        String filePath = args.getString(3);
+        Long fileSize = args.getLong(4);
+        // 서버 저장소의 키만 기록 (구버전 클라이언트가 보내는 로컬 경로는 버림)
+        if (filePath != null && !fileStorageService.exists(filePath)) {
+            filePath = null;
         }
-        Long assignmentId = Long.parseLong(parts[1]);
-        String content = decode(parts[2]);
-        String fileName = parts.length >= 4 ? decode(parts[3]) : null;
-        String filePath = parts.length >= 5 ? parts[4] : null;
-        Long fileSize = parts.length >= 6 && !parts[5].isEmpty() ? Long.parseLong(parts[5]) : null;
         try {
             AssignmentSubmission submission = assignmentService.submitAssignment(
                     assignmentId, userId, content, fileName, filePath, fileSize);
-            sendMessage("SUBMIT_ASSIGNMENT_RESPONSE|SUCCESS|" + submission.getSubmissionId());
+            respond(Message.of("SUBMIT_ASSIGNMENT_RESPONSE", "SUCCESS", submission.getSubmissionId()));
             // 작성자에게 알림
             Assignment assignment = assignmentService.findById(assignmentId).orElse(null);
             if (assignment != null) {
@@ -623,117 +654,361 @@ public class ClientHandler implements Runnable {
                 }
             }
         } catch (Exception e) {
-            sendMessage("SUBMIT_ASSIGNMENT_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("SUBMIT_ASSIGNMENT_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetSubmissions(String[] parts) {
-        if (parts.length < 2) {
-            sendMessage("GET_SUBMISSIONS_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long assignmentId = Long.parseLong(parts[1]);
+    private void handleGetSubmissions(CommandArgs args) {
+        Long assignmentId = args.getLong(0);
+        Integer limit = args.getInt(1);
         try {
-            List<AssignmentSubmission> submissions = assignmentService.getSubmissionsByAssignment(assignmentId);
-            StringBuilder sb = new StringBuilder("GET_SUBMISSIONS_RESPONSE|SUCCESS");
+            Message response = Message.of("GET_SUBMISSIONS_RESPONSE", "SUCCESS");
+            List<AssignmentSubmission> submissions;
+            if (limit == null) {
+                submissions = assignmentService.getSubmissionsByAssignment(assignmentId);
+            } else {
+                Slice<AssignmentSubmission> page = assignmentService.getSubmissionPage(assignmentId,
+                        PageCursor.parse(args.getString(2)), limit);
+                submissions = page.getContent();
+                response.add(PageCursor.next(page, AssignmentSubmission::getSubmittedAt,
+                        AssignmentSubmission::getSubmissionId));
+            }
+            Map<Long, String> nicknames = userService.findNicknames(submissions, AssignmentSubmission::getUserId);
             for (AssignmentSubmission sub : submissions) {
-                User submitter = userService.findById(sub.getUserId()).orElse(null);
-                String submitterName = submitter != null ? submitter.getNickname() : "알 수 없음";
-                sb.append("|")
-                        .append(sub.getSubmissionId()).append(":")
-                        .append(sub.getUserId()).append(":")
-                        .append(submitterName).append(":")
-                        .append(encode(sub.getContent() != null ? sub.getContent() : "")).append(":")
-                        .append(sub.getFileName() != null ? encode(sub.getFileName()) : "").append(":")
-                        .append(sub.getStatus()).append(":")
-                        .append(sub.getScore() != null ? sub.getScore() : "").append(":")
-                        .append(sub.getSubmittedAt());
+                String submitterName = nicknameOf(nicknames, sub.getUserId());
+                response.add(Message.record(sub.getSubmissionId(), sub.getUserId(), submitterName,
+                        sub.getContent(), sub.getFileName(), sub.getStatus(), sub.getScore(),
+                        sub.getSubmittedAt()));
             }
-            sendMessage(sb.toString());
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GET_SUBMISSIONS_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_SUBMISSIONS_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGetMySubmission(String[] parts) {
-        if (parts.length < 2 || userId == null) {
-            sendMessage("GET_MY_SUBMISSION_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long assignmentId = Long.parseLong(parts[1]);
+    private void handleGetMySubmission(CommandArgs args) {
+        Long assignmentId = args.getLong(0);
         try {
             AssignmentSubmission sub = assignmentService.getSubmission(assignmentId, userId).orElse(null);
             if (sub != null) {
-                sendMessage("GET_MY_SUBMISSION_RESPONSE|SUCCESS|" +
-                        sub.getSubmissionId() + "|" +
-                        encode(sub.getContent() != null ? sub.getContent() : "") + "|" +
-                        (sub.getFileName() != null ? encode(sub.getFileName()) : "") + "|" +
-                        sub.getStatus() + "|" +
-                        (sub.getScore() != null ? sub.getScore() : "") + "|" +
-                        (sub.getFeedback() != null ? encode(sub.getFeedback()) : "") + "|" +
-                        sub.getSubmittedAt());
+                respond(Message.of("GET_MY_SUBMISSION_RESPONSE", "SUCCESS",
+                        sub.getSubmissionId(),
+                        sub.getContent(),
+                        sub.getFileName(),
+                        sub.getStatus(),
+                        sub.getScore(),
+                        sub.getFeedback(),
+                        sub.getSubmittedAt()));
             } else {
-                sendMessage("GET_MY_SUBMISSION_RESPONSE|ERROR|제출물이 없습니다");
+                respond(Message.of("GET_MY_SUBMISSION_RESPONSE", "ERROR", "제출물이 없습니다"));
             }
         } catch (Exception e) {
-            sendMessage("GET_MY_SUBMISSION_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("GET_MY_SUBMISSION_RESPONSE", "ERROR", e.getMessage()));
         }
     }
 
-    private void handleGradeSubmission(String[] parts) {
-        if (parts.length < 4 || userId == null) {
-            sendMessage("GRADE_SUBMISSION_RESPONSE|ERROR|입력 오류");
-            return;
-        }
-        Long submissionId = Long.parseLong(parts[1]);
-        Integer score = parts[2].isEmpty() ? null : Integer.parseInt(parts[2]);
-        String feedback = decode(parts[3]);
+    private void handleGradeSubmission(CommandArgs args) {
+        Long submissionId = args.getLong(0);
+        Integer score = args.getInt(1);
+        String feedback = args.getString(2);
         try {
             AssignmentSubmission submission = assignmentService.gradeSubmission(submissionId, score, feedback);
-            sendMessage("GRADE_SUBMISSION_RESPONSE|SUCCESS");
+            respond(Message.of("GRADE_SUBMISSION_RESPONSE", "SUCCESS"));
+        } catch (Exception e) {
+            respond(Message.of("GRADE_SUBMISSION_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    private void handleChat(CommandArgs args) {
+        String chatMessage = args.getString(0);
+        connectionManager.broadcast(Message.event("CHAT", nickname, chatMessage));
+    }
+
+    private void handlePostRead(CommandArgs args) {
+        Long postId = args.getLong(0);
+        connectionManager.broadcast(Message.event("POST_READ", userId, postId));
+    }
+
+    // 클라이언트가 접속자 목록 버전 차이를 발견했을 때 스냅샷 재요청
+    private void handleGetUserList(CommandArgs args) {
+        connectionManager.sendUserList(userId);
+    }
+
+    private void handleGetRoomUserList(CommandArgs args) {
+        connectionManager.sendRoomUserList(args.getLong(0), userId);
+    }
+
+    // === 파일 전송 핸들러 ===
+
+    private void handleUploadBegin(CommandArgs args) {
+        String fileName = args.getString(0);
+        Long fileSize = args.getLong(1);
+        Long postId = args.getLong(2);
+        try {
+            // 게시글 첨부는 다 받은 뒤가 아니라 시작할 때 권한 확인
+            if (postId != null) {
+                Post post = postService.findById(postId).orElse(null);
+                if (post == null) {
+                    respond(Message.of("UPLOAD_BEGIN_RESPONSE", "ERROR", "게시글을 찾을 수 없습니다"));
+                    return;
+                }
+                if (!post.getAuthorId().equals(userId)) {
+                    respond(Message.of("UPLOAD_BEGIN_RESPONSE", "ERROR", "작성자만 파일을 첨부할 수 있습니다"));
+                    return;
+                }
+            }
+            long uploadId = fileTransfers.beginUpload(fileName, fileSize, postId);
+            respond(Message.of("UPLOAD_BEGIN_RESPONSE", "SUCCESS", uploadId,
+                    fileTransfers.getChunkBytes(), fileTransfers.getWindowChunks()));
+        } catch (Exception e) {
+            respond(Message.of("UPLOAD_BEGIN_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    private void handleUploadChunk(CommandArgs args) {
+        Long uploadId = args.getLong(0);
+        try {
+            long received = fileTransfers.writeChunk(uploadId, args.getLong(1), args.getBytes(2));
+            respond(Message.of("UPLOAD_CHUNK_RESPONSE", "SUCCESS", uploadId, received));
+        } catch (Exception e) {
+            fileTransfers.abortUpload(uploadId);
+            respond(Message.of("UPLOAD_CHUNK_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    private void handleUploadEnd(CommandArgs args) {
+        Long uploadId = args.getLong(0);
+        try {
+            FileTransferSession.Upload upload = fileTransfers.finishUpload(uploadId);
+            String key;
+            try {
+                key = fileStorageService.commit(upload.tempFile);
+            } catch (IOException e) {
+                fileStorageService.discard(upload.tempFile);
+                throw e;
+            }
+            Long fileId = null;
+            if (upload.postId != null) {
+                fileId = fileStorageService.attachToPost(upload.postId, userId, upload.fileName, key, upload.size)
+                        .getFileId();
+            }
+            respond(Message.of("UPLOAD_END_RESPONSE", "SUCCESS", key, fileId));
+        } catch (Exception e) {
+            respond(Message.of("UPLOAD_END_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    // 응답 뒤에 FILE_CHUNK|전송번호|위치|내용 프레임이 이어진다 (전송 번호 = 요청 번호)
+    private void handleDownload(CommandArgs args) {
+        FileTransferSession.Kind kind = args.getEnum(0);
+        Long id = args.getLong(1);
+        try {
+            WireFormat wireFormat = connection != null ? connection.getFormat() : format;
+            if (wireFormat != WireFormat.BINARY || currentRequestId == 0) {
+                respond(Message.of("DOWNLOAD_RESPONSE", "ERROR", "파일 다운로드는 바이너리 프로토콜에서만 지원합니다"));
+                return;
+            }
+            String fileName;
+            String key;
+            if (kind == FileTransferSession.Kind.SUBMISSION) {
+                AssignmentSubmission submission = assignmentService.findSubmissionById(id).orElse(null);
+                if (submission == null) {
+                    respond(Message.of("DOWNLOAD_RESPONSE", "ERROR", "제출물을 찾을 수 없습니다"));
+                    return;
+                }
+                // 제출자 본인과 과제 게시글 작성자만
+                if (!submission.getUserId().equals(userId) && !isAssignmentOwner(submission.getAssignmentId())) {
+                    respond(Message.of("DOWNLOAD_RESPONSE", "ERROR", "제출물을 볼 권한이 없습니다"));
+                    return;
+                }
+                fileName = submission.getFileName();
+                key = submission.getFilePath();
+            } else {
+                org.study.platform.entity.File file = fileStorageService.findById(id).orElse(null);
+                if (file == null) {
+                    respond(Message.of("DOWNLOAD_RESPONSE", "ERROR", "파일을 찾을 수 없습니다"));
+                    return;
+                }
+                fileName = file.getFileName();
+                key = file.getFilePath();
+            }
+            if (!fileStorageService.exists(key)) {
+                respond(Message.of("DOWNLOAD_RESPONSE", "ERROR", "서버에 저장된 파일이 없습니다"));
+                return;
+            }
+            long transferId = currentRequestId;
+            int wireVersion = connection != null ? connection.getVersion() : version;
+            long size = fileTransfers.beginDownload(transferId, fileStorageService.resolve(key), wireVersion);
+            respond(Message.of("DOWNLOAD_RESPONSE", "SUCCESS", transferId, fileName, size,
+                    fileTransfers.getChunkBytes(), fileTransfers.getWindowChunks()));
+            fileTransfers.acknowledge(transferId, 0);
+        } catch (Exception e) {
+            respond(Message.of("DOWNLOAD_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    private boolean isAssignmentOwner(Long assignmentId) {
+        Assignment assignment = assignmentService.findById(assignmentId).orElse(null);
+        if (assignment == null) {
+            return false;
+        }
+        Post post = postService.findById(assignment.getPostId()).orElse(null);
+        return post != null && post.getAuthorId().equals(userId);
+    }
+
+    // 클라이언트가 offset까지 받음 - 다음 조각 전송 (응답 없음)
+    private void handleDownloadAck(CommandArgs args) {
+        fileTransfers.acknowledge(args.getLong(0), args.getLong(1));
+    }
+
+    private void handleGetFiles(CommandArgs args) {
+        Long postId = args.getLong(0);
+        try {
+            Message response = Message.of("GET_FILES_RESPONSE", "SUCCESS");
+            for (org.study.platform.entity.File file : fileStorageService.findByPostId(postId)) {
+                response.add(Message.record(file.getFileId(), file.getFileName(), file.getFileSize(),
+                        file.getUploadedAt()));
+            }
+            respond(response);
+        } catch (Exception e) {
+            respond(Message.of("GET_FILES_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    // 응답: SUCCESS|종류:글 ID:대상 ID:점수:제목... (점수 높은 순, 대상 = 글/댓글/과제 ID)
+    private void handleSearch(CommandArgs args) {
+        Long roomId = args.getLong(0);
+        Integer limit = args.getInt(2);
+        try {
+            Message response = Message.of("SEARCH_RESPONSE", "SUCCESS");
+            for (SearchIndex.Hit hit : searchService.search(roomId, args.getString(1),
+                    limit != null ? limit : SearchService.DEFAULT_LIMIT)) {
+                response.add(Message.record(hit.getType(), hit.getPostId(), hit.getId(),
+                        String.format(Locale.ROOT, "%.3f", hit.getScore()), hit.getTitle()));
+            }
+            respond(response);
         } catch (Exception e) {
-            sendMessage("GRADE_SUBMISSION_RESPONSE|ERROR|" + e.getMessage());
+            respond(Message.of("SEARCH_RESPONSE", "ERROR", e.getMessage()));
+        }
+    }
+
+    public void sendMessage(Message message) {
+        sendMessage(new EncodedMessage(message));
+    }
+
+    // 브로드캐스트는 한 번 인코딩한 바이트를 모든 연결이 공유
+    public void sendMessage(EncodedMessage encoded) {
+        if (connection != null) {
+            connection.send(encoded);
+            return;
+        }
+        OutboundQueue.OfferResult result = outboundQueue.offer(encoded.getMessage(), encoded.bytes(format, version));
+        if (result == OutboundQueue.OfferResult.OVERFLOW) {
+            System.err.println("느린 클라이언트 연결 종료: " + nickname + " (송신 대기 "
+                    + outboundQueue.getDepth() + "건, 버린 메시지 " + outboundQueue.getDroppedCount() + "건)");
+            disconnect();
+        } else if (result == OutboundQueue.OfferResult.QUEUED) {
+            scheduleWrite();
+        }
+    }
+
+    // 파일 조각은 다운로드 창 크기로 제한되므로 대기열 정책 없이 추가
+    private void sendFileRegion(FileRegion region) {
+        if (connection != null) {
+            connection.sendFile(region);
+            return;
         }
+        outboundQueue.offerFile(region);
+        scheduleWrite();
+    }
+
+    // 처리 중인 요청에 대한 응답 (요청 번호를 붙여서 전송)
+    private void respond(Message response) {
+        sendMessage(response.withRequestId(currentRequestId));
     }
 
-    private void handleChat(String[] parts) {
-        if (parts.length >= 2) {
-            String chatMessage = parts[1];
-            connectionManager.broadcast(nickname + ": " + chatMessage);
+    // 블로킹 모드 전용: writer가 없으면 하나 실행
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            try {
+                writerExecutor.execute(this::drainOutbound);
+            } catch (RejectedExecutionException e) {
+                // 서버 종료 중
+                writeScheduled.set(false);
+            }
         }
     }
 
-    private void handlePostRead(String[] parts) {
-        if (parts.length >= 2) {
-            String postId = parts[1];
-            connectionManager.broadcast("POST_READ:" + userId + ":" + postId);
+    // 대기열에 쌓인 메시지를 묶음 단위로 기록하고 묶음마다 한 번만 flush (파일 조각은 하나씩)
+    private void drainOutbound() {
+        OutputStream stream = out;
+        if (stream == null) {
+            writeScheduled.set(false);
+            return;
+        }
+        try {
+            while (true) {
+                while (true) {
+                    List<byte[]> batch = outboundQueue.drain(WRITE_BATCH_BYTES);
+                    if (batch.isEmpty()) {
+                        FileRegion region = outboundQueue.pollRegion();
+                        if (region == null) break;
+                        region.copyTo(stream);
+                    }
+                    for (byte[] bytes : batch) {
+                        stream.write(bytes);
+                    }
+                    stream.flush();
+                }
+                writeScheduled.set(false);
+                if (outboundQueue.isEmpty() || !writeScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("메시지 전송 실패: " + e.getMessage());
+            outboundQueue.clear();
+            writeScheduled.set(false);
+            disconnect();
         }
     }
 
-    public void sendMessage(String message) {
-        if (out != null) {
-            out.println(message);
+    // 블로킹 모드 전용: 닫기 전에 대기열에 남은 응답(프로토콜 오류 포함)을 보낸다
+    // 실행 중인 writer가 있으면 끝나기를 기다렸다가 이 스레드에서 직접 비운다
+    private void flushBeforeClose() {
+        if (!running || connection != null) return;
+        long deadline = System.currentTimeMillis() + CLOSE_FLUSH_TIMEOUT_MS;
+        while (!writeScheduled.compareAndSet(false, true)) {
+            if (System.currentTimeMillis() > deadline) {
+                System.err.println("남은 응답 전송 대기 시간 초과: " + nickname);
+                return;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
         }
+        drainOutbound();
     }
 
     public void disconnect() {
         if (!running) return;
         running = false;
+        fileTransfers.close();
         try {
             if (userId != null) {
-                if (currentRoomId != null) {
-                    connectionManager.leaveRoom(currentRoomId, userId);
-                }
+                // currentRoomId뿐 아니라 입장했던 모든 방에서 퇴장
+                connectionManager.leaveAllRooms(userId);
                 connectionManager.removeClient(userId);
-                try {
-                    connectionManager.broadcastUserList();
-                } catch (Exception e) {
-                    // 무시
-                }
             }
         } catch (Exception e) {
             // 무시
         }
+        if (connection != null) {
+            connection.close();
+        }
         try {
             if (in != null) in.close();
             if (out != null) out.close();
@@ -744,6 +1019,15 @@ public class ClientHandler implements Runnable {
         System.out.println("클라이언트 연결 종료: " + nickname);
     }
 
+    // 명령별 호출 수, 실패 수, 처리 시간
+    public static CommandRegistry<ClientHandler> getCommandRegistry() {
+        return COMMANDS;
+    }
+
+    public OutboundQueue getOutboundQueue() {
+        return connection != null ? connection.getOutboundQueue() : outboundQueue;
+    }
+
     public Long getUserId() {
         return userId;
     }
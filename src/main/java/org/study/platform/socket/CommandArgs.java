@@ -0,0 +1,45 @@
+package org.study.platform.socket;
+
+import java.time.LocalDateTime;
+
+/**
+ * CommandRegistry가 명령의 인자 정의에 맞춰 변환해 둔 값.
+ * 인덱스는 명령 이름을 뺀 필드 순서이며, 생략된 선택 인자는 null이다.
+ */
+public final class CommandArgs {
+
+    private final Object[] values;
+
+    CommandArgs(Object[] values) {
+        this.values = values;
+    }
+
+    public Long getLong(int index) {
+        return (Long) values[index];
+    }
+
+    public Integer getInt(int index) {
+        return (Integer) values[index];
+    }
+
+    public String getString(int index) {
+        return (String) values[index];
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return (LocalDateTime) values[index];
+    }
+
+    public byte[] getBytes(int index) {
+        return (byte[]) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E>> E getEnum(int index) {
+        return (E) values[index];
+    }
+
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,296 @@
+package org.study.platform.socket;
+
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.Opcode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 명령 번호(Opcode) → 처리 함수 표.
+ * 명령마다 인자 정의를 등록해 두면 메시지 필드를 한 번 훑으면서 타입을 변환하고,
+ * 빠졌거나 잘못된 인자는 처리 함수를 부르기 전에 어떤 인자가 왜 잘못됐는지 알려준다.
+ * 명령별 호출 수, 실패 수, 처리 시간은 등록만 하면 자동으로 집계된다.
+ *
+ * @param <C> 처리 함수가 받는 연결 객체 (ClientHandler)
+ */
+public class CommandRegistry<C> {
+
+    @FunctionalInterface
+    public interface Handler<C> {
+        void handle(C target, CommandArgs args) throws Exception;
+    }
+
+    // 인자가 빠졌거나 형식이 틀림, 또는 로그인 전에 보낸 명령
+    public static class InvalidCommandException extends Exception {
+        public InvalidCommandException(String message) {
+            super(message);
+        }
+    }
+
+    public enum ArgType { LONG, INT, STRING, DATETIME, ENUM, BYTES }
+
+    public static final class Arg {
+        final String name;
+        final ArgType type;
+        final boolean optional;
+        final Class<? extends Enum<?>> enumType;
+
+        private Arg(String name, ArgType type, boolean optional, Class<? extends Enum<?>> enumType) {
+            this.name = name;
+            this.type = type;
+            this.optional = optional;
+            this.enumType = enumType;
+        }
+
+        // 생략하거나 빈 값이면 null
+        public Arg optional() {
+            return new Arg(name, type, true, enumType);
+        }
+    }
+
+    public static Arg longArg(String name) {
+        return new Arg(name, ArgType.LONG, false, null);
+    }
+
+    public static Arg intArg(String name) {
+        return new Arg(name, ArgType.INT, false, null);
+    }
+
+    public static Arg stringArg(String name) {
+        return new Arg(name, ArgType.STRING, false, null);
+    }
+
+    public static Arg dateTimeArg(String name) {
+        return new Arg(name, ArgType.DATETIME, false, null);
+    }
+
+    // 바이너리 프레임은 byte[] 그대로, 텍스트 프로토콜은 Base64 문자열
+    public static Arg bytesArg(String name) {
+        return new Arg(name, ArgType.BYTES, false, null);
+    }
+
+    public static Arg enumArg(String name, Class<? extends Enum<?>> enumType) {
+        return new Arg(name, ArgType.ENUM, false, enumType);
+    }
+
+    public static final class Command<C> {
+        private final String name;
+        private final Handler<C> handler;
+        private final Arg[] args;
+        private boolean usesDb = true;
+        private boolean requiresLogin;
+        private Function<String, Message> errorReply;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Command(String name, Handler<C> handler, Arg[] args) {
+            this.name = name;
+            this.handler = handler;
+            this.args = args;
+            this.errorReply = reason -> Message.of(name + "_RESPONSE", "ERROR", "입력 오류: " + reason);
+        }
+
+        // DbCallLimiter 대상에서 제외
+        public Command<C> noDb() {
+            this.usesDb = false;
+            return this;
+        }
+
+        public Command<C> requiresLogin() {
+            this.requiresLogin = true;
+            return this;
+        }
+
+        // 인자 오류 시 보낼 메시지 (null을 돌려주면 응답하지 않음)
+        public Command<C> onInvalid(Function<String, Message> errorReply) {
+            this.errorReply = errorReply;
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean usesDb() {
+            return usesDb;
+        }
+
+        public Message errorReply(String reason) {
+            return errorReply.apply(reason);
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public double getAverageMicros() {
+            long count = calls.sum();
+            return count == 0 ? 0 : totalNanos.sum() / 1000.0 / count;
+        }
+
+        public double getMaxMicros() {
+            return maxNanos.get() / 1000.0;
+        }
+
+        private void record(long nanos, boolean failed) {
+            calls.increment();
+            if (failed) failures.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    // 요청 명령 번호로 바로 찾는 표 (응답 번호는 등록하지 않음)
+    @SuppressWarnings("unchecked")
+    private Command<C>[] byCode = new Command[0];
+    private final List<Command<C>> commands = new ArrayList<>();
+    private final Predicate<C> loggedIn;
+
+    public CommandRegistry(Predicate<C> loggedIn) {
+        this.loggedIn = loggedIn;
+    }
+
+    public Command<C> register(String name, Handler<C> handler, Arg... args) {
+        int code = Opcode.codeOf(name);
+        if (code < 0 || code >= Opcode.RESPONSE_FLAG) {
+            throw new IllegalArgumentException("Opcode에 등록되지 않은 명령: " + name);
+        }
+        if (code >= byCode.length) {
+            byCode = Arrays.copyOf(byCode, code + 1);
+        }
+        if (byCode[code] != null) {
+            throw new IllegalArgumentException("이미 등록된 명령: " + name);
+        }
+        Command<C> command = new Command<>(name, handler, args);
+        byCode[code] = command;
+        commands.add(command);
+        return command;
+    }
+
+    // 등록되지 않은 명령이면 null
+    public Command<C> find(String name) {
+        int code = Opcode.codeOf(name);
+        return code >= 0 && code < byCode.length ? byCode[code] : null;
+    }
+
+    /**
+     * 인자를 변환해서 처리 함수를 호출한다.
+     * 인자 오류는 InvalidCommandException, 처리 함수의 예외는 그대로 던지며 둘 다 실패로 집계된다.
+     */
+    public void invoke(Command<C> command, C target, Message message) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            if (command.requiresLogin && !loggedIn.test(target)) {
+                throw new InvalidCommandException("로그인이 필요합니다");
+            }
+            command.handler.handle(target, parseArgs(command.args, message));
+            failed = false;
+        } finally {
+            command.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    static CommandArgs parseArgs(Arg[] args, Message message) throws InvalidCommandException {
+        Object[] values = new Object[args.length];
+        int fieldCount = message.size();
+        for (int i = 0; i < args.length; i++) {
+            Arg arg = args[i];
+            Object field = i < fieldCount ? message.get(i) : null;
+            boolean blank = field == null || (field instanceof String && ((String) field).isEmpty());
+            if (i >= fieldCount || (blank && arg.type != ArgType.STRING)) {
+                if (!arg.optional) {
+                    throw new InvalidCommandException(arg.name + " 값이 없습니다");
+                }
+                continue;
+            }
+            if (blank && arg.optional) {
+                continue;
+            }
+            values[i] = convert(arg, field);
+        }
+        return new CommandArgs(values);
+    }
+
+    private static Object convert(Arg arg, Object field) throws InvalidCommandException {
+        try {
+            switch (arg.type) {
+                case LONG:
+                    return field instanceof Number ? ((Number) field).longValue() : Long.parseLong((String) field);
+                case INT:
+                    return field instanceof Number ? ((Number) field).intValue() : Integer.parseInt((String) field);
+                case DATETIME:
+                    return field instanceof LocalDateTime ? field
+                            : LocalDateTime.parse((String) field, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                case BYTES:
+                    return field instanceof byte[] ? field : Base64.getDecoder().decode((String) field);
+                case ENUM:
+                    String value = field.toString();
+                    for (Enum<?> constant : arg.enumType.getEnumConstants()) {
+                        if (constant.name().equals(value)) {
+                            return constant;
+                        }
+                    }
+                    throw new InvalidCommandException(arg.name + " 값이 올바르지 않습니다: " + value);
+                default:
+                    return field == null ? "" : field.toString();
+            }
+        } catch (IllegalArgumentException | ClassCastException | DateTimeParseException e) {
+            // 문자열 형식 오류 또는 바이너리 프레임 필드의 타입이 다름
+            throw new InvalidCommandException(arg.name + " 값은 " + expected(arg.type) + "여야 합니다");
+        }
+    }
+
+    private static String expected(ArgType type) {
+        switch (type) {
+            case LONG:
+            case INT:
+                return "숫자";
+            case DATETIME:
+                return "날짜(yyyy-MM-ddTHH:mm:ss)";
+            case BYTES:
+                return "Base64";
+            default:
+                return "문자열";
+        }
+    }
+
+    public List<Command<C>> getCommands() {
+        return commands;
+    }
+
+    // 처리 시간 합계가 큰 순서
+    @Override
+    public String toString() {
+        List<Command<C>> used = new ArrayList<>();
+        for (Command<C> command : commands) {
+            if (command.getCalls() > 0) used.add(command);
+        }
+        used.sort(Comparator.comparingDouble((Command<C> c) -> c.getAverageMicros() * c.getCalls()).reversed());
+        StringBuilder sb = new StringBuilder("명령별 처리 통계");
+        for (Command<C> command : used) {
+            sb.append(String.format("%n  %-20s 호출 %d건, 실패 %d건, 평균 %.1f us (최대 %.1f us)",
+                    command.getName(), command.getCalls(), command.getFailures(),
+                    command.getAverageMicros(), command.getMaxMicros()));
+        }
+        return sb.toString();
+    }
+}
@@ -1,22 +1,60 @@
 package org.study.platform.socket;
 
+import org.study.platform.entity.Comment;
+import org.study.platform.protocol.EncodedMessage;
+import org.study.platform.protocol.Message;
+import org.study.platform.service.PostSummary;
+import org.study.platform.service.RoomDirectory;
+
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class ConnectionManager {
 
     private final Map<Long, ClientHandler> clients;
-    // 방별 접속자 관리
-    private final Map<Long, Set<Long>> roomUsers;
+    // 방별 접속자 / 사용자별 입장한 방
+    private final PresenceIndex presence;
+    // 브로드캐스트는 요청 스레드 밖에서 방별 순서를 지켜 전달
+    private final BroadcastDispatcher broadcastDispatcher;
+
+    // 접속자 목록: 구독 시 스냅샷, 이후에는 batchMillis 동안 모은 변경만 전송
+    private final PresenceFeed onlineFeed = new PresenceFeed("USERLIST", "PRESENCE", null);
+    private final Map<Long, PresenceFeed> roomFeeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService presenceTimer;
+    private final long presenceBatchMillis;
+
+    // 마지막으로 만든 방 목록 응답과 그 기준 스냅샷
+    private static final class RoomListResponse {
+        final RoomDirectory.Snapshot directory;
+        final EncodedMessage encoded;
+
+        RoomListResponse(RoomDirectory.Snapshot directory, EncodedMessage encoded) {
+            this.directory = directory;
+            this.encoded = encoded;
+        }
+    }
 
-    public ConnectionManager() {
+    private volatile RoomListResponse roomListResponse;
+
+    public ConnectionManager(Executor broadcastExecutor, ScheduledExecutorService presenceTimer,
+                             long presenceBatchMillis) {
         this.clients = new ConcurrentHashMap<>();
-        this.roomUsers = new ConcurrentHashMap<>();
+        this.presence = new PresenceIndex();
+        this.broadcastDispatcher = new BroadcastDispatcher(broadcastExecutor);
+        this.presenceTimer = presenceTimer;
+        this.presenceBatchMillis = presenceBatchMillis;
     }
 
     public void addClient(Long userId, String nickname, ClientHandler handler) {
         clients.put(userId, handler);
+        if (onlineFeed.join(userId, nickname)) {
+            schedulePresenceFlush(null, onlineFeed);
+        }
         System.out.println("사용자 접속: " + nickname + " (ID: " + userId + ")");
     }
 
@@ -25,132 +63,225 @@ public class ConnectionManager {
         if (handler != null) {
             System.out.println("사용자 퇴장: " + handler.getNickname() + " (ID: " + userId + ")");
         }
-        // 모든 방에서 해당 사용자 제거
-        for (Set<Long> users : roomUsers.values()) {
-            users.remove(userId);
+        // 남아 있는 방이 있으면 정리 (보통은 leaveAllRooms에서 이미 비워짐)
+        for (long roomId : presence.removeUser(userId)) {
+            leaveRoomFeed(roomId, userId);
+        }
+        if (onlineFeed.leave(userId)) {
+            schedulePresenceFlush(null, onlineFeed);
         }
     }
 
     // 방 입장
     public void joinRoom(Long roomId, Long userId) {
-        roomUsers.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+        presence.join(roomId, userId);
         ClientHandler handler = clients.get(userId);
         if (handler != null) {
+            boolean[] schedule = new boolean[1];
+            PresenceFeed feed = roomFeeds.compute(roomId, (id, existing) -> {
+                PresenceFeed f = existing != null ? existing : new PresenceFeed("ROOM_USERLIST", "ROOM_PRESENCE", id);
+                schedule[0] = f.join(userId, handler.getNickname());
+                return f;
+            });
+            if (schedule[0]) {
+                schedulePresenceFlush(roomId, feed);
+            }
             // 해당 방의 다른 사용자들에게 입장 알림
-            broadcastToRoom(roomId, "ROOM_JOIN:" + roomId + ":" + userId + ":" + handler.getNickname());
+            broadcastToRoom(roomId, Message.event("ROOM_JOIN", roomId, userId, handler.getNickname()));
         }
     }
 
     // 방 퇴장
     public void leaveRoom(Long roomId, Long userId) {
-        Set<Long> users = roomUsers.get(roomId);
-        if (users != null) {
-            users.remove(userId);
+        if (presence.leave(roomId, userId)) {
+            leaveRoomFeed(roomId, userId);
             ClientHandler handler = clients.get(userId);
             if (handler != null) {
-                broadcastToRoom(roomId, "ROOM_LEAVE:" + roomId + ":" + userId + ":" + handler.getNickname());
+                broadcastToRoom(roomId, Message.event("ROOM_LEAVE", roomId, userId, handler.getNickname()));
             }
         }
     }
 
+    // 접속 종료 시 입장해 있던 모든 방에서 퇴장 (들어간 방 수만큼만 처리)
+    public void leaveAllRooms(Long userId) {
+        ClientHandler handler = clients.get(userId);
+        for (long roomId : presence.removeUser(userId)) {
+            leaveRoomFeed(roomId, userId);
+            if (handler != null) {
+                broadcastToRoom(roomId, Message.event("ROOM_LEAVE", roomId, userId, handler.getNickname()));
+            }
+        }
+    }
+
+    private void leaveRoomFeed(long roomId, long userId) {
+        PresenceFeed feed = roomFeeds.get(roomId);
+        if (feed != null && feed.leave(userId)) {
+            schedulePresenceFlush(roomId, feed);
+        }
+    }
+
+    // 모인 변경을 batchMillis 뒤에 한 번에 전송 (전체 목록은 global lane, 방 목록은 방 lane)
+    private void schedulePresenceFlush(Long roomId, PresenceFeed feed) {
+        Object lane = roomId != null ? roomId : BroadcastDispatcher.GLOBAL_LANE;
+        Runnable flush = () -> broadcastDispatcher.submit(lane, () -> {
+            Message delta = feed.takeDelta();
+            if (delta == null) {
+                return 0;
+            }
+            EncodedMessage encoded = new EncodedMessage(delta);
+            int recipients = roomId != null ? deliverToRoom(roomId, encoded) : deliverToAll(encoded);
+            if (roomId != null) {
+                // 모두 나간 방의 목록은 정리 (다음 입장 때 새로 만듦)
+                roomFeeds.computeIfPresent(roomId, (id, f) -> f == feed && f.isIdle() ? null : f);
+            }
+            return recipients;
+        });
+        try {
+            presenceTimer.schedule(flush, presenceBatchMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 서버 종료 중
+        }
+    }
+
     // 모든 클라이언트에게 브로드캐스트
-    public void broadcast(String message) {
+    public void broadcast(Message message) {
+        EncodedMessage encoded = new EncodedMessage(message);
+        broadcastDispatcher.submit(BroadcastDispatcher.GLOBAL_LANE, () -> deliverToAll(encoded));
+    }
+
+    // 특정 방의 사용자들에게만 브로드캐스트
+    public void broadcastToRoom(Long roomId, Message message) {
+        EncodedMessage encoded = new EncodedMessage(message);
+        broadcastDispatcher.submit(roomId, () -> deliverToRoom(roomId, encoded));
+    }
+
+    // 전달 시점의 접속자에게 보내고 받은 연결 수를 반환 (브로드캐스트 스레드에서 실행)
+    private int deliverToAll(EncodedMessage encoded) {
+        int recipients = 0;
         for (ClientHandler handler : clients.values()) {
-            handler.sendMessage(message);
+            handler.sendMessage(encoded);
+            recipients++;
         }
+        return recipients;
     }
 
-    // 특정 방의 사용자들에게만 브로드캐스트
-    public void broadcastToRoom(Long roomId, String message) {
-        Set<Long> users = roomUsers.get(roomId);
-        if (users != null) {
-            for (Long userId : users) {
-                ClientHandler handler = clients.get(userId);
-                if (handler != null) {
-                    handler.sendMessage(message);
-                }
+    private int deliverToRoom(Long roomId, EncodedMessage encoded) {
+        int recipients = 0;
+        for (long userId : presence.members(roomId)) {
+            ClientHandler handler = clients.get(userId);
+            if (handler != null) {
+                handler.sendMessage(encoded);
+                recipients++;
             }
         }
+        return recipients;
     }
 
     // 특정 사용자에게 메시지 전송
-    public void sendToUser(Long userId, String message) {
+    public void sendToUser(Long userId, Message message) {
         ClientHandler handler = clients.get(userId);
         if (handler != null) {
             handler.sendMessage(message);
         }
     }
 
-    // 접속자 목록 브로드캐스트
-    public void broadcastUserList() {
-        StringBuilder userList = new StringBuilder("USERLIST:");
-        for (ClientHandler handler : clients.values()) {
-            userList.append(handler.getUserId())
-                    .append(":")
-                    .append(handler.getNickname())
-                    .append(",");
-        }
-        if (userList.length() > 9) {
-            userList.setLength(userList.length() - 1);
-        }
-        broadcast(userList.toString());
-    }
-
-    // 방별 접속자 목록 브로드캐스트
-    public void broadcastRoomUserList(Long roomId) {
-        Set<Long> users = roomUsers.get(roomId);
-        StringBuilder userList = new StringBuilder("ROOM_USERLIST:" + roomId + ":");
-        if (users != null) {
-            for (Long userId : users) {
-                ClientHandler handler = clients.get(userId);
-                if (handler != null) {
-                    userList.append(userId).append(":").append(handler.getNickname()).append(",");
-                }
-            }
-            if (userList.charAt(userList.length() - 1) == ',') {
-                userList.setLength(userList.length() - 1);
-            }
+    // 접속자 목록 스냅샷 (접속 직후, 또는 클라이언트가 버전 차이를 발견했을 때)
+    public void sendUserList(Long userId) {
+        sendToUser(userId, onlineFeed.snapshot());
+    }
+
+    // 방 접속자 목록 스냅샷 (입장 직후, 또는 클라이언트가 버전 차이를 발견했을 때)
+    public void sendRoomUserList(Long roomId, Long userId) {
+        PresenceFeed feed = roomFeeds.get(roomId);
+        sendToUser(userId, feed != null ? feed.snapshot()
+                : new PresenceFeed("ROOM_USERLIST", "ROOM_PRESENCE", roomId).snapshot());
+    }
+
+    /**
+     * GET_ROOMS 응답. 행: 방ID:방이름:방장ID:방장닉네임:생성일:안 읽은 수
+     * 안 읽은 글이 없으면(모두 0) 방 목록 스냅샷이 바뀔 때만 새로 만들고 모든 연결이 같은 인코딩을 공유한다.
+     * 있으면 그 사용자용으로 만든다 (메모리 값만 붙이므로 DB는 읽지 않음).
+     */
+    public EncodedMessage getRoomListResponse(RoomDirectory.Snapshot directory, Map<Long, Integer> unread) {
+        if (!unread.isEmpty()) {
+            return new EncodedMessage(roomList(directory, unread));
+        }
+        RoomListResponse cached = roomListResponse;
+        if (cached != null && cached.directory == directory) {
+            return cached.encoded;
+        }
+        cached = new RoomListResponse(directory, new EncodedMessage(roomList(directory, unread)));
+        roomListResponse = cached;
+        return cached.encoded;
+    }
+
+    private static Message roomList(RoomDirectory.Snapshot directory, Map<Long, Integer> unread) {
+        Message response = Message.of("GET_ROOMS_RESPONSE", "SUCCESS");
+        for (RoomDirectory.Entry room : directory.getRooms()) {
+            response.add(Message.record(room.getRoomId(), room.getRoomName(), room.getCreatorId(),
+                    room.getCreatorName(), room.getCreatedAt(), unread.getOrDefault(room.getRoomId(), 0)));
         }
-        broadcastToRoom(roomId, userList.toString());
+        return response;
     }
 
     // === 실시간 동기화 메서드들 ===
 
     // 새 방 생성 알림
     public void notifyNewRoom(Long roomId, String roomName, Long creatorId, String creatorName) {
-        broadcast("NEW_ROOM:" + roomId + ":" + roomName + ":" + creatorId + ":" + creatorName);
+        broadcast(Message.event("NEW_ROOM", roomId, roomName, creatorId, creatorName));
     }
 
     // 방 삭제 알림
     public void notifyRoomDeleted(Long roomId) {
-        broadcast("ROOM_DELETED:" + roomId);
+        broadcast(Message.event("ROOM_DELETED", roomId));
+        presence.removeRoom(roomId);
+        roomFeeds.remove(roomId);
+        broadcastDispatcher.removeLane(roomId);
     }
 
-    // 새 게시글 알림 (해당 방 사용자들에게)
-    public void notifyNewPost(Long roomId, Long postId, String title, String authorName, String postType) {
-        broadcastToRoom(roomId, "NEW_POST:" + roomId + ":" + postId + ":" + encode(title) + ":" + authorName + ":" + postType);
+    // 새 게시글 알림 (해당 방 사용자들에게) - 받은 쪽이 목록을 다시 요청하지 않고 행을 바로 추가할 수 있도록 목록 행의 정보를 모두 담는다
+    public void notifyNewPost(PostSummary post, String authorName) {
+        broadcastToRoom(post.getRoomId(), postEvent("NEW_POST", post, authorName));
         // 모든 사용자에게도 알림 (방 목록에서 새 게시글 표시용)
-        broadcast("POST_UPDATE:" + roomId);
+        broadcast(Message.event("POST_UPDATE", post.getRoomId()));
+    }
+
+    // 게시글 정보 변경 알림 (과제 등록 등) - NEW_POST와 같은 형식
+    public void notifyPostChanged(PostSummary post, String authorName) {
+        broadcastToRoom(post.getRoomId(), postEvent("POST_CHANGED", post, authorName));
+    }
+
+    // 이름:방번호:글번호:제목:작성자:유형:작성자번호:과제여부:작성일
+    // 작성일의 ':'는 치환되지 않으므로 맨 뒤에 둔다 (받는 쪽은 나눌 개수를 제한해서 해석)
+    static Message postEvent(String name, PostSummary post, String authorName) {
+        return Message.event(name, post.getRoomId(), post.getPostId(), post.getTitle(), authorName,
+                post.getPostType().name(), post.getAuthorId(), post.getHasAssignment(), post.getCreatedAt());
     }
 
     // 게시글 삭제 알림
     public void notifyPostDeleted(Long roomId, Long postId) {
-        broadcastToRoom(roomId, "POST_DELETED:" + roomId + ":" + postId);
+        broadcastToRoom(roomId, Message.event("POST_DELETED", roomId, postId));
+    }
+
+    // 새 댓글 알림 - 받은 쪽이 댓글 목록을 다시 요청하지 않고 바로 덧붙인다
+    public void notifyNewComment(Long roomId, Comment comment, String authorName) {
+        broadcastToRoom(roomId, commentEvent(comment, authorName));
     }
 
-    // 새 댓글 알림
-    public void notifyNewComment(Long roomId, Long postId, Long commentId, String authorName, String content) {
-        broadcastToRoom(roomId, "NEW_COMMENT:" + postId + ":" + commentId + ":" + authorName + ":" + encode(content));
+    // NEW_COMMENT:글번호:댓글번호:작성자:내용:작성자번호:작성일 (작성일은 맨 뒤)
+    static Message commentEvent(Comment comment, String authorName) {
+        return Message.event("NEW_COMMENT", comment.getPostId(), comment.getCommentId(), authorName,
+                comment.getContent(), comment.getAuthorId(), comment.getCreatedAt());
     }
 
     // 게시글 읽음 알림
     public void notifyPostRead(Long roomId, Long postId, Long userId, String nickname) {
-        broadcastToRoom(roomId, "POST_READ:" + postId + ":" + userId + ":" + nickname);
+        broadcastToRoom(roomId, Message.event("POST_READ", postId, userId, nickname));
     }
 
     // 과제 제출 알림 (작성자에게)
     public void notifyAssignmentSubmitted(Long postAuthorId, Long assignmentId, Long submitterId, String submitterName) {
-        sendToUser(postAuthorId, "ASSIGNMENT_SUBMITTED:" + assignmentId + ":" + submitterId + ":" + submitterName);
+        sendToUser(postAuthorId, Message.event("ASSIGNMENT_SUBMITTED", assignmentId, submitterId, submitterName));
     }
 
     public int getOnlineCount() {
@@ -161,25 +292,33 @@ public class ConnectionManager {
         return clients.containsKey(userId);
     }
 
+    // 브로드캐스트 수, 받는 사람 수, 전달 시간 지표
+    public BroadcastDispatcher getBroadcastStats() {
+        return broadcastDispatcher;
+    }
+
+    // 사용자별 송신 대기열 (대기 건수, 버리거나 합친 메시지 수 확인용)
+    public Map<Long, OutboundQueue> getOutboundQueues() {
+        Map<Long, OutboundQueue> queues = new HashMap<>();
+        for (Map.Entry<Long, ClientHandler> entry : clients.entrySet()) {
+            queues.put(entry.getKey(), entry.getValue().getOutboundQueue());
+        }
+        return queues;
+    }
+
     public void disconnectAll() {
         System.out.println("전체 클라이언트 연결 해제 시작...");
         for (ClientHandler handler : clients.values()) {
             try {
-                handler.sendMessage("SERVER_SHUTDOWN");
+                handler.sendMessage(Message.event("SERVER_SHUTDOWN"));
                 handler.disconnect();
             } catch (Exception e) {
                 // 무시
             }
         }
         clients.clear();
-        roomUsers.clear();
+        presence.clear();
+        roomFeeds.clear();
         System.out.println("모든 클라이언트 연결이 종료되었습니다.");
     }
-
-    private String encode(String text) {
-        if (text == null) return "";
-        return text.replace("|", "&#124;")
-                .replace(":", "&#58;")
-                .replace("\n", "&#10;");
-    }
 }
@@ -0,0 +1,43 @@
+package org.study.platform.socket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// 동시에 DB를 사용하는 명령 수를 커넥션 풀 크기로 제한
+// 가상 스레드처럼 요청 스레드가 많아져도 풀 대기열 대신 여기서 기다리게 한다.
+@Component
+public class DbCallLimiter {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public DbCallLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                         @Value("${socket.server.db-acquire-timeout-ms:10000}") long timeoutMillis) {
+        this.permits = new Semaphore(poolSize, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public boolean acquire() {
+        try {
+            return permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
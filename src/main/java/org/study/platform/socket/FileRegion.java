@@ -0,0 +1,69 @@
+package org.study.platform.socket;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 송신 대기열에 들어가는 파일 조각: 프레임 앞부분(헤더) + 파일의 [position, end) 구간.
+ * 파일 내용은 힙에 읽지 않고 FileChannel.transferTo로 소켓에 직접 보낸다.
+ * 파일 채널은 FileTransferSession이 열고 닫는다 (조각마다 위치를 지정해서 읽으므로 공유해도 안전).
+ */
+final class FileRegion {
+
+    private final ByteBuffer header;
+    private final FileChannel file;
+    private long position;
+    private final long end;
+
+    FileRegion(byte[] header, FileChannel file, long position, int count) {
+        this.header = ByteBuffer.wrap(header);
+        this.file = file;
+        this.position = position;
+        this.end = position + count;
+    }
+
+    long size() {
+        return header.capacity() + (end - position);
+    }
+
+    /**
+     * 논블로킹 채널에 쓸 수 있는 만큼 쓴다.
+     * 다 보냈으면 true, 소켓 버퍼가 가득 차서 남았으면 false (쓰기 가능해지면 다시 호출).
+     */
+    boolean writeTo(WritableByteChannel channel) throws IOException {
+        if (header.hasRemaining()) {
+            channel.write(header);
+            if (header.hasRemaining()) {
+                return false;
+            }
+        }
+        while (position < end) {
+            long written = file.transferTo(position, end - position, channel);
+            if (written <= 0) {
+                return false;
+            }
+            position += written;
+        }
+        return true;
+    }
+
+    // 블로킹 모드: 일반 Socket에는 채널이 없으므로 스트림으로 복사 (flush는 호출한 쪽에서)
+    void copyTo(OutputStream out) throws IOException {
+        if (header.hasRemaining()) {
+            out.write(header.array(), header.position(), header.remaining());
+            header.position(header.limit());
+        }
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (position < end) {
+            long written = file.transferTo(position, end - position, channel);
+            if (written <= 0) {
+                throw new IOException("파일을 끝까지 읽지 못했습니다 (위치 " + position + ")");
+            }
+            position += written;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package org.study.platform.socket;
+
+import org.springframework.core.env.Environment;
+import org.study.platform.protocol.BinaryCodec;
+import org.study.platform.protocol.Message;
+import org.study.platform.service.FileStorageService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 연결 하나의 파일 업로드/다운로드 상태.
+ *
+ * 업로드: UPLOAD_BEGIN → UPLOAD_CHUNK(순서대로, 조각마다 확인 응답) → UPLOAD_END.
+ * 클라이언트는 확인 응답을 받지 못한 조각을 window개까지만 보내므로 큰 파일도 수신 대기열을 채우지 않는다.
+ *
+ * 다운로드: DOWNLOAD 응답 뒤에 FILE_CHUNK 프레임을 window개까지 보내고,
+ * 클라이언트가 DOWNLOAD_ACK를 보낼 때마다 다음 조각을 보낸다. 조각 내용은 FileRegion으로 소켓에 직접 전송.
+ *
+ * 처리 함수(연결별로 순서대로 실행)와 연결 종료 스레드에서 호출되므로 잠금으로 보호한다.
+ * 조각 쓰기는 파일 I/O를 하므로 synchronized 대신 ReentrantLock - 가상 스레드가 캐리어 스레드를 붙잡지 않도록.
+ */
+class FileTransferSession {
+
+    public static final int DEFAULT_CHUNK_BYTES = 64 * 1024;
+    public static final int DEFAULT_WINDOW_CHUNKS = 4;
+    public static final long DEFAULT_MAX_UPLOAD_BYTES = 512L * 1024 * 1024;
+    // 연결 하나에서 동시에 진행할 수 있는 업로드/다운로드 수
+    private static final int MAX_OPEN_TRANSFERS = 4;
+
+    private final FileStorageService storage;
+    private final Consumer<FileRegion> sender;
+    private final int chunkBytes;
+    private final int windowChunks;
+    private final long maxUploadBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Upload> uploads = new HashMap<>();
+    private final Map<Long, Download> downloads = new HashMap<>();
+    private long nextUploadId = 1;
+    private boolean closed;
+
+    // DOWNLOAD 대상: 게시글 첨부파일(files) 또는 과제 제출물
+    enum Kind { FILE, SUBMISSION }
+
+    static final class Upload {
+        final String fileName;
+        final long size;
+        final Long postId;
+        final Path tempFile;
+        final FileChannel channel;
+        long received;
+
+        Upload(String fileName, long size, Long postId, Path tempFile, FileChannel channel) {
+            this.fileName = fileName;
+            this.size = size;
+            this.postId = postId;
+            this.tempFile = tempFile;
+            this.channel = channel;
+        }
+    }
+
+    private static final class Download {
+        final FileChannel channel;
+        final long size;
+        final int version;
+        long sent;
+        long acked;
+
+        Download(FileChannel channel, long size, int version) {
+            this.channel = channel;
+            this.size = size;
+            this.version = version;
+        }
+    }
+
+    FileTransferSession(FileStorageService storage, Consumer<FileRegion> sender,
+                        int chunkBytes, int windowChunks, long maxUploadBytes) {
+        this.storage = storage;
+        this.sender = sender;
+        this.chunkBytes = chunkBytes;
+        this.windowChunks = windowChunks;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    static FileTransferSession create(Environment env, FileStorageService storage, Consumer<FileRegion> sender) {
+        return new FileTransferSession(storage, sender,
+                env.getProperty("socket.file.chunk-bytes", Integer.class, DEFAULT_CHUNK_BYTES),
+                env.getProperty("socket.file.window-chunks", Integer.class, DEFAULT_WINDOW_CHUNKS),
+                env.getProperty("socket.file.max-upload-bytes", Long.class, DEFAULT_MAX_UPLOAD_BYTES));
+    }
+
+    // === 업로드 ===
+
+    long beginUpload(String fileName, long size, Long postId) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("연결이 종료되었습니다.");
+            }
+            if (size < 0 || size > maxUploadBytes) {
+                throw new IllegalArgumentException("파일 크기는 " + maxUploadBytes + "바이트 이하여야 합니다.");
+            }
+            if (uploads.size() + downloads.size() >= MAX_OPEN_TRANSFERS) {
+                throw new IllegalStateException("동시에 진행할 수 있는 전송 수를 넘었습니다.");
+            }
+            Path tempFile = storage.createTempFile();
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                storage.discard(tempFile);
+                throw e;
+            }
+            long uploadId = nextUploadId++;
+            uploads.put(uploadId, new Upload(fileName, size, postId, tempFile, channel));
+            return uploadId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 조각은 순서대로만 받는다 - 받은 총 바이트 수를 돌려준다
+    long writeChunk(long uploadId, long offset, byte[] bytes) throws IOException {
+        lock.lock();
+        try {
+            Upload upload = uploads.get(uploadId);
+            if (upload == null) {
+                throw new IllegalArgumentException("진행 중인 업로드가 아닙니다.");
+            }
+            if (offset != upload.received || upload.received + bytes.length > upload.size) {
+                abortUpload(uploadId);
+                throw new IllegalArgumentException("잘못된 조각 위치입니다 (받은 크기 " + upload.received + ", 요청 " + offset + ")");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                upload.channel.write(buffer, upload.received + buffer.position());
+            }
+            upload.received += bytes.length;
+            return upload.received;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다 받은 업로드를 닫고 돌려준다 (임시 파일은 호출한 쪽이 저장소로 옮긴다).
+     * 크기가 모자라면 업로드를 취소하고 예외.
+     */
+    Upload finishUpload(long uploadId) throws IOException {
+        lock.lock();
+        try {
+            Upload upload = uploads.remove(uploadId);
+            if (upload == null) {
+                throw new IllegalArgumentException("진행 중인 업로드가 아닙니다.");
+            }
+            upload.channel.close();
+            if (upload.received != upload.size) {
+                storage.discard(upload.tempFile);
+                throw new IllegalArgumentException("파일을 끝까지 받지 못했습니다 (" + upload.received + "/" + upload.size + ")");
+            }
+            return upload;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void abortUpload(long uploadId) {
+        lock.lock();
+        try {
+            Upload upload = uploads.remove(uploadId);
+            if (upload != null) {
+                closeQuietly(upload.channel);
+                storage.discard(upload.tempFile);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // === 다운로드 ===
+
+    // 파일을 열고 크기를 돌려준다 - 응답을 보낸 뒤 acknowledge(transferId, 0)으로 전송 시작
+    long beginDownload(long transferId, Path file, int version) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("연결이 종료되었습니다.");
+            }
+            if (downloads.containsKey(transferId)) {
+                throw new IllegalArgumentException("이미 진행 중인 다운로드입니다.");
+            }
+            if (uploads.size() + downloads.size() >= MAX_OPEN_TRANSFERS) {
+                throw new IllegalStateException("동시에 진행할 수 있는 전송 수를 넘었습니다.");
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            Download download = new Download(channel, channel.size(), version);
+            downloads.put(transferId, download);
+            return download.size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 클라이언트가 offset까지 받았음 - 창이 빈 만큼 다음 조각을 보낸다
+    void acknowledge(long transferId, long offset) {
+        lock.lock();
+        try {
+            Download download = downloads.get(transferId);
+            if (download == null) {
+                return;
+            }
+            download.acked = Math.max(download.acked, Math.min(offset, download.sent));
+            pump(transferId, download);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock을 잡은 상태에서 호출
+    private void pump(long transferId, Download download) {
+        long window = (long) chunkBytes * windowChunks;
+        while (download.sent < download.size && download.sent - download.acked < window) {
+            int count = (int) Math.min(chunkBytes, download.size - download.sent);
+            byte[] header = BinaryCodec.encodeWithTrailingBytes(
+                    Message.event("FILE_CHUNK", transferId, download.sent), download.version, count);
+            sender.accept(new FileRegion(header, download.channel, download.sent, count));
+            download.sent += count;
+        }
+        if (download.acked >= download.size) {
+            downloads.remove(transferId);
+            closeQuietly(download.channel);
+        }
+    }
+
+    // 다운로드 응답에 실어 보낼 전송 설정
+    int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    int getWindowChunks() {
+        return windowChunks;
+    }
+
+    // 연결 종료: 받다 만 업로드는 지우고 다운로드 파일은 닫는다
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (Upload upload : uploads.values()) {
+                closeQuietly(upload.channel);
+                storage.discard(upload.tempFile);
+            }
+            uploads.clear();
+            for (Download download : downloads.values()) {
+                closeQuietly(download.channel);
+            }
+            downloads.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getOpenTransfers() {
+        lock.lock();
+        try {
+            return uploads.size() + downloads.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // 무시
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.study.platform.socket;
+
+import java.util.Arrays;
+
+/**
+ * long 값을 박싱 없이 저장하는 집합 (선형 탐사 open addressing).
+ * 동기화하지 않으므로 PresenceIndex처럼 바깥에서 잠금을 잡고 사용한다.
+ */
+class LongHashSet {
+
+    private static final int MIN_CAPACITY = 4;
+
+    // 0은 빈 칸 표시로 쓰므로 실제 값 0은 따로 기록
+    private long[] slots;
+    private boolean hasZero;
+    private int size;
+
+    LongHashSet() {
+        this.slots = new long[MIN_CAPACITY];
+    }
+
+    boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int index = find(slots, value);
+        if (slots[index] == value) {
+            return false;
+        }
+        slots[index] = value;
+        size++;
+        // 채움률 1/2 이하 유지
+        if ((size - (hasZero ? 1 : 0)) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return true;
+    }
+
+    boolean remove(long value) {
+        if (value == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int index = find(slots, value);
+        if (slots[index] != value) {
+            return false;
+        }
+        // 뒤쪽 항목을 당겨서 탐사 경로가 끊기지 않게 한다 (tombstone 없음)
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (slots[next] != 0) {
+            int home = hash(slots[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+        size--;
+        if (slots.length > MIN_CAPACITY && size * 8 < slots.length) {
+            rehash(slots.length / 2);
+        }
+        return true;
+    }
+
+    boolean contains(long value) {
+        if (value == 0) return hasZero;
+        return slots[find(slots, value)] == value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        long[] values = new long[size];
+        int i = 0;
+        if (hasZero) {
+            values[i++] = 0;
+        }
+        for (long slot : slots) {
+            if (slot != 0) {
+                values[i++] = slot;
+            }
+        }
+        return values;
+    }
+
+    // value가 있는 칸, 없으면 넣을 빈 칸
+    private static int find(long[] table, long value) {
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        while (table[index] != 0 && table[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void rehash(int capacity) {
+        long[] table = new long[Math.max(capacity, MIN_CAPACITY)];
+        for (long slot : slots) {
+            if (slot != 0) {
+                table[find(table, slot)] = slot;
+            }
+        }
+        slots = table;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,314 @@
+package org.study.platform.socket;
+
+import org.study.platform.protocol.BinaryCodec;
+import org.study.platform.protocol.EncodedMessage;
+import org.study.platform.protocol.FrameDecoder;
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.ProtocolException;
+import org.study.platform.protocol.WireFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// NIO 모드의 클라이언트 연결 하나
+// 읽기/쓰기는 이벤트 루프에서, 명령 처리는 워커 스레드에서 연결별 순서대로 실행된다.
+public class NioConnection implements FrameDecoder.Listener {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+    // 쓰기 한 번(gathering write)에 모아 보낼 최대 크기
+    private static final int WRITE_BATCH_BYTES = 64 * 1024;
+    // 워커 작업 한 번에 처리할 최대 명령 수 - 업로드 조각이 몰려도 다른 연결의 명령이 끼어들 수 있게 양보
+    private static final int MAX_MESSAGES_PER_DISPATCH = 16;
+    // 처리 대기 명령이 이만큼 쌓이면 읽기를 멈추고, RESUME_READ_DEPTH 이하로 줄면 다시 읽는다
+    // (명령을 처리 속도보다 빨리 보내는 클라이언트가 서버 메모리를 계속 늘리지 못하도록)
+    static final int INBOUND_HIGH_WATER = 256;
+    static final int RESUME_READ_DEPTH = INBOUND_HIGH_WATER / 4;
+
+    private final SocketChannel channel;
+    private final NioEventLoop eventLoop;
+    private final Executor workerExecutor;
+    private SelectionKey key;
+    private ClientHandler handler;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    // 이벤트 루프 스레드에서만 사용
+    private final FrameDecoder decoder;
+    // 핸드셰이크 전에는 텍스트
+    private volatile WireFormat format = WireFormat.TEXT;
+    private volatile int version;
+
+    // 수신된 명령 (워커에서 순서대로 처리)
+    private final Queue<Message> inbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inboundDepth = new AtomicInteger();
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+    // 대기 명령이 많아 OP_READ를 끈 상태
+    private final AtomicBoolean readPaused = new AtomicBoolean(false);
+
+    // 송신 대기열 (이벤트 루프에서 기록)
+    private final OutboundQueue outbound;
+    // 대기열에서 꺼냈지만 아직 다 쓰지 못한 묶음 (이벤트 루프 스레드에서만 사용)
+    private ByteBuffer[] pendingWrite;
+    // 쓰는 중인 파일 조각 (이벤트 루프 스레드에서만 사용)
+    private FileRegion pendingRegion;
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    // 프로토콜 오류: 대기열에 넣은 ERROR까지 보낸 뒤 종료 (이벤트 루프 스레드에서만 사용)
+    private boolean closeAfterWrite;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public NioConnection(SocketChannel channel, NioEventLoop eventLoop, Executor workerExecutor,
+                         int maxFrameBytes, OutboundQueue outbound) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.workerExecutor = workerExecutor;
+        this.decoder = new FrameDecoder(maxFrameBytes, this);
+        this.outbound = outbound;
+    }
+
+    public void setHandler(ClientHandler handler) {
+        this.handler = handler;
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+        if (closed.get()) {
+            key.cancel();
+        } else if (!outbound.isEmpty() && writeScheduled.compareAndSet(false, true)) {
+            try {
+                onWritable();
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+    // 이벤트 루프 스레드에서 호출
+    void onReadable() throws IOException {
+        if (closeAfterWrite) {
+            return;
+        }
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            close();
+            return;
+        }
+        readBuffer.flip();
+        try {
+            decoder.decode(readBuffer);
+        } catch (ProtocolException e) {
+            // 잘못된 프레임 - 더 읽지 않고, 쓰던 프레임 뒤에 ERROR를 보낸 다음 연결 종료
+            System.err.println("프로토콜 오류 (" + getRemoteAddress() + "): " + e.getMessage());
+            closeAfterWrite = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            outbound.offerRaw(format.encode(Message.of("ERROR", e.getMessage()), version));
+            scheduleWrite();
+            return;
+        } finally {
+            readBuffer.clear();
+        }
+        if (inboundDepth.get() >= INBOUND_HIGH_WATER && readPaused.compareAndSet(false, true)) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            // 멈추기 전에 워커가 이미 비웠으면 다시 읽기를 켜 줄 쪽이 없다
+            if (inboundDepth.get() <= RESUME_READ_DEPTH) {
+                resumeReading();
+            }
+        }
+        scheduleDispatch();
+    }
+
+    // 이벤트 루프 스레드에서 호출
+    private void resumeReading() {
+        if (closed.get() || closeAfterWrite || key == null || !key.isValid()) {
+            return;
+        }
+        readPaused.set(false);
+        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+    }
+
+    @Override
+    public void onHandshake(int negotiated) {
+        version = negotiated;
+        format = WireFormat.BINARY;
+        outbound.offerRaw(BinaryCodec.hello(negotiated));
+        scheduleWrite();
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        inbound.offer(message);
+        inboundDepth.incrementAndGet();
+    }
+
+    private void scheduleDispatch() {
+        if (!inbound.isEmpty() && dispatching.compareAndSet(false, true)) {
+            workerExecutor.execute(this::drainInbound);
+        }
+    }
+
+    // 워커 스레드: 한 연결의 명령은 한 번에 하나씩, 도착 순서대로 처리
+    private void drainInbound() {
+        try {
+            Message message;
+            int handled = 0;
+            while (!closed.get() && handled++ < MAX_MESSAGES_PER_DISPATCH && (message = inbound.poll()) != null) {
+                inboundDepth.decrementAndGet();
+                handler.handleMessage(message);
+            }
+        } finally {
+            dispatching.set(false);
+        }
+        if (readPaused.get() && inboundDepth.get() <= RESUME_READ_DEPTH) {
+            eventLoop.execute(this::resumeReading);
+        }
+        if (!closed.get()) {
+            scheduleDispatch();
+        }
+    }
+
+    // 아무 스레드에서나 호출 가능
+    public void send(EncodedMessage encoded) {
+        if (closed.get()) return;
+        OutboundQueue.OfferResult result = outbound.offer(encoded.getMessage(), encoded.bytes(format, version));
+        if (result == OutboundQueue.OfferResult.OVERFLOW) {
+            System.err.println("느린 클라이언트 연결 종료 (" + getRemoteAddress() + "): 송신 대기 "
+                    + outbound.getDepth() + "건, 버린 메시지 " + outbound.getDroppedCount() + "건");
+            close();
+        } else if (result == OutboundQueue.OfferResult.QUEUED) {
+            scheduleWrite();
+        }
+    }
+
+    // 파일 조각은 대기열 정책 없이 추가 (다운로드 창 크기로 제한됨)
+    void sendFile(FileRegion region) {
+        if (closed.get()) return;
+        outbound.offerFile(region);
+        scheduleWrite();
+    }
+
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            eventLoop.execute(() -> {
+                try {
+                    onWritable();
+                } catch (IOException e) {
+                    close();
+                }
+            });
+        }
+    }
+
+    // 이벤트 루프 스레드에서 호출
+    void onWritable() throws IOException {
+        if (key == null || !key.isValid()) {
+            // 아직 등록 전 - attach()에서 다시 시도
+            writeScheduled.set(false);
+            return;
+        }
+        while (true) {
+            while (true) {
+                if (pendingRegion != null) {
+                    // 파일 내용은 커널에서 소켓으로 바로 복사
+                    if (!pendingRegion.writeTo(channel)) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    pendingRegion = null;
+                }
+                if (pendingWrite == null) {
+                    List<byte[]> batch = outbound.drain(WRITE_BATCH_BYTES);
+                    if (batch.isEmpty()) {
+                        pendingRegion = outbound.pollRegion();
+                        if (pendingRegion == null) break;
+                        continue;
+                    }
+                    pendingWrite = new ByteBuffer[batch.size()];
+                    for (int i = 0; i < pendingWrite.length; i++) {
+                        pendingWrite[i] = ByteBuffer.wrap(batch.get(i));
+                    }
+                }
+                // 여러 메시지를 시스템 호출 한 번으로 기록
+                channel.write(pendingWrite);
+                if (pendingWrite[pendingWrite.length - 1].hasRemaining()) {
+                    // 소켓 버퍼가 가득 참 - 쓰기 가능해지면 다시 호출됨
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                pendingWrite = null;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            if (closeAfterWrite) {
+                close();
+                return;
+            }
+            writeScheduled.set(false);
+            if (outbound.isEmpty() || !writeScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("연결 종료 중 오류: " + e.getMessage());
+        }
+        outbound.clear();
+        inbound.clear();
+        inboundDepth.set(0);
+        if (handler != null) {
+            try {
+                workerExecutor.execute(handler::disconnect);
+            } catch (RejectedExecutionException e) {
+                // 서버 종료 중
+                handler.disconnect();
+            }
+        }
+    }
+
+    WireFormat getFormat() {
+        return format;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    public OutboundQueue getOutboundQueue() {
+        return outbound;
+    }
+
+    // 처리 대기 명령 수
+    int getInboundDepth() {
+        return inboundDepth.get();
+    }
+
+    boolean isReadPaused() {
+        return readPaused.get();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public String getRemoteAddress() {
+        try {
+            return String.valueOf(channel.getRemoteAddress());
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.study.platform.socket;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Selector 하나로 여러 연결의 읽기/쓰기를 처리하는 I/O 루프
+public class NioEventLoop implements Runnable {
+
+    private final String name;
+    private final Selector selector;
+    // 다른 스레드에서 요청한 작업 (채널 등록, 쓰기 요청 등)
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public NioEventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // 이벤트 루프 스레드에서 실행할 작업 등록
+    public void execute(Runnable task) {
+        tasks.offer(task);
+        selector.wakeup();
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    public void register(SocketChannel channel, NioConnection connection) {
+        execute(() -> {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connection.attach(key);
+            } catch (IOException e) {
+                System.err.println("채널 등록 실패: " + e.getMessage());
+                connection.close();
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+                runTasks();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    NioConnection connection = (NioConnection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            connection.onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.onWritable();
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        connection.close();
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("이벤트 루프 오류 (" + name + "): " + e.getMessage());
+                }
+            }
+        }
+        closeSelector();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void closeSelector() {
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof NioConnection) {
+                ((NioConnection) attachment).close();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // 무시
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.study.platform.socket;
+
+import org.springframework.core.env.Environment;
+import org.study.platform.protocol.Message;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 연결 하나의 송신 대기열.
+ * 보내는 스레드는 대기열에 넣기만 하고, 실제 쓰기는 연결의 writer가 모아서 한 번에 처리한다.
+ *
+ * 대기열이 high-water 이상 쌓인 느린 클라이언트에게는 정책에 따라 알림을 버리거나(DROP),
+ * 같은 종류의 목록 알림을 최신 것 하나로 합치거나(COLLAPSE), 연결을 끊는다(DISCONNECT).
+ * 요청에 대한 응답은 버리지 않으며, high-water의 2배를 넘으면 정책과 관계없이 연결을 끊는다.
+ * 파일 조각(FileRegion)은 다운로드 창 크기로 이미 제한되므로 정책 없이 넣고, 앞의 메시지를 다 쓴 뒤 따로 꺼낸다.
+ */
+public class OutboundQueue {
+
+    public enum Policy { DROP, COLLAPSE, DISCONNECT }
+
+    public enum OfferResult { QUEUED, COLLAPSED, DROPPED, OVERFLOW }
+
+    public static final int DEFAULT_HIGH_WATER = 1000;
+
+    // 최신 상태만 의미가 있는 알림 → 같은 대상을 구분하는 앞쪽 필드 수
+    private static final Map<String, Integer> COLLAPSE_KEY_FIELDS = Map.of(
+            "USERLIST", 0,
+            "ROOM_USERLIST", 1,
+            "POST_UPDATE", 1);
+
+    private final int highWater;
+    private final Policy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    // 대기 중인 합칠 수 있는 알림 (키 → 대기열 안의 항목)
+    private final Map<String, Entry> collapsible = new HashMap<>();
+    private long queuedBytes = 0;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+
+    private static final class Entry {
+        byte[] bytes;
+        final String collapseKey;
+        final FileRegion region;
+
+        Entry(byte[] bytes, String collapseKey) {
+            this.bytes = bytes;
+            this.collapseKey = collapseKey;
+            this.region = null;
+        }
+
+        Entry(FileRegion region) {
+            this.bytes = null;
+            this.collapseKey = null;
+            this.region = region;
+        }
+    }
+
+    public OutboundQueue(int highWater, Policy policy) {
+        this.highWater = highWater;
+        this.policy = policy;
+    }
+
+    public static OutboundQueue create(Environment env) {
+        int highWater = env.getProperty("socket.server.outbound.high-water", Integer.class, DEFAULT_HIGH_WATER);
+        String policy = env.getProperty("socket.server.outbound.policy", "collapse");
+        return new OutboundQueue(highWater, Policy.valueOf(policy.toUpperCase()));
+    }
+
+    public OfferResult offer(Message message, byte[] bytes) {
+        boolean response = message.getRequestId() != 0 || message.getCommand().endsWith("_RESPONSE");
+        String collapseKey = response ? null : collapseKey(message);
+        lock.lock();
+        try {
+            int depth = entries.size();
+            if (response) {
+                if (depth >= highWater * 2) {
+                    return OfferResult.OVERFLOW;
+                }
+            } else if (depth >= highWater) {
+                switch (policy) {
+                    case DISCONNECT:
+                        return OfferResult.OVERFLOW;
+                    case COLLAPSE:
+                        Entry queued = collapseKey != null ? collapsible.get(collapseKey) : null;
+                        if (queued != null) {
+                            queuedBytes += bytes.length - queued.bytes.length;
+                            queued.bytes = bytes;
+                            collapsedCount.incrementAndGet();
+                            return OfferResult.COLLAPSED;
+                        }
+                        droppedCount.incrementAndGet();
+                        return OfferResult.DROPPED;
+                    default:
+                        droppedCount.incrementAndGet();
+                        return OfferResult.DROPPED;
+                }
+            }
+            Entry entry = new Entry(bytes, collapseKey);
+            entries.addLast(entry);
+            queuedBytes += bytes.length;
+            if (collapseKey != null) {
+                collapsible.put(collapseKey, entry);
+            }
+            return OfferResult.QUEUED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 핸드셰이크 응답처럼 메시지가 아닌 바이트
+    public void offerRaw(byte[] bytes) {
+        lock.lock();
+        try {
+            entries.addLast(new Entry(bytes, null));
+            queuedBytes += bytes.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void offerFile(FileRegion region) {
+        lock.lock();
+        try {
+            entries.addLast(new Entry(region));
+            queuedBytes += region.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 쓰기 한 번에 보낼 만큼 꺼낸다 (최소 1개, 대기열이 비었으면 빈 목록).
+     * 파일 조각 앞에서 멈추므로, 빈 목록이 오면 pollRegion()으로 확인한다.
+     */
+    public List<byte[]> drain(int maxBytes) {
+        List<byte[]> batch = new ArrayList<>();
+        lock.lock();
+        try {
+            int size = 0;
+            Entry entry;
+            while ((entry = entries.peekFirst()) != null && entry.region == null
+                    && (batch.isEmpty() || size + entry.bytes.length <= maxBytes)) {
+                entries.pollFirst();
+                if (entry.collapseKey != null && collapsible.get(entry.collapseKey) == entry) {
+                    collapsible.remove(entry.collapseKey);
+                }
+                batch.add(entry.bytes);
+                size += entry.bytes.length;
+                queuedBytes -= entry.bytes.length;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return batch;
+    }
+
+    // 맨 앞이 파일 조각이면 꺼내고, 아니면 null
+    FileRegion pollRegion() {
+        lock.lock();
+        try {
+            Entry entry = entries.peekFirst();
+            if (entry == null || entry.region == null) {
+                return null;
+            }
+            entries.pollFirst();
+            queuedBytes -= entry.region.size();
+            return entry.region;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return entries.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            collapsible.clear();
+            queuedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String collapseKey(Message message) {
+        Integer keyFields = COLLAPSE_KEY_FIELDS.get(message.getCommand());
+        if (keyFields == null || message.size() < keyFields) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(message.getCommand());
+        for (int i = 0; i < keyFields; i++) {
+            key.append(':').append(message.get(i));
+        }
+        return key.toString();
+    }
+
+    public int getDepth() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getQueuedBytes() {
+        lock.lock();
+        try {
+            return queuedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    public int getHighWater() {
+        return highWater;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+}
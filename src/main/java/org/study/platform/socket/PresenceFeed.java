@@ -0,0 +1,105 @@
+package org.study.platform.socket;
+
+import org.study.platform.protocol.Message;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 접속자 목록 하나(전체 또는 방 하나)의 버전 관리.
+ * 구독할 때 전체 목록(스냅샷)을 한 번 보내고, 이후에는 바뀐 사용자만 버전과 함께 보낸다.
+ * 짧은 시간 안의 변경은 모아서 한 번에 보내며, 같은 사용자가 여러 번 바뀌면 마지막 상태만 남긴다.
+ *
+ * 스냅샷: SNAPSHOT[:방번호]:버전:userId:nickname,...
+ * 변경:   DELTA[:방번호]:이전버전:버전:userId:nickname:입장여부,...
+ * 클라이언트는 이전버전이 자신의 버전보다 크면 중간 변경을 놓친 것이므로 스냅샷을 다시 요청한다.
+ */
+public class PresenceFeed {
+
+    private final String snapshotCommand;
+    private final String deltaCommand;
+    // 방 목록이면 방 번호, 전체 목록이면 null
+    private final Long roomId;
+
+    private final Map<Long, String> members = new LinkedHashMap<>();
+    private long version = 0;
+
+    // 아직 보내지 않은 변경 (userId → userId, nickname, 입장여부)
+    private final Map<Long, Message.Record> pending = new LinkedHashMap<>();
+    private long pendingBase;
+    private boolean flushScheduled;
+
+    public PresenceFeed(String snapshotCommand, String deltaCommand, Long roomId) {
+        this.snapshotCommand = snapshotCommand;
+        this.deltaCommand = deltaCommand;
+        this.roomId = roomId;
+    }
+
+    // 변경을 보낼 예약이 새로 필요하면 true
+    public synchronized boolean join(long userId, String nickname) {
+        boolean wasMember = members.containsKey(userId);
+        String previous = members.put(userId, nickname);
+        if (wasMember && Objects.equals(nickname, previous)) {
+            return false;
+        }
+        return changed(userId, Message.record(userId, nickname, true));
+    }
+
+    public synchronized boolean leave(long userId) {
+        if (!members.containsKey(userId)) {
+            return false;
+        }
+        String nickname = members.remove(userId);
+        return changed(userId, Message.record(userId, nickname, false));
+    }
+
+    private boolean changed(long userId, Message.Record change) {
+        if (pending.isEmpty()) {
+            pendingBase = version;
+        }
+        version++;
+        // 같은 사용자의 이전 변경은 지우고 순서상 맨 뒤로
+        pending.remove(userId);
+        pending.put(userId, change);
+        if (flushScheduled) {
+            return false;
+        }
+        flushScheduled = true;
+        return true;
+    }
+
+    public synchronized Message snapshot() {
+        List<Message.Record> userList = new ArrayList<>(members.size());
+        for (Map.Entry<Long, String> entry : members.entrySet()) {
+            userList.add(Message.record(entry.getKey(), entry.getValue()));
+        }
+        return roomId != null
+                ? Message.event(snapshotCommand, roomId, version, userList)
+                : Message.event(snapshotCommand, version, userList);
+    }
+
+    // 모인 변경을 꺼낸다 (보낼 것이 없으면 null)
+    public synchronized Message takeDelta() {
+        flushScheduled = false;
+        if (pending.isEmpty()) {
+            return null;
+        }
+        List<Message.Record> changes = new ArrayList<>(pending.values());
+        pending.clear();
+        return roomId != null
+                ? Message.event(deltaCommand, roomId, pendingBase, version, changes)
+                : Message.event(deltaCommand, pendingBase, version, changes);
+    }
+
+    // 접속자도 보낼 변경도 없으면 정리해도 됨
+    public synchronized boolean isIdle() {
+        return members.isEmpty() && pending.isEmpty() && !flushScheduled;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+}
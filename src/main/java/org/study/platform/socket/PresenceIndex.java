@@ -0,0 +1,142 @@
+package org.study.platform.socket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 방 → 접속자, 사용자 → 입장한 방을 함께 관리하는 양방향 색인.
+ * 두 방향은 같은 잠금 안에서 함께 바뀌므로 항상 서로 일치하며,
+ * 사용자 퇴장은 방 전체가 아니라 그 사용자가 들어간 방 수만큼만 처리한다.
+ * 비게 된 방과 사용자 항목은 바로 지운다.
+ */
+public class PresenceIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, LongHashSet> roomToUsers = new HashMap<>();
+    private final Map<Long, LongHashSet> userToRooms = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 새로 입장했으면 true
+    public boolean join(long roomId, long userId) {
+        lock.writeLock().lock();
+        try {
+            boolean added = roomToUsers.computeIfAbsent(roomId, k -> new LongHashSet()).add(userId);
+            userToRooms.computeIfAbsent(userId, k -> new LongHashSet()).add(roomId);
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 방에 있었으면 true
+    public boolean leave(long roomId, long userId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeFrom(roomToUsers, roomId, userId);
+            removeFrom(userToRooms, userId, roomId);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 사용자를 모든 방에서 내보내고, 들어가 있던 방 목록을 반환
+    public long[] removeUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            LongHashSet rooms = userToRooms.remove(userId);
+            if (rooms == null) {
+                return EMPTY;
+            }
+            long[] roomIds = rooms.toArray();
+            for (long roomId : roomIds) {
+                removeFrom(roomToUsers, roomId, userId);
+            }
+            return roomIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 삭제된 방 정리, 방에 있던 사용자 목록을 반환
+    public long[] removeRoom(long roomId) {
+        lock.writeLock().lock();
+        try {
+            LongHashSet users = roomToUsers.remove(roomId);
+            if (users == null) {
+                return EMPTY;
+            }
+            long[] userIds = users.toArray();
+            for (long userId : userIds) {
+                removeFrom(userToRooms, userId, roomId);
+            }
+            return userIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 방 접속자 스냅샷 (호출 뒤의 변경은 반영되지 않음)
+    public long[] members(long roomId) {
+        lock.readLock().lock();
+        try {
+            LongHashSet users = roomToUsers.get(roomId);
+            return users != null ? users.toArray() : EMPTY;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] roomsOf(long userId) {
+        lock.readLock().lock();
+        try {
+            LongHashSet rooms = userToRooms.get(userId);
+            return rooms != null ? rooms.toArray() : EMPTY;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isInRoom(long roomId, long userId) {
+        lock.readLock().lock();
+        try {
+            LongHashSet users = roomToUsers.get(roomId);
+            return users != null && users.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 접속자가 한 명 이상 있는 방 수
+    public int getRoomCount() {
+        lock.readLock().lock();
+        try {
+            return roomToUsers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            roomToUsers.clear();
+            userToRooms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean removeFrom(Map<Long, LongHashSet> index, long key, long value) {
+        LongHashSet set = index.get(key);
+        if (set == null || !set.remove(value)) {
+            return false;
+        }
+        if (set.isEmpty()) {
+            index.remove(key);
+        }
+        return true;
+    }
+}
@@ -1,33 +1,88 @@
 package org.study.platform.socket;
 
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 
 public class SocketServer {
 
+    private static final int DEFAULT_PORT = 9090;
+
     private ServerSocket serverSocket;
-    private static final int PORT = 9090;
+    private ServerSocketChannel serverChannel;
+    private final int port;
+    private final String ioMode;
+    // platform: 플랫폼 스레드 풀 / virtual: 작업마다 가상 스레드 (JDK 21 이상)
+    private final String executorMode;
     private ConnectionManager connectionManager;
     private ApplicationContext context;
     private volatile boolean running = false;
-    private final ExecutorService clientExecutor = Executors.newCachedThreadPool();
+
+    // 블로킹 모드: 연결당 스레드 하나
+    private ExecutorService clientExecutor;
+
+    // NIO 모드: 고정 개수의 이벤트 루프 + 명령 처리용 워커 풀
+    private final int eventLoopCount;
+    private final int workerCount;
+    // 한 프레임(텍스트는 한 줄)의 최대 크기
+    private final int maxFrameBytes;
+    private NioEventLoop[] eventLoops;
+    private ExecutorService workerExecutor;
+    private int nextLoop = 0;
+
+    // 브로드캐스트 전달용 (방별 순서 보장, 방끼리는 병렬)
+    private final ExecutorService broadcastExecutor;
+    // 접속자 목록 변경분을 모아 보내는 타이머
+    private final ScheduledExecutorService presenceTimer;
 
     public SocketServer(ApplicationContext context) {
-        this.connectionManager = new ConnectionManager();
         this.context = context;
+
+        Environment env = context.getEnvironment();
+        this.port = env.getProperty("socket.server.port", Integer.class, DEFAULT_PORT);
+        this.ioMode = env.getProperty("socket.server.io-mode", "blocking");
+        this.executorMode = env.getProperty("socket.server.executor", "platform");
+        this.eventLoopCount = env.getProperty("socket.server.nio.event-loops", Integer.class,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.workerCount = env.getProperty("socket.server.nio.workers", Integer.class, 16);
+        this.maxFrameBytes = env.getProperty("socket.protocol.max-frame-bytes", Integer.class,
+                ClientHandler.DEFAULT_MAX_FRAME_BYTES);
+        int broadcastThreads = env.getProperty("socket.server.broadcast-threads", Integer.class, 2);
+
+        this.broadcastExecutor = createExecutor(() -> Executors.newFixedThreadPool(broadcastThreads));
+        long presenceBatchMillis = env.getProperty("socket.server.presence.batch-ms", Long.class, 100L);
+        // 데몬 스레드: stop() 없이 서버 객체가 버려져도 JVM 종료를 막지 않도록
+        this.presenceTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "presence-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.connectionManager = new ConnectionManager(broadcastExecutor, presenceTimer, presenceBatchMillis);
     }
 
     public void start() {
         try {
-            serverSocket = new ServerSocket(PORT);
+            if (isNioMode()) {
+                startNio();
+            } else {
+                serverSocket = new ServerSocket(port);
+                clientExecutor = createExecutor(Executors::newCachedThreadPool);
+            }
             running = true;
-            System.out.println("소켓 서버가 포트 " + PORT + "에서 시작되었습니다.");
+            System.out.println("소켓 서버가 포트 " + port + "에서 시작되었습니다. (모드: " + ioMode + ", 실행기: " + executorMode + ")");
 
-            Thread serverThread = new Thread(this::acceptClients);
+            Thread serverThread = new Thread(isNioMode() ? this::acceptNioClients : this::acceptClients);
             serverThread.setDaemon(true);
             serverThread.start();
 
@@ -36,13 +91,43 @@ public class SocketServer {
         }
     }
 
+    private boolean isNioMode() {
+        return "nio".equalsIgnoreCase(ioMode);
+    }
+
+    private void startNio() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+
+        eventLoops = new NioEventLoop[eventLoopCount];
+        for (int i = 0; i < eventLoopCount; i++) {
+            eventLoops[i] = new NioEventLoop("nio-loop-" + i);
+            eventLoops[i].start();
+        }
+        workerExecutor = createExecutor(() -> Executors.newFixedThreadPool(workerCount));
+    }
+
+    // virtual 모드면 가상 스레드 실행기, 아니면 주어진 플랫폼 스레드 풀
+    private ExecutorService createExecutor(Supplier<ExecutorService> platformExecutor) {
+        if ("virtual".equalsIgnoreCase(executorMode)) {
+            try {
+                // Java 17로 컴파일하므로 리플렉션으로 호출
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("가상 스레드를 사용할 수 없는 JVM입니다 (JDK 21 이상 필요). 플랫폼 스레드를 사용합니다.");
+            }
+        }
+        return platformExecutor.get();
+    }
+
     private void acceptClients() {
         while (running) {
             try {
                 Socket clientSocket = serverSocket.accept();
                 System.out.println("새로운 클라이언트 연결: " + clientSocket.getInetAddress());
 
-                ClientHandler handler = new ClientHandler(clientSocket, connectionManager, context);
+                ClientHandler handler = new ClientHandler(clientSocket, connectionManager, context, clientExecutor);
                 clientExecutor.submit(handler);
 
             } catch (IOException e) {
@@ -53,20 +138,71 @@ public class SocketServer {
         }
     }
 
+    private void acceptNioClients() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+
+                // 이벤트 루프에 라운드로빈으로 분배
+                NioEventLoop loop = eventLoops[nextLoop];
+                nextLoop = (nextLoop + 1) % eventLoops.length;
+
+                NioConnection connection = new NioConnection(channel, loop, workerExecutor, maxFrameBytes,
+                        OutboundQueue.create(context.getEnvironment()));
+                new ClientHandler(connection, connectionManager, context);
+                loop.register(channel, connection);
+
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("클라이언트 연결 수락 실패: " + e.getMessage());
+                }
+            }
+        }
+    }
+
     public void stop() {
         running = false;
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
             }
+            if (serverChannel != null && serverChannel.isOpen()) {
+                serverChannel.close();
+            }
             connectionManager.disconnectAll();
-            clientExecutor.shutdownNow();
+            if (clientExecutor != null) {
+                clientExecutor.shutdownNow();
+            }
+            if (eventLoops != null) {
+                for (NioEventLoop loop : eventLoops) {
+                    loop.shutdown();
+                }
+            }
+            if (workerExecutor != null) {
+                workerExecutor.shutdownNow();
+            }
+            presenceTimer.shutdownNow();
+            broadcastExecutor.shutdownNow();
+            System.out.println(connectionManager.getBroadcastStats());
+            System.out.println(ClientHandler.getCommandRegistry());
             System.out.println("서버가 종료되었습니다.");
         } catch (IOException e) {
             System.err.println("서버 종료 중 오류: " + e.getMessage());
         }
     }
 
+    // 실제로 열린 포트 (socket.server.port=0이면 OS가 고른 포트)
+    public int getLocalPort() {
+        if (serverChannel != null) {
+            return serverChannel.socket().getLocalPort();
+        }
+        if (serverSocket != null) {
+            return serverSocket.getLocalPort();
+        }
+        return port;
+    }
+
     public ConnectionManager getConnectionManager() {
         return connectionManager;
     }
@@ -3,7 +3,7 @@ package org.study.platform;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"unread.checkpoint-file=", "search.index-dir="})
 class StudyplatformApplicationTests {
 
     @Test
@@ -0,0 +1,78 @@
+package org.study.platform.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientCacheTest {
+
+    @Test
+    void secondOpenIsServedWithoutRequest() {
+        ClientCache<Long, String> cache = new ClientCache<>(10);
+        AtomicInteger requests = new AtomicInteger();
+
+        CompletableFuture<String> first = cache.getOrFetch(1L, () -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture("본문");
+        });
+        assertEquals("본문", first.join());
+
+        CompletableFuture<String> second = cache.getOrFetch(1L, () -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture("다시 받은 본문");
+        });
+        assertTrue(second.isDone());
+        assertEquals("본문", second.join());
+        assertEquals(1, requests.get());
+
+        // 실패(null)는 캐시하지 않는다
+        assertNull(cache.getOrFetch(2L, () -> CompletableFuture.completedFuture(null)).join());
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void responseArrivingAfterInvalidateIsNotCached() {
+        ClientCache<Long, String> cache = new ClientCache<>(10);
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> request = cache.getOrFetch(1L, () -> response);
+
+        // 응답이 오기 전에 NEW_COMMENT 알림이 와서 지움 - 응답은 호출한 쪽에만 전달
+        cache.invalidate(1L);
+        response.complete("댓글 2개");
+        assertEquals("댓글 2개", request.join());
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        ClientCache<Long, String> cache = new ClientCache<>(2);
+        cache.put(1L, "a", cache.stamp());
+        cache.put(2L, "b", cache.stamp());
+        assertEquals("a", cache.get(1L));
+        cache.put(3L, "c", cache.stamp());
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(2L));
+        assertEquals("a", cache.get(1L));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void parsesPostDetailResponse() {
+        PostDetail detail = PostDetail.parse(
+                "GET_POST_DETAIL_RESPONSE|SUCCESS|7|a&#124;b|line&#10;two|3|kim|NOTICE|true|2026-01-02T03:04:05");
+        assertEquals(7L, detail.getPostId());
+        assertEquals("a|b", detail.getTitle());
+        assertEquals("line\ntwo", detail.getContent());
+        assertEquals(3L, detail.getAuthorId());
+        assertEquals("kim", detail.getAuthorName());
+        assertTrue(detail.isNotice());
+        assertTrue(detail.hasAssignment());
+        assertEquals("2026-01-02T03:04:05", detail.getCreatedAt());
+        assertNull(PostDetail.parse("GET_POST_DETAIL_RESPONSE|ERROR|없음"));
+        assertNull(PostDetail.parse(null));
+    }
+}
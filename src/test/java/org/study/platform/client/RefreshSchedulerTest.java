@@ -0,0 +1,88 @@
+package org.study.platform.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshSchedulerTest {
+
+    @Test
+    void burstOfRequestsIsFetchedOnceAndAppliedTogether() throws Exception {
+        List<Runnable> uiTasks = new ArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        // EDT 대신: 반영 작업을 모아 두고 테스트 스레드에서 실행
+        RefreshScheduler scheduler = new RefreshScheduler(100, task -> {
+            synchronized (uiTasks) {
+                uiTasks.add(task);
+            }
+            delivered.countDown();
+        });
+        AtomicInteger fetches = new AtomicInteger();
+        List<String> applied = new ArrayList<>();
+        try {
+            // 댓글 알림 50개 + 읽음 알림 1개
+            for (int i = 0; i < 50; i++) {
+                int n = i;
+                scheduler.request("comments", () -> {
+                    fetches.incrementAndGet();
+                    return "댓글 " + n;
+                }, applied::add);
+            }
+            scheduler.request("readStatus", () -> "읽음", applied::add);
+
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            // 두 자원이 같은 창에서 끝나면 EDT 작업 하나로 합쳐질 수 있음
+            Thread.sleep(300);
+            List<Runnable> tasks;
+            synchronized (uiTasks) {
+                tasks = new ArrayList<>(uiTasks);
+            }
+            for (Runnable task : tasks) {
+                task.run();
+            }
+
+            assertEquals(1, fetches.get());
+            // 마지막 요청 기준으로 한 번
+            assertTrue(applied.contains("댓글 49"));
+            assertTrue(applied.contains("읽음"));
+            assertEquals(2, applied.size());
+            assertEquals(51, scheduler.getRequests());
+            assertEquals(2, scheduler.getFetches());
+            assertEquals(tasks.size(), scheduler.getUiUpdates());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void requestWhileFetchingRunsOnceMore() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondApplied = new CountDownLatch(1);
+        RefreshScheduler scheduler = new RefreshScheduler(10, Runnable::run);
+        try {
+            scheduler.request("posts", () -> {
+                fetching.countDown();
+                release.await();
+                return "읽기 시작 전 상태";
+            }, value -> { });
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+
+            // 읽는 중에 온 변경은 끝난 뒤 다시 읽어야 반영된다
+            scheduler.request("posts", () -> "최신 상태", value -> {
+                if (value.equals("최신 상태")) secondApplied.countDown();
+            });
+            release.countDown();
+            assertTrue(secondApplied.await(5, TimeUnit.SECONDS));
+            assertEquals(2, scheduler.getFetches());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.study.platform.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProtocolCodecTest {
+
+    @Test
+    void textRoundTrip() {
+        Message message = Message.of("CREATE_POST", 3L, "제목|a:b", "내용\n줄", "NOTICE");
+        String line = TextCodec.format(message);
+        assertEquals("CREATE_POST|3|제목&#124;a&#58;b|내용&#10;줄|NOTICE", line);
+
+        Message parsed = TextCodec.parse(line);
+        assertArrayEquals(new String[]{"CREATE_POST", "3", "제목|a:b", "내용\n줄", "NOTICE"}, parsed.toParts());
+        assertEquals(Message.Style.PIPE, parsed.getStyle());
+        assertEquals(Message.Style.COLON, TextCodec.parse("AUTH:1:닉네임").getStyle());
+    }
+
+    @Test
+    void textRequestIdPrefix() {
+        Message request = Message.of("GET_POSTS", 3L).withRequestId(12);
+        assertEquals("#12|GET_POSTS|3", TextCodec.formatLine(request));
+        assertEquals("GET_POSTS|3", TextCodec.format(request));
+
+        Message parsed = TextCodec.parse("#12|GET_POSTS|3");
+        assertEquals(12, parsed.getRequestId());
+        assertArrayEquals(new String[]{"GET_POSTS", "3"}, parsed.toParts());
+        assertEquals(0, TextCodec.parse("GET_POSTS|3").getRequestId());
+    }
+
+    @Test
+    void binaryRoundTripKeepsTypes() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        Message message = Message.of("GET_POSTS_RESPONSE", "SUCCESS",
+                Message.record(-7L, "제목", true, createdAt, null)).withRequestId(300);
+
+        byte[] frame = BinaryCodec.encode(message, BinaryCodec.VERSION);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        assertEquals(frame.length - 4, buffer.getInt());
+        Message decoded = BinaryCodec.decode(buffer.slice(), BinaryCodec.VERSION);
+
+        assertEquals("GET_POSTS_RESPONSE", decoded.getCommand());
+        assertEquals(300, decoded.getRequestId());
+        List<Object> row = ((Message.Record) decoded.get(1)).getFields();
+        assertEquals(-7L, row.get(0));
+        assertEquals("제목", row.get(1));
+        assertEquals(Boolean.TRUE, row.get(2));
+        assertEquals(createdAt, row.get(3));
+        assertNull(row.get(4));
+        assertEquals(TextCodec.format(message), TextCodec.format(decoded));
+
+        // v1 상대에게는 요청 번호 없이 보낸다
+        ByteBuffer v1 = ByteBuffer.wrap(BinaryCodec.encode(message, 1));
+        v1.getInt();
+        Message decodedV1 = BinaryCodec.decode(v1.slice(), 1);
+        assertEquals("GET_POSTS_RESPONSE", decodedV1.getCommand());
+        assertEquals(0, decodedV1.getRequestId());
+    }
+
+    @Test
+    void sharedEncodingGetsRequestIdAppended() throws Exception {
+        Message response = Message.of("GET_ROOMS_RESPONSE", "SUCCESS",
+                Message.record(1L, "room", 2L, "owner", LocalDateTime.of(2025, 1, 2, 3, 4, 5)));
+        EncodedMessage shared = new EncodedMessage(response);
+
+        byte[] frame = shared.withRequestId(300).bytes(WireFormat.BINARY, BinaryCodec.VERSION);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        assertEquals(frame.length - 4, buffer.getInt());
+        Message decoded = BinaryCodec.decode(buffer.slice(), BinaryCodec.VERSION);
+        assertEquals(300, decoded.getRequestId());
+        assertArrayEquals(response.toParts(), decoded.toParts());
+        // 공유 인코딩과 원본 메시지에는 요청 번호가 붙지 않는다
+        byte[] plain = shared.bytes(WireFormat.BINARY, BinaryCodec.VERSION);
+        assertEquals(0, BinaryCodec.decode(ByteBuffer.wrap(plain, 4, plain.length - 4).slice(),
+                BinaryCodec.VERSION).getRequestId());
+        assertEquals(0, response.getRequestId());
+
+        String line = new String(shared.withRequestId(7).bytes(WireFormat.TEXT, 0), WireFormat.TEXT_CHARSET);
+        assertEquals("#7|" + TextCodec.format(response) + "\n", line);
+    }
+
+    @Test
+    void bytesFieldsAndTrailingBytesFrame() throws Exception {
+        byte[] data = {0, 1, '|', ':', (byte) 0xff};
+        Message chunk = Message.event("FILE_CHUNK", 9L, 128L, data);
+        byte[] frame = BinaryCodec.encode(chunk, BinaryCodec.VERSION);
+
+        // 헤더만 만들고 내용은 따로 이어 붙여도 같은 프레임
+        byte[] header = BinaryCodec.encodeWithTrailingBytes(Message.event("FILE_CHUNK", 9L, 128L),
+                BinaryCodec.VERSION, data.length);
+        byte[] joined = new byte[header.length + data.length];
+        System.arraycopy(header, 0, joined, 0, header.length);
+        System.arraycopy(data, 0, joined, header.length, data.length);
+        assertArrayEquals(frame, joined);
+
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        buffer.getInt();
+        Message decoded = BinaryCodec.decode(buffer.slice(), BinaryCodec.VERSION);
+        assertArrayEquals(data, (byte[]) decoded.get(2));
+
+        // 텍스트 프로토콜은 Base64
+        assertEquals("FILE_CHUNK:9:128:AAF8Ov8=", TextCodec.format(chunk));
+    }
+
+    @Test
+    void decoderHandlesHandshakeAndSplitFrames() throws Exception {
+        List<Message> received = new ArrayList<>();
+        int[] version = {0};
+        FrameDecoder decoder = new FrameDecoder(1024, listener(received, version));
+
+        byte[] hello = BinaryCodec.hello(BinaryCodec.VERSION);
+        byte[] frame = BinaryCodec.encode(Message.of("GET_POSTS", 5L), BinaryCodec.VERSION);
+        ByteBuffer all = ByteBuffer.allocate(hello.length + frame.length * 2);
+        all.put(hello).put(frame).put(frame).flip();
+        // 한 바이트씩 도착해도 같은 결과
+        while (all.hasRemaining()) {
+            decoder.decode(ByteBuffer.wrap(new byte[]{all.get()}));
+        }
+
+        assertEquals(WireFormat.BINARY, decoder.getFormat());
+        assertEquals(BinaryCodec.VERSION, version[0]);
+        assertEquals(2, received.size());
+        assertEquals(5L, received.get(1).get(0));
+    }
+
+    @Test
+    void decoderRejectsOversizedInput() {
+        FrameDecoder binary = new FrameDecoder(16, listener(new ArrayList<>(), new int[1]));
+        ByteBuffer frame = ByteBuffer.allocate(BinaryCodec.HELLO_LENGTH + 4);
+        frame.put(BinaryCodec.hello(BinaryCodec.VERSION)).putInt(17).flip();
+        assertThrows(ProtocolException.class, () -> binary.decode(frame));
+
+        FrameDecoder text = new FrameDecoder(16, listener(new ArrayList<>(), new int[1]));
+        byte[] line = "GET_POSTS|12345678901234567890".getBytes(StandardCharsets.UTF_8);
+        assertThrows(ProtocolException.class, () -> text.decode(ByteBuffer.wrap(line)));
+    }
+
+    private FrameDecoder.Listener listener(List<Message> received, int[] version) {
+        return new FrameDecoder.Listener() {
+            @Override
+            public void onHandshake(int negotiated) {
+                version[0] = negotiated;
+            }
+
+            @Override
+            public void onMessage(Message message) {
+                received.add(message);
+            }
+        };
+    }
+}
@@ -0,0 +1,262 @@
+package org.study.platform.repository;
+
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.study.platform.entity.Assignment;
+import org.study.platform.entity.AssignmentSubmission;
+import org.study.platform.entity.Comment;
+import org.study.platform.entity.Post;
+import org.study.platform.entity.PostReadStatus;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 자주 쓰는 조회마다 인덱스가 있을 때와 없을 때의 실행 계획과 지연을 비교하는 벤치마크 (메모리 H2, JDBC 직접 사용).
+ * 테이블마다 rows행을 넣고 인덱스 없이 측정한 뒤, 엔티티의 @Table에 선언한 것과 같은 인덱스/유일 제약을 만들고 다시 측정한다.
+ *
+ * 사용법: SchemaIndexBenchmark [rows] [runsPerQuery]
+ * (기본 100만 행 - 힙이 작으면 -Xmx2g 이상)
+ */
+public class SchemaIndexBenchmark {
+
+    private static final int ROOMS = 1_000;
+    private static final int READERS_PER_POST = 50;
+    private static final int SUBMISSIONS_PER_ASSIGNMENT = 100;
+
+    // 아래에서 만드는 테이블의 엔티티 - 인덱스/유일 제약은 이 클래스들의 @Table에서 읽는다 (손으로 옮겨 적지 않음)
+    private static final Class<?>[] ENTITIES = {
+            Post.class, Comment.class, PostReadStatus.class, Assignment.class, AssignmentSubmission.class};
+
+    // 이름, SQL (리포지토리 메서드가 만드는 조회와 같은 조건/정렬), 매개변수 생성
+    private interface Params {
+        Object[] next(Random random, int rows);
+    }
+
+    private static final class Query {
+        final String name;
+        final String sql;
+        final Params params;
+
+        Query(String name, String sql, Params params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    private static final Query[] QUERIES = {
+            new Query("findByRoomIdOrderByCreatedAtDesc (20행)",
+                    "SELECT * FROM posts WHERE room_id = ? ORDER BY created_at DESC, post_id DESC LIMIT 20",
+                    (r, rows) -> new Object[]{(long) r.nextInt(ROOMS) + 1}),
+            new Query("findByRoomIdAndPostType... (20행)",
+                    "SELECT * FROM posts WHERE room_id = ? AND post_type = ? ORDER BY created_at DESC, post_id DESC LIMIT 20",
+                    (r, rows) -> new Object[]{(long) r.nextInt(ROOMS) + 1, r.nextBoolean() ? "NOTICE" : "GENERAL"}),
+            new Query("findByPostIdOrderByCreatedAtAsc",
+                    "SELECT * FROM comments WHERE post_id = ? ORDER BY created_at ASC",
+                    (r, rows) -> new Object[]{(long) r.nextInt(rows) + 1}),
+            new Query("existsByPostIdAndUserId",
+                    "SELECT 1 FROM post_read_status WHERE post_id = ? AND user_id = ? LIMIT 1",
+                    (r, rows) -> new Object[]{(long) r.nextInt(rows / READERS_PER_POST) + 1, (long) r.nextInt(READERS_PER_POST) + 1}),
+            new Query("findByAssignmentIdAndUserId",
+                    "SELECT * FROM assignment_submissions WHERE assignment_id = ? AND user_id = ?",
+                    (r, rows) -> new Object[]{(long) r.nextInt(rows / SUBMISSIONS_PER_ASSIGNMENT) + 1,
+                            (long) r.nextInt(SUBMISSIONS_PER_ASSIGNMENT) + 1}),
+            new Query("findByPostId (assignments)",
+                    "SELECT * FROM assignments WHERE post_id = ?",
+                    (r, rows) -> new Object[]{(long) r.nextInt(rows) + 1}),
+    };
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:index-benchmark", "sa", "")) {
+            createTables(connection);
+            long loadStart = System.nanoTime();
+            load(connection, rows);
+            System.out.printf("테이블마다 %,d행 적재: %,d ms%n", rows, (System.nanoTime() - loadStart) / 1_000_000);
+
+            double[] before = new double[QUERIES.length];
+            String[] planBefore = new String[QUERIES.length];
+            for (int i = 0; i < QUERIES.length; i++) {
+                planBefore[i] = plan(connection, QUERIES[i], rows);
+                before[i] = averageMillis(connection, QUERIES[i], rows, runs);
+            }
+
+            long indexStart = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                for (String ddl : indexDdl()) {
+                    statement.execute(ddl);
+                }
+            }
+            System.out.printf("인덱스 생성: %,d ms%n%n", (System.nanoTime() - indexStart) / 1_000_000);
+
+            for (int i = 0; i < QUERIES.length; i++) {
+                String planAfter = plan(connection, QUERIES[i], rows);
+                double after = averageMillis(connection, QUERIES[i], rows, runs);
+                System.out.println("== " + QUERIES[i].name);
+                System.out.println("  전: " + planBefore[i]);
+                System.out.println("  후: " + planAfter);
+                System.out.printf("  평균 %.3f ms → %.3f ms (%.0f배)%n", before[i], after, before[i] / Math.max(after, 0.001));
+            }
+        }
+    }
+
+    // 엔티티 @Table의 uniqueConstraints / indexes를 DDL로
+    static List<String> indexDdl() {
+        List<String> ddl = new ArrayList<>();
+        for (Class<?> entity : ENTITIES) {
+            Table table = entity.getAnnotation(Table.class);
+            for (UniqueConstraint unique : table.uniqueConstraints()) {
+                ddl.add("ALTER TABLE " + table.name() + " ADD CONSTRAINT " + unique.name()
+                        + " UNIQUE (" + String.join(", ", unique.columnNames()) + ")");
+            }
+            for (Index index : table.indexes()) {
+                ddl.add((index.unique() ? "CREATE UNIQUE INDEX " : "CREATE INDEX ") + index.name()
+                        + " ON " + table.name() + "(" + index.columnList() + ")");
+            }
+        }
+        return ddl;
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE posts (post_id BIGINT PRIMARY KEY, room_id BIGINT NOT NULL, author_id BIGINT NOT NULL,"
+                    + " title VARCHAR(200) NOT NULL, content CLOB, post_type VARCHAR(20) NOT NULL, has_assignment BOOLEAN NOT NULL,"
+                    + " created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)");
+            statement.execute("CREATE TABLE comments (comment_id BIGINT PRIMARY KEY, post_id BIGINT NOT NULL,"
+                    + " author_id BIGINT NOT NULL, content CLOB NOT NULL, created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE post_read_status (read_id BIGINT PRIMARY KEY, post_id BIGINT NOT NULL,"
+                    + " user_id BIGINT NOT NULL, read_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE assignments (assignment_id BIGINT PRIMARY KEY, post_id BIGINT NOT NULL,"
+                    + " title VARCHAR(200) NOT NULL, description CLOB, due_date TIMESTAMP, created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE assignment_submissions (submission_id BIGINT PRIMARY KEY,"
+                    + " assignment_id BIGINT NOT NULL, user_id BIGINT NOT NULL, content CLOB, status VARCHAR(20) NOT NULL,"
+                    + " score INT, submitted_at TIMESTAMP NOT NULL)");
+        }
+    }
+
+    private static void load(Connection connection, int rows) throws SQLException {
+        connection.setAutoCommit(false);
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        try (PreparedStatement posts = connection.prepareStatement("INSERT INTO posts VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement comments = connection.prepareStatement("INSERT INTO comments VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement reads = connection.prepareStatement("INSERT INTO post_read_status VALUES (?, ?, ?, ?)");
+             PreparedStatement assignments = connection.prepareStatement("INSERT INTO assignments VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement submissions = connection.prepareStatement(
+                     "INSERT INTO assignment_submissions VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            Random random = new Random(42);
+            for (long id = 1; id <= rows; id++) {
+                Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(id));
+                posts.setLong(1, id);
+                posts.setLong(2, id % ROOMS + 1);
+                posts.setLong(3, id % 5_000 + 1);
+                posts.setString(4, "글 " + id);
+                posts.setString(5, "내용");
+                posts.setString(6, id % 10 == 0 ? "NOTICE" : "GENERAL");
+                posts.setBoolean(7, false);
+                posts.setTimestamp(8, createdAt);
+                posts.setTimestamp(9, createdAt);
+                posts.addBatch();
+
+                comments.setLong(1, id);
+                comments.setLong(2, random.nextInt(rows) + 1);
+                comments.setLong(3, id % 5_000 + 1);
+                comments.setString(4, "댓글");
+                comments.setTimestamp(5, createdAt);
+                comments.addBatch();
+
+                // (글, 사용자) 쌍이 겹치지 않도록
+                reads.setLong(1, id);
+                reads.setLong(2, (id - 1) / READERS_PER_POST + 1);
+                reads.setLong(3, (id - 1) % READERS_PER_POST + 1);
+                reads.setTimestamp(4, createdAt);
+                reads.addBatch();
+
+                assignments.setLong(1, id);
+                assignments.setLong(2, id);
+                assignments.setString(3, "과제");
+                assignments.setString(4, "설명");
+                assignments.setTimestamp(5, null);
+                assignments.setTimestamp(6, createdAt);
+                assignments.addBatch();
+
+                submissions.setLong(1, id);
+                submissions.setLong(2, (id - 1) / SUBMISSIONS_PER_ASSIGNMENT + 1);
+                submissions.setLong(3, (id - 1) % SUBMISSIONS_PER_ASSIGNMENT + 1);
+                submissions.setString(4, "제출");
+                submissions.setString(5, "SUBMITTED");
+                submissions.setObject(6, null);
+                submissions.setTimestamp(7, createdAt);
+                submissions.addBatch();
+
+                if (id % 10_000 == 0 || id == rows) {
+                    posts.executeBatch();
+                    comments.executeBatch();
+                    reads.executeBatch();
+                    assignments.executeBatch();
+                    submissions.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    // H2 EXPLAIN 결과에서 사용한 인덱스(또는 전체 스캔) 부분만
+    private static String plan(Connection connection, Query query, int rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql)) {
+            bind(statement, query.params.next(new Random(1), rows));
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                String plan = result.getString(1);
+                int start = plan.indexOf("/*");
+                int end = plan.indexOf("*/", start);
+                String used = start >= 0 && end > start ? plan.substring(start + 2, end) : plan;
+                return used.trim().replaceAll("\\s+", " ");
+            }
+        }
+    }
+
+    private static double averageMillis(Connection connection, Query query, int rows, int runs) throws SQLException {
+        Random random = new Random(7);
+        long total = 0;
+        try (PreparedStatement statement = connection.prepareStatement(query.sql)) {
+            // 첫 실행(준비 비용)은 빼고
+            for (int i = 0; i <= runs; i++) {
+                bind(statement, query.params.next(random, rows));
+                long start = System.nanoTime();
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        // 모든 행을 읽는다
+                    }
+                }
+                if (i > 0) {
+                    total += System.nanoTime() - start;
+                }
+            }
+        }
+        return total / (double) runs / 1_000_000;
+    }
+
+    private static void bind(PreparedStatement statement, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.study.platform.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniqueConstraintsTest {
+
+    @Test
+    void removesDuplicatesBeforeAddingMissingConstraint() {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:uniqueconstraints;DB_CLOSE_DELAY=-1"));
+        // 제약 없이 쌓인 기존 DB
+        jdbc.execute("create table post_read_status (read_id bigint primary key, post_id bigint, user_id bigint)");
+        jdbc.update("insert into post_read_status values (1, 10, 1), (2, 10, 2), (3, 10, 1), (4, 11, 1), (5, 10, 1)");
+
+        UniqueConstraints constraints = new UniqueConstraints(jdbc, null);
+        String[] columns = {"post_id", "user_id"};
+        assertEquals(List.of(3L, 5L), constraints.ensure("post_read_status", "read_id", "uk_post_read_status_post_user", columns));
+        // 먼저 저장된 행만 남는다
+        assertEquals(List.of(1L, 2L, 4L),
+                jdbc.queryForList("select read_id from post_read_status order by read_id", Long.class));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("insert into post_read_status values (6, 10, 2)"));
+
+        // 이미 있으면 아무것도 하지 않음
+        assertEquals(List.of(), constraints.ensure("post_read_status", "read_id", "uk_post_read_status_post_user", columns));
+    }
+
+    @Test
+    void keepsMostRecentlyGradedOrSubmittedSubmission() {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:uniquesubmissions;DB_CLOSE_DELAY=-1"));
+        jdbc.execute("create table assignment_submissions (submission_id bigint primary key, assignment_id bigint,"
+                + " user_id bigint, submitted_at timestamp, graded_at timestamp)");
+        // 1: 먼저 내고 나중에 채점됨, 2: 채점 전에 다시 냄 → 채점이 가장 최근인 1을 남긴다
+        // 3: 채점 안 됨, 4: 나중에 다시 냄 → 4를 남긴다
+        jdbc.update("insert into assignment_submissions values"
+                + " (1, 10, 1, timestamp '2026-03-01 09:00:00', timestamp '2026-03-05 09:00:00'),"
+                + " (2, 10, 1, timestamp '2026-03-02 09:00:00', null),"
+                + " (3, 10, 2, timestamp '2026-03-01 09:00:00', null),"
+                + " (4, 10, 2, timestamp '2026-03-03 09:00:00', null)");
+
+        UniqueConstraints constraints = new UniqueConstraints(jdbc, null);
+        assertEquals(List.of(2L, 3L), constraints.ensure("assignment_submissions", "submission_id",
+                "uk_submissions_assignment_user", new String[]{"assignment_id", "user_id"}));
+        assertEquals(List.of(1L, 4L),
+                jdbc.queryForList("select submission_id from assignment_submissions order by submission_id", Long.class));
+    }
+}
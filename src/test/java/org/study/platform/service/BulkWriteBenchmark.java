@@ -0,0 +1,77 @@
+package org.study.platform.service;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.study.platform.StudyplatformApplication;
+import org.study.platform.entity.AssignmentSubmission;
+import org.study.platform.entity.Comment;
+import org.study.platform.repository.AssignmentSubmissionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 쓰기(댓글 일괄 작성, 일괄 채점)의 초당 처리 행 수를 JDBC 배치 크기별로 비교하는 벤치마크 (메모리 H2).
+ * batch_size=1은 예전처럼 행마다 INSERT/UPDATE 한 번씩 보내는 경우, 50은 application.properties의 설정.
+ * (IDENTITY일 때는 INSERT마다 생성된 ID를 돌려받아야 해서 배치 자체가 꺼졌다 - batch_size=1과 같은 문장 수)
+ *
+ * 사용법: BulkWriteBenchmark [rows] [rowsPerTransaction]
+ */
+public class BulkWriteBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int chunk = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        for (int batchSize : new int[]{1, 50}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudyplatformApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .headless(true)
+                    .run("--spring.datasource.url=jdbc:h2:mem:bulk" + batchSize + ";DB_CLOSE_DELAY=-1",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                            "--unread.checkpoint-interval-ms=0",
+                            "--logging.level.root=WARN")) {
+                CommentService commentService = context.getBean(CommentService.class);
+                AssignmentService assignmentService = context.getBean(AssignmentService.class);
+                AssignmentSubmissionRepository submissionRepository = context.getBean(AssignmentSubmissionRepository.class);
+
+                // 1. 댓글 일괄 작성 (INSERT)
+                long start = System.nanoTime();
+                for (int offset = 0; offset < rows; offset += chunk) {
+                    List<Comment> comments = new ArrayList<>(chunk);
+                    for (int i = offset; i < Math.min(rows, offset + chunk); i++) {
+                        comments.add(new Comment((long) (i % 1_000) + 1, (long) (i % 100) + 1, "댓글 " + i));
+                    }
+                    commentService.createComments(comments);
+                }
+                double insertSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                // 2. 일괄 채점 (UPDATE) - 채점할 제출물을 먼저 넣는다
+                List<Long> submissionIds = new ArrayList<>(rows);
+                for (int offset = 0; offset < rows; offset += chunk) {
+                    List<AssignmentSubmission> submissions = new ArrayList<>(chunk);
+                    for (int i = offset; i < Math.min(rows, offset + chunk); i++) {
+                        submissions.add(new AssignmentSubmission((long) (i / 100) + 1, (long) (i % 100) + 1, "제출"));
+                    }
+                    for (AssignmentSubmission submission : submissionRepository.saveAll(submissions)) {
+                        submissionIds.add(submission.getSubmissionId());
+                    }
+                }
+                start = System.nanoTime();
+                for (int offset = 0; offset < rows; offset += chunk) {
+                    List<AssignmentService.Grade> grades = new ArrayList<>(chunk);
+                    for (int i = offset; i < Math.min(rows, offset + chunk); i++) {
+                        grades.add(new AssignmentService.Grade(submissionIds.get(i), i % 101, "확인"));
+                    }
+                    assignmentService.gradeSubmissions(grades);
+                }
+                double updateSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                System.out.printf("batch_size=%d: 댓글 INSERT %,.0f행/초, 채점 UPDATE %,.0f행/초 (%,d행, 트랜잭션당 %,d행)%n",
+                        batchSize, rows / insertSeconds, rows / updateSeconds, rows, chunk);
+            }
+        }
+    }
+}
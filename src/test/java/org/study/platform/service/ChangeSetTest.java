@@ -0,0 +1,148 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.study.platform.entity.Comment;
+import org.study.platform.entity.Post;
+import org.study.platform.repository.AssignmentRepository;
+import org.study.platform.repository.CommentRepository;
+import org.study.platform.repository.PostReadStatusRepository;
+import org.study.platform.repository.PostRepository;
+import org.study.platform.repository.RoomRepository;
+import org.study.platform.repository.TombstoneRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ChangeSetTest {
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    @Autowired
+    private PostReadStatusRepository postReadStatusRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void returnsOnlyRowsChangedOrDeletedAfterWatermark() {
+        TombstoneRetention retention = tombstoneRetention();
+        PostService postService = new PostService(postRepository, roomRepository, tombstoneRepository, retention,
+                readStatusService(), searchService(), PostFeedCache.DEFAULT_MAX_BYTES);
+        CommentService commentService = new CommentService(commentRepository, tombstoneRepository, retention, searchService());
+        Post unchanged = postRepository.save(new Post(1L, 1L, "그대로", "내용", Post.PostType.GENERAL));
+        Post edited = postRepository.save(new Post(1L, 1L, "수정 전", "내용", Post.PostType.GENERAL));
+        Post deleted = postRepository.save(new Post(1L, 1L, "삭제", "내용", Post.PostType.GENERAL));
+        commentRepository.save(new Comment(unchanged.getPostId(), 1L, "이전 댓글"));
+        Comment deletedComment = commentRepository.save(new Comment(unchanged.getPostId(), 1L, "지울 댓글"));
+        // 이미 받아 간 행은 기준 시각보다 앞에 있도록 (삭제 기록 보존 기간 안쪽)
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        entityManager.getEntityManager().createQuery("update Post p set p.createdAt = :t, p.updatedAt = :t")
+                .setParameter("t", past).executeUpdate();
+        entityManager.getEntityManager().createQuery("update Comment c set c.createdAt = :t")
+                .setParameter("t", past).executeUpdate();
+        entityManager.clear();
+        LocalDateTime since = past.plusMinutes(1);
+
+        postService.updatePost(edited.getPostId(), 1L, "수정 후", "내용");
+        postService.deletePost(deleted.getPostId(), 1L);
+        Post added = postService.createPost(1L, 1L, "새 글", "내용", Post.PostType.GENERAL);
+        commentService.deleteComment(deletedComment.getCommentId(), 1L);
+        Comment newComment = commentService.createComment(unchanged.getPostId(), 2L, "새 댓글");
+
+        ChangeSet<Post> posts = postService.findChangedSince(1L, since);
+        // 수정 시각은 flush 때 찍히므로 순서 대신 포함 여부만 확인
+        assertEquals(Set.of(edited.getPostId(), added.getPostId()), postIds(posts.getChanged()));
+        assertEquals(List.of(deleted.getPostId()), posts.getDeletedIds());
+        assertTrue(posts.getWatermark().isBefore(LocalDateTime.now()));
+
+        ChangeSet<Comment> comments = commentService.findChangedSince(unchanged.getPostId(), since);
+        assertEquals(1, comments.getChanged().size());
+        assertEquals(newComment.getCommentId(), comments.getChanged().get(0).getCommentId());
+        assertEquals(List.of(deletedComment.getCommentId()), comments.getDeletedIds());
+
+        // 기준 시각이 없으면 전체
+        assertEquals(3, postService.findChangedSince(1L, null).getChanged().size());
+        assertEquals(2, commentService.findChangedSince(unchanged.getPostId(), null).getChanged().size());
+    }
+
+    @Test
+    void sinceOlderThanRetentionGetsFullReloadAfterTombstonesArePurged() {
+        TombstoneRetention retention = tombstoneRetention();
+        PostService postService = new PostService(postRepository, roomRepository, tombstoneRepository, retention,
+                readStatusService(), searchService(), PostFeedCache.DEFAULT_MAX_BYTES);
+        Post kept = postRepository.save(new Post(1L, 1L, "남는 글", "내용", Post.PostType.GENERAL));
+        Post deleted = postRepository.save(new Post(1L, 1L, "지울 글", "내용", Post.PostType.GENERAL));
+        postService.deletePost(deleted.getPostId(), 1L);
+        Post recentlyDeleted = postRepository.save(new Post(1L, 1L, "방금 지운 글", "내용", Post.PostType.GENERAL));
+        postService.deletePost(recentlyDeleted.getPostId(), 1L);
+        // 첫 삭제는 보존 기간 밖으로
+        entityManager.getEntityManager().createQuery("update Tombstone t set t.deletedAt = :t where t.targetId = :id")
+                .setParameter("t", retention.cutoff().minusDays(1))
+                .setParameter("id", deleted.getPostId())
+                .executeUpdate();
+        assertEquals(1, retention.purge());
+
+        // 지워진 기록이 필요한 기준 시각이면 삭제 목록 대신 전체 목록
+        ChangeSet<Post> stale = postService.findChangedSince(1L, retention.cutoff().minusDays(2));
+        assertTrue(stale.isFullReload());
+        assertEquals(Set.of(kept.getPostId()), postIds(stale.getChanged()));
+        assertTrue(stale.getDeletedIds().isEmpty());
+
+        // 보존 기간 안쪽이면 변경분 그대로
+        ChangeSet<Post> recent = postService.findChangedSince(1L, LocalDateTime.now().minusHours(1));
+        assertFalse(recent.isFullReload());
+        assertEquals(List.of(recentlyDeleted.getPostId()), recent.getDeletedIds());
+    }
+
+    @Test
+    void watermarkStaysBeforeRowsThatAreNotCommittedYet() throws Exception {
+        TombstoneRetention retention = tombstoneRetention();
+        PostService postService = new PostService(postRepository, roomRepository, tombstoneRepository, retention,
+                readStatusService(), searchService(), PostFeedCache.DEFAULT_MAX_BYTES);
+        // 테스트 트랜잭션은 끝날 때까지 커밋되지 않으므로, 시각이 찍힌 뒤 오래 커밋되지 않은 글과 같다
+        Post uncommitted = postRepository.saveAndFlush(new Post(1L, 1L, "늦게 커밋되는 글", "내용", Post.PostType.GENERAL));
+        Thread.sleep(ChangeSet.OVERLAP.toMillis() * 3);
+
+        ChangeSet<Post> changes = postService.findChangedSince(1L, LocalDateTime.now().minusHours(1));
+        // 이 기준 시각으로 다음에 동기화하면 커밋된 뒤의 글을 받는다
+        assertTrue(changes.getWatermark().isBefore(uncommitted.getUpdatedAt()));
+    }
+
+    private static Set<Long> postIds(List<Post> posts) {
+        Set<Long> ids = new HashSet<>();
+        for (Post post : posts) {
+            ids.add(post.getPostId());
+        }
+        return ids;
+    }
+
+    // 읽음 기록은 바로 쓰고 검사점은 남기지 않음
+    private PostReadStatusService readStatusService() {
+        return new PostReadStatusService(postReadStatusRepository, postRepository, 0, 1, "target/unread-counters.dat", 0, "");
+    }
+
+    // 정리 주기 없음 (테스트에서 purge()를 직접 호출)
+    private TombstoneRetention tombstoneRetention() {
+        return new TombstoneRetention(tombstoneRepository, TombstoneRetention.DEFAULT_RETENTION_DAYS, 0);
+    }
+
+    // 검색 색인은 구성하지 않음 (갱신 호출은 무시됨)
+    private SearchService searchService() {
+        return new SearchService(postRepository, commentRepository, assignmentRepository, "", SearchIndex.DEFAULT_FLUSH_DOCS, "");
+    }
+}
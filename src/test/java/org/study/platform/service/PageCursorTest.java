@@ -0,0 +1,100 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Slice;
+import org.study.platform.entity.Post;
+import org.study.platform.repository.AssignmentRepository;
+import org.study.platform.repository.CommentRepository;
+import org.study.platform.repository.PostReadStatusRepository;
+import org.study.platform.repository.PostRepository;
+import org.study.platform.repository.RoomRepository;
+import org.study.platform.repository.TombstoneRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class PageCursorTest {
+
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+    @Autowired
+    private PostReadStatusRepository postReadStatusRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void cursorRoundTripKeepsNanos() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 4, 5, 6, 7, 123_456_789);
+        PageCursor cursor = PageCursor.parse(PageCursor.of(createdAt, 42L).encode());
+        assertEquals(createdAt, cursor.getCreatedAt());
+        assertEquals(42L, cursor.getId());
+        assertNull(PageCursor.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.parse("12:34"));
+    }
+
+    @Test
+    void pagesVisitEveryPostOnceEvenWithSameCreatedAt() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(postRepository.save(new Post(1L, 1L, "글" + i, "내용", Post.PostType.GENERAL)).getPostId());
+        }
+        postRepository.save(new Post(2L, 1L, "다른 방", "내용", Post.PostType.GENERAL));
+        // 작성 시각이 같은 글이 페이지 경계에 걸쳐도 ID로 순서가 정해져야 함
+        entityManager.getEntityManager()
+                .createQuery("update Post p set p.createdAt = :createdAt where p.postId in :ids")
+                .setParameter("createdAt", LocalDateTime.of(2026, 1, 1, 0, 0))
+                .setParameter("ids", ids.subList(1, 6))
+                .executeUpdate();
+        entityManager.clear();
+
+        // 최신순: 시각을 바꾸지 않은 마지막/첫 글, 그다음 같은 시각의 글들은 ID 역순
+        List<Long> expected = List.of(ids.get(6), ids.get(0), ids.get(5), ids.get(4), ids.get(3), ids.get(2), ids.get(1));
+        // 글 목록 캐시에서 자른 페이지와, 캐시 한도를 넘어 DB에서 읽은 페이지가 같아야 함
+        assertEquals(expected, visitAllPages(new PostService(postRepository, roomRepository, tombstoneRepository, tombstoneRetention(), readStatusService(), searchService(), PostFeedCache.DEFAULT_MAX_BYTES)));
+        assertEquals(expected, visitAllPages(new PostService(postRepository, roomRepository, tombstoneRepository, tombstoneRetention(), readStatusService(), searchService(), 0)));
+    }
+
+    private static List<Long> visitAllPages(PostService postService) {
+        List<Long> visited = new ArrayList<>();
+        PageCursor cursor = null;
+        int pages = 0;
+        do {
+            Slice<PostSummary> page = postService.findPageByRoomId(1L, cursor, 3);
+            page.forEach(post -> visited.add(post.getPostId()));
+            cursor = PageCursor.parse(PageCursor.next(page, PostSummary::getCreatedAt, PostSummary::getPostId));
+            pages++;
+        } while (cursor != null);
+        assertEquals(3, pages);
+        return visited;
+    }
+
+    // 읽음 기록은 바로 쓰고 검사점은 남기지 않음
+    private PostReadStatusService readStatusService() {
+        return new PostReadStatusService(postReadStatusRepository, postRepository, 0, 1, "target/unread-counters.dat", 0, "");
+    }
+
+    // 정리 주기 없음
+    private TombstoneRetention tombstoneRetention() {
+        return new TombstoneRetention(tombstoneRepository, TombstoneRetention.DEFAULT_RETENTION_DAYS, 0);
+    }
+
+    // 검색 색인은 구성하지 않음 (갱신 호출은 무시됨)
+    private SearchService searchService() {
+        return new SearchService(postRepository, commentRepository, assignmentRepository, "", SearchIndex.DEFAULT_FLUSH_DOCS, "");
+    }
+}
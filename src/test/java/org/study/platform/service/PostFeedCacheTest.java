@@ -0,0 +1,83 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.study.platform.entity.Post;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostFeedCacheTest {
+
+    private final Map<Long, List<PostSummary>> db = new HashMap<>();
+    private int loads;
+
+    private List<PostSummary> load(Long roomId) {
+        loads++;
+        return new ArrayList<>(db.getOrDefault(roomId, List.of()));
+    }
+
+    @Test
+    void writesPatchCachedFeedWithoutReloading() {
+        PostFeedCache cache = new PostFeedCache(PostFeedCache.DEFAULT_MAX_BYTES, this::load);
+        db.put(1L, new ArrayList<>(List.of(post(1L, 1L, 0), post(2L, 1L, 1))));
+
+        assertEquals(List.of(2L, 1L), ids(cache.get(1L)));
+        cache.put(post(3L, 1L, 2));
+        cache.put(post(4L, 1L, 1)); // 같은 시각이면 ID 역순
+        cache.remove(1L, 1L);
+        cache.put(post(2L, 1L, 1));
+
+        assertEquals(List.of(3L, 4L, 2L), ids(cache.get(1L)));
+        assertEquals(1, loads);
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void evictsLeastRecentlyReadRoomOverBudget() {
+        db.put(1L, List.of(post(1L, 1L, 0)));
+        db.put(2L, List.of(post(2L, 2L, 0)));
+        db.put(3L, List.of(post(3L, 3L, 0)));
+        // 방 두 개만 들어가는 크기
+        PostFeedCache cache = new PostFeedCache(2 * (120 + 2 * "제목".length()), this::load);
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+
+        assertEquals(2, cache.getRoomCount());
+        assertEquals(1, cache.getEvictions());
+        cache.get(1L);
+        assertEquals(3, loads); // 1은 남아 있음
+        cache.get(2L);
+        assertEquals(4, loads); // 2가 나갔었음
+    }
+
+    @Test
+    void roomLargerThanBudgetIsNotCached() {
+        db.put(1L, List.of(post(1L, 1L, 0), post(2L, 1L, 1)));
+        PostFeedCache cache = new PostFeedCache(200, this::load);
+
+        assertEquals(2, cache.get(1L).size());
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.getRoomCount());
+    }
+
+    private static PostSummary post(Long postId, Long roomId, int minute) {
+        return new PostSummary(postId, roomId, 1L, "제목", Post.PostType.GENERAL, false,
+                LocalDateTime.of(2026, 1, 1, 0, minute));
+    }
+
+    private static List<Long> ids(List<PostSummary> posts) {
+        List<Long> ids = new ArrayList<>();
+        for (PostSummary post : posts) {
+            ids.add(post.getPostId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,84 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.study.platform.entity.PostReadStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReceiptWriterTest {
+
+    @Test
+    void receiptsAreWrittenInBatchesBySizeAndTime() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        CountDownLatch written = new CountDownLatch(250);
+        // 100개가 모이면 바로, 나머지는 200ms 뒤
+        ReadReceiptWriter writer = new ReadReceiptWriter(100, 200, batch -> {
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                written.countDown();
+            }
+        });
+        try {
+            for (long userId = 1; userId <= 250; userId++) {
+                writer.submit(new PostReadStatus(1L, userId));
+            }
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+            // 진행 중인 flush가 집계까지 끝나도록
+            writer.close();
+            synchronized (batchSizes) {
+                // 한 건씩이 아니라 묶음으로 (flush 시점에 따라 나뉘는 위치는 다를 수 있음)
+                assertTrue(batchSizes.size() <= 5, batchSizes.toString());
+                for (int size : batchSizes) {
+                    assertTrue(size <= 100);
+                }
+            }
+            assertEquals(0, writer.getPendingCount());
+            assertEquals(250, writer.getWrittenCount());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void failedBatchStaysPendingUntilNextFlush() {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        List<PostReadStatus> saved = new ArrayList<>();
+        // 주기 flush가 끼어들지 않도록 길게
+        ReadReceiptWriter writer = new ReadReceiptWriter(10, 60_000, batch -> {
+            if (fail.get()) {
+                // 시퀀스에서 ID를 받은 뒤 실패
+                for (PostReadStatus receipt : batch) {
+                    receipt.setReadId(100 + receipt.getUserId());
+                }
+                throw new IllegalStateException("DB 연결 끊김");
+            }
+            saved.addAll(batch);
+        });
+        try {
+            writer.submit(new PostReadStatus(1L, 1L));
+            writer.submit(new PostReadStatus(1L, 2L));
+            writer.flush();
+            assertEquals(2, writer.getPendingCount());
+            assertEquals(1, writer.getFailedBatchCount());
+
+            fail.set(false);
+            writer.flush();
+            assertEquals(0, writer.getPendingCount());
+            assertEquals(2, saved.size());
+            assertEquals(1L, saved.get(0).getUserId());
+            // 다시 저장할 때는 새 행으로
+            assertNull(saved.get(0).getReadId());
+            assertNull(saved.get(1).getReadId());
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadStatusIndexTest {
+
+    @Test
+    void deletedPostsAndRoomsReleaseTheirBitmaps() {
+        ReadStatusIndex index = new ReadStatusIndex(sink -> {
+            sink.accept(1L, 10L);
+            sink.accept(1L, 11L);
+            sink.accept(2L, 10L);
+            sink.accept(3L, 12L);
+        });
+        index.load();
+        assertEquals(3, index.getPostCount());
+
+        // 글 삭제는 읽었던 사용자를 돌려준다 (안 읽은 수 정리용)
+        assertArrayEquals(new long[]{10L, 11L}, index.remove(1L));
+        assertEquals(0, index.count(1L));
+        assertArrayEquals(new long[0], index.remove(1L));
+
+        index.removeAll(List.of(2L, 3L));
+        assertEquals(0, index.getPostCount());
+        assertFalse(index.contains(2L, 10L));
+    }
+}
@@ -0,0 +1,72 @@
+package org.study.platform.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 검색 색인 벤치마크: 글 N개(한글 제목/본문, 방 rooms개에 고르게)를 색인한 뒤 방 안 검색 지연 시간을 잰다.
+ * 색인 구성 시간, 세그먼트 파일 저장/다시 열기 시간도 함께 출력한다 (DB 없이 SearchIndex만).
+ *
+ * 사용법: SearchBenchmark [posts] [rooms] [queries]
+ */
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "스터디", "알고리즘", "자료구조", "과제", "제출", "마감", "일정", "모임", "발표", "자바", "스프링", "데이터베이스",
+            "네트워크", "운영체제", "시험", "정리", "질문", "답변", "코드", "리뷰", "프로젝트", "회의", "공지", "변경",
+            "java", "spring", "sql", "index", "thread", "socket", "test", "build"};
+    private static final String[] PARTICLES = {"", "는", "를", "가", "에", "의", "와", "도"};
+    private static final String[] QUERIES = {"스터디", "알고리즘 과제", "자바 스프링", "데이터베이스 index", "마감 일정", "리뷰"};
+
+    public static void main(String[] args) throws Exception {
+        int posts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rooms = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        Random random = new Random(42);
+        Path dir = Files.createTempDirectory("search-bench");
+
+        SearchIndex index = new SearchIndex(dir, SearchIndex.DEFAULT_FLUSH_DOCS);
+        long start = System.nanoTime();
+        for (int id = 1; id <= posts; id++) {
+            index.add(SearchIndex.Type.POST, id, 1 + random.nextInt(rooms), id, sentence(random, 4), sentence(random, 40));
+        }
+        index.flush();
+        System.out.printf("색인 구성: 글 %,d개 %.1f초 - %s%n", posts, (System.nanoTime() - start) / 1e9, index);
+
+        long[] fingerprint = {posts};
+        start = System.nanoTime();
+        index.close(fingerprint);
+        System.out.printf("파일 저장: %.1f초%n", (System.nanoTime() - start) / 1e9);
+        index = new SearchIndex(dir, SearchIndex.DEFAULT_FLUSH_DOCS);
+        start = System.nanoTime();
+        index.open(fingerprint);
+        System.out.printf("파일에서 열기: %.1f초 - %s%n", (System.nanoTime() - start) / 1e9, index);
+
+        // 워밍업
+        for (int i = 0; i < queries; i++) {
+            index.search(1 + random.nextInt(rooms), QUERIES[i % QUERIES.length], SearchService.DEFAULT_LIMIT);
+        }
+        long[] latencies = new long[queries];
+        long hits = 0;
+        for (int i = 0; i < queries; i++) {
+            long begin = System.nanoTime();
+            hits += index.search(1 + random.nextInt(rooms), QUERIES[i % QUERIES.length], SearchService.DEFAULT_LIMIT).size();
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("방 안 검색 %,d회: 평균 결과 %.1f개, p50 %.3fms, p99 %.3fms, 최대 %.3fms%n", queries,
+                (double) hits / queries, latencies[queries / 2] / 1e6, latencies[queries * 99 / 100] / 1e6,
+                latencies[queries - 1] / 1e6);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            text.append(word).append(PARTICLES[random.nextInt(PARTICLES.length)]).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    @Test
+    void tokenizesKoreanAsOverlappingBigrams() {
+        assertEquals(List.of("스터", "터디", "디가", "java", "2", "글"), SearchTokenizer.tokenize("스터디가 Java-2 글!"));
+    }
+
+    @Test
+    void findsKoreanWordsWithParticlesWithinRoomRankedByTitle() {
+        SearchIndex index = new SearchIndex(null, 2);
+        index.add(SearchIndex.Type.POST, 1, 10, 1, "모임 안내", "이번 주 스터디는 쉽니다");
+        index.add(SearchIndex.Type.POST, 2, 10, 2, "스터디 일정", "다음 주 월요일");
+        index.add(SearchIndex.Type.COMMENT, 3, 10, 1, null, "스터디를 언제 다시 하나요?");
+        // 다른 방
+        index.add(SearchIndex.Type.POST, 4, 20, 4, "스터디 일정", "다른 방");
+
+        List<SearchIndex.Hit> hits = index.search(10, "스터디", 10);
+        assertEquals(3, hits.size());
+        // 제목에 있는 글이 먼저
+        assertEquals(2, hits.get(0).getPostId());
+        for (SearchIndex.Hit hit : hits) {
+            assertEquals(10, hit.getRoomId());
+        }
+        // 모든 단어를 가진 문서만
+        assertEquals(1, index.search(10, "스터디 월요일", 10).size());
+        assertTrue(index.search(10, "없는단어", 10).isEmpty());
+    }
+
+    @Test
+    void updatesAndDeletesAcrossSegmentsAndMerges() {
+        SearchIndex index = new SearchIndex(null, 3);
+        for (long id = 1; id <= 100; id++) {
+            index.add(SearchIndex.Type.POST, id, id % 2, id, "알고리즘 " + id, "본문");
+        }
+        assertTrue(index.getMergeCount() > 0);
+        assertEquals(50, index.search(1, "알고리즘", 100).size());
+
+        // 수정: 예전 내용으로는 더 이상 찾지 못한다
+        index.add(SearchIndex.Type.POST, 3, 1, 3, "자료구조", "본문");
+        index.add(SearchIndex.Type.COMMENT, 1000, 1, 3, null, "알고리즘 질문");
+        assertEquals(List.of(3L), postIds(index.search(1, "자료구조", 10)));
+        assertEquals(50, index.search(1, "알고리즘", 100).size());
+
+        // 글 삭제는 댓글까지
+        index.removePost(1, 3);
+        assertTrue(index.search(1, "자료구조", 10).isEmpty());
+        assertEquals(49, index.search(1, "알고리즘", 100).size());
+
+        index.removeRoom(0);
+        assertTrue(index.search(0, "알고리즘", 100).isEmpty());
+        assertEquals(49, index.getDocumentCount());
+    }
+
+    @Test
+    void reopensSegmentsOnlyAfterCleanCloseWithSameFingerprint(@TempDir Path dir) throws Exception {
+        long[] fingerprint = {3, 3, 0, 0, 0, 0};
+        SearchIndex index = new SearchIndex(dir, 2);
+        index.add(SearchIndex.Type.POST, 1, 10, 1, "자바 스터디", "");
+        index.add(SearchIndex.Type.POST, 2, 10, 2, "자바 과제", "");
+        index.add(SearchIndex.Type.POST, 3, 10, 3, "파이썬 스터디", "");
+        index.remove(SearchIndex.Type.POST, 2, 10, 2);
+        index.close(fingerprint);
+
+        SearchIndex restored = new SearchIndex(dir, 2);
+        // DB가 그사이 바뀌었으면 쓰지 않는다 (목록도 지워짐)
+        assertFalse(restored.open(new long[]{4, 4, 0, 0, 0, 0}));
+        assertFalse(restored.open(fingerprint));
+
+        index.close(fingerprint);
+        assertTrue(restored.open(fingerprint));
+        assertEquals(2, restored.getDocumentCount());
+        assertEquals(List.of(1L), postIds(restored.search(10, "자바", 10)));
+        // 열린 뒤에는 목록이 없으므로 비정상 종료하면 다음에는 다시 만든다
+        assertFalse(new SearchIndex(dir, 2).open(fingerprint));
+    }
+
+    private static List<Long> postIds(List<SearchIndex.Hit> hits) {
+        List<Long> ids = new ArrayList<>();
+        for (SearchIndex.Hit hit : hits) {
+            ids.add(hit.getPostId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,55 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnreadCountersTest {
+
+    @Test
+    void countsFollowPostsReadsAndDeletes() {
+        UnreadCounters counters = new UnreadCounters();
+        counters.postCreated(1L);
+        counters.postCreated(1L);
+        counters.postCreated(2L);
+        counters.postRead(10L, 1L);
+
+        assertEquals(Map.of(1L, 1, 2L, 1), counters.unreadByRoom(10L));
+        // 아무것도 읽지 않은 사용자
+        assertEquals(2, counters.unread(20L, 1L));
+
+        // 10번이 읽은 글이 지워지면 10번의 안 읽은 수는 그대로, 20번은 하나 줄어든다
+        counters.postDeleted(1L, new long[]{10L});
+        assertEquals(1, counters.unread(10L, 1L));
+        assertEquals(1, counters.unread(20L, 1L));
+
+        counters.roomDeleted(2L);
+        assertEquals(Map.of(1L, 1), counters.unreadByRoom(10L));
+    }
+
+    @Test
+    void checkpointIsUsedOnlyWhenFingerprintMatches(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("unread.dat");
+        UnreadCounters counters = new UnreadCounters();
+        counters.postCreated(1L);
+        counters.postCreated(1L);
+        counters.postRead(10L, 1L);
+        long[] fingerprint = {2, 2, 1, 1};
+        assertTrue(counters.writeCheckpoint(file, fingerprint, counters.getVersion()));
+        // 지문을 구한 뒤 값이 바뀌었으면 쓰지 않는다
+        assertFalse(counters.writeCheckpoint(file, fingerprint, counters.getVersion() - 1));
+
+        UnreadCounters restored = new UnreadCounters();
+        // DB가 그사이 바뀌었으면 버린다
+        assertFalse(restored.readCheckpoint(file, new long[]{3, 3, 1, 1}));
+        assertEquals(Map.of(), restored.unreadByRoom(10L));
+
+        assertTrue(restored.readCheckpoint(file, fingerprint));
+        assertEquals(Map.of(1L, 1), restored.unreadByRoom(10L));
+        assertEquals(2, restored.unread(20L, 1L));
+    }
+}
@@ -0,0 +1,58 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    @Test
+    void evictsEntriesNotReadSinceLastSweep() {
+        UserCache cache = new UserCache(2);
+        cache.put(1L, "a", cache.stamp());
+        cache.put(2L, "b", cache.stamp());
+        // 1은 조회되었으므로 한 바퀴 더 남고 2가 나간다
+        assertEquals("a", cache.get(1L));
+        cache.put(3L, "c", cache.stamp());
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("c", cache.get(3L));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void loadStartedBeforeInvalidateIsNotCached() {
+        UserCache cache = new UserCache(10);
+        cache.put(1L, "old", cache.stamp());
+
+        // DB에서 읽는 중에 닉네임이 바뀌면 읽은 값(이전 닉네임)은 넣지 않는다
+        long stamp = cache.stamp();
+        cache.invalidate(1L);
+        cache.put(1L, "old", stamp);
+        assertNull(cache.get(1L));
+
+        cache.put(1L, "new", cache.stamp());
+        assertEquals("new", cache.get(1L));
+    }
+
+    @Test
+    void reinsertedEntryIsNotEvictedThroughItsOldClockSlot() {
+        UserCache cache = new UserCache(2);
+        cache.put(1L, "a", cache.stamp());
+        cache.put(2L, "b", cache.stamp());
+        cache.invalidate(1L);
+        cache.put(1L, "a2", cache.stamp());
+
+        // 1의 이전 자리는 건너뛰고, 먼저 들어온 2가 나간다
+        cache.put(3L, "c", cache.stamp());
+        assertEquals(2, cache.size());
+        assertEquals("a2", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("c", cache.get(3L));
+        assertEquals(1, cache.getEvictions());
+    }
+}
@@ -0,0 +1,58 @@
+package org.study.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdBitmapTest {
+
+    @Test
+    void matchesSetAcrossArrayAndBitmapContainers() {
+        UserIdBitmap bitmap = new UserIdBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+        // 첫 키는 4096개를 넘겨 비트맵 컨테이너로, 나머지는 드문드문 (배열 컨테이너)
+        for (int i = 0; i < 6000; i++) {
+            long userId = random.nextInt(20_000);
+            assertEquals(expected.add(userId), bitmap.add(userId));
+        }
+        for (int i = 0; i < 300; i++) {
+            long userId = random.nextInt(1 << 24);
+            assertEquals(expected.add(userId), bitmap.add(userId));
+        }
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        long[] actual = bitmap.toArray();
+        int i = 0;
+        for (Long userId : expected) {
+            assertEquals(userId, actual[i++]);
+        }
+        assertTrue(bitmap.contains(expected.first()));
+        assertFalse(bitmap.contains(1L << 30));
+        // 값당 8바이트(long) 배열보다 작아야 함
+        assertTrue(bitmap.bytes() < expected.size() * 8L, "bytes=" + bitmap.bytes());
+    }
+
+    @Test
+    void indexMergesWritesThatArriveWhileLoading() {
+        ReadStatusIndex[] holder = new ReadStatusIndex[1];
+        ReadStatusIndex index = new ReadStatusIndex(sink -> {
+            sink.accept(1L, 10L);
+            // 테이블을 읽는 중에 커밋된 읽음 처리
+            holder[0].add(1L, 11L);
+            sink.accept(1L, 11L);
+            sink.accept(2L, 10L);
+        });
+        holder[0] = index;
+
+        assertEquals(2, index.count(1L));
+        assertArrayEquals(new long[]{10L, 11L}, index.readers(1L));
+        assertTrue(index.contains(2L, 10L));
+        assertFalse(index.contains(2L, 11L));
+        assertEquals(0, index.count(3L));
+        assertEquals(0, index.readers(3L).length);
+    }
+}
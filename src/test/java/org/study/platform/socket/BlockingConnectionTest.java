@@ -0,0 +1,68 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.study.platform.protocol.WireFormat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 블로킹 모드 서버에 실제 연결을 열어 확인한다: 잘못된 프레임을 받으면 대기 중이던 응답과 ERROR를 모두 보낸 뒤 연결을 닫는지.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:blockingloopback;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "unread.checkpoint-file=",
+        "search.index-dir=",
+        "socket.server.io-mode=blocking",
+        "socket.server.port=0",
+        "socket.protocol.max-frame-bytes=4096"
+})
+class BlockingConnectionTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    private SocketServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new SocketServer(context);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void oversizedFrameGetsQueuedRepliesAndErrorThenClose() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getLocalPort())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), WireFormat.TEXT_CHARSET));
+
+            // 정상 명령 뒤에 max-frame-bytes보다 긴 한 줄을 한 번에 보낸다 - 앞의 응답이 아직 대기열에 있을 때 오류가 난다
+            String pipeline = "GET_ROOMS\nGET_USER|1\nCHAT|" + "x".repeat(6000);
+            out.write(pipeline.getBytes(WireFormat.TEXT_CHARSET));
+            out.flush();
+
+            assertTrue(in.readLine().startsWith("GET_ROOMS_RESPONSE|"));
+            assertTrue(in.readLine().startsWith("GET_USER_RESPONSE|"));
+            String error = in.readLine();
+            assertNotNull(error, "ERROR 응답 없이 연결이 닫힘");
+            assertTrue(error.startsWith("ERROR"), error);
+            assertNull(in.readLine());
+        }
+    }
+}
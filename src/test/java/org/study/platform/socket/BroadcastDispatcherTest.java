@@ -0,0 +1,128 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BroadcastDispatcherTest {
+
+    @Test
+    void keepsPerRoomOrderWhileLanesAreRemovedConcurrently() throws Exception {
+        int rooms = 8;
+        int perRoom = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        BroadcastDispatcher dispatcher = new BroadcastDispatcher(executor);
+        List<List<Integer>> delivered = new ArrayList<>();
+        for (int room = 0; room < rooms; room++) {
+            delivered.add(new ArrayList<>());
+        }
+        CountDownLatch done = new CountDownLatch(rooms * perRoom);
+        AtomicBoolean submitting = new AtomicBoolean(true);
+        // 넣는 동안 계속 lane을 지운다 - 지워진 lane에 넣거나 같은 방 lane이 둘 생기면 순서가 섞인다
+        Thread remover = new Thread(() -> {
+            while (submitting.get()) {
+                for (long room = 0; room < rooms; room++) {
+                    dispatcher.removeLane(room);
+                }
+            }
+        });
+        remover.start();
+        try {
+            for (int seq = 0; seq < perRoom; seq++) {
+                for (int room = 0; room < rooms; room++) {
+                    List<Integer> target = delivered.get(room);
+                    int value = seq;
+                    dispatcher.submit((long) room, () -> {
+                        // lane 안에서는 한 번에 하나씩만 실행되므로 동기화 없이 기록
+                        target.add(value);
+                        done.countDown();
+                        return 1;
+                    });
+                }
+            }
+            submitting.set(false);
+            remover.join();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            submitting.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        for (List<Integer> sequence : delivered) {
+            assertEquals(perRoom, sequence.size());
+            for (int i = 0; i < perRoom; i++) {
+                assertEquals(i, sequence.get(i));
+            }
+        }
+        assertEquals(rooms * perRoom, dispatcher.getBroadcastCount());
+    }
+
+    @Test
+    void laneWithPendingWorkIsDroppedOnceDrained() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BroadcastDispatcher dispatcher = new BroadcastDispatcher(executor);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        try {
+            dispatcher.submit(7L, () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finished.countDown();
+                return 1;
+            });
+            dispatcher.submit(7L, () -> {
+                finished.countDown();
+                return 1;
+            });
+            // 실행 중 · 대기 작업이 있으면 남겨 둔다
+            dispatcher.removeLane(7L);
+            assertEquals(1, dispatcher.getLaneCount());
+
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        // 남은 작업을 다 실행한 뒤에 제거됨
+        assertEquals(0, dispatcher.getLaneCount());
+        assertEquals(2, dispatcher.getBroadcastCount());
+    }
+
+    @Test
+    void recordsRecipientAndLatencyMetrics() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BroadcastDispatcher dispatcher = new BroadcastDispatcher(executor);
+        CountDownLatch delivered = new CountDownLatch(3);
+        try {
+            for (int recipients : new int[]{2, 5, 8}) {
+                dispatcher.submit(BroadcastDispatcher.GLOBAL_LANE, () -> {
+                    delivered.countDown();
+                    return recipients;
+                });
+            }
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(3, dispatcher.getBroadcastCount());
+        assertEquals(5.0, dispatcher.getAverageRecipients(), 1e-9);
+        assertEquals(8, dispatcher.getMaxRecipients());
+        assertTrue(dispatcher.getAverageLatencyMillis() > 0);
+        assertTrue(dispatcher.getMaxLatencyMillis() >= dispatcher.getAverageLatencyMillis());
+    }
+}
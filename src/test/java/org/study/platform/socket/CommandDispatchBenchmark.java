@@ -0,0 +1,98 @@
+package org.study.platform.socket;
+
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.TextCodec;
+
+import static org.study.platform.socket.CommandRegistry.*;
+
+/**
+ * 명령 한 줄을 해석해서 처리 함수까지 전달하는 비용을 비교하는 벤치마크 (DB, 네트워크 제외).
+ * - switch: 예전 방식 (정규식 split → 문자열 switch → 처리 함수에서 Long.parseLong)
+ * - registry: TextCodec.parse → CommandRegistry (인자 정의에 따라 한 번에 변환, 명령별 통계 포함)
+ *
+ * 사용법: CommandDispatchBenchmark [iterations]
+ */
+public class CommandDispatchBenchmark {
+
+    private static final String[] LINES = {
+            "GET_POSTS|12",
+            "GET_POST_DETAIL|345",
+            "CREATE_COMMENT|345|댓글 내용입니다",
+            "GRADE_SUBMISSION|88|95|잘했습니다",
+            "JOIN_ROOM|12",
+            "GET_READ_STATUS|345",
+    };
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        CommandRegistry<Object> registry = new CommandRegistry<>(target -> true);
+        registry.register("GET_POSTS", (t, a) -> sink += a.getLong(0), longArg("roomId"));
+        registry.register("GET_POST_DETAIL", (t, a) -> sink += a.getLong(0), longArg("postId"));
+        registry.register("CREATE_COMMENT", (t, a) -> sink += a.getLong(0) + a.getString(1).length(),
+                longArg("postId"), stringArg("content")).requiresLogin();
+        registry.register("GRADE_SUBMISSION", (t, a) -> sink += a.getLong(0) + a.getInt(1),
+                longArg("submissionId"), intArg("score").optional(), stringArg("feedback"));
+        registry.register("JOIN_ROOM", (t, a) -> sink += a.getLong(0), longArg("roomId")).requiresLogin();
+        registry.register("GET_READ_STATUS", (t, a) -> sink += a.getLong(0), longArg("postId"));
+        Object target = new Object();
+
+        // 워밍업
+        for (int round = 0; round < 3; round++) {
+            runSwitch(iterations / 4);
+            runRegistry(registry, target, iterations / 4);
+        }
+
+        long start = System.nanoTime();
+        runSwitch(iterations);
+        double switchNanos = (double) (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        runRegistry(registry, target, iterations);
+        double registryNanos = (double) (System.nanoTime() - start) / iterations;
+
+        System.out.printf("명령 %d건%n", iterations);
+        System.out.printf("switch   : %.1f ns/명령%n", switchNanos);
+        System.out.printf("registry : %.1f ns/명령 (명령별 통계 포함)%n", registryNanos);
+        System.out.println(registry);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void runSwitch(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            String[] parts = LINES[i % LINES.length].split("\\|");
+            switch (parts[0]) {
+                case "GET_POSTS":
+                case "GET_POST_DETAIL":
+                case "JOIN_ROOM":
+                case "GET_READ_STATUS":
+                    if (parts.length < 2) break;
+                    sink += Long.parseLong(parts[1]);
+                    break;
+                case "CREATE_COMMENT":
+                    if (parts.length < 3) break;
+                    sink += Long.parseLong(parts[1]) + parts[2].length();
+                    break;
+                case "GRADE_SUBMISSION":
+                    if (parts.length < 4) break;
+                    sink += Long.parseLong(parts[1]) + (parts[2].isEmpty() ? 0 : Integer.parseInt(parts[2]));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void runRegistry(CommandRegistry<Object> registry, Object target, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            Message message = TextCodec.parse(LINES[i % LINES.length]);
+            try {
+                registry.invoke(registry.find(message.getCommand()), target, message);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+import org.study.platform.entity.Post;
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.TextCodec;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.study.platform.socket.CommandRegistry.*;
+
+class CommandRegistryTest {
+
+    // 테스트용 연결: 로그인 여부와 받은 인자만 기록
+    private static class Target {
+        boolean loggedIn;
+        final List<CommandArgs> received = new ArrayList<>();
+    }
+
+    private static CommandRegistry<Target> registry() {
+        CommandRegistry<Target> registry = new CommandRegistry<>(t -> t.loggedIn);
+        registry.register("CREATE_POST", (t, args) -> t.received.add(args), longArg("roomId"),
+                stringArg("title"), stringArg("content"), enumArg("postType", Post.PostType.class)).requiresLogin();
+        registry.register("GRADE_SUBMISSION", (t, args) -> t.received.add(args), longArg("submissionId"),
+                intArg("score").optional(), stringArg("feedback"));
+        registry.register("CREATE_ASSIGNMENT", (t, args) -> t.received.add(args), longArg("postId"),
+                stringArg("title"), stringArg("description"), dateTimeArg("dueDate").optional());
+        registry.register("GET_POSTS", (t, args) -> {
+            throw new IllegalStateException("db down");
+        }, longArg("roomId"));
+        return registry;
+    }
+
+    private static void invoke(CommandRegistry<Target> registry, Target target, String line) throws Exception {
+        Message message = TextCodec.parse(line);
+        registry.invoke(registry.find(message.getCommand()), target, message);
+    }
+
+    private static String invalidReason(CommandRegistry<Target> registry, Target target, String line) {
+        InvalidCommandException e = assertThrows(InvalidCommandException.class, () -> invoke(registry, target, line));
+        return e.getMessage();
+    }
+
+    @Test
+    void convertsArgumentsByDeclaredType() throws Exception {
+        CommandRegistry<Target> registry = registry();
+        Target target = new Target();
+        target.loggedIn = true;
+
+        invoke(registry, target, "CREATE_POST|3|제목|내용|NOTICE");
+        CommandArgs args = target.received.get(0);
+        assertEquals(3L, args.getLong(0));
+        assertEquals("내용", args.getString(2));
+        assertEquals(Post.PostType.NOTICE, args.<Post.PostType>getEnum(3));
+
+        // 빈 선택 인자는 null, 빈 필수 문자열은 그대로 허용
+        invoke(registry, target, "GRADE_SUBMISSION|7||");
+        assertNull(target.received.get(1).getInt(1));
+        assertEquals("", target.received.get(1).getString(2));
+
+        // 바이너리 프레임처럼 이미 타입이 있는 필드도 그대로 사용
+        LocalDateTime due = LocalDateTime.of(2026, 10, 1, 9, 0);
+        registry.invoke(registry.find("CREATE_ASSIGNMENT"), target, Message.of("CREATE_ASSIGNMENT", 5L, "t", "d", due));
+        assertEquals(due, target.received.get(2).getDateTime(3));
+    }
+
+    @Test
+    void reportsWhichArgumentIsWrong() {
+        CommandRegistry<Target> registry = registry();
+        Target target = new Target();
+
+        assertEquals("로그인이 필요합니다", invalidReason(registry, target, "CREATE_POST|3|t|c|NOTICE"));
+        target.loggedIn = true;
+        assertEquals("roomId 값은 숫자여야 합니다", invalidReason(registry, target, "CREATE_POST|x|t|c|NOTICE"));
+        assertEquals("postType 값이 없습니다", invalidReason(registry, target, "CREATE_POST|3|t|c"));
+        assertTrue(invalidReason(registry, target, "CREATE_POST|3|t|c|OTHER").startsWith("postType"));
+        assertEquals("dueDate 값은 날짜(yyyy-MM-ddTHH:mm:ss)여야 합니다",
+                invalidReason(registry, target, "CREATE_ASSIGNMENT|1|t|d|tomorrow"));
+        // 바이너리 프레임에서 타입이 다른 필드도 인자 타입에 맞는 안내
+        InvalidCommandException e = assertThrows(InvalidCommandException.class, () -> registry.invoke(
+                registry.find("CREATE_ASSIGNMENT"), target, Message.of("CREATE_ASSIGNMENT", 5L, "t", "d", 7L)));
+        assertEquals("dueDate 값은 날짜(yyyy-MM-ddTHH:mm:ss)여야 합니다", e.getMessage());
+        assertTrue(target.received.isEmpty());
+
+        CommandRegistry.Command<Target> command = registry.find("CREATE_POST");
+        assertEquals(4, command.getCalls());
+        assertEquals(4, command.getFailures());
+        assertEquals("CREATE_POST_RESPONSE|ERROR|입력 오류&#58; roomId 값은 숫자여야 합니다",
+                TextCodec.format(command.errorReply("roomId 값은 숫자여야 합니다")));
+    }
+
+    @Test
+    void countsHandlerFailures() {
+        CommandRegistry<Target> registry = registry();
+        assertThrows(IllegalStateException.class, () -> invoke(registry, new Target(), "GET_POSTS|1"));
+        assertEquals(1, registry.find("GET_POSTS").getFailures());
+        assertNull(registry.find("CHAT"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("NOT_A_COMMAND", (t, args) -> {}));
+    }
+}
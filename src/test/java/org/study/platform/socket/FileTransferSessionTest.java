@@ -0,0 +1,99 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.study.platform.protocol.BinaryCodec;
+import org.study.platform.protocol.Message;
+import org.study.platform.service.FileStorageService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileTransferSessionTest {
+
+    @TempDir
+    Path storageDir;
+
+    private final List<FileRegion> sent = new ArrayList<>();
+
+    // 조각 4바이트, 확인 없이 2조각까지
+    private FileTransferSession session(FileStorageService storage) {
+        return new FileTransferSession(storage, sent::add, 4, 2, 100);
+    }
+
+    @Test
+    void uploadAcceptsChunksInOrderOnly() throws Exception {
+        FileStorageService storage = new FileStorageService(null, null, storageDir.toString());
+        FileTransferSession session = session(storage);
+        byte[] content = "hello file".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> session.beginUpload("big.bin", 101, null));
+
+        long uploadId = session.beginUpload("a.txt", content.length, null);
+        assertEquals(4, session.writeChunk(uploadId, 0, slice(content, 0, 4)));
+        // 건너뛴 조각 - 업로드 취소
+        assertThrows(IllegalArgumentException.class, () -> session.writeChunk(uploadId, 8, slice(content, 8, 2)));
+        assertEquals(0, session.getOpenTransfers());
+
+        long retryId = session.beginUpload("a.txt", content.length, null);
+        session.writeChunk(retryId, 0, slice(content, 0, 4));
+        session.writeChunk(retryId, 4, slice(content, 4, 6));
+        FileTransferSession.Upload upload = session.finishUpload(retryId);
+        String key = storage.commit(upload.tempFile);
+
+        assertTrue(storage.exists(key));
+        assertArrayEquals(content, Files.readAllBytes(storage.resolve(key)));
+        assertFalse(storage.exists("../" + key));
+        assertThrows(IllegalArgumentException.class, () -> storage.resolve("/etc/passwd"));
+    }
+
+    @Test
+    void downloadSendsOnlyWindowAheadOfAcks() throws Exception {
+        FileStorageService storage = new FileStorageService(null, null, storageDir.toString());
+        FileTransferSession session = session(storage);
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        Path file = storageDir.resolve("source.bin");
+        Files.write(file, content);
+
+        assertEquals(10, session.beginDownload(7, file, BinaryCodec.VERSION));
+        session.acknowledge(7, 0);
+        assertEquals(2, sent.size());
+
+        session.acknowledge(7, 4);
+        assertEquals(3, sent.size());
+        // 마지막 조각까지 확인받기 전에는 열어 둔다
+        session.acknowledge(7, 8);
+        assertEquals(3, sent.size());
+        assertEquals(1, session.getOpenTransfers());
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        for (FileRegion region : sent) {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            region.copyTo(frame);
+            ByteBuffer buffer = ByteBuffer.wrap(frame.toByteArray());
+            assertEquals(buffer.remaining() - 4, buffer.getInt());
+            Message chunk = BinaryCodec.decode(buffer.slice(), BinaryCodec.VERSION);
+            assertEquals("FILE_CHUNK", chunk.getCommand());
+            assertEquals(7L, chunk.get(0));
+            assertEquals((long) received.size(), chunk.get(1));
+            received.write((byte[]) chunk.get(2));
+        }
+        assertArrayEquals(content, received.toByteArray());
+
+        session.acknowledge(7, 10);
+        assertEquals(0, session.getOpenTransfers());
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int length) {
+        byte[] part = new byte[length];
+        System.arraycopy(bytes, from, part, 0, length);
+        return part;
+    }
+}
@@ -0,0 +1,139 @@
+package org.study.platform.socket;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.study.platform.entity.*;
+import org.study.platform.protocol.TextCodec;
+import org.study.platform.protocol.WireFormat;
+import org.study.platform.repository.*;
+
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 목록 명령 하나가 보내는 SQL 문 수를 센다 - 행 수가 늘어도 일정해야 한다 (작성자 이름을 행마다 조회하지 않음).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listquerycount;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "unread.checkpoint-file=",
+        "search.index-dir=",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.study.platform.socket.ListQueryCountTest$CountingInspector"
+})
+class ListQueryCountTest {
+
+    private static final int ROWS = 12;
+
+    // Hibernate가 이름으로 생성하므로 public + 기본 생성자
+    public static class CountingInspector implements StatementInspector {
+        static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.incrementAndGet();
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private PostReadStatusRepository postReadStatusRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    private ScheduledExecutorService timer;
+    private ClientHandler handler;
+    private Long roomId;
+    private Long postId;
+    private Long assignmentId;
+
+    @BeforeEach
+    void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+        // 연결하지 않은 소켓: 응답은 송신 대기열에 남는다
+        handler = new ClientHandler(new Socket(), new ConnectionManager(Runnable::run, timer, 100), context,
+                Runnable::run);
+
+        Long ownerId = userRepository.save(new User("owner" + System.nanoTime(), "pw", "author-owner")).getUserId();
+        roomId = roomRepository.save(new Room("N+1 확인", ownerId)).getRoomId();
+        Long firstPostId = null;
+        for (int i = 0; i < ROWS; i++) {
+            Long authorId = userRepository.save(new User("count" + System.nanoTime() + i, "pw", "author" + i)).getUserId();
+            roomRepository.save(new Room("방" + i, authorId));
+            Post post = postRepository.save(new Post(roomId, authorId, "글" + i, "내용",
+                    i % 2 == 0 ? Post.PostType.NOTICE : Post.PostType.GENERAL));
+            if (firstPostId == null) {
+                firstPostId = post.getPostId();
+                assignmentId = assignmentRepository.save(new Assignment(firstPostId, "과제", "설명", null)).getAssignmentId();
+            }
+            commentRepository.save(new Comment(firstPostId, authorId, "댓글" + i));
+            postReadStatusRepository.save(new PostReadStatus(firstPostId, authorId));
+            submissionRepository.save(new AssignmentSubmission(assignmentId, authorId, "제출" + i));
+        }
+        postId = firstPostId;
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void listCommandsResolveNicknamesInOneQuery() {
+        // 목록 조회 1회 + 닉네임 조회 1회
+        assertConstantQueries("GET_ROOMS", ROWS + 1);
+        // 방 목록은 처음 한 번만 DB에서 읽는다
+        assertConstantQueries("GET_ROOMS", ROWS + 1, 0);
+        assertConstantQueries("GET_POSTS|" + roomId, ROWS);
+        assertConstantQueries("GET_POSTS|" + roomId + "|5", 5);
+        assertConstantQueries("GET_NOTICES|" + roomId, ROWS / 2);
+        assertConstantQueries("GET_GENERAL_POSTS|" + roomId, ROWS / 2);
+        // 글 목록과 닉네임이 모두 캐시에 있으면 DB를 읽지 않는다
+        assertConstantQueries("GET_GENERAL_POSTS|" + roomId + "|3", 3, 0);
+        assertConstantQueries("GET_COMMENTS|" + postId, ROWS);
+        assertConstantQueries("GET_READ_STATUS|" + postId, ROWS);
+        // 읽은 사람은 메모리 색인, 닉네임은 캐시에서
+        assertConstantQueries("GET_READ_STATUS|" + postId, ROWS, 0);
+        assertConstantQueries("GET_SUBMISSIONS|" + assignmentId, ROWS);
+    }
+
+    private void assertConstantQueries(String command, int expectedRows) {
+        assertConstantQueries(command, expectedRows, 2);
+    }
+
+    private void assertConstantQueries(String command, int expectedRows, int maxStatements) {
+        CountingInspector.COUNT.set(0);
+        handler.handleMessage(TextCodec.parse(command));
+        int statements = CountingInspector.COUNT.get();
+
+        List<byte[]> sent = handler.getOutboundQueue().drain(Integer.MAX_VALUE);
+        assertEquals(1, sent.size(), command);
+        String response = new String(sent.get(0), WireFormat.TEXT_CHARSET);
+        assertTrue(response.startsWith(command.split("\\|")[0] + "_RESPONSE|SUCCESS"), response);
+        // 모든 행에 작성자 닉네임이 채워져야 함
+        assertEquals(expectedRows, response.split("author", -1).length - 1, response);
+        assertTrue(statements <= maxStatements, command + ": SQL " + statements + "회");
+    }
+}
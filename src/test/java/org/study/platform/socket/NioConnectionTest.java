@@ -0,0 +1,118 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.study.platform.protocol.WireFormat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NIO 모드 서버에 실제 연결을 열어 확인한다: 응답을 기다리지 않고 연달아 보낸 명령의 응답이 연결마다 보낸 순서대로 오는지
+ * (처리 대기 명령이 많아 읽기를 멈췄다 다시 읽는 경우 포함), 잘못된 프레임에는 ERROR를 보낸 뒤 연결을 닫는지.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nioloopback;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "unread.checkpoint-file=",
+        "search.index-dir=",
+        "socket.server.io-mode=nio",
+        "socket.server.port=0",
+        "socket.server.nio.workers=4",
+        "socket.protocol.max-frame-bytes=4096"
+})
+class NioConnectionTest {
+
+    // 응답 이름으로 구분되는 조회 명령들 (로그인 불필요)
+    private static final String[] COMMANDS = {"GET_ROOMS", "GET_USER|1", "GET_POST_DETAIL|1", "GET_COMMENTS|1", "GET_FILES|1"};
+
+    @Autowired
+    private ApplicationContext context;
+
+    private SocketServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new SocketServer(context);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void pipelinedCommandsAreAnsweredInOrderOnEveryConnection() throws Exception {
+        int connections = 4;
+        // 한 번에 읽히는 명령이 대기 한도를 넘도록
+        int requests = NioConnection.INBOUND_HIGH_WATER * 4;
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<List<String>>> replies = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                replies.add(pool.submit(() -> {
+                    try (Socket socket = new Socket("localhost", server.getLocalPort())) {
+                        socket.setSoTimeout(10_000);
+                        StringBuilder pipeline = new StringBuilder();
+                        for (int r = 0; r < requests; r++) {
+                            pipeline.append(COMMANDS[r % COMMANDS.length]).append('\n');
+                        }
+                        OutputStream out = socket.getOutputStream();
+                        out.write(pipeline.toString().getBytes(WireFormat.TEXT_CHARSET));
+                        out.flush();
+                        BufferedReader in = new BufferedReader(
+                                new InputStreamReader(socket.getInputStream(), WireFormat.TEXT_CHARSET));
+                        List<String> lines = new ArrayList<>();
+                        for (int r = 0; r < requests; r++) {
+                            lines.add(in.readLine());
+                        }
+                        return lines;
+                    }
+                }));
+            }
+            for (Future<List<String>> reply : replies) {
+                List<String> lines = reply.get(30, TimeUnit.SECONDS);
+                for (int r = 0; r < requests; r++) {
+                    String expected = COMMANDS[r % COMMANDS.length].split("\\|")[0] + "_RESPONSE|";
+                    assertNotNull(lines.get(r), "응답 " + r + " 없음");
+                    assertTrue(lines.get(r).startsWith(expected), r + "번째 응답: " + lines.get(r));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void oversizedFrameGetsErrorThenClose() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getLocalPort())) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), WireFormat.TEXT_CHARSET));
+            out.write("GET_ROOMS\n".getBytes(WireFormat.TEXT_CHARSET));
+            out.flush();
+            assertTrue(in.readLine().startsWith("GET_ROOMS_RESPONSE|"));
+
+            // max-frame-bytes보다 긴 한 줄
+            out.write("CHAT|".concat("x".repeat(8192)).getBytes(WireFormat.TEXT_CHARSET));
+            out.flush();
+            assertTrue(in.readLine().startsWith("ERROR"));
+            assertNull(in.readLine());
+        }
+    }
+}
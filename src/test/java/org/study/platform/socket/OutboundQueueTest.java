@@ -0,0 +1,58 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+import org.study.platform.protocol.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundQueueTest {
+
+    private static OutboundQueue.OfferResult offer(OutboundQueue queue, Message message) {
+        return queue.offer(message, message.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void collapsesSnapshotEventsOverHighWater() {
+        OutboundQueue queue = new OutboundQueue(2, OutboundQueue.Policy.COLLAPSE);
+        assertEquals(OutboundQueue.OfferResult.QUEUED, offer(queue, Message.event("ROOM_USERLIST", 1L, "a")));
+        assertEquals(OutboundQueue.OfferResult.QUEUED, offer(queue, Message.event("NEW_POST", 1L, 2L)));
+
+        assertEquals(OutboundQueue.OfferResult.COLLAPSED, offer(queue, Message.event("ROOM_USERLIST", 1L, "b")));
+        assertEquals(OutboundQueue.OfferResult.DROPPED, offer(queue, Message.event("ROOM_USERLIST", 2L, "c")));
+        assertEquals(OutboundQueue.OfferResult.DROPPED, offer(queue, Message.event("NEW_POST", 1L, 3L)));
+        // 응답은 버리지 않음
+        assertEquals(OutboundQueue.OfferResult.QUEUED, offer(queue, Message.of("GET_POSTS_RESPONSE", "SUCCESS")));
+
+        List<byte[]> batch = queue.drain(Integer.MAX_VALUE);
+        assertEquals(3, batch.size());
+        assertEquals("ROOM_USERLIST:1:b", new String(batch.get(0), StandardCharsets.UTF_8));
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(1, queue.getCollapsedCount());
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void overflowsWhenPolicyIsDisconnectOrResponsesPileUp() {
+        OutboundQueue disconnect = new OutboundQueue(1, OutboundQueue.Policy.DISCONNECT);
+        offer(disconnect, Message.event("POST_UPDATE", 1L));
+        assertEquals(OutboundQueue.OfferResult.OVERFLOW, offer(disconnect, Message.event("POST_UPDATE", 2L)));
+
+        OutboundQueue drop = new OutboundQueue(1, OutboundQueue.Policy.DROP);
+        offer(drop, Message.of("GET_ROOMS_RESPONSE", "SUCCESS"));
+        offer(drop, Message.of("GET_ROOMS_RESPONSE", "SUCCESS"));
+        assertEquals(OutboundQueue.OfferResult.OVERFLOW, offer(drop, Message.of("GET_ROOMS_RESPONSE", "SUCCESS")));
+    }
+
+    @Test
+    void drainRespectsBatchSizeButTakesAtLeastOne() {
+        OutboundQueue queue = new OutboundQueue(10, OutboundQueue.Policy.DROP);
+        queue.offerRaw(new byte[100]);
+        queue.offerRaw(new byte[10]);
+        assertEquals(1, queue.drain(50).size());
+        assertEquals(1, queue.drain(50).size());
+        assertTrue(queue.drain(50).isEmpty());
+    }
+}
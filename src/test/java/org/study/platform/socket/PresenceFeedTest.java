@@ -0,0 +1,68 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+import org.study.platform.client.PresenceRoster;
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.TextCodec;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresenceFeedTest {
+
+    private static void applySnapshot(PresenceRoster roster, Message snapshot) {
+        String[] parts = TextCodec.format(snapshot).split(":", 4);
+        roster.applySnapshot(Long.parseLong(parts[2]), parts[3]);
+    }
+
+    private static boolean applyDelta(PresenceRoster roster, Message delta) {
+        String[] parts = TextCodec.format(delta).split(":", 5);
+        return roster.applyDelta(Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4]);
+    }
+
+    @Test
+    void batchesChangesAndKeepsLastStatePerUser() {
+        PresenceFeed feed = new PresenceFeed("ROOM_USERLIST", "ROOM_PRESENCE", 7L);
+        assertTrue(feed.join(1, "kim"));
+        // 이미 예약된 묶음에 합쳐짐
+        assertFalse(feed.join(2, "lee"));
+        assertFalse(feed.leave(1));
+        assertFalse(feed.join(2, "lee"));
+
+        Message delta = feed.takeDelta();
+        assertEquals("ROOM_PRESENCE:7:0:3:2:lee:true,1:kim:false", TextCodec.format(delta));
+        assertNull(feed.takeDelta());
+        assertEquals("ROOM_USERLIST:7:3:2:lee", TextCodec.format(feed.snapshot()));
+
+        assertTrue(feed.leave(2));
+        feed.takeDelta();
+        assertTrue(feed.isIdle());
+    }
+
+    @Test
+    void rosterFollowsDeltasAndDetectsGaps() {
+        PresenceFeed feed = new PresenceFeed("ROOM_USERLIST", "ROOM_PRESENCE", 7L);
+        PresenceRoster roster = new PresenceRoster();
+        feed.join(1, "kim");
+        Message early = feed.takeDelta();
+        // 스냅샷 전의 변경은 무시
+        assertTrue(applyDelta(roster, early));
+        assertEquals(List.of(), roster.getNicknames());
+
+        applySnapshot(roster, feed.snapshot());
+        feed.join(2, "a:b");
+        assertTrue(applyDelta(roster, feed.takeDelta()));
+        assertEquals(List.of("kim", "a:b"), roster.getNicknames());
+
+        // 변경 하나를 놓치면 다시 스냅샷 필요
+        feed.leave(1);
+        feed.takeDelta();
+        feed.join(3, "park");
+        assertFalse(applyDelta(roster, feed.takeDelta()));
+
+        applySnapshot(roster, feed.snapshot());
+        assertEquals(List.of("a:b", "park"), roster.getNicknames());
+        assertEquals(4, roster.getVersion());
+    }
+}
@@ -0,0 +1,63 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresenceIndexTest {
+
+    @Test
+    void removeUserLeavesOnlyJoinedRoomsAndReclaimsEmptyRooms() {
+        PresenceIndex index = new PresenceIndex();
+        index.join(1, 10);
+        index.join(2, 10);
+        index.join(2, 20);
+        index.join(3, 20);
+
+        long[] rooms = index.removeUser(10);
+        Arrays.sort(rooms);
+        assertArrayEquals(new long[]{1, 2}, rooms);
+        assertArrayEquals(new long[0], index.members(1));
+        assertArrayEquals(new long[]{20}, index.members(2));
+        // 비게 된 방 1은 정리됨
+        assertEquals(2, index.getRoomCount());
+
+        assertTrue(index.leave(3, 20));
+        assertFalse(index.leave(3, 20));
+        assertArrayEquals(new long[]{2}, index.roomsOf(20));
+
+        assertArrayEquals(new long[]{20}, index.removeRoom(2));
+        assertArrayEquals(new long[0], index.roomsOf(20));
+        assertEquals(0, index.getRoomCount());
+    }
+
+    @Test
+    void longHashSetMatchesHashSet() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            // 좁은 범위로 충돌과 삭제 후 재삽입을 자주 일으킨다 (0 포함)
+            long value = random.nextInt(300) - 10;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (long value = -10; value < 290; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        long[] values = set.toArray();
+        assertEquals(expected.size(), values.length);
+        for (long value : values) {
+            assertTrue(expected.contains(value));
+        }
+    }
+}
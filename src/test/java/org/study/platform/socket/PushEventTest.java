@@ -0,0 +1,76 @@
+package org.study.platform.socket;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.study.platform.client.CommentEvent;
+import org.study.platform.client.PostEvent;
+import org.study.platform.entity.Comment;
+import org.study.platform.entity.Post;
+import org.study.platform.protocol.BinaryCodec;
+import org.study.platform.protocol.Message;
+import org.study.platform.protocol.ProtocolException;
+import org.study.platform.protocol.TextCodec;
+import org.study.platform.service.PostSummary;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 알림만으로 목록 행/댓글을 만들 수 있어야 한다 (구분자가 든 제목, ':'가 든 작성일 포함).
+ */
+class PushEventTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 4, 5, 6, 7, 123_000_000);
+
+    // 클라이언트는 바이너리로 받은 알림도 텍스트 형식으로 바꿔서 해석한다
+    private static String overBinary(Message message) throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.wrap(BinaryCodec.encode(message, BinaryCodec.VERSION));
+        buffer.getInt();
+        return TextCodec.format(BinaryCodec.decode(buffer.slice(), BinaryCodec.VERSION));
+    }
+
+    @Test
+    void newPostCarriesWholeRow() throws Exception {
+        Post post = new Post(3L, 9L, "a:b|c", "내용", Post.PostType.NOTICE);
+        ReflectionTestUtils.setField(post, "postId", 42L);
+        ReflectionTestUtils.setField(post, "createdAt", CREATED_AT);
+        post.setHasAssignment(true);
+        Message event = ConnectionManager.postEvent("NEW_POST", PostSummary.of(post), "kim:lee");
+
+        for (String line : new String[]{TextCodec.format(event), overBinary(event)}) {
+            assertTrue(line.startsWith("NEW_POST:3:42:"), line);
+            PostEvent parsed = PostEvent.parse(line);
+            assertEquals(3L, parsed.getRoomId());
+            assertEquals(42L, parsed.getPostId());
+            assertEquals("a:b|c", parsed.getTitle());
+            assertEquals("kim:lee", parsed.getAuthorName());
+            assertTrue(parsed.isNotice());
+            assertEquals(9L, parsed.getAuthorId());
+            assertTrue(parsed.hasAssignment());
+            assertEquals(CREATED_AT.toString(), parsed.getCreatedAt());
+        }
+        // 구버전 서버 형식이면 null (목록을 다시 받음)
+        assertNull(PostEvent.parse("NEW_POST:3:42:제목:kim:NOTICE"));
+    }
+
+    @Test
+    void newCommentCarriesWholeComment() throws Exception {
+        Comment comment = new Comment(42L, 9L, "줄1\n줄2: 끝");
+        ReflectionTestUtils.setField(comment, "commentId", 7L);
+        ReflectionTestUtils.setField(comment, "createdAt", CREATED_AT);
+        Message event = ConnectionManager.commentEvent(comment, "kim");
+
+        for (String line : new String[]{TextCodec.format(event), overBinary(event)}) {
+            CommentEvent parsed = CommentEvent.parse(line);
+            assertEquals(42L, parsed.getPostId());
+            assertEquals(7L, parsed.getCommentId());
+            assertEquals("kim", parsed.getAuthorName());
+            assertEquals("줄1\n줄2: 끝", parsed.getContent());
+            assertEquals(9L, parsed.getAuthorId());
+            assertEquals(CREATED_AT.toString(), parsed.getCreatedAt());
+        }
+        assertNull(CommentEvent.parse("NEW_COMMENT:42:7:kim:내용"));
+    }
+}
@@ -0,0 +1,90 @@
+package org.study.platform.socket;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 실행 중인 소켓 서버에 부하를 주는 간단한 벤치마크.
+ * 서버를 socket.server.executor=platform / virtual 로 각각 띄운 뒤 실행해서 결과를 비교한다.
+ *
+ * 사용법: SocketServerBenchmark [host] [port] [connections] [requestsPerConnection]
+ */
+public class SocketServerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        List<Socket> sockets = new ArrayList<>();
+        long[] latencies = new long[connections * requests];
+        AtomicInteger latencyIndex = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        // 1. 연결 수립 속도
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            sockets.add(new Socket(host, port));
+        }
+        double connectSeconds = (System.nanoTime() - connectStart) / 1_000_000_000.0;
+
+        // 2. 모든 연결에서 동시에 요청/응답 왕복 시간 측정
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(connections, 200));
+        CountDownLatch done = new CountDownLatch(connections);
+        long requestStart = System.nanoTime();
+        for (Socket socket : sockets) {
+            pool.execute(() -> {
+                try {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                    PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                    for (int r = 0; r < requests; r++) {
+                        long start = System.nanoTime();
+                        out.println("GET_ROOMS");
+                        String line = in.readLine();
+                        if (line == null || !line.startsWith("GET_ROOMS_RESPONSE")) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[latencyIndex.getAndIncrement()] = System.nanoTime() - start;
+                    }
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double requestSeconds = (System.nanoTime() - requestStart) / 1_000_000_000.0;
+        pool.shutdown();
+
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+
+        int count = latencyIndex.get();
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        System.out.printf("연결 수: %d, 연결/초: %.1f%n", connections, connections / connectSeconds);
+        System.out.printf("요청 수: %d, 요청/초: %.1f, 실패: %d%n", count, count / requestSeconds, failures.get());
+        System.out.printf("지연 p50: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                percentile(sorted, 50), percentile(sorted, 99), count > 0 ? sorted[count - 1] / 1_000_000.0 : 0);
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}